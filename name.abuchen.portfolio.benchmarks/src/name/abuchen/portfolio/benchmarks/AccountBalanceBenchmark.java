@@ -0,0 +1,55 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.snapshot.AccountSnapshot;
+
+/**
+ * Daily balances of all accounts as used by the balance chart of the account
+ * list. Compares scanning all transactions per day with the date index of the
+ * account.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccountBalanceBenchmark
+{
+    @Benchmark
+    public long dailyBalancesByScan(ClientState state)
+    {
+        long total = 0;
+        for (Account account : state.client.getAccounts())
+        {
+            for (LocalDate date = state.period.getStartDate(); !date.isAfter(state.period.getEndDate()); date = date
+                            .plusDays(1))
+            {
+                for (AccountTransaction t : account.getTransactions())
+                {
+                    if (!t.getDate().isAfter(date))
+                        total += t.getType().isDebit() ? -t.getAmount() : t.getAmount();
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long dailyBalancesByIndex(ClientState state)
+    {
+        long total = 0;
+        for (Account account : state.client.getAccounts())
+        {
+            for (LocalDate date = state.period.getStartDate(); !date.isAfter(state.period.getEndDate()); date = date
+                            .plusDays(1))
+                total += AccountSnapshot.create(account, state.converter, date).getUnconvertedFunds().getAmount();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,50 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.Checker;
+import name.abuchen.portfolio.checks.Issue;
+
+/**
+ * Consistency checks of a generated client: each check iterating the
+ * transactions on its own versus one scan of the transactions shared by all
+ * checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CheckerBenchmark
+{
+    private final List<Check> checks = new ArrayList<>();
+
+    public CheckerBenchmark()
+    {
+        ServiceLoader.load(Check.class).forEach(checks::add);
+    }
+
+    @Benchmark
+    public List<Issue> checkOneByOne(ClientState state)
+    {
+        List<Issue> issues = new ArrayList<>();
+        for (Check check : checks)
+            issues.addAll(check.execute(state.client));
+        return issues;
+    }
+
+    @Benchmark
+    public List<Issue> checkWithSharedScan(ClientState state)
+    {
+        return Checker.runAll(state.client);
+    }
+}
@@ -0,0 +1,81 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.ClientFactory;
+
+/**
+ * Loading and saving of the client in the supported file formats. The
+ * snapshot is the part of saving which blocks the UI thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ClientFactoryBenchmark
+{
+    /**
+     * File extension which determines the file format. Encrypted files
+     * (*.portfolio) use AES128 and a fixed password.
+     */
+    @Param({ "xml", "portfolio", "pbin" })
+    public String format;
+
+    private static final char[] PASSWORD = "benchmark".toCharArray(); //$NON-NLS-1$
+
+    private File directory;
+    private File file;
+    private File target;
+
+    @Setup(Level.Trial)
+    public void setup(ClientState state) throws IOException
+    {
+        directory = Files.createTempDirectory("benchmark").toFile(); //$NON-NLS-1$
+        file = new File(directory, "client." + format); //$NON-NLS-1$
+        target = new File(directory, "target." + format); //$NON-NLS-1$
+
+        ClientFactory.save(state.client, file, null, PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        file.delete();
+        target.delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public Client load() throws IOException
+    {
+        return ClientFactory.load(file, PASSWORD, new NullProgressMonitor());
+    }
+
+    @Benchmark
+    public File save(ClientState state) throws IOException
+    {
+        ClientFactory.save(state.client, target, null, PASSWORD);
+        return target;
+    }
+
+    @Benchmark
+    public ClientFactory.Snapshot snapshot(ClientState state) throws IOException
+    {
+        return ClientFactory.snapshot(state.client, target, null, PASSWORD);
+    }
+}
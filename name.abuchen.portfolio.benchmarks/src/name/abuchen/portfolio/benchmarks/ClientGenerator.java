@@ -0,0 +1,290 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.BuySellEntry;
+import name.abuchen.portfolio.model.Classification;
+import name.abuchen.portfolio.model.Classification.Assignment;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.SecurityPrice;
+import name.abuchen.portfolio.model.Taxonomy;
+import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.money.CurrencyUnit;
+import name.abuchen.portfolio.money.Money;
+import name.abuchen.portfolio.money.Values;
+
+/**
+ * Generates synthetic, but reproducible clients for the benchmarks. The same
+ * seed and settings always produce the same client.
+ * <p/>
+ * Securities are distributed over the currencies. For each currency there is
+ * one deposit account which is used to buy, sell and receive dividends of
+ * the securities in that currency, i.e. transactions do not need forex units.
+ * The base currency of the client is EUR and the exchange rates are the ones
+ * built into the application.
+ */
+public class ClientGenerator
+{
+    /**
+     * Currencies used by the generator. All of them have exchange rates built
+     * into the application.
+     */
+    @SuppressWarnings("nls")
+    private static final String[] CURRENCIES = { CurrencyUnit.EUR, "USD", "CHF", "GBP", "JPY" };
+
+    /**
+     * The last day of generated data. Fixed in order to make benchmark results
+     * comparable between runs.
+     */
+    public static final LocalDate END_DATE = LocalDate.of(2017, 6, 30);
+
+    private final Random random;
+
+    private int numberOfSecurities = 50;
+    private int numberOfYears = 10;
+    private int numberOfTransactions = 2000;
+    private int numberOfCurrencies = 2;
+    private int numberOfTaxonomies = 3;
+
+    public ClientGenerator(long seed)
+    {
+        this.random = new Random(seed);
+    }
+
+    public ClientGenerator securities(int count)
+    {
+        this.numberOfSecurities = count;
+        return this;
+    }
+
+    public ClientGenerator years(int count)
+    {
+        this.numberOfYears = count;
+        return this;
+    }
+
+    public ClientGenerator transactions(int count)
+    {
+        this.numberOfTransactions = count;
+        return this;
+    }
+
+    public ClientGenerator currencies(int count)
+    {
+        if (count < 1 || count > CURRENCIES.length)
+            throw new IllegalArgumentException(String.valueOf(count));
+        this.numberOfCurrencies = count;
+        return this;
+    }
+
+    public ClientGenerator taxonomies(int count)
+    {
+        this.numberOfTaxonomies = count;
+        return this;
+    }
+
+    public LocalDate getStartDate()
+    {
+        return END_DATE.minusYears(numberOfYears);
+    }
+
+    @SuppressWarnings("nls")
+    public Client generate()
+    {
+        Client client = new Client();
+        client.setBaseCurrency(CurrencyUnit.EUR);
+
+        List<LocalDate> tradingDays = tradingDays(getStartDate(), END_DATE);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int ii = 0; ii < numberOfCurrencies; ii++)
+        {
+            Account account = new Account("Account " + CURRENCIES[ii]);
+            account.setCurrencyCode(CURRENCIES[ii]);
+            client.addAccount(account);
+            accounts.add(account);
+        }
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("Portfolio");
+        portfolio.setReferenceAccount(accounts.get(0));
+        client.addPortfolio(portfolio);
+
+        for (int ii = 0; ii < numberOfSecurities; ii++)
+        {
+            Security security = new Security("Security " + ii, CURRENCIES[ii % numberOfCurrencies]);
+            security.setIsin(String.format("XX%010d", ii));
+            security.addAllPrices(prices(tradingDays));
+            client.addSecurity(security);
+        }
+
+        if (!client.getSecurities().isEmpty())
+            generateTransactions(client, portfolio, accounts, tradingDays);
+
+        for (int ii = 0; ii < numberOfTaxonomies; ii++)
+            client.addTaxonomy(taxonomy(client, "Taxonomy " + ii));
+
+        return client;
+    }
+
+    private List<LocalDate> tradingDays(LocalDate start, LocalDate end)
+    {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1))
+        {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY)
+                days.add(date);
+        }
+        return days;
+    }
+
+    private List<SecurityPrice> prices(List<LocalDate> tradingDays)
+    {
+        List<SecurityPrice> prices = new ArrayList<>(tradingDays.size());
+
+        // geometric random walk starting between 10 and 200
+        double price = 10 + random.nextDouble() * 190;
+        for (LocalDate date : tradingDays)
+        {
+            price *= 1 + random.nextGaussian() * 0.015;
+            price = Math.max(price, 0.01);
+            prices.add(new SecurityPrice(date, Math.round(price * Values.Quote.factor())));
+        }
+
+        return prices;
+    }
+
+    private void generateTransactions(Client client, Portfolio portfolio, List<Account> accounts,
+                    List<LocalDate> tradingDays)
+    {
+        List<Security> securities = client.getSecurities();
+        long[] holdings = new long[securities.size()];
+
+        // pick the dates up front and sort them so that sales never exceed
+        // the holdings at that date
+        List<LocalDate> dates = new ArrayList<>(numberOfTransactions);
+        for (int ii = 0; ii < numberOfTransactions; ii++)
+            dates.add(tradingDays.get(random.nextInt(tradingDays.size())));
+        dates.sort(null);
+
+        for (LocalDate date : dates)
+        {
+            int index = random.nextInt(securities.size());
+            Security security = securities.get(index);
+            Account account = accounts.get(index % accounts.size());
+
+            long price = security.getSecurityPriceValue(date);
+            int action = random.nextInt(10);
+
+            if (action < 6 || holdings[index] == 0)
+            {
+                long shares = (1 + random.nextInt(100)) * Values.Share.factor();
+                long amount = Math.round(shares * price / Values.Share.divider() / Values.Quote.dividerToMoney());
+
+                deposit(account, date, amount);
+                buySell(portfolio, account, security, PortfolioTransaction.Type.BUY, date, shares, amount);
+                holdings[index] += shares;
+            }
+            else if (action < 8)
+            {
+                long shares = Math.max(holdings[index] / 2, 1);
+                long amount = Math.round(shares * price / Values.Share.divider() / Values.Quote.dividerToMoney());
+
+                buySell(portfolio, account, security, PortfolioTransaction.Type.SELL, date, shares, amount);
+                holdings[index] -= shares;
+            }
+            else
+            {
+                long amount = Math.max(1, holdings[index] * price / Values.Share.factor()
+                                / Values.Quote.factorToMoney() / 50);
+
+                AccountTransaction dividend = new AccountTransaction(date, account.getCurrencyCode(), amount,
+                                security, AccountTransaction.Type.DIVIDENDS);
+                dividend.setShares(holdings[index]);
+                dividend.addUnit(new Transaction.Unit(Transaction.Unit.Type.TAX,
+                                Money.of(account.getCurrencyCode(), amount / 4)));
+                account.addTransaction(dividend);
+            }
+        }
+    }
+
+    private void deposit(Account account, LocalDate date, long amount)
+    {
+        account.addTransaction(new AccountTransaction(date, account.getCurrencyCode(), amount, null,
+                        AccountTransaction.Type.DEPOSIT));
+    }
+
+    private void buySell(Portfolio portfolio, Account account, Security security, PortfolioTransaction.Type type,
+                    LocalDate date, long shares, long amount)
+    {
+        long fee = Math.min(amount, 995);
+
+        BuySellEntry entry = new BuySellEntry(portfolio, account);
+        entry.setType(type);
+        entry.setDate(date);
+        entry.setSecurity(security);
+        entry.setShares(shares);
+        entry.setMonetaryAmount(Money.of(account.getCurrencyCode(),
+                        type == PortfolioTransaction.Type.BUY ? amount + fee : amount - fee));
+        entry.getPortfolioTransaction().addUnit(
+                        new Transaction.Unit(Transaction.Unit.Type.FEE, Money.of(account.getCurrencyCode(), fee)));
+        entry.insert();
+    }
+
+    @SuppressWarnings("nls")
+    private Taxonomy taxonomy(Client client, String name)
+    {
+        Taxonomy taxonomy = new Taxonomy(name);
+        Classification root = new Classification(taxonomy.getId(), name);
+        taxonomy.setRootNode(root);
+
+        // two levels with up to five classifications each
+        List<Classification> leafs = new ArrayList<>();
+        for (int ii = 0; ii < 5; ii++)
+        {
+            Classification node = new Classification(root, name + "-" + ii, "Category " + ii);
+            root.addChild(node);
+
+            for (int jj = 0; jj < 5; jj++)
+            {
+                Classification leaf = new Classification(node, name + "-" + ii + "-" + jj, "Category " + ii + "." + jj);
+                node.addChild(leaf);
+                leafs.add(leaf);
+            }
+        }
+
+        // some securities are split between two classifications
+        for (Security security : client.getSecurities())
+        {
+            Classification first = leafs.get(random.nextInt(leafs.size()));
+            Classification second = leafs.get(random.nextInt(leafs.size()));
+
+            if (first != second && random.nextInt(4) == 0)
+            {
+                int weight = Classification.ONE_HUNDRED_PERCENT / 2;
+                first.addAssignment(new Assignment(security, weight));
+                second.addAssignment(new Assignment(security, Classification.ONE_HUNDRED_PERCENT - weight));
+            }
+            else
+            {
+                first.addAssignment(new Assignment(security, Classification.ONE_HUNDRED_PERCENT));
+            }
+        }
+
+        // accounts are classified, too
+        for (Account account : client.getAccounts())
+            leafs.get(random.nextInt(leafs.size()))
+                            .addAssignment(new Assignment(account, Classification.ONE_HUNDRED_PERCENT));
+
+        return taxonomy;
+    }
+}
@@ -0,0 +1,57 @@
+package name.abuchen.portfolio.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.money.CurrencyConverterImpl;
+import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
+import name.abuchen.portfolio.snapshot.ReportingPeriod;
+
+/**
+ * Synthetic client shared by all benchmarks. The size of the client is
+ * configured with JMH parameters, e.g. <code>-p securities=200</code>.
+ */
+@State(Scope.Benchmark)
+public class ClientState
+{
+    @Param("50")
+    public int securities;
+
+    @Param("10")
+    public int years;
+
+    @Param("2000")
+    public int transactions;
+
+    @Param("2")
+    public int currencies;
+
+    @Param("3")
+    public int taxonomies;
+
+    public Client client;
+    public ExchangeRateProviderFactory factory;
+    public CurrencyConverter converter;
+
+    /**
+     * Reporting period covering all generated data.
+     */
+    public ReportingPeriod period;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        ClientGenerator generator = new ClientGenerator(42).securities(securities).years(years)
+                        .transactions(transactions).currencies(currencies).taxonomies(taxonomies);
+
+        client = generator.generate();
+        factory = new ExchangeRateProviderFactory();
+        converter = new CurrencyConverterImpl(factory, client.getBaseCurrency());
+        period = new ReportingPeriod.FromXtoY(generator.getStartDate().minusDays(1), ClientGenerator.END_DATE);
+    }
+}
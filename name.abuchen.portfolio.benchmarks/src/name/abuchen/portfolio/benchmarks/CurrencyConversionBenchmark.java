@@ -0,0 +1,65 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.money.CurrencyConverterImpl;
+import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
+import name.abuchen.portfolio.money.Money;
+
+/**
+ * Conversion of amounts on every day of ten years. The pair USD to CHF has no
+ * direct time series and is converted via EUR.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CurrencyConversionBenchmark
+{
+    private static final int DAYS = 3650;
+
+    @Param({ "EUR:USD", "USD:CHF" })
+    public String pair;
+
+    private CurrencyConverter converter;
+    private Money[] amounts;
+    private LocalDate[] dates;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        String[] currencies = pair.split(":"); //$NON-NLS-1$
+
+        converter = new CurrencyConverterImpl(new ExchangeRateProviderFactory(), currencies[1]);
+
+        amounts = new Money[DAYS];
+        dates = new LocalDate[DAYS];
+        for (int ii = 0; ii < DAYS; ii++)
+        {
+            amounts[ii] = Money.of(currencies[0], 100000L + ii * 37L);
+            dates[ii] = ClientGenerator.END_DATE.minusDays(ii);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public long convert()
+    {
+        long sum = 0;
+        for (int ii = 0; ii < DAYS; ii++)
+            sum += converter.convert(dates[ii], amounts[ii]).getAmount();
+        return sum;
+    }
+}
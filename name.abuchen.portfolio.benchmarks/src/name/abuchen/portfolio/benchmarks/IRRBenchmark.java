@@ -0,0 +1,82 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import name.abuchen.portfolio.math.IRR;
+
+/**
+ * Internal rate of return of a series of regular payments and a final
+ * valuation. Compares the list based API with the primitive arrays as passed
+ * by the performance calculations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class IRRBenchmark
+{
+    @Param({ "10", "1000" })
+    public int cashflows;
+
+    private List<LocalDate> dates;
+    private List<Double> values;
+
+    private int[] epochDays;
+    private double[] amounts;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Random random = new Random(42);
+
+        dates = new ArrayList<>();
+        values = new ArrayList<>();
+
+        LocalDate date = ClientGenerator.END_DATE.minusDays(cashflows * 7L);
+        double invested = 0;
+        for (int ii = 0; ii < cashflows; ii++)
+        {
+            double amount = 100 + random.nextInt(1000);
+            dates.add(date);
+            values.add(-amount);
+            invested += amount;
+            date = date.plusDays(7);
+        }
+
+        dates.add(date);
+        values.add(invested * 1.2);
+
+        epochDays = new int[dates.size()];
+        amounts = new double[values.size()];
+        for (int ii = 0; ii < epochDays.length; ii++)
+        {
+            epochDays[ii] = (int) dates.get(ii).toEpochDay();
+            amounts[ii] = values.get(ii);
+        }
+    }
+
+    @Benchmark
+    public double calculate()
+    {
+        return IRR.calculate(dates, values);
+    }
+
+    @Benchmark
+    public double calculateArrays()
+    {
+        return IRR.calculate(epochDays, amounts, epochDays.length);
+    }
+}
@@ -0,0 +1,225 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import name.abuchen.portfolio.datatransfer.Extractor;
+import name.abuchen.portfolio.datatransfer.Extractor.Item;
+import name.abuchen.portfolio.datatransfer.pdf.AutoDetectPDFExtractor;
+import name.abuchen.portfolio.datatransfer.pdf.BankSLMPDFExctractor;
+import name.abuchen.portfolio.datatransfer.pdf.ComdirectPDFExtractor;
+import name.abuchen.portfolio.datatransfer.pdf.CommerzbankPDFExctractor;
+import name.abuchen.portfolio.datatransfer.pdf.ConsorsbankPDFExctractor;
+import name.abuchen.portfolio.datatransfer.pdf.DABPDFExctractor;
+import name.abuchen.portfolio.datatransfer.pdf.DeutscheBankPDFExctractor;
+import name.abuchen.portfolio.datatransfer.pdf.DkbPDFExtractor;
+import name.abuchen.portfolio.datatransfer.pdf.FlatexPDFExtractor;
+import name.abuchen.portfolio.datatransfer.pdf.INGDiBaExtractor;
+import name.abuchen.portfolio.datatransfer.pdf.OnvistaPDFExtractor;
+import name.abuchen.portfolio.datatransfer.pdf.SBrokerPDFExtractor;
+import name.abuchen.portfolio.model.Client;
+
+/**
+ * Extraction of the text fixtures of the PDF extractor tests. Compares the
+ * extraction with the extractor of the bank (as chosen by the user) with the
+ * automatic detection of the bank. The text of the documents is read once,
+ * hence the benchmark excludes the conversion of the PDF into text.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PDFExtractionBenchmark
+{
+    /**
+     * Directory with one sub directory of text fixtures per bank.
+     */
+    @Param("../name.abuchen.portfolio.tests/src/name/abuchen/portfolio/datatransfer/pdf")
+    public String corpus;
+
+    private final Map<File, String> texts = new HashMap<>();
+    private final Map<Extractor, List<File>> filesByBank = new LinkedHashMap<>();
+    private final List<File> allFiles = new ArrayList<>();
+    private Extractor autoDetect;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        File[] directories = new File(corpus).listFiles(File::isDirectory);
+        if (directories == null)
+            throw new IllegalArgumentException("corpus not found: " + new File(corpus).getAbsolutePath()); //$NON-NLS-1$
+        Arrays.sort(directories);
+
+        Client client = new Client();
+
+        for (File directory : directories)
+        {
+            Extractor extractor = createExtractor(directory.getName(), client);
+            if (extractor == null)
+                continue;
+
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt")); //$NON-NLS-1$
+            Arrays.sort(files);
+
+            for (File file : files)
+                texts.put(file, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+            filesByBank.put(extractor, Arrays.asList(files));
+            allFiles.addAll(Arrays.asList(files));
+        }
+
+        autoDetect = new AutoDetectPDFExtractor(client)
+        {
+            @Override
+            protected String strip(File file)
+            {
+                return texts.get(file);
+            }
+        };
+    }
+
+    @SuppressWarnings("nls")
+    private Extractor createExtractor(String directory, Client client) throws IOException
+    {
+        switch (directory)
+        {
+            case "bankslm":
+                return new BankSLMPDFExctractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "comdirect":
+                return new ComdirectPDFExtractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "commerzbank":
+                return new CommerzbankPDFExctractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "consorsbank":
+                return new ConsorsbankPDFExctractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "dab":
+                return new DABPDFExctractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "deutschebank":
+                return new DeutscheBankPDFExctractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "dkb":
+                return new DkbPDFExtractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "flatex":
+                return new FlatexPDFExtractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "ingdiba":
+                return new INGDiBaExtractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "onvista":
+                return new OnvistaPDFExtractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            case "sbroker":
+                return new SBrokerPDFExtractor(client)
+                {
+                    @Override
+                    protected String strip(File file)
+                    {
+                        return texts.get(file);
+                    }
+                };
+            default:
+                return null;
+        }
+    }
+
+    @Benchmark
+    public int extractWithExtractorOfBank()
+    {
+        int count = 0;
+        for (Map.Entry<Extractor, List<File>> entry : filesByBank.entrySet())
+        {
+            List<Item> items = entry.getKey().extract(entry.getValue(), new ArrayList<>());
+            count += items.size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int extractWithAutoDetection()
+    {
+        return autoDetect.extract(allFiles, new ArrayList<>()).size();
+    }
+}
@@ -0,0 +1,32 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import name.abuchen.portfolio.snapshot.ClientPerformanceSnapshot;
+import name.abuchen.portfolio.snapshot.PerformanceIndex;
+
+/**
+ * Daily performance index and performance snapshot of the whole client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PerformanceIndexBenchmark
+{
+    @Benchmark
+    public PerformanceIndex clientIndex(ClientState state)
+    {
+        return PerformanceIndex.forClient(state.client, state.converter, state.period, new ArrayList<>());
+    }
+
+    @Benchmark
+    public ClientPerformanceSnapshot clientPerformanceSnapshot(ClientState state)
+    {
+        return new ClientPerformanceSnapshot(state.client, state.converter, state.period);
+    }
+}
@@ -0,0 +1,60 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import name.abuchen.portfolio.snapshot.PerformanceIndex;
+import name.abuchen.portfolio.snapshot.security.SecurityPerformanceSnapshot;
+
+/**
+ * Performance of the individual securities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SecurityPerformanceBenchmark
+{
+    /**
+     * Compares the parallel with the sequential calculation of the records.
+     */
+    @State(Scope.Benchmark)
+    public static class Calculation
+    {
+        @Param({ "false", "true" })
+        public boolean sequential;
+
+        @Setup
+        public void setup()
+        {
+            System.setProperty(SecurityPerformanceSnapshot.SEQUENTIAL_PROPERTY, String.valueOf(sequential));
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            System.clearProperty(SecurityPerformanceSnapshot.SEQUENTIAL_PROPERTY);
+        }
+    }
+
+    @Benchmark
+    public SecurityPerformanceSnapshot securityPerformanceSnapshot(ClientState state, Calculation calculation)
+    {
+        return SecurityPerformanceSnapshot.create(state.client, state.converter, state.period);
+    }
+
+    @Benchmark
+    public PerformanceIndex securityIndex(ClientState state)
+    {
+        return PerformanceIndex.forInvestment(state.client, state.converter, state.client.getSecurities().get(0),
+                        state.period, new ArrayList<>());
+    }
+}
@@ -0,0 +1,94 @@
+package name.abuchen.portfolio.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import name.abuchen.portfolio.model.Classification;
+import name.abuchen.portfolio.model.Taxonomy;
+import name.abuchen.portfolio.snapshot.AssetPosition;
+import name.abuchen.portfolio.snapshot.ClientSnapshot;
+import name.abuchen.portfolio.snapshot.GroupByTaxonomy;
+import name.abuchen.portfolio.snapshot.HoldingsSweep;
+import name.abuchen.portfolio.snapshot.PerformanceIndex;
+import name.abuchen.portfolio.util.Interval;
+
+/**
+ * Grouping of the statement of assets by taxonomy, the performance index of a
+ * classification, and the weekly valuations per investment vehicle as used by
+ * the stacked chart of a taxonomy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaxonomyBenchmark
+{
+    @Benchmark
+    public GroupByTaxonomy groupByTaxonomy(ClientState state)
+    {
+        ClientSnapshot snapshot = ClientSnapshot.create(state.client, state.converter, ClientGenerator.END_DATE);
+
+        GroupByTaxonomy result = null;
+        for (Taxonomy taxonomy : state.client.getTaxonomies())
+            result = snapshot.groupByTaxonomy(taxonomy);
+        return result;
+    }
+
+    @Benchmark
+    public PerformanceIndex classificationIndex(ClientState state)
+    {
+        Classification classification = state.client.getTaxonomies().get(0).getRoot().getChildren().get(0);
+        return PerformanceIndex.forClassification(state.client, state.converter, classification, state.period,
+                        new ArrayList<>());
+    }
+
+    @Benchmark
+    public long[] weeklyValuationsBySnapshot(ClientState state)
+    {
+        List<LocalDate> dates = weeklyDates(state);
+        long[] totals = new long[dates.size()];
+
+        for (int index = 0; index < totals.length; index++)
+        {
+            ClientSnapshot snapshot = ClientSnapshot.create(state.client, state.converter, dates.get(index));
+            for (AssetPosition position : snapshot.getPositionsByVehicle().values())
+                totals[index] += position.getValuation().getAmount();
+        }
+
+        return totals;
+    }
+
+    @Benchmark
+    public long[] weeklyValuationsBySweep(ClientState state)
+    {
+        List<LocalDate> dates = weeklyDates(state);
+        long[] totals = new long[dates.size()];
+
+        HoldingsSweep sweep = new HoldingsSweep(state.client, state.converter);
+        for (int index = 0; index < totals.length; index++)
+        {
+            sweep.moveTo(dates.get(index));
+
+            int ii = index;
+            sweep.forEachValuation((vehicle, value) -> totals[ii] += value);
+        }
+
+        return totals;
+    }
+
+    private List<LocalDate> weeklyDates(ClientState state)
+    {
+        Interval interval = state.period.toInterval();
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = interval.getStart(); date.isBefore(interval.getEnd()); date = date.plusWeeks(1))
+            dates.add(date);
+        dates.add(interval.getEnd());
+        return dates;
+    }
+}
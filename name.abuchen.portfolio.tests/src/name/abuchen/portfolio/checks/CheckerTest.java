@@ -0,0 +1,246 @@
+package name.abuchen.portfolio.checks;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.money.CurrencyUnit;
+
+@SuppressWarnings("nls")
+public class CheckerTest
+{
+    private Client client;
+    private Account account;
+    private Account otherAccount;
+    private Portfolio portfolio;
+    private Security security;
+
+    @Before
+    public void setupClient()
+    {
+        client = new Client();
+
+        account = new Account();
+        account.setCurrencyCode(CurrencyUnit.EUR);
+        client.addAccount(account);
+
+        otherAccount = new Account();
+        otherAccount.setCurrencyCode(CurrencyUnit.EUR);
+        client.addAccount(otherAccount);
+
+        security = new Security("SAP", CurrencyUnit.EUR);
+        client.addSecurity(security);
+
+        portfolio = new Portfolio();
+        portfolio.setReferenceAccount(account);
+        client.addPortfolio(portfolio);
+
+        // more shares sold than bought
+        portfolio.addTransaction(new PortfolioTransaction(LocalDate.parse("2016-01-01"), CurrencyUnit.EUR, 100,
+                        security, 10, PortfolioTransaction.Type.DELIVERY_OUTBOUND, 0, 0));
+
+        // dividends without security
+        account.addTransaction(dividend(null));
+        otherAccount.addTransaction(dividend(null));
+    }
+
+    private AccountTransaction dividend(Security security)
+    {
+        return new AccountTransaction(LocalDate.parse("2016-02-01"), CurrencyUnit.EUR, 100, security,
+                        AccountTransaction.Type.DIVIDENDS);
+    }
+
+    private static List<String> describe(List<Issue> issues)
+    {
+        return issues.stream().map(i -> i.getEntity() + ":" + i.getLabel()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testIncrementalRunReportsSameIssuesAsFullRun()
+    {
+        List<Issue> incremental = Checker.runIncremental(client);
+
+        assertThat(incremental.size(), is(3));
+        assertThat(describe(incremental), is(describe(Checker.runAll(client))));
+
+        account.addTransaction(dividend(null));
+        portfolio.addTransaction(new PortfolioTransaction(LocalDate.parse("2016-01-01"), CurrencyUnit.EUR, 100,
+                        security, 20, PortfolioTransaction.Type.DELIVERY_INBOUND, 0, 0));
+        client.markDirty();
+
+        incremental = Checker.runIncremental(client);
+
+        assertThat(incremental.size(), is(3));
+        assertThat(describe(incremental), is(describe(Checker.runAll(client))));
+    }
+
+    @Test
+    public void testOnlyModifiedElementsAreCheckedAgain()
+    {
+        List<Issue> first = Checker.runIncremental(client);
+
+        // without modification the issues are reused
+        List<Issue> second = Checker.runIncremental(client);
+        assertThat(second.size(), is(first.size()));
+        for (int ii = 0; ii < first.size(); ii++)
+            assertThat(second.get(ii), is(sameInstance(first.get(ii))));
+
+        account.getTransactions().get(0).setAmount(200);
+        client.markDirty();
+
+        List<Issue> third = Checker.runIncremental(client);
+        assertThat(third.size(), is(first.size()));
+
+        for (int ii = 0; ii < first.size(); ii++)
+        {
+            Issue issue = first.get(ii);
+
+            // the modified account is checked again
+            if (issue.getEntity() == account)
+                assertThat(third.get(ii), is(not(sameInstance(issue))));
+            else
+                assertThat(third.get(ii), is(sameInstance(issue)));
+        }
+    }
+
+    @Test
+    public void testRemovedElementsAreNotReported()
+    {
+        Checker.runIncremental(client);
+
+        client.removeAccount(otherAccount);
+        client.markDirty();
+
+        List<Issue> issues = Checker.runIncremental(client);
+        assertThat(issues.size(), is(2));
+        assertThat(describe(issues), is(describe(Checker.runAll(client))));
+    }
+
+    @Test
+    public void testStateOfIncrementalRunIsCollectedWithClient() throws InterruptedException
+    {
+        assertThat(Checker.runIncremental(client).isEmpty(), is(false));
+
+        WeakReference<Client> reference = new WeakReference<>(client);
+        client = null;
+        account = null;
+        otherAccount = null;
+        portfolio = null;
+        security = null;
+
+        for (int ii = 0; ii < 50 && reference.get() != null; ii++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(reference.get(), is(nullValue()));
+    }
+
+    @Test
+    public void testSharedScanReportsSameIssuesAsChecksOneByOne()
+    {
+        List<Check> checks = new ArrayList<>();
+        ServiceLoader.load(Check.class).forEach(checks::add);
+
+        // run on two identical copies because some checks repair the client
+        Client oneByOne = createClientToRepair();
+        Client shared = createClientToRepair();
+
+        List<Issue> expected = new ArrayList<>();
+        for (Check check : checks)
+            expected.addAll(check.execute(oneByOne));
+
+        Map<Check, Long> timings = new IdentityHashMap<>();
+        List<Issue> issues = Checker.runAll(shared, (check, nanos) -> timings.merge(check, nanos, Long::sum));
+
+        assertThat(describe(issues), is(describe(expected)));
+        assertThat(describe(shared), is(describe(oneByOne)));
+
+        // every check reports its time
+        assertThat(timings.size(), is(checks.size()));
+
+        // the repairs did happen
+        assertThat(shared.getAccounts().size(), is(2));
+        assertThat(shared.getSecurities().size(), is(2));
+        assertThat(shared.getPortfolios().get(0).getTransactions().stream()
+                        .anyMatch(t -> t.getType() == PortfolioTransaction.Type.BUY && t.getCrossEntry() != null),
+                        is(true));
+    }
+
+    private Client createClientToRepair()
+    {
+        Client c = new Client();
+
+        Account cash = new Account("Cash");
+        cash.setCurrencyCode(CurrencyUnit.EUR);
+        c.addAccount(cash);
+
+        // reference account is not part of the client
+        Account dangling = new Account("Dangling");
+        dangling.setCurrencyCode(CurrencyUnit.EUR);
+
+        // transaction of old files without currency, only visible to checks
+        // which scan the recovered account
+        dangling.getTransactions().add(new AccountTransaction(LocalDate.parse("2016-02-01"), null, 100, null,
+                        AccountTransaction.Type.DEPOSIT));
+
+        Security sap = new Security("SAP", CurrencyUnit.EUR);
+        c.addSecurity(sap);
+
+        // security is not part of the client
+        Security orphan = new Security("Orphan", CurrencyUnit.EUR);
+
+        Portfolio depot = new Portfolio();
+        depot.setName("Depot");
+        depot.setReferenceAccount(dangling);
+        c.addPortfolio(depot);
+
+        // buy without cross entry which can be matched
+        LocalDate date = LocalDate.parse("2016-01-01");
+        depot.addTransaction(new PortfolioTransaction(date, CurrencyUnit.EUR, 100, sap, 10,
+                        PortfolioTransaction.Type.BUY, 0, 0));
+        cash.addTransaction(new AccountTransaction(date, CurrencyUnit.EUR, 100, sap, AccountTransaction.Type.BUY));
+
+        // sell without any counterpart
+        depot.addTransaction(new PortfolioTransaction(LocalDate.parse("2016-03-01"), CurrencyUnit.EUR, 50, sap, 5,
+                        PortfolioTransaction.Type.SELL, 0, 0));
+
+        depot.addTransaction(new PortfolioTransaction(date, CurrencyUnit.EUR, 100, orphan, 10,
+                        PortfolioTransaction.Type.DELIVERY_INBOUND, 0, 0));
+
+        cash.addTransaction(dividend(null));
+
+        return c;
+    }
+
+    private static List<String> describe(Client client)
+    {
+        List<String> answer = new ArrayList<>();
+        client.getSecurities().forEach(s -> answer.add(s.getName()));
+        client.getAccounts().forEach(a -> answer.add(a.getName() + ":" + a.getTransactions().size()));
+        client.getPortfolios().forEach(p -> answer.add(p.getName() + ":" + p.getReferenceAccount().getName() + ":"
+                        + p.getTransactions().stream().filter(t -> t.getCrossEntry() != null).count()));
+        return answer;
+    }
+}
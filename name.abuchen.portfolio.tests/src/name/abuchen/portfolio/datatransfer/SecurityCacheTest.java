@@ -50,4 +50,26 @@ public class SecurityCacheTest
         Security lookup = cache.lookup(null, null, null, "Security Name", () -> new Security());
         assertThat(client.getSecurities().get(0), is(lookup));
     }
+
+    @Test
+    public void testThatCopiesConflictIfSecurityIsCreatedForLookedUpAttribute()
+    {
+        SecurityCache cache = new SecurityCache(client);
+
+        SecurityCache first = new SecurityCache(cache);
+        Security created = first.lookup("DE000BASF111", null, null, "BASF", () -> new Security());
+
+        SecurityCache second = new SecurityCache(cache);
+        second.lookup(null, null, "716460", null, () -> new Security());
+
+        SecurityCache third = new SecurityCache(cache);
+        third.lookup("DE000BASF111", null, null, "BASF", () -> new Security());
+
+        assertThat(first.conflictsWith(second), is(false));
+        assertThat(first.conflictsWith(third), is(true));
+
+        cache.merge(first);
+        assertThat(cache.conflictsWith(third), is(true));
+        assertThat(cache.lookup("DE000BASF111", null, null, "BASF", () -> new Security()), is(created));
+    }
 }
@@ -21,10 +21,12 @@ import org.junit.Test;
 import name.abuchen.portfolio.datatransfer.ImportAction.Status.Code;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.money.CurrencyUnit;
 
 public class DetectDuplicatesActionTest
 {
@@ -56,6 +58,65 @@ public class DetectDuplicatesActionTest
                                         .run();
     }
 
+    @Test
+    public void testNearDuplicatesAndInsertedTransactions()
+    {
+        DetectDuplicatesAction action = new DetectDuplicatesAction();
+
+        Account account = new Account();
+        account.setCurrencyCode(CurrencyUnit.EUR);
+        account.addTransaction(transaction(LocalDate.of(2017, 3, 10), 100_00));
+
+        assertThat(action.process(transaction(LocalDate.of(2017, 3, 10), 100_00), account).getCode(),
+                        is(Code.WARNING));
+        assertThat(action.process(transaction(LocalDate.of(2017, 3, 12), 100_00), account).getCode(), is(Code.INFO));
+        assertThat(action.process(transaction(LocalDate.of(2017, 3, 8), 100_00), account).getCode(), is(Code.INFO));
+        assertThat(action.process(transaction(LocalDate.of(2017, 3, 13), 100_00), account).getCode(), is(Code.OK));
+        assertThat(action.process(transaction(LocalDate.of(2017, 3, 11), 101_00), account).getCode(), is(Code.OK));
+
+        // transactions inserted after the check run are detected by the
+        // next check run
+        new InsertAction(new Client()).process(transaction(LocalDate.of(2017, 4, 1), 50_00), account);
+        assertThat(new DetectDuplicatesAction().process(transaction(LocalDate.of(2017, 4, 1), 50_00), account)
+                        .getCode(), is(Code.WARNING));
+    }
+
+    @Test
+    public void testCheckRunSeesReplacedAndModifiedTransactions()
+    {
+        Account account = new Account();
+        account.setCurrencyCode(CurrencyUnit.EUR);
+        account.addTransaction(transaction(LocalDate.of(2017, 3, 10), 100_00));
+        AccountTransaction modified = transaction(LocalDate.of(2017, 5, 1), 20_00);
+        account.addTransaction(modified);
+
+        assertThat(new DetectDuplicatesAction().process(transaction(LocalDate.of(2017, 3, 10), 100_00), account)
+                        .getCode(), is(Code.WARNING));
+
+        // replace a transaction without changing the number of transactions
+        account.getTransactions().remove(0);
+        account.getTransactions().add(transaction(LocalDate.of(2017, 6, 1), 30_00));
+
+        // modify a transaction in place
+        modified.setAmount(25_00);
+
+        DetectDuplicatesAction action = new DetectDuplicatesAction();
+        assertThat(action.process(transaction(LocalDate.of(2017, 3, 10), 100_00), account).getCode(), is(Code.OK));
+        assertThat(action.process(transaction(LocalDate.of(2017, 6, 1), 30_00), account).getCode(), is(Code.WARNING));
+        assertThat(action.process(transaction(LocalDate.of(2017, 5, 1), 20_00), account).getCode(), is(Code.OK));
+        assertThat(action.process(transaction(LocalDate.of(2017, 5, 1), 25_00), account).getCode(), is(Code.WARNING));
+    }
+
+    private AccountTransaction transaction(LocalDate date, long amount)
+    {
+        AccountTransaction t = new AccountTransaction();
+        t.setType(AccountTransaction.Type.DEPOSIT);
+        t.setDate(date);
+        t.setCurrencyCode(CurrencyUnit.EUR);
+        t.setAmount(amount);
+        return t;
+    }
+
     private Account account(AccountTransaction t)
     {
         Account a = new Account();
@@ -6,6 +6,11 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
 import java.text.ParseException;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -13,6 +18,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.junit.Test;
 
 import name.abuchen.portfolio.Messages;
@@ -421,4 +427,88 @@ public class CSVAccountTransactionExtractorTest
 
         assertThat(t2.getMonetaryAmount(), is(Money.of(CurrencyUnit.EUR, Values.Amount.factorize(20))));
     }
+
+    @Test
+    public void testExtractionInBatches()
+    {
+        Client client = new Client();
+
+        CSVExtractor extractor = new CSVAccountTransactionExtractor(client);
+
+        List<String[]> rows = Arrays.<String[]>asList(
+                        new String[] { "2013-01-01", "DE0007164600", "SAP.DE", "", "100", "EUR", "DIVIDENDS",
+                                        "SAP SE", "10", "" },
+                        new String[] { "2013-01-02", "DE0007164600", "SAP.DE", "", "100", "EUR", "DIVIDENDS",
+                                        "SAP SE", "10", "" },
+                        new String[] { "2013-01-03", "", "", "", "100", "EUR", "DIVIDENDS", "", "10", "" },
+                        new String[] { "2013-01-04", "DE0007164600", "SAP.DE", "", "100", "EUR", "DIVIDENDS",
+                                        "SAP SE", "10", "" },
+                        new String[] { "2013-01-05", "DE0005140008", "DBK.DE", "", "50", "EUR", "DIVIDENDS",
+                                        "Deutsche Bank", "5", "" });
+
+        List<List<Item>> batches = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        extractor.extract(0, rows.iterator(), buildField2Column(extractor), 2, (i, e) -> {
+            batches.add(i);
+            errors.addAll(e);
+        });
+
+        assertThat(batches.size(), is(3));
+
+        // the security is created only once across all batches
+        assertThat(batches.get(0).size(), is(3));
+        assertThat(batches.get(1).size(), is(1));
+        assertThat(batches.get(2).size(), is(2));
+
+        List<Item> all = new ArrayList<>();
+        batches.forEach(all::addAll);
+        assertThat(all.stream().filter(i -> i instanceof SecurityItem).count(), is(2L));
+        assertThat(all.stream().filter(i -> i instanceof TransactionItem).count(), is(4L));
+
+        // the line number of the error counts all previous batches
+        assertThat(errors.size(), is(1));
+        assertThat(errors.get(0).getMessage().startsWith(MessageFormat.format(Messages.CSVLineXwithMsgY, 3, "")),
+                        is(true));
+
+        // same items as without batches
+        List<Exception> listErrors = new ArrayList<>();
+        List<Item> results = new CSVAccountTransactionExtractor(new Client()).extract(0, rows,
+                        buildField2Column(extractor), listErrors);
+        assertThat(results.size(), is(all.size()));
+        assertThat(listErrors.size(), is(1));
+    }
+
+    @Test
+    public void testImporterReadsPreviewButCreatesItemsOfAllLines() throws IOException
+    {
+        File file = File.createTempFile("import", ".csv");
+        file.deleteOnExit();
+
+        int lines = CSVImporter.PREVIEW_LINES + 500;
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name()))
+        {
+            writer.println(Messages.CSVColumn_Date + ";" + Messages.CSVColumn_Value);
+            for (int ii = 0; ii < lines; ii++)
+                writer.println(LocalDate.of(2013, 1, 1).plusDays(ii) + ";100");
+        }
+
+        CSVImporter importer = new CSVImporter(new Client(), file);
+        importer.setEncoding(StandardCharsets.UTF_8);
+        importer.processFile();
+
+        assertThat(importer.getRawValues().size(), is(CSVImporter.PREVIEW_LINES));
+
+        List<Exception> errors = new ArrayList<>();
+        assertThat(importer.createItems(errors).size(), is(lines));
+        assertThat(errors, empty());
+
+        List<Integer> batches = new ArrayList<>();
+        importer.createItems(new NullProgressMonitor(), CSVImporter.PREVIEW_LINES, (i, e) -> {
+            batches.add(i.size());
+            errors.addAll(e);
+        });
+
+        assertThat(batches, is(Arrays.asList(CSVImporter.PREVIEW_LINES, 500)));
+        assertThat(errors, empty());
+    }
 }
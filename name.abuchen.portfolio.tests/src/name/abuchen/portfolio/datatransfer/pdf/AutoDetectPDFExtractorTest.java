@@ -0,0 +1,231 @@
+package name.abuchen.portfolio.datatransfer.pdf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import name.abuchen.portfolio.datatransfer.Extractor.Item;
+import name.abuchen.portfolio.datatransfer.SecurityCache;
+import name.abuchen.portfolio.datatransfer.pdf.PDFParser.Block;
+import name.abuchen.portfolio.datatransfer.pdf.PDFParser.DocumentType;
+import name.abuchen.portfolio.datatransfer.pdf.PDFParser.Transaction;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Security;
+
+@SuppressWarnings("nls")
+public class AutoDetectPDFExtractorTest
+{
+    private interface Factory
+    {
+        AbstractPDFExtractor create(Client client) throws IOException;
+    }
+
+    private static String from(File file)
+    {
+        try
+        {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static List<Item> extract(AbstractPDFExtractor extractor, File file, List<Exception> errors)
+    {
+        Client client = new Client();
+        return extractor.extract(file.getName(), from(file), new SecurityCache(client), errors);
+    }
+
+    private void assertSameItems(String directory, Factory factory) throws IOException, URISyntaxException
+    {
+        File[] files = new File(getClass().getResource(directory).toURI())
+                        .listFiles((dir, name) -> name.endsWith(".txt"));
+
+        assertThat(files.length > 0, is(true));
+
+        for (File file : files)
+        {
+            List<Exception> expectedErrors = new ArrayList<>();
+            List<Item> expected = extract(factory.create(new Client()), file, expectedErrors);
+
+            // fixtures used to test errors are not relevant for the detection
+            if (!expectedErrors.isEmpty())
+                continue;
+
+            List<Exception> errors = new ArrayList<>();
+            List<Item> actual = extract(new AutoDetectPDFExtractor(new Client()), file, errors);
+
+            assertThat(file.getName(), errors, empty());
+            assertThat(file.getName(), actual.size(), is(expected.size()));
+
+            for (int ii = 0; ii < expected.size(); ii++)
+            {
+                Item e = expected.get(ii);
+                Item a = actual.get(ii);
+
+                assertThat(file.getName(), a.getClass().getName(), is(e.getClass().getName()));
+                assertThat(file.getName(), a.getTypeInformation(), is(e.getTypeInformation()));
+                assertThat(file.getName(), a.getDate(), is(e.getDate()));
+                assertThat(file.getName(), a.getAmount(), is(e.getAmount()));
+                assertThat(file.getName(), a.getShares(), is(e.getShares()));
+            }
+        }
+    }
+
+    @Test
+    public void testAllDocumentsAreExtractedLikeWithTheExtractorOfTheBank() throws Exception
+    {
+        assertSameItems("bankslm", BankSLMPDFExctractor::new);
+        assertSameItems("comdirect", ComdirectPDFExtractor::new);
+        assertSameItems("commerzbank", CommerzbankPDFExctractor::new);
+        assertSameItems("consorsbank", ConsorsbankPDFExctractor::new);
+        assertSameItems("dab", DABPDFExctractor::new);
+        assertSameItems("deutschebank", DeutscheBankPDFExctractor::new);
+        assertSameItems("dkb", DkbPDFExtractor::new);
+        assertSameItems("flatex", FlatexPDFExtractor::new);
+        assertSameItems("ingdiba", INGDiBaExtractor::new);
+        assertSameItems("onvista", OnvistaPDFExtractor::new);
+        assertSameItems("sbroker", SBrokerPDFExtractor::new);
+    }
+
+    @Test
+    public void testUnknownDocument() throws IOException
+    {
+        AutoDetectPDFExtractor extractor = new AutoDetectPDFExtractor(new Client());
+
+        assertThat(extractor.detect("Dies ist kein Dokument einer Bank"), empty());
+
+        List<Exception> errors = new ArrayList<>();
+        List<Item> items = extractor.extract("unknown.pdf", "Dies ist kein Dokument einer Bank",
+                        new SecurityCache(new Client()), errors);
+
+        assertThat(items, empty());
+        assertThat(errors.size(), is(1));
+    }
+
+    /**
+     * Extracts dividends of the "Testbank". The security is created from the
+     * first line; the amount is read with the given pattern.
+     */
+    private static class TestbankExtractor extends AbstractPDFExtractor
+    {
+        public TestbankExtractor(Client client, String securityPattern, String amountPattern) throws IOException
+        {
+            super(client);
+
+            addBankIdentifier("Testbank");
+
+            DocumentType type = new DocumentType("Dividendengutschrift");
+            this.addDocumentTyp(type);
+
+            Block block = new Block("Dividendengutschrift");
+            type.addBlock(block);
+            Transaction<AccountTransaction> pdfTransaction = new Transaction<>();
+            pdfTransaction.subject(() -> {
+                AccountTransaction transaction = new AccountTransaction();
+                transaction.setType(AccountTransaction.Type.DIVIDENDS);
+                return transaction;
+            });
+            block.set(pdfTransaction);
+            pdfTransaction.section("name", "isin") //
+                            .match(securityPattern) //
+                            .assign((t, v) -> t.setSecurity(getOrCreateSecurity(v)))
+
+                            .section("date", "amount", "currency") //
+                            .match(amountPattern) //
+                            .assign((t, v) -> {
+                                t.setDate(asDate(v.get("date")));
+                                t.setAmount(asAmount(v.get("amount")));
+                                t.setCurrencyCode(asCurrencyCode(v.get("currency")));
+                            })
+
+                            .wrap(TransactionItem::new);
+        }
+
+        @Override
+        public String getLabel()
+        {
+            return "Testbank";
+        }
+    }
+
+    @Test
+    public void testSecuritiesOfRejectedExtractorsAreNotCached() throws IOException
+    {
+        Client client = new Client();
+
+        // the first extractor reads a wrong ISIN and then fails
+        AbstractPDFExtractor failing = new TestbankExtractor(client,
+                        "^Wertpapier (?<name>.* AG) (?<isin>[^ ]*) .*$",
+                        "^Summe (?<amount>[\\d.,]+) (?<currency>\\w{3}) (?<date>.*)$");
+        AbstractPDFExtractor succeeding = new TestbankExtractor(client,
+                        "^Wertpapier (?<name>.* AG) .* Kennung (?<isin>[^ ]*)$",
+                        "^Betrag (?<amount>[\\d.,]+) (?<currency>\\w{3}) (?<date>.*)$");
+
+        AutoDetectPDFExtractor extractor = new AutoDetectPDFExtractor(client, Arrays.asList(failing, succeeding));
+
+        String text = "Testbank\n" //
+                        + "Dividendengutschrift\n" //
+                        + "Wertpapier Muster AG DE0001 Kennung DE000BASF111\n" //
+                        + "Betrag 10,00 EUR 01.02.2016\n";
+
+        assertThat(extractor.detect(text), is(Arrays.asList(failing, succeeding)));
+
+        SecurityCache cache = new SecurityCache(client);
+        List<Exception> errors = new ArrayList<>();
+        List<Item> items = extractor.extract("test.pdf", text, cache, errors);
+
+        assertThat(errors, empty());
+        assertThat(items.size(), is(1));
+
+        Security security = items.get(0).getSecurity();
+        assertThat(security.getIsin(), is("DE000BASF111"));
+
+        // the security of the returned items is cached, the security created
+        // by the rejected extractor is not
+        assertThat(cache.lookup("DE000BASF111", null, null, null, Security::new), is(sameInstance(security)));
+
+        Security other = new Security();
+        assertThat(cache.lookup("DE0001", null, null, null, () -> other), is(sameInstance(other)));
+    }
+
+    @Test
+    public void testLiteralPrefix()
+    {
+        assertThat(PDFParser.literalPrefix("^Kauf .*$"), is("Kauf "));
+        assertThat(PDFParser.literalPrefix("Nr.(\\d*)/(\\d*)  Kauf.*"), is("Nr"));
+        assertThat(PDFParser.literalPrefix("Kauf *"), is("Kauf"));
+        assertThat(PDFParser.literalPrefix("Dividende|Kupon"), is(""));
+        assertThat(PDFParser.literalPrefix("(^\\w{3}+) (.*)"), is(""));
+        assertThat(PDFParser.literalPrefix("^Erträgnisgutschrift"), is("Erträgnisgutschrift"));
+    }
+
+    @Test
+    public void testTextMatcher()
+    {
+        TextMatcher matcher = new TextMatcher(Arrays.asList("Kauf", "Verkauf", "auf", "Erträgnis", "", "xyz"));
+        TextMatcher.Result result = matcher.match("Wertpapier Verkauf - Erträgnisgutschrift");
+
+        assertThat(result.contains("Kauf"), is(false));
+        assertThat(result.contains("Verkauf"), is(true));
+        assertThat(result.contains("auf"), is(true));
+        assertThat(result.contains("Erträgnis"), is(true));
+        assertThat(result.contains(""), is(true));
+        assertThat(result.contains("xyz"), is(false));
+    }
+}
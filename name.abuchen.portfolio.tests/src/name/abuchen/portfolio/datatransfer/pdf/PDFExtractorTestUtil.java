@@ -0,0 +1,23 @@
+package name.abuchen.portfolio.datatransfer.pdf;
+
+import java.util.List;
+
+import name.abuchen.portfolio.datatransfer.Extractor;
+import name.abuchen.portfolio.datatransfer.Extractor.Item;
+import name.abuchen.portfolio.datatransfer.SecurityCache;
+
+public final class PDFExtractorTestUtil
+{
+    private PDFExtractorTestUtil()
+    {}
+
+    /**
+     * Extracts the items of one document using the given security cache, i.e.
+     * without the parallel extraction of {@link Extractor#extract(List, List)}.
+     */
+    public static List<Item> extract(Extractor extractor, String filename, String text, SecurityCache cache,
+                    List<Exception> errors)
+    {
+        return ((AbstractPDFExtractor) extractor).extract(filename, text, cache, errors);
+    }
+}
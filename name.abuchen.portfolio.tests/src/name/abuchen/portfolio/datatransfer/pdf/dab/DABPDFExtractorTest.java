@@ -2,6 +2,7 @@ package name.abuchen.portfolio.datatransfer.pdf.dab;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.junit.Assert.assertThat;
 
@@ -11,9 +12,15 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
@@ -21,8 +28,10 @@ import name.abuchen.portfolio.datatransfer.Extractor.BuySellEntryItem;
 import name.abuchen.portfolio.datatransfer.Extractor.Item;
 import name.abuchen.portfolio.datatransfer.Extractor.SecurityItem;
 import name.abuchen.portfolio.datatransfer.Extractor.TransactionItem;
+import name.abuchen.portfolio.datatransfer.SecurityCache;
 import name.abuchen.portfolio.datatransfer.actions.AssertImportActions;
 import name.abuchen.portfolio.datatransfer.pdf.DABPDFExctractor;
+import name.abuchen.portfolio.datatransfer.pdf.PDFExtractorTestUtil;
 import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.BuySellEntry;
 import name.abuchen.portfolio.model.Client;
@@ -628,6 +637,103 @@ public class DABPDFExtractorTest
         assertThat(transaction.getShares(), is(Values.Share.factorize(100)));
     }
 
+    @Test
+    public void testParallelExtractionKeepsOrderOfFiles() throws IOException
+    {
+        String[] resources = new String[] { "DABDividend.txt", "DABDividend3.txt", "DABDividend4.txt",
+                        "DABDividend5.txt", "DABDividend6.txt", "DABDividendForeignCurrency.txt", "DABKauf.txt",
+                        "DABKauf2.txt", "DABKauf3.txt", "DABKauf4.txt", "DABKauf5.txt", "DABVerkauf.txt",
+                        "DABVerkauf2.txt", "DABVerkauf3.txt" };
+
+        List<File> files = new ArrayList<>();
+        for (int ii = 0; ii < 5; ii++)
+            for (String resource : resources)
+                files.add(new File(resource));
+
+        Client client = new Client();
+        Security known = new Security("EUROKAI", CurrencyUnit.EUR);
+        known.setIsin("DE0005660104");
+        client.addSecurity(known);
+
+        // sequential extraction of one file after the other
+        DABPDFExctractor extractor = new DABPDFExctractor(client);
+        SecurityCache cache = new SecurityCache(client);
+        List<Exception> errors = new ArrayList<Exception>();
+        List<Item> expected = new ArrayList<>();
+        for (File file : files)
+            expected.addAll(PDFExtractorTestUtil.extract(extractor, file.getName(), from(file.getName()), cache,
+                            errors));
+        expected.addAll(cache.createMissingSecurityItems(expected));
+        assertThat(errors, empty());
+
+        List<Item> results = extractWithRandomDelays(client, files, new Random(1));
+
+        assertThat(describe(results), is(describe(expected)));
+
+        // items reference the same securities as in the sequential extraction
+        Map<Security, Security> securities = new IdentityHashMap<>();
+        for (int ii = 0; ii < expected.size(); ii++)
+        {
+            Security security = results.get(ii).getSecurity();
+            Security previous = securities.putIfAbsent(expected.get(ii).getSecurity(), security);
+            assertThat(security, is(sameInstance(previous != null ? previous : security)));
+        }
+
+        Set<Security> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(securities.values());
+        assertThat(distinct.size(), is(securities.size()));
+        assertThat(securities.get(known), is(sameInstance(known)));
+    }
+
+    @Test(expected = StackOverflowError.class)
+    public void testErrorsOfParallelExtractionAreRethrown() throws IOException
+    {
+        DABPDFExctractor extractor = new DABPDFExctractor(new Client())
+        {
+            @Override
+            protected String strip(File file) throws IOException
+            {
+                throw new StackOverflowError();
+            }
+        };
+
+        extractor.extract(Arrays.asList(new File("DABKauf.txt")), new ArrayList<Exception>());
+    }
+
+    private List<Item> extractWithRandomDelays(Client client, List<File> files, Random random) throws IOException
+    {
+        DABPDFExctractor extractor = new DABPDFExctractor(client)
+        {
+            @Override
+            protected String strip(File file) throws IOException
+            {
+                try
+                {
+                    // files complete in random order
+                    Thread.sleep(random.nextInt(5));
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return from(file.getName());
+            }
+        };
+
+        List<Exception> errors = new ArrayList<Exception>();
+        List<Item> results = extractor.extract(files, errors);
+        assertThat(errors, empty());
+        return results;
+    }
+
+    private static List<String> describe(List<Item> items)
+    {
+        return items.stream()
+                        .map(i -> i.getTypeInformation() + " " + i.getSecurity().getIsin() + " " + i.getDate() + " "
+                                        + i.getAmount() + " " + i.getSubject().getNote())
+                        .collect(Collectors.toList());
+    }
+
     private String from(String resource)
     {
         try (Scanner scanner = new Scanner(getClass().getResourceAsStream(resource), StandardCharsets.UTF_8.name()))
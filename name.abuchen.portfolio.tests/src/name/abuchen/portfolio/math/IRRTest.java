@@ -7,6 +7,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.hamcrest.number.IsCloseTo;
 import org.junit.Test;
@@ -47,4 +48,122 @@ public class IRRTest
         assertThat(result, IsCloseTo.closeTo(excel, 0.0001d));
     }
 
+    private static double npv(int[] days, double[] values, double rate)
+    {
+        double answer = 0;
+        for (int ii = 0; ii < days.length; ii++)
+            answer += values[ii] / Math.pow(1 + rate, (days[ii] - days[0]) / 365.0);
+        return answer;
+    }
+
+    /**
+     * Returns true if the net present value changes its sign close to the
+     * given rate.
+     */
+    private static boolean isRoot(int[] days, double[] values, double rate)
+    {
+        double x = 1 + rate;
+        double left = npv(days, values, x * (1 - 1e-8) - 1);
+        double right = npv(days, values, x * (1 + 1e-8) - 1);
+        return Math.signum(left) != Math.signum(right);
+    }
+
+    @Test
+    public void testPrimitiveArraysEqualLists()
+    {
+        LocalDate start = LocalDate.of(2010, Month.JANUARY, 1);
+        LocalDate end = LocalDate.of(2010, Month.DECEMBER, 31);
+
+        double result = IRR.calculate(new int[] { (int) start.toEpochDay(), (int) end.toEpochDay() },
+                        new double[] { -200d, 210d }, 2);
+
+        assertThat(result, is(IRR.calculate(Arrays.asList(start, end), Arrays.asList(-200d, 210d))));
+        assertThat(result, IsCloseTo.closeTo(0.050140747d, 1e-8));
+    }
+
+    @Test
+    public void testNoRoot()
+    {
+        // only payments
+        assertThat(Double.isNaN(IRR.calculate(new int[] { 0, 100 }, new double[] { -100d, -50d }, 2)), is(true));
+
+        // no period
+        assertThat(Double.isNaN(IRR.calculate(new int[] { 10, 10 }, new double[] { -100d, 100d }, 2)), is(true));
+    }
+
+    @Test
+    public void testTotalLossAndExtremeGains()
+    {
+        // loss of 99.99% within a year
+        double result = IRR.calculate(new int[] { 0, 365 }, new double[] { -10000d, 1d }, 2);
+        assertThat(result, IsCloseTo.closeTo(-0.9999d, 1e-12));
+
+        // doubling within 3 days results in an extreme annualized rate
+        int[] days = new int[] { 0, 3 };
+        double[] values = new double[] { -100d, 200d };
+        result = IRR.calculate(days, values, 2);
+        assertThat(result, IsCloseTo.closeTo(Math.pow(2, 365 / 3d) - 1, Math.pow(2, 365 / 3d) * 1e-8));
+    }
+
+    @Test
+    public void testOddCashFlowsWithRoot()
+    {
+        // large outflow in the middle of the period: Newton's method started
+        // at 5% overshoots into negative values of 1 + r
+        int[] days = new int[] { 0, 30, 60, 700 };
+        double[] values = new double[] { -1000d, 5000d, -4500d, 100d };
+
+        double result = IRR.calculate(days, values, days.length);
+        assertThat(isRoot(days, values, result), is(true));
+
+        // loss of almost everything over 30 years
+        days = new int[] { 0, 365 * 30 };
+        values = new double[] { -1_000_000d, 0.5d };
+        result = IRR.calculate(days, values, days.length);
+        assertThat(isRoot(days, values, result), is(true));
+    }
+
+    @Test
+    public void testWarmStart()
+    {
+        int[] days = new int[] { 0, 200, 365, 730 };
+        double[] values = new double[] { -1000d, -500d, 100d, 1700d };
+
+        double result = IRR.calculate(days, values, days.length);
+
+        assertThat(IRR.calculate(days, values, days.length, result), IsCloseTo.closeTo(result, 1e-12));
+        assertThat(IRR.calculate(days, values, days.length, 5d), IsCloseTo.closeTo(result, 1e-9));
+        assertThat(IRR.calculate(days, values, days.length, -0.99d), IsCloseTo.closeTo(result, 1e-9));
+    }
+
+    @Test
+    public void testRandomInvestmentsAlwaysHaveResult()
+    {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 500; run++)
+        {
+            int size = 2 + random.nextInt(50);
+            int[] days = new int[size];
+            double[] values = new double[size];
+
+            int day = 0;
+            double invested = 0;
+            for (int ii = 0; ii < size - 1; ii++)
+            {
+                days[ii] = day;
+                values[ii] = -(1 + random.nextInt(10000));
+                invested -= values[ii];
+                day += 1 + random.nextInt(200);
+            }
+
+            // final valuation between a total loss and a tenfold gain
+            days[size - 1] = day;
+            values[size - 1] = invested * random.nextDouble() * 10;
+
+            double result = IRR.calculate(days, values, size);
+
+            assertThat(isRoot(days, values, result), is(true));
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package name.abuchen.portfolio.math;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.number.IsCloseTo.closeTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import name.abuchen.portfolio.math.MovingWindowIndicators.Result;
+
+public class MovingWindowIndicatorsTest
+{
+    private static long[] days(long... days)
+    {
+        return days;
+    }
+
+    @Test
+    public void testWindowOfCalendarDays()
+    {
+        // gap between day 4 and day 10
+        long[] days = days(0, 1, 2, 3, 4, 10, 11, 12);
+        long[] values = new long[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+        Result result = new MovingWindowIndicators(3, 2, 1).calculate(days, values, 2);
+
+        // day 10 has only one observation within the window
+        assertThat(result.getIndices(), is(new int[] { 2, 3, 4, 6, 7 }));
+        assertThat(result.getSimpleMovingAverage(), is(new double[] { 2, 3, 4, 6.5, 7 }));
+        assertThat(result.getMovingMinimum(), is(new double[] { 1, 2, 3, 6, 6 }));
+        assertThat(result.getMovingMaximum(), is(new double[] { 3, 4, 5, 7, 8 }));
+    }
+
+    @Test
+    public void testStartDay()
+    {
+        long[] days = days(0, 1, 2, 3, 4, 10, 11, 12);
+        long[] values = new long[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+        // window ending at day 6 contains enough observations -> start with
+        // the last observation before
+        assertThat(new MovingWindowIndicators(3, 1, 1).calculate(days, values, 6).getIndices(),
+                        is(new int[] { 4, 5, 6, 7 }));
+
+        // window ending at day 8 is empty -> start with the next observation
+        assertThat(new MovingWindowIndicators(3, 1, 1).calculate(days, values, 8).getIndices(),
+                        is(new int[] { 5, 6, 7 }));
+
+        // start day after the last observation
+        assertThat(new MovingWindowIndicators(3, 1, 1).calculate(days, values, 13).isEmpty(), is(true));
+
+        // start day before the first observation
+        assertThat(new MovingWindowIndicators(3, 1, 1).calculate(days, values, -5).size(), is(8));
+    }
+
+    @Test
+    public void testBollingerBands()
+    {
+        long[] days = days(0, 1, 2, 3);
+        long[] values = new long[] { 200, 400, 400, 400 };
+
+        Result result = new MovingWindowIndicators(2, 2, 100).calculate(days, values, 0);
+
+        assertThat(result.getIndices(), is(new int[] { 1, 2, 3 }));
+        assertThat(result.getSimpleMovingAverage(), is(new double[] { 3, 4, 4 }));
+        assertThat(result.getUpperBollingerBand()[0], closeTo(5, 1e-10));
+        assertThat(result.getLowerBollingerBand()[0], closeTo(1, 1e-10));
+        assertThat(result.getUpperBollingerBand()[2], closeTo(4, 1e-10));
+        assertThat(result.getLowerBollingerBand()[2], closeTo(4, 1e-10));
+    }
+
+    @Test
+    public void testExponentialMovingAverage()
+    {
+        long[] days = days(0, 1, 3);
+        long[] values = new long[] { 10, 20, 20 };
+
+        Result result = new MovingWindowIndicators(3, 1, 1).calculate(days, values, 0);
+
+        // alpha = 2 / (3 + 1) per calendar day
+        double ema = 10 + 0.5 * (20 - 10);
+        assertThat(result.getExponentialMovingAverage()[0], is(10d));
+        assertThat(result.getExponentialMovingAverage()[1], closeTo(ema, 1e-10));
+        assertThat(result.getExponentialMovingAverage()[2], closeTo(ema + 0.75 * (20 - ema), 1e-10));
+    }
+
+    @Test
+    public void testAgainstNaiveCalculation()
+    {
+        Random random = new Random(42);
+
+        int size = 2000;
+        long[] days = new long[size];
+        long[] values = new long[size];
+        long day = 0;
+        for (int ii = 0; ii < size; ii++)
+        {
+            day += 1 + random.nextInt(4);
+            days[ii] = day;
+            values[ii] = 10000 + random.nextInt(5000);
+        }
+
+        int window = 30;
+        int minimum = 8;
+        Result result = new MovingWindowIndicators(window, minimum, 100).calculate(days, values, 0);
+
+        int expected = 0;
+        for (int ii = 0; ii < size; ii++)
+        {
+            long sum = 0;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            int count = 0;
+            for (int jj = 0; jj <= ii; jj++)
+            {
+                if (days[jj] > days[ii] - window)
+                {
+                    sum += values[jj];
+                    min = Math.min(min, values[jj]);
+                    max = Math.max(max, values[jj]);
+                    count++;
+                }
+            }
+
+            if (count < minimum)
+                continue;
+
+            double average = sum / 100d / count;
+            double variance = 0;
+            for (int jj = 0; jj <= ii; jj++)
+            {
+                if (days[jj] > days[ii] - window)
+                    variance += Math.pow(values[jj] / 100d - average, 2) / count;
+            }
+
+            assertThat(result.getIndices()[expected], is(ii));
+            assertThat(result.getSimpleMovingAverage()[expected], closeTo(average, 1e-9));
+            assertThat(result.getMovingMinimum()[expected], is(min / 100d));
+            assertThat(result.getMovingMaximum()[expected], is(max / 100d));
+            assertThat(result.getUpperBollingerBand()[expected], closeTo(average + 2 * Math.sqrt(variance), 1e-6));
+            expected++;
+        }
+
+        assertThat(result.size(), is(expected));
+    }
+}
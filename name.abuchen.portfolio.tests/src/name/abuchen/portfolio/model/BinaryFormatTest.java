@@ -0,0 +1,153 @@
+package name.abuchen.portfolio.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import name.abuchen.portfolio.money.CurrencyUnit;
+import name.abuchen.portfolio.money.Money;
+import name.abuchen.portfolio.money.Values;
+import scenarios.Scenarios;
+
+@SuppressWarnings("nls")
+public class BinaryFormatTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripOfScenarios() throws IOException
+    {
+        for (String scenario : Scenarios.ALL)
+        {
+            Client client = Scenarios.load(scenario);
+            Client copy = roundTrip(client);
+
+            assertThat(scenario, toXML(copy), is(toXML(client)));
+            assertThat(scenario, dates(copy), is(dates(client)));
+        }
+    }
+
+    @Test
+    public void testRoundTripOfCrossEntriesAndPlans() throws IOException
+    {
+        Client client = new Client();
+
+        Security security = new Security("Security", CurrencyUnit.EUR);
+        security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-02"), 10000));
+        security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-05"), 9800));
+        client.addSecurity(security);
+
+        Account account = new Account("Account");
+        Account other = new Account("Other");
+        client.addAccount(account);
+        client.addAccount(other);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setReferenceAccount(account);
+        client.addPortfolio(portfolio);
+
+        BuySellEntry buy = new BuySellEntry(portfolio, account);
+        buy.setType(PortfolioTransaction.Type.BUY);
+        buy.setDate(LocalDate.parse("2015-01-02"));
+        buy.setSecurity(security);
+        buy.setShares(5 * Values.Share.factor());
+        buy.setMonetaryAmount(Money.of(CurrencyUnit.EUR, 50000));
+        buy.getPortfolioTransaction().addUnit(new Transaction.Unit(Transaction.Unit.Type.FEE,
+                        Money.of(CurrencyUnit.EUR, 995)));
+        buy.setNote("note with umlauts äöü");
+        buy.insert();
+
+        AccountTransferEntry transfer = new AccountTransferEntry(account, other);
+        transfer.setDate(LocalDate.parse("2015-01-03"));
+        transfer.setAmount(12345);
+        transfer.setCurrencyCode(CurrencyUnit.EUR);
+        transfer.insert();
+
+        InvestmentPlan plan = new InvestmentPlan("Plan");
+        plan.setPortfolio(portfolio);
+        plan.setSecurity(security);
+        plan.getTransactions().add(buy.getPortfolioTransaction());
+        client.addPlan(plan);
+
+        Client copy = roundTrip(client);
+
+        assertThat(toXML(copy), is(toXML(client)));
+        assertThat(dates(copy), is(dates(client)));
+
+        Security s = copy.getSecurities().get(0);
+        assertThat(s.getPrices().size(), is(2));
+        assertThat(s.getSecurityPrice(LocalDate.parse("2015-01-05")).getValue(), is(9800L));
+
+        PortfolioTransaction p = copy.getPortfolios().get(0).getTransactions().get(0);
+        BuySellEntry entry = (BuySellEntry) p.getCrossEntry();
+        assertThat(entry.getAccountTransaction(), is(copy.getAccounts().get(0).getTransactions().get(0)));
+        assertThat(entry.getCrossTransaction(p), is(entry.getAccountTransaction()));
+        assertThat(p.getSecurity(), is(s));
+        assertThat(p.getNote(), is("note with umlauts äöü"));
+        assertThat(copy.getPlans().get(0).getTransactions().get(0), is(p));
+
+        AccountTransaction t = copy.getAccounts().get(1).getTransactions().get(0);
+        assertThat(t.getCrossEntry().getCrossOwner(t), is(copy.getAccounts().get(0)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedFileIsRejected() throws IOException
+    {
+        Client client = Scenarios.load("currency_sample.xml");
+
+        File file = folder.newFile("truncated.pbin");
+        ClientFactory.save(client, file, null, null);
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(file.toPath(), truncated);
+
+        ClientFactory.load(file, null, new NullProgressMonitor());
+    }
+
+    private Client roundTrip(Client client) throws IOException
+    {
+        File file = folder.newFile();
+        file.delete();
+        file = new File(file.getParentFile(), file.getName() + ".pbin");
+
+        ClientFactory.save(client, file, null, null);
+        return ClientFactory.load(file, null, new NullProgressMonitor());
+    }
+
+    private String toXML(Client client) throws IOException
+    {
+        File file = folder.newFile();
+        file.delete();
+        file = new File(file.getParentFile(), file.getName() + ".xml");
+
+        ClientFactory.save(client, file, null, null);
+        String xml = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+        // XStream writes references if transactions share the same date
+        // instance. Dates are compared separately.
+        return xml.replaceAll("<date( reference=\"[^\"]*\"/>|>[^<]*</date>)", "<date/>");
+    }
+
+    private List<LocalDate> dates(Client client)
+    {
+        return Stream.concat(client.getAccounts().stream().flatMap(a -> a.getTransactions().stream()),
+                        client.getPortfolios().stream().flatMap(p -> p.getTransactions().stream()))
+                        .map(Transaction::getDate).collect(Collectors.toList());
+    }
+}
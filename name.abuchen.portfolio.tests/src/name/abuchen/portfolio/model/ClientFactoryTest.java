@@ -0,0 +1,165 @@
+package name.abuchen.portfolio.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import name.abuchen.portfolio.money.CurrencyUnit;
+import scenarios.SecurityTestCase;
+
+@SuppressWarnings("nls")
+public class ClientFactoryTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Client createClient(String note)
+    {
+        Client client = new Client();
+        Account account = new Account("Account");
+        account.setCurrencyCode(CurrencyUnit.EUR);
+        account.setNote(note);
+        client.addAccount(account);
+        return client;
+    }
+
+    private String noteOf(File file, char[] password) throws IOException
+    {
+        Client client = ClientFactory.load(file, password, new NullProgressMonitor());
+        return client.getAccounts().get(0).getNote();
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterModifications() throws IOException
+    {
+        for (String extension : new String[] { "xml", "pbin", "portfolio" })
+        {
+            File file = new File(folder.getRoot(), "client." + extension);
+            char[] password = "secret".toCharArray();
+
+            Client client = createClient("saved");
+            ClientFactory.Snapshot snapshot = ClientFactory.snapshot(client, file, null, password);
+
+            client.getAccounts().get(0).setNote("modified after snapshot");
+            snapshot.save(file, null);
+
+            assertThat(extension, noteOf(file, password), is("saved"));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsSavedLikeTheClient() throws Exception
+    {
+        Client client = ClientFactory.load(SecurityTestCase.class.getResourceAsStream("currency_sample.xml"));
+
+        File expected = new File(folder.getRoot(), "expected.xml");
+        ClientFactory.save(client, expected, null, null);
+
+        File actual = new File(folder.getRoot(), "actual.xml");
+        ClientFactory.snapshot(client, actual, null, null).save(actual, null);
+
+        assertThat(normalize(actual), is(normalize(expected)));
+    }
+
+    private String normalize(File file) throws Exception
+    {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+        XPath xpath = XPathFactory.newInstance().newXPath();
+
+        // the copy of the client does not share date instances, hence XStream
+        // writes fewer references: replace the references to dates with the
+        // referenced value
+        NodeList dates = document.getElementsByTagName("date");
+        List<Element> references = new ArrayList<>();
+        for (int ii = 0; ii < dates.getLength(); ii++)
+        {
+            Element date = (Element) dates.item(ii);
+            if (date.hasAttribute("reference"))
+                references.add(date);
+        }
+
+        for (Element date : references)
+        {
+            Node referenced = (Node) xpath.evaluate(date.getAttribute("reference"), date, XPathConstants.NODE);
+            assertThat(date.getAttribute("reference"), referenced.getNodeName(), is("date"));
+
+            date.removeAttribute("reference");
+            date.setTextContent(referenced.getTextContent());
+        }
+
+        StringWriter writer = new StringWriter();
+        TransformerFactory.newInstance().newTransformer().transform(new DOMSource(document),
+                        new StreamResult(writer));
+        return writer.toString();
+    }
+
+    @Test
+    public void testSaveKeepsPreviousContentAsBackup() throws IOException
+    {
+        File file = new File(folder.getRoot(), "client.xml");
+        File backup = new File(folder.getRoot(), "client.backup.xml");
+
+        ClientFactory.save(createClient("first"), file, null, null);
+        ClientFactory.snapshot(createClient("second"), file, null, null).save(file, backup);
+
+        assertThat(noteOf(file, null), is("second"));
+        assertThat(noteOf(backup, null), is("first"));
+
+        // the backup is not modified by the next save
+        ClientFactory.save(createClient("third"), file, null, null);
+
+        assertThat(noteOf(file, null), is("third"));
+        assertThat(noteOf(backup, null), is("first"));
+
+        // no temporary file is left behind
+        assertThat(folder.getRoot().list().length, is(2));
+    }
+
+    @Test
+    public void testFailedSaveLeavesFileUntouched() throws IOException
+    {
+        File file = new File(folder.getRoot(), "client.xml");
+        ClientFactory.save(createClient("first"), file, null, null);
+        byte[] content = Files.readAllBytes(file.toPath());
+
+        // a directory with the name of the temporary file lets the write fail
+        File temp = new File(folder.getRoot(), "client.xml.tmp");
+        temp.mkdir();
+
+        try
+        {
+            ClientFactory.save(createClient("second"), file, null, null);
+        }
+        catch (IOException expected)
+        {
+            // expected
+        }
+
+        assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8),
+                        is(new String(content, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,109 @@
+package name.abuchen.portfolio.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class PriceSeriesTest
+{
+    @Test
+    public void testPricesAreSortedAndReplaced()
+    {
+        Security security = new Security();
+
+        assertThat(security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-05"), 5)), is(true));
+        assertThat(security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-01"), 1)), is(true));
+        assertThat(security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-03"), 3)), is(true));
+        assertThat(security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-03"), 3)), is(false));
+        assertThat(security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-03"), 4)), is(true));
+
+        assertThat(security.getPrices(), is(Arrays.asList(new SecurityPrice(LocalDate.parse("2015-01-01"), 1),
+                        new SecurityPrice(LocalDate.parse("2015-01-03"), 4),
+                        new SecurityPrice(LocalDate.parse("2015-01-05"), 5))));
+
+        // only remove if date and value match
+        security.removePrice(new SecurityPrice(LocalDate.parse("2015-01-03"), 3));
+        assertThat(security.getPrices().size(), is(3));
+        security.removePrice(new SecurityPrice(LocalDate.parse("2015-01-03"), 4));
+        assertThat(security.getPrices().size(), is(2));
+    }
+
+    @Test
+    public void testMergeIsIdenticalToAddingPricesOneByOne()
+    {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.parse("2010-01-01");
+
+        for (int run = 0; run < 50; run++)
+        {
+            Security expected = new Security();
+            Security actual = new Security();
+
+            List<SecurityPrice> existing = new ArrayList<>();
+            for (int ii = 0; ii < random.nextInt(100); ii++)
+                existing.add(new SecurityPrice(start.plusDays(random.nextInt(200)), random.nextInt(10)));
+
+            List<SecurityPrice> update = new ArrayList<>();
+            for (int ii = 0; ii < random.nextInt(100); ii++)
+                update.add(new SecurityPrice(start.plusDays(random.nextInt(300)), random.nextInt(10)));
+            Collections.sort(update);
+
+            boolean isExpectedChanged = false;
+            for (SecurityPrice p : existing)
+            {
+                expected.addPrice(p);
+                actual.addPrice(p);
+            }
+            for (SecurityPrice p : update)
+                isExpectedChanged = expected.addPrice(p) || isExpectedChanged;
+
+            boolean isActualChanged = actual.addAllPrices(update);
+
+            assertThat(actual.getPrices(), is(expected.getPrices()));
+            if (!isExpectedChanged)
+                assertThat(isActualChanged, is(false));
+        }
+    }
+
+    @Test
+    public void testLookupOfValueIsIdenticalToSecurityPrice()
+    {
+        Security security = new Security();
+        security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-02"), 2));
+        security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-05"), 5));
+        security.setLatest(new LatestSecurityPrice(LocalDate.parse("2015-01-07"), 7));
+
+        for (LocalDate date = LocalDate.parse("2014-12-30"); date.isBefore(LocalDate.parse("2015-01-10")); date = date
+                        .plusDays(1))
+            assertThat(date.toString(), security.getSecurityPriceValue(date),
+                            is(security.getSecurityPrice(date).getValue()));
+
+        PriceSeries series = security.getPriceSeries();
+        assertThat(series.floorIndex(LocalDate.parse("2015-01-01")), is(-1));
+        assertThat(series.floorIndex(LocalDate.parse("2015-01-04")), is(0));
+        assertThat(series.floorIndex(LocalDate.parse("2015-01-05")), is(1));
+        assertThat(series.floorIndex(LocalDate.parse("2015-01-09")), is(1));
+    }
+
+    @Test
+    public void testDeepCopyDoesNotShareSeries()
+    {
+        Security security = new Security();
+        security.addPrice(new SecurityPrice(LocalDate.parse("2015-01-02"), 2));
+
+        Security copy = security.deepCopy();
+        copy.addPrice(new SecurityPrice(LocalDate.parse("2015-01-03"), 3));
+
+        assertThat(security.getPrices().size(), is(1));
+        assertThat(copy.getPrices().size(), is(2));
+    }
+}
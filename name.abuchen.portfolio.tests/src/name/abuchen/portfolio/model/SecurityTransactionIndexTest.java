@@ -0,0 +1,125 @@
+package name.abuchen.portfolio.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import name.abuchen.portfolio.AccountBuilder;
+import name.abuchen.portfolio.PortfolioBuilder;
+import name.abuchen.portfolio.SecurityBuilder;
+import name.abuchen.portfolio.money.CurrencyUnit;
+import name.abuchen.portfolio.money.Values;
+import name.abuchen.portfolio.snapshot.filter.ClientSecurityFilter;
+import name.abuchen.portfolio.snapshot.filter.PortfolioClientFilter;
+
+@SuppressWarnings("nls")
+public class SecurityTransactionIndexTest
+{
+    private Client client;
+    private Security securityA;
+    private Security securityB;
+    private Security securityC;
+    private Portfolio portfolio;
+
+    @Before
+    public void setupClient()
+    {
+        client = new Client();
+
+        securityA = new SecurityBuilder().addTo(client);
+        securityB = new SecurityBuilder(CurrencyUnit.USD).addTo(client);
+        securityC = new SecurityBuilder().addTo(client);
+        new SecurityBuilder().addTo(client);
+
+        Account account = new AccountBuilder() //
+                        .deposit_("2016-01-01", Values.Amount.factorize(10000)) //
+                        .dividend("2016-06-01", Values.Amount.factorize(20), securityA) //
+                        .dividend("2016-07-01", Values.Amount.factorize(30), securityB) //
+                        .dividend("2017-06-01", Values.Amount.factorize(25), securityA) //
+                        .addTo(client);
+
+        // fees are not returned by Security#getTransactions but count for
+        // Security#hasTransactions
+        AccountTransaction fees = new AccountTransaction();
+        fees.setType(AccountTransaction.Type.FEES);
+        fees.setDate(LocalDate.parse("2016-08-01"));
+        fees.setCurrencyCode(CurrencyUnit.EUR);
+        fees.setAmount(Values.Amount.factorize(5));
+        fees.setSecurity(securityC);
+        account.addTransaction(fees);
+
+        new AccountBuilder(CurrencyUnit.USD) //
+                        .dividend("2016-09-01", Values.Amount.factorize(40), securityB) //
+                        .addTo(client);
+
+        portfolio = new PortfolioBuilder(account) //
+                        .buy(securityA, "2016-02-01", Values.Share.factorize(10), Values.Amount.factorize(1000)) //
+                        .buy(securityB, "2016-02-01", Values.Share.factorize(5), Values.Amount.factorize(500)) //
+                        .sell(securityA, "2017-02-01", Values.Share.factorize(5), Values.Amount.factorize(600)) //
+                        .addTo(client);
+
+        new PortfolioBuilder(account) //
+                        .inbound_delivery(securityA, "2016-03-01", Values.Share.factorize(2),
+                                        Values.Amount.factorize(200)) //
+                        .addTo(client);
+    }
+
+    private void assertIndexEqualsScan(Client client)
+    {
+        SecurityTransactionIndex index = new SecurityTransactionIndex(client);
+
+        for (Security security : client.getSecurities())
+        {
+            assertThat(security.getName(), pairs(index.getTransactions(security)),
+                            is(pairs(security.getTransactions(client))));
+            assertThat(security.getName(), index.hasTransactions(security), is(security.hasTransactions(client)));
+        }
+    }
+
+    private List<Object> pairs(List<TransactionPair<?>> transactions)
+    {
+        List<Object> answer = new ArrayList<>();
+        for (TransactionPair<?> pair : transactions)
+        {
+            answer.add(pair.getOwner());
+            answer.add(pair.getTransaction());
+        }
+        return answer;
+    }
+
+    @Test
+    public void testIndexEqualsScan()
+    {
+        assertIndexEqualsScan(client);
+
+        SecurityTransactionIndex index = new SecurityTransactionIndex(client);
+        assertThat(index.getTransactions(securityA).size(), is(5));
+        assertThat(index.getTransactions(securityC).isEmpty(), is(true));
+        assertThat(index.hasTransactions(securityC), is(true));
+        assertThat(index.hasTransactions(client.getSecurities().get(3)), is(false));
+    }
+
+    @Test
+    public void testIndexEqualsScanForFilteredClients()
+    {
+        assertIndexEqualsScan(new ClientSecurityFilter(securityA).filter(client));
+        assertIndexEqualsScan(new ClientSecurityFilter(securityA, securityB).filter(client));
+        assertIndexEqualsScan(new PortfolioClientFilter(Arrays.asList(portfolio), client.getAccounts()).filter(client));
+    }
+
+    @Test
+    public void testReturnedListsCanBeModified()
+    {
+        SecurityTransactionIndex index = new SecurityTransactionIndex(client);
+
+        index.getTransactions(securityA).clear();
+        assertThat(index.getTransactions(securityA).size(), is(5));
+    }
+}
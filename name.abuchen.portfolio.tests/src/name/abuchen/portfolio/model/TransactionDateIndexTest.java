@@ -0,0 +1,152 @@
+package name.abuchen.portfolio.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import name.abuchen.portfolio.money.CurrencyUnit;
+import name.abuchen.portfolio.snapshot.ReportingPeriod;
+
+@SuppressWarnings("nls")
+public class TransactionDateIndexTest
+{
+    private Account account;
+
+    private AccountTransaction deposit;
+    private AccountTransaction removal;
+    private AccountTransaction interest;
+
+    @Before
+    public void setupAccount()
+    {
+        account = new Account();
+        account.setCurrencyCode(CurrencyUnit.EUR);
+
+        // transactions are not added in the order of their dates
+        removal = transaction("2016-03-01", 300, AccountTransaction.Type.REMOVAL);
+        deposit = transaction("2016-01-01", 1000, AccountTransaction.Type.DEPOSIT);
+        interest = transaction("2016-03-01", 10, AccountTransaction.Type.INTEREST);
+
+        account.addTransaction(removal);
+        account.addTransaction(deposit);
+        account.addTransaction(interest);
+    }
+
+    private AccountTransaction transaction(String date, long amount, AccountTransaction.Type type)
+    {
+        return new AccountTransaction(LocalDate.parse(date), CurrencyUnit.EUR, amount, null, type);
+    }
+
+    @Test
+    public void testTransactionsAreSortedByDate()
+    {
+        TransactionDateIndex<AccountTransaction> index = account.getDateIndex();
+
+        // transactions of the same date keep the order of the account
+        assertThat(index.getTransactions(), is(Arrays.asList(deposit, removal, interest)));
+
+        // the list of the account is not modified
+        assertThat(account.getTransactions(), is(Arrays.asList(removal, deposit, interest)));
+    }
+
+    @Test
+    public void testRangeQueries()
+    {
+        TransactionDateIndex<AccountTransaction> index = account.getDateIndex();
+
+        assertThat(index.getTransactionsUntil(LocalDate.parse("2015-12-31")).isEmpty(), is(true));
+        assertThat(index.getTransactionsUntil(LocalDate.parse("2016-01-01")), is(Arrays.asList(deposit)));
+        assertThat(index.getTransactionsUntil(LocalDate.parse("2016-03-01")),
+                        is(Arrays.asList(deposit, removal, interest)));
+
+        assertThat(index.getTransactions(LocalDate.parse("2016-01-02"), LocalDate.parse("2016-02-29")).isEmpty(),
+                        is(true));
+        assertThat(index.getTransactions(LocalDate.parse("2016-01-01"), LocalDate.parse("2016-03-01")),
+                        is(Arrays.asList(deposit, removal, interest)));
+        assertThat(index.getTransactions(LocalDate.parse("2016-03-01"), LocalDate.parse("2016-03-01")),
+                        is(Arrays.asList(removal, interest)));
+
+        // the start date of a reporting period is exclusive
+        ReportingPeriod period = new ReportingPeriod.FromXtoY(LocalDate.parse("2016-01-01"),
+                        LocalDate.parse("2016-03-01"));
+        assertThat(period.getTransactions(index), is(Arrays.asList(removal, interest)));
+    }
+
+    @Test
+    public void testBalance()
+    {
+        assertThat(account.getBalance(LocalDate.parse("2015-12-31")), is(0L));
+        assertThat(account.getBalance(LocalDate.parse("2016-01-01")), is(1000L));
+        assertThat(account.getBalance(LocalDate.parse("2016-02-29")), is(1000L));
+        assertThat(account.getBalance(LocalDate.parse("2016-03-01")), is(710L));
+        assertThat(account.getBalance(LocalDate.parse("2099-01-01")), is(710L));
+    }
+
+    @Test
+    public void testIndexIsReusedUntilTransactionsAreModified()
+    {
+        TransactionDateIndex<AccountTransaction> index = account.getDateIndex();
+        assertThat(account.getDateIndex(), is(sameInstance(index)));
+
+        // creating and modifying other transactions does not invalidate
+        AccountTransaction other = transaction("2016-02-01", 50, AccountTransaction.Type.DEPOSIT);
+        other.setDate(LocalDate.parse("2016-02-02"));
+        other.setAmount(60);
+        assertThat(account.getDateIndex(), is(sameInstance(index)));
+
+        account.addTransaction(other);
+        assertThat(account.getDateIndex(), is(not(sameInstance(index))));
+        assertThat(account.getBalance(LocalDate.parse("2016-02-02")), is(1060L));
+
+        account.shallowDeleteTransaction(other, null);
+        assertThat(account.getBalance(LocalDate.parse("2016-02-02")), is(1000L));
+    }
+
+    @Test
+    public void testModificationsOfIndexedTransactionsAreDetected()
+    {
+        assertThat(account.getBalance(LocalDate.parse("2016-01-01")), is(1000L));
+
+        deposit.setDate(LocalDate.parse("2016-04-01"));
+        assertThat(account.getBalance(LocalDate.parse("2016-03-01")), is(-290L));
+        assertThat(account.getDateIndex().getTransactions(), is(Arrays.asList(removal, interest, deposit)));
+
+        deposit.setAmount(2000);
+        assertThat(account.getBalance(LocalDate.parse("2016-04-01")), is(1710L));
+
+        removal.setType(AccountTransaction.Type.DEPOSIT);
+        assertThat(account.getBalance(LocalDate.parse("2016-04-01")), is(2310L));
+
+        // transactions removed directly from the list
+        account.getTransactions().remove(interest);
+        assertThat(account.getBalance(LocalDate.parse("2016-04-01")), is(2300L));
+    }
+
+    @Test
+    public void testPortfolioIndex()
+    {
+        Security security = new Security();
+        Portfolio portfolio = new Portfolio();
+
+        PortfolioTransaction sell = new PortfolioTransaction(LocalDate.parse("2016-02-01"), CurrencyUnit.EUR, 100,
+                        security, 1, PortfolioTransaction.Type.SELL, 0, 0);
+        PortfolioTransaction buy = new PortfolioTransaction(LocalDate.parse("2016-01-01"), CurrencyUnit.EUR, 100,
+                        security, 1, PortfolioTransaction.Type.BUY, 0, 0);
+        portfolio.addTransaction(sell);
+        portfolio.addTransaction(buy);
+
+        assertThat(portfolio.getDateIndex().getTransactions(), is(Arrays.asList(buy, sell)));
+        assertThat(portfolio.getDateIndex().getTransactionsUntil(LocalDate.parse("2016-01-31")),
+                        is(Arrays.asList(buy)));
+
+        buy.setDate(LocalDate.parse("2016-03-01"));
+        assertThat(portfolio.getDateIndex().getTransactions(), is(Arrays.asList(sell, buy)));
+    }
+}
@@ -0,0 +1,34 @@
+package name.abuchen.portfolio.money;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class CurrencyConverterImplTest
+{
+    @Test
+    public void testConversionOfAmountsIsIdenticalToConversionOfMoney()
+    {
+        CurrencyConverter converter = new CurrencyConverterImpl(new ExchangeRateProviderFactory(), "USD");
+
+        Random random = new Random(1);
+        LocalDate start = LocalDate.parse("2014-01-01");
+
+        for (int ii = 0; ii < 10000; ii++)
+        {
+            LocalDate date = start.plusDays(random.nextInt(700));
+            String currencyCode = random.nextBoolean() ? CurrencyUnit.EUR : "USD";
+            long amount = random.nextInt(3) == 0 ? 0 : random.nextInt(10000000) - 5000000;
+
+            Money expected = converter.convert(date, Money.of(currencyCode, amount));
+
+            assertThat(date + " " + currencyCode + " " + amount, converter.convert(date, currencyCode, amount),
+                            is(expected.getAmount()));
+        }
+    }
+}
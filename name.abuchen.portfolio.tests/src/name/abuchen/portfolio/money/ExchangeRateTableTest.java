@@ -0,0 +1,123 @@
+package name.abuchen.portfolio.money;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.Test;
+
+import name.abuchen.portfolio.money.impl.ChainedExchangeRateTimeSeries;
+import name.abuchen.portfolio.money.impl.ExchangeRateTimeSeriesImpl;
+import name.abuchen.portfolio.money.impl.InverseExchangeRateTimeSeries;
+
+@SuppressWarnings("nls")
+public class ExchangeRateTableTest
+{
+    private static final LocalDate START = LocalDate.parse("2015-01-01");
+
+    private static ExchangeRateTimeSeriesImpl createSeries(String base, String term, long seed)
+    {
+        Random random = new Random(seed);
+        ExchangeRateTimeSeriesImpl series = new ExchangeRateTimeSeriesImpl(null, base, term);
+        for (int ii = 0; ii < 100; ii++)
+        {
+            // skip some days like weekends and holidays
+            if (random.nextInt(7) < 2)
+                continue;
+            BigDecimal rate = BigDecimal.valueOf(50000 + random.nextInt(100000), 5);
+            series.addRate(new ExchangeRate(START.plusDays(ii), rate));
+        }
+        return series;
+    }
+
+    private static long expected(ExchangeRateTimeSeries series, LocalDate date, long amount)
+    {
+        // reference implementation of the currency conversion
+        BigDecimal rate = series.lookupRate(date).get().getValue();
+        return Math.round(rate.multiply(BigDecimal.valueOf(amount)).doubleValue());
+    }
+
+    @Test
+    public void testConversionIsIdenticalToBigDecimalArithmetic()
+    {
+        ExchangeRateTimeSeriesImpl eurUsd = createSeries(CurrencyUnit.EUR, "USD", 1);
+        ExchangeRateTimeSeriesImpl eurChf = createSeries(CurrencyUnit.EUR, "CHF", 2);
+        ExchangeRateTimeSeries usdChf = new ChainedExchangeRateTimeSeries(new InverseExchangeRateTimeSeries(eurUsd),
+                        eurChf);
+
+        Random random = new Random(3);
+
+        for (ExchangeRateTimeSeries series : new ExchangeRateTimeSeries[] { eurUsd,
+                        new InverseExchangeRateTimeSeries(eurUsd), usdChf })
+        {
+            ExchangeRateTable table = new ExchangeRateTable(series);
+
+            for (int ii = 0; ii < 20000; ii++)
+            {
+                LocalDate date = START.plusDays(random.nextInt(120) - 10);
+                long amount = random.nextBoolean() ? random.nextInt(1000000) - 500000 : random.nextLong() >> 20;
+
+                assertThat(series.getLabel() + " " + date + " " + amount, table.convert(date, amount),
+                                is(expected(series, date, amount)));
+            }
+        }
+    }
+
+    @Test
+    public void testConversionAtRoundingBoundary()
+    {
+        ExchangeRateTimeSeriesImpl series = new ExchangeRateTimeSeriesImpl(null, CurrencyUnit.EUR, "USD");
+        series.addRate(new ExchangeRate(START, new BigDecimal("0.5")));
+        series.addRate(new ExchangeRate(START.plusDays(1), new BigDecimal("1.0010")));
+        series.addRate(new ExchangeRate(START.plusDays(2), new BigDecimal("0.0000000001")));
+
+        ExchangeRateTable table = new ExchangeRateTable(series);
+
+        for (long amount = -3000; amount <= 3000; amount++)
+        {
+            for (int day = 0; day < 3; day++)
+            {
+                LocalDate date = START.plusDays(day);
+                assertThat(date + " " + amount, table.convert(date, amount), is(expected(series, date, amount)));
+            }
+        }
+
+        // 1.0010 * 500 = 500.5 exactly, but 500.49999999999994 in double
+        // arithmetic
+        assertThat(table.convert(START.plusDays(1), 500), is(501L));
+        assertThat(table.convert(START.plusDays(1), 1500), is(1502L));
+    }
+
+    @Test
+    public void testLookupOutsideOfAndAcrossTableRange()
+    {
+        ExchangeRateTimeSeriesImpl series = createSeries(CurrencyUnit.EUR, "USD", 4);
+        ExchangeRateTable table = new ExchangeRateTable(series);
+
+        // fill the table backwards and forwards from the middle
+        LocalDate middle = START.plusDays(50);
+        for (int ii = 0; ii < 2000; ii++)
+        {
+            LocalDate before = middle.minusDays(ii);
+            LocalDate after = middle.plusDays(ii);
+
+            assertThat(table.lookupRate(before), sameInstance(series.lookupRate(before).get()));
+            assertThat(table.lookupRate(after), sameInstance(series.lookupRate(after).get()));
+        }
+
+        // far away dates are not stored, but looked up
+        LocalDate distant = LocalDate.parse("2500-01-01");
+        assertThat(table.lookupRate(distant), sameInstance(series.lookupRate(distant).get()));
+        assertThat(table.lookupRate(middle), sameInstance(series.lookupRate(middle).get()));
+    }
+
+    @Test(expected = MonetaryException.class)
+    public void testEmptySeries()
+    {
+        new ExchangeRateTable(new ExchangeRateTimeSeriesImpl(null, CurrencyUnit.EUR, "USD")).convert(START, 100);
+    }
+}
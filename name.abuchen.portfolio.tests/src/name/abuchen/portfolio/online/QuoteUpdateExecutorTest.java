@@ -0,0 +1,212 @@
+package name.abuchen.portfolio.online;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.number.OrderingComparison.greaterThan;
+import static org.hamcrest.number.OrderingComparison.lessThan;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jsoup.Jsoup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import name.abuchen.portfolio.online.QuoteUpdateExecutor.Statistics;
+
+@SuppressWarnings("nls")
+public class QuoteUpdateExecutorTest
+{
+    private List<String> failed;
+    private QuoteUpdateExecutor executor;
+
+    @Before
+    public void setup()
+    {
+        failed = Collections.synchronizedList(new ArrayList<>());
+        executor = new QuoteUpdateExecutor(8, 2, (label, errors) -> failed.add(label));
+        executor.setInitialBackoff(10);
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdown();
+    }
+
+    private static void read(String url) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream in = connection.getInputStream())
+        {
+            // consume the body so that the connection can be reused
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) >= 0)
+                ; // NOSONAR
+        }
+    }
+
+    @Test
+    public void testConcurrencyIsLimitedPerHost() throws Exception
+    {
+        Map<String, AtomicInteger> concurrent = new ConcurrentHashMap<>();
+        Map<String, Integer> maxConcurrent = new ConcurrentHashMap<>();
+
+        StubHttpServer.Handler handler = (path, headers) -> {
+            String group = path.substring(1, path.indexOf('/', 1));
+
+            int current = concurrent.computeIfAbsent(group, g -> new AtomicInteger()).incrementAndGet();
+            maxConcurrent.merge(group, current, Math::max);
+            try
+            {
+                Thread.sleep(20);
+            }
+            finally
+            {
+                concurrent.get(group).decrementAndGet();
+            }
+
+            return new StubHttpServer.Reply(200, "Date,Close\n2017-01-02,1.0\n");
+        };
+
+        try (StubHttpServer server = new StubHttpServer(handler))
+        {
+            for (int ii = 0; ii < 20; ii++)
+            {
+                for (String host : new String[] { "a", "b", "c" })
+                {
+                    String url = server.url("/" + host + "/" + ii);
+                    executor.submit("Stub", host, url, errors -> {
+                        try
+                        {
+                            read(url);
+                        }
+                        catch (IOException e)
+                        {
+                            errors.add(e);
+                        }
+                    });
+                }
+            }
+
+            assertThat(executor.await(30, TimeUnit.SECONDS), is(true));
+
+            assertThat(failed.isEmpty(), is(true));
+            assertThat(server.getRequests(), is(60));
+
+            for (String host : new String[] { "a", "b", "c" })
+                assertThat(maxConcurrent.get(host), lessThanOrEqualTo(2));
+
+            // hosts are updated in parallel
+            int total = maxConcurrent.values().stream().mapToInt(Integer::intValue).sum();
+            assertThat(total, greaterThan(3));
+
+            // kept-alive connections are reused
+            assertThat(server.getConnections(), lessThan(60));
+
+            Statistics statistics = executor.getStatistics().get(0);
+            assertThat(statistics.getFeed(), is("Stub"));
+            assertThat(statistics.getTasks(), is(60));
+            assertThat(statistics.getRequests(), is(60));
+            assertThat(statistics.getRetries(), is(0));
+            assertThat(statistics.getFailures(), is(0));
+            assertThat(statistics.getAverageLatency(TimeUnit.MILLISECONDS), greaterThan(0L));
+            assertThat(statistics.getThroughput() > 0, is(true));
+        }
+    }
+
+    @Test
+    public void testTransientErrorsAreRetried() throws Exception
+    {
+        AtomicInteger counter = new AtomicInteger();
+
+        try (StubHttpServer server = new StubHttpServer(
+                        (path, headers) -> new StubHttpServer.Reply(counter.incrementAndGet() <= 2 ? 503 : 200, "")))
+        {
+            String url = server.url("/a/quotes");
+            executor.submit("Stub", "a", "retry", errors -> {
+                try
+                {
+                    Jsoup.connect(url).execute();
+                }
+                catch (IOException e)
+                {
+                    errors.add(e);
+                }
+            });
+
+            assertThat(executor.await(30, TimeUnit.SECONDS), is(true));
+
+            assertThat(failed.isEmpty(), is(true));
+            assertThat(server.getRequests(), is(3));
+
+            Statistics statistics = executor.getStatistics().get(0);
+            assertThat(statistics.getRequests(), is(3));
+            assertThat(statistics.getRetries(), is(2));
+            assertThat(statistics.getFailures(), is(0));
+        }
+    }
+
+    @Test
+    public void testPermanentErrorsAreNotRetried() throws Exception
+    {
+        try (StubHttpServer server = new StubHttpServer((path, headers) -> new StubHttpServer.Reply(404, "")))
+        {
+            String url = server.url("/a/quotes");
+            executor.submit("Stub", "a", "missing", errors -> {
+                try
+                {
+                    Jsoup.connect(url).execute();
+                }
+                catch (IOException e)
+                {
+                    errors.add(e);
+                }
+            });
+
+            assertThat(executor.await(30, TimeUnit.SECONDS), is(true));
+
+            assertThat(failed, is(Collections.singletonList("missing")));
+            assertThat(server.getRequests(), is(1));
+            assertThat(executor.getStatistics().get(0).getFailures(), is(1));
+        }
+    }
+
+    @Test
+    public void testCancelDiscardsPendingTasks() throws Exception
+    {
+        AtomicInteger executed = new AtomicInteger();
+
+        for (int ii = 0; ii < 10; ii++)
+        {
+            executor.submit("Stub", "a", "task", errors -> {
+                executed.incrementAndGet();
+                try
+                {
+                    Thread.sleep(50);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        executor.cancel();
+        assertThat(executor.await(30, TimeUnit.SECONDS), is(true));
+
+        // only the tasks running at the time of cancellation are executed
+        assertThat(executed.get(), lessThanOrEqualTo(2));
+    }
+}
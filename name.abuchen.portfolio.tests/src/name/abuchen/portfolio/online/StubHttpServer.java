@@ -0,0 +1,156 @@
+package name.abuchen.portfolio.online;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal HTTP/1.1 server for testing the quote feeds against a local host.
+ * Connections are kept alive, i.e. clients can reuse them.
+ * <p/>
+ * The server is built on a plain server socket because com.sun.net.httpserver
+ * is not visible in the OSGi test runtime.
+ */
+@SuppressWarnings("nls")
+public class StubHttpServer implements AutoCloseable
+{
+    public static class Reply
+    {
+        private final int status;
+        private final Map<String, String> headers = new HashMap<>();
+        private final byte[] body;
+
+        public Reply(int status, String body)
+        {
+            this.status = status;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public Reply header(String name, String value)
+        {
+            headers.put(name, value);
+            return this;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Handler
+    {
+        /**
+         * Answers the request. The header names are lower case.
+         */
+        Reply handle(String path, Map<String, String> headers) throws InterruptedException;
+    }
+
+    private final ServerSocket socket;
+    private final Handler handler;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public StubHttpServer(Handler handler) throws IOException
+    {
+        this.handler = handler;
+        this.socket = new ServerSocket(0);
+
+        Thread acceptor = new Thread(this::accept);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String url(String path)
+    {
+        return "http://localhost:" + socket.getLocalPort() + path;
+    }
+
+    /**
+     * Returns the number of accepted connections.
+     */
+    public int getConnections()
+    {
+        return connections.get();
+    }
+
+    public int getRequests()
+    {
+        return requests.get();
+    }
+
+    private void accept()
+    {
+        while (!socket.isClosed())
+        {
+            try
+            {
+                Socket client = socket.accept();
+                connections.incrementAndGet();
+
+                Thread thread = new Thread(() -> handle(client));
+                thread.setDaemon(true);
+                thread.start();
+            }
+            catch (IOException ignore)
+            {
+                // socket closed
+            }
+        }
+    }
+
+    private void handle(Socket client)
+    {
+        try (Socket s = client)
+        {
+            BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = s.getOutputStream();
+
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null)
+            {
+                Map<String, String> headers = new HashMap<>();
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty())
+                {
+                    int colon = line.indexOf(':');
+                    if (colon > 0)
+                        headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                                        line.substring(colon + 1).trim());
+                }
+
+                requests.incrementAndGet();
+
+                Reply reply = handler.handle(requestLine.split(" ")[1], Collections.unmodifiableMap(headers));
+                byte[] body = reply.status == 304 ? new byte[0] : reply.body;
+
+                StringBuilder header = new StringBuilder();
+                header.append("HTTP/1.1 ").append(reply.status).append(" Stub\r\n");
+                header.append("Content-Type: text/plain; charset=UTF-8\r\n");
+                header.append("Content-Length: ").append(body.length).append("\r\n");
+                reply.headers.forEach((k, v) -> header.append(k).append(": ").append(v).append("\r\n"));
+                header.append("\r\n");
+
+                out.write(header.toString().getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+            }
+        }
+        catch (IOException | InterruptedException ignore)
+        {
+            // connection closed by client
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        socket.close();
+    }
+}
@@ -0,0 +1,189 @@
+package name.abuchen.portfolio.online.impl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jsoup.HttpStatusException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import name.abuchen.portfolio.online.StubHttpServer;
+
+@SuppressWarnings("nls")
+public class HttpCacheTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static StubHttpServer.Handler etagHandler(List<String> conditionalRequests)
+    {
+        return (path, headers) -> {
+            String etag = "\"" + path.hashCode() + "\"";
+
+            if (etag.equals(headers.get("if-none-match")))
+            {
+                conditionalRequests.add(path);
+                return new StubHttpServer.Reply(304, "");
+            }
+
+            return new StubHttpServer.Reply(200, "content of " + path + " äöü").header("ETag", etag);
+        };
+    }
+
+    @Test
+    public void testFreshResponsesAreServedWithoutRequest() throws IOException
+    {
+        try (StubHttpServer server = new StubHttpServer(etagHandler(new ArrayList<>())))
+        {
+            HttpCache cache = new HttpCache(folder.getRoot(), 1024 * 1024);
+
+            String url = server.url("/quotes");
+            assertThat(cache.get(url, Duration.ofMinutes(5)).getBodyAsString(), is("content of /quotes äöü"));
+            assertThat(cache.get(url, Duration.ofMinutes(5)).getBodyAsString(), is("content of /quotes äöü"));
+
+            assertThat(server.getRequests(), is(1));
+        }
+    }
+
+    @Test
+    public void testColdStartIssuesConditionalRequestsOnly() throws IOException
+    {
+        List<String> conditionalRequests = new ArrayList<>();
+
+        try (StubHttpServer server = new StubHttpServer(etagHandler(conditionalRequests)))
+        {
+            String url = server.url("/quotes");
+
+            new HttpCache(folder.getRoot(), 1024 * 1024).get(url, Duration.ZERO);
+            assertThat(server.getRequests(), is(1));
+
+            // a new instance reads the responses from disk (like after a
+            // restart of the application) and revalidates them
+            HttpCache cache = new HttpCache(folder.getRoot(), 1024 * 1024);
+            HttpCache.Response response = cache.get(url, Duration.ZERO);
+
+            assertThat(response.getBodyAsString(), is("content of /quotes äöü"));
+            assertThat(server.getRequests(), is(2));
+            assertThat(conditionalRequests, is(Collections.singletonList("/quotes")));
+        }
+    }
+
+    @Test
+    public void testCacheKeyIsIndependentOfSessionParameters() throws IOException
+    {
+        try (StubHttpServer server = new StubHttpServer(etagHandler(new ArrayList<>())))
+        {
+            HttpCache cache = new HttpCache(null, 1024 * 1024);
+
+            cache.get(server.url("/quotes?crumb=a"), "quotes", Duration.ofMinutes(5), Collections.emptyMap());
+            HttpCache.Response response = cache.get(server.url("/quotes?crumb=b"), "quotes", Duration.ofMinutes(5),
+                            Collections.emptyMap());
+
+            assertThat(response.getBodyAsString(), is("content of /quotes?crumb=a äöü"));
+            assertThat(server.getRequests(), is(1));
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponsesAreEvicted() throws IOException
+    {
+        try (StubHttpServer server = new StubHttpServer(etagHandler(new ArrayList<>())))
+        {
+            long maxBytes = 600;
+            HttpCache cache = new HttpCache(folder.getRoot(), maxBytes);
+
+            for (int ii = 0; ii < 10; ii++)
+            {
+                cache.get(server.url("/quotes/" + ii), Duration.ofMinutes(5));
+
+                // keep the first response in use
+                assertThat(cache.lookup(server.url("/quotes/0")) != null, is(true));
+            }
+
+            assertThat(cache.getTotalBytes(), lessThanOrEqualTo(maxBytes));
+            assertThat(cache.lookup(server.url("/quotes/1")), is(nullValue()));
+            assertThat(cache.lookup(server.url("/quotes/9")) != null, is(true));
+
+            File[] files = folder.getRoot().listFiles((dir, name) -> name.endsWith(".cache"));
+            long size = 0;
+            for (File file : files)
+                size += file.length();
+            assertThat(size, is(cache.getTotalBytes()));
+
+            // the order of access survives a restart
+            HttpCache restarted = new HttpCache(folder.getRoot(), maxBytes);
+            assertThat(restarted.getTotalBytes(), is(cache.getTotalBytes()));
+        }
+    }
+
+    @Test
+    public void testRedirectsAreFollowed() throws IOException
+    {
+        List<String> paths = new ArrayList<>();
+
+        try (StubHttpServer server = new StubHttpServer((path, headers) -> {
+            paths.add(path);
+            switch (path)
+            {
+                case "/old":
+                    return new StubHttpServer.Reply(301, "").header("Location", "/moved");
+                case "/moved":
+                    // absolute location
+                    return new StubHttpServer.Reply(302, "").header("Location",
+                                    "http://" + headers.get("host") + "/new");
+                default:
+                    return new StubHttpServer.Reply(200, "content of " + path);
+            }
+        }))
+        {
+            HttpCache cache = new HttpCache(folder.getRoot(), 1024 * 1024);
+
+            String url = server.url("/old");
+            assertThat(cache.get(url, Duration.ofMinutes(5)).getBodyAsString(), is("content of /new"));
+            assertThat(paths, is(Arrays.asList("/old", "/moved", "/new")));
+
+            // the response is cached under the original URL
+            assertThat(cache.get(url, Duration.ofMinutes(5)).getBodyAsString(), is("content of /new"));
+            assertThat(server.getRequests(), is(3));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRedirectLoopsAreAborted() throws IOException
+    {
+        try (StubHttpServer server = new StubHttpServer(
+                        (path, headers) -> new StubHttpServer.Reply(302, "").header("Location", path)))
+        {
+            new HttpCache(folder.getRoot(), 1024 * 1024).get(server.url("/loop"), Duration.ofMinutes(5));
+        }
+    }
+
+    @Test(expected = HttpStatusException.class)
+    public void testErrorsAreNotCached() throws IOException
+    {
+        try (StubHttpServer server = new StubHttpServer((path, headers) -> new StubHttpServer.Reply(503, "")))
+        {
+            HttpCache cache = new HttpCache(folder.getRoot(), 1024 * 1024);
+
+            try
+            {
+                cache.get(server.url("/quotes"), Duration.ofMinutes(5));
+            }
+            finally
+            {
+                assertThat(cache.lookup(server.url("/quotes")), is(nullValue()));
+            }
+        }
+    }
+}
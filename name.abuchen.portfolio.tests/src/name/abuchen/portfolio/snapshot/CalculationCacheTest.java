@@ -0,0 +1,299 @@
+package name.abuchen.portfolio.snapshot;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import name.abuchen.portfolio.AccountBuilder;
+import name.abuchen.portfolio.PortfolioBuilder;
+import name.abuchen.portfolio.SecurityBuilder;
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.SecurityPrice;
+import name.abuchen.portfolio.money.CurrencyUnit;
+import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
+import name.abuchen.portfolio.money.Values;
+
+@SuppressWarnings("nls")
+public class CalculationCacheTest
+{
+    private Client client;
+    private Account accountA;
+    private Account accountB;
+    private Security security;
+
+    private ExchangeRateProviderFactory factory = new ExchangeRateProviderFactory();
+    private List<String> calculations = new ArrayList<>();
+
+    @Before
+    public void setupClient()
+    {
+        client = new Client();
+
+        security = new SecurityBuilder() //
+                        .addPrice("2016-01-04", Values.Quote.factorize(100)) //
+                        .addPrice("2016-01-05", Values.Quote.factorize(101)) //
+                        .addTo(client);
+
+        accountA = new AccountBuilder() //
+                        .deposit_("2016-01-01", Values.Amount.factorize(1000)) //
+                        .addTo(client);
+
+        accountB = new AccountBuilder() //
+                        .deposit_("2016-01-01", Values.Amount.factorize(2000)) //
+                        .addTo(client);
+
+        new PortfolioBuilder(accountA) //
+                        .buy(security, "2016-01-04", Values.Share.factorize(5), Values.Amount.factorize(500)) //
+                        .addTo(client);
+    }
+
+    private CalculationCache<String, String> createCache(long maximumSize)
+    {
+        return new CalculationCache<>(client, factory, maximumSize, result -> 10);
+    }
+
+    private String lookup(CalculationCache<String, String> cache, String key, Object dependency)
+    {
+        return cache.lookup(key, dependencies -> {
+            if (dependency != null)
+                dependencies.add(dependency);
+            else
+                dependencies.addClient();
+            calculations.add(key);
+            return key;
+        });
+    }
+
+    private void lookupAll(CalculationCache<String, String> cache)
+    {
+        lookup(cache, "A", accountA);
+        lookup(cache, "B", accountB);
+        lookup(cache, "S", security);
+        lookup(cache, "C", null);
+    }
+
+    @Test
+    public void testOnlyResultsDependingOnModifiedObjectsAreRemoved()
+    {
+        CalculationCache<String, String> cache = createCache(Long.MAX_VALUE);
+
+        lookupAll(cache);
+        lookupAll(cache);
+        assertThat(calculations.size(), is(4));
+        assertThat(cache.getStatistics().getHits(), is(4L));
+
+        // events without modification do not remove any result
+        client.markDirty();
+        calculations.clear();
+        lookupAll(cache);
+        assertThat(calculations.isEmpty(), is(true));
+
+        // modify account A
+        accountA.addTransaction(new AccountTransaction(LocalDate.parse("2016-02-01"), CurrencyUnit.EUR,
+                        Values.Amount.factorize(10), null, AccountTransaction.Type.DEPOSIT));
+        client.markDirty();
+        lookupAll(cache);
+        assertThat(calculations, is(Arrays.asList("A", "C")));
+
+        // modify a transaction of account B
+        calculations.clear();
+        accountB.getTransactions().get(0).setAmount(Values.Amount.factorize(2500));
+        client.markDirty();
+        lookupAll(cache);
+        assertThat(calculations, is(Arrays.asList("B", "C")));
+
+        // add a price
+        calculations.clear();
+        security.addPrice(new SecurityPrice(LocalDate.parse("2016-01-06"), Values.Quote.factorize(102)));
+        client.markDirty();
+        lookupAll(cache);
+        assertThat(calculations, is(Arrays.asList("S", "C")));
+
+        // a dividend modifies both the account and the security
+        calculations.clear();
+        accountB.addTransaction(new AccountTransaction(LocalDate.parse("2016-03-01"), CurrencyUnit.EUR,
+                        Values.Amount.factorize(5), security, AccountTransaction.Type.DIVIDENDS));
+        client.markDirty();
+        lookupAll(cache);
+        assertThat(calculations, is(Arrays.asList("B", "S", "C")));
+
+        assertThat(cache.getStatistics().getInvalidations(), is(9L));
+    }
+
+    @Test
+    public void testModificationsWithoutEventAreNotDetected()
+    {
+        CalculationCache<String, String> cache = createCache(Long.MAX_VALUE);
+        lookupAll(cache);
+
+        accountA.getTransactions().get(0).setAmount(Values.Amount.factorize(1500));
+        calculations.clear();
+        lookupAll(cache);
+        assertThat(calculations.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUpdatedExchangeRatesRemoveAllResults()
+    {
+        CalculationCache<String, String> cache = createCache(Long.MAX_VALUE);
+        lookupAll(cache);
+
+        factory.clearCache();
+        calculations.clear();
+        lookupAll(cache);
+        assertThat(calculations, is(Arrays.asList("A", "B", "S", "C")));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultsAreEvicted()
+    {
+        CalculationCache<String, String> cache = createCache(30);
+
+        lookup(cache, "1", null);
+        lookup(cache, "2", null);
+        lookup(cache, "3", null);
+        lookup(cache, "1", null);
+        lookup(cache, "4", null);
+
+        assertThat(cache.getStatistics().getEvictions(), is(1L));
+        assertThat(cache.getStatistics().getEntries(), is(3));
+        assertThat(cache.getStatistics().getSize(), is(30L));
+
+        calculations.clear();
+        lookup(cache, "1", null);
+        lookup(cache, "2", null);
+        assertThat(calculations, is(Arrays.asList("2")));
+    }
+
+    @Test
+    public void testFailedCalculationsAreNotCached()
+    {
+        CalculationCache<String, String> cache = createCache(Long.MAX_VALUE);
+
+        try
+        {
+            cache.lookup("X", dependencies -> {
+                throw new IllegalArgumentException();
+            });
+            fail();
+        }
+        catch (IllegalArgumentException expected)
+        {
+            // expected
+        }
+
+        assertThat(lookup(cache, "X", null), is("X"));
+        assertThat(calculations, is(Arrays.asList("X")));
+    }
+
+    @Test
+    public void testPeekDoesNotCalculate() throws Exception
+    {
+        CalculationCache<String, String> cache = createCache(Long.MAX_VALUE);
+
+        assertThat(cache.peek("A"), is(nullValue()));
+        assertThat(calculations.isEmpty(), is(true));
+
+        // a running calculation is not awaited
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<String> running = executor.submit(() -> cache.lookup("R", dependencies -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "R";
+            }));
+
+            started.await(10, TimeUnit.SECONDS);
+            assertThat(cache.peek("R"), is(nullValue()));
+
+            release.countDown();
+            assertThat(running.get(10, TimeUnit.SECONDS), is("R"));
+            assertThat(cache.peek("R"), is("R"));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        lookup(cache, "A", accountA);
+        assertThat(cache.peek("A"), is("A"));
+
+        // modifications remove the result
+        accountA.getTransactions().get(0).setAmount(Values.Amount.factorize(1500));
+        client.markDirty();
+        assertThat(cache.peek("A"), is(nullValue()));
+        assertThat(calculations, is(Arrays.asList("A")));
+    }
+
+    @Test
+    public void testConcurrentLookupsCalculateOnce() throws Exception
+    {
+        CalculationCache<String, String> cache = createCache(Long.MAX_VALUE);
+
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            Future<String> first = executor.submit(() -> cache.lookup("K", dependencies -> {
+                count.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "V";
+            }));
+
+            started.await(10, TimeUnit.SECONDS);
+
+            Future<String> second = executor.submit(() -> cache.lookup("K", dependencies -> {
+                count.incrementAndGet();
+                return "W";
+            }));
+
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS), is("V"));
+            assertThat(second.get(10, TimeUnit.SECONDS), is("V"));
+            assertThat(count.get(), is(1));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -481,6 +481,37 @@ public class ClientPerformanceSnapshotTest
         assertThatCalculationWorksOut(snapshot, converter);
     }
 
+    @Test
+    public void testEarningsAndFeesKeepTheOrderOfTheAccount()
+    {
+        Client client = new Client();
+
+        // transactions are not added in the order of their dates
+        new AccountBuilder() //
+                        .interest("2011-03-01", Values.Amount.factorize(30)) //
+                        .fees____("2011-02-01", Values.Amount.factorize(20)) //
+                        .interest("2011-01-01", Values.Amount.factorize(10)) //
+                        .fees_refund("2011-01-01", Values.Amount.factorize(5)) //
+                        .addTo(client);
+
+        CurrencyConverter converter = new TestCurrencyConverter();
+        ClientPerformanceSnapshot snapshot = new ClientPerformanceSnapshot(client, converter, startDate, endDate);
+
+        assertThat(snapshot.getEarnings().size(), is(2));
+        assertThat(snapshot.getEarnings().get(0).getTransaction().getDate(),
+                        is(LocalDate.parse("2011-03-01")));
+        assertThat(snapshot.getEarnings().get(1).getTransaction().getDate(),
+                        is(LocalDate.parse("2011-01-01")));
+
+        assertThat(snapshot.getFees().size(), is(2));
+        assertThat(snapshot.getFees().get(0).getTransaction().getMonetaryAmount(),
+                        is(Money.of(CurrencyUnit.EUR, Values.Amount.factorize(20))));
+        assertThat(snapshot.getFees().get(1).getTransaction().getMonetaryAmount(),
+                        is(Money.of(CurrencyUnit.EUR, Values.Amount.factorize(5))));
+
+        assertThatCalculationWorksOut(snapshot, converter);
+    }
+
     private void assertThatCalculationWorksOut(ClientPerformanceSnapshot snapshot, CurrencyConverter converter)
     {
         MutableMoney valueAtEndOfPeriod = MutableMoney.of(converter.getTermCurrency());
@@ -0,0 +1,100 @@
+package name.abuchen.portfolio.snapshot;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import name.abuchen.portfolio.TestCurrencyConverter;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.InvestmentVehicle;
+import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.snapshot.filter.PortfolioClientFilter;
+import scenarios.Scenarios;
+
+@SuppressWarnings("nls")
+public class HoldingsSweepTest
+{
+    private final CurrencyConverter converter = new TestCurrencyConverter();
+
+    @Test
+    public void testValuationIsIdenticalToClientSnapshot() throws IOException
+    {
+        for (String scenario : Scenarios.ALL)
+        {
+            Client client = Scenarios.load(scenario);
+            assertIdenticalValuation(scenario, client);
+
+            // check a filtered client with read-only accounts and portfolios
+            Client filtered = new PortfolioClientFilter(client.getPortfolios(), client.getAccounts()).filter(client);
+            assertIdenticalValuation(scenario + " (filtered)", filtered);
+        }
+    }
+
+    @Test
+    public void testClientIndexTotalsAreIdenticalToClientSnapshot() throws IOException
+    {
+        Client client = Scenarios.load("currency_sample.xml");
+
+        LocalDate start = LocalDate.parse("2014-12-31");
+        LocalDate end = LocalDate.parse("2015-08-31");
+
+        PerformanceIndex index = PerformanceIndex.forClient(client, converter, new ReportingPeriod.FromXtoY(start, end),
+                        new ArrayList<>());
+
+        LocalDate[] dates = index.getDates();
+        long[] totals = index.getTotals();
+
+        for (int ii = 0; ii < dates.length; ii++)
+            assertThat(dates[ii].toString(), totals[ii],
+                            is(ClientSnapshot.create(client, converter, dates[ii]).getMonetaryAssets().getAmount()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSweepCannotMoveBackwards()
+    {
+        HoldingsSweep sweep = new HoldingsSweep(new Client(), converter);
+        sweep.moveTo(LocalDate.parse("2015-01-02"));
+        sweep.moveTo(LocalDate.parse("2015-01-01"));
+    }
+
+    private void assertIdenticalValuation(String label, Client client)
+    {
+        LocalDate first = Stream
+                        .concat(client.getAccounts().stream().flatMap(a -> a.getTransactions().stream()),
+                                        client.getPortfolios().stream().flatMap(p -> p.getTransactions().stream()))
+                        .map(Transaction::getDate).min(LocalDate::compareTo).orElse(LocalDate.parse("2015-01-01"));
+
+        LocalDate last = Stream
+                        .concat(client.getAccounts().stream().flatMap(a -> a.getTransactions().stream()),
+                                        client.getPortfolios().stream().flatMap(p -> p.getTransactions().stream()))
+                        .map(Transaction::getDate).max(LocalDate::compareTo).orElse(LocalDate.parse("2015-01-01"));
+
+        HoldingsSweep sweep = new HoldingsSweep(client, converter);
+
+        for (LocalDate date = first.minusDays(5); !date.isAfter(last.plusDays(5)); date = date.plusDays(1))
+        {
+            sweep.moveTo(date);
+
+            ClientSnapshot snapshot = ClientSnapshot.create(client, converter, date);
+            assertThat(label + " " + date, sweep.getMonetaryAssets(), is(snapshot.getMonetaryAssets()));
+
+            Map<InvestmentVehicle, Long> valuations = new HashMap<>();
+            sweep.forEachValuation((vehicle, value) -> valuations.put(vehicle, value));
+
+            Map<InvestmentVehicle, Long> expected = new HashMap<>();
+            snapshot.getPositionsByVehicle()
+                            .forEach((vehicle, p) -> expected.put(vehicle, p.getValuation().getAmount()));
+
+            assertThat(label + " " + date, valuations, is(expected));
+        }
+    }
+}
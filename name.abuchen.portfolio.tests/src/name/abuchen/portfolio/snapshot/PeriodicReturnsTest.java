@@ -0,0 +1,116 @@
+package name.abuchen.portfolio.snapshot;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import name.abuchen.portfolio.AccountBuilder;
+import name.abuchen.portfolio.PortfolioBuilder;
+import name.abuchen.portfolio.SecurityBuilder;
+import name.abuchen.portfolio.TestCurrencyConverter;
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.money.Values;
+import name.abuchen.portfolio.util.Interval;
+
+@SuppressWarnings("nls")
+public class PeriodicReturnsTest
+{
+    private Client client;
+    private CurrencyConverter converter = new TestCurrencyConverter();
+
+    @Before
+    public void setupClient()
+    {
+        client = new Client();
+
+        Security security = new SecurityBuilder() //
+                        .generatePrices(Values.Quote.factorize(50), LocalDate.parse("2014-12-01"),
+                                        LocalDate.parse("2016-12-31")) //
+                        .addTo(client);
+
+        Account account = new AccountBuilder() //
+                        .deposit_("2015-01-02", Values.Amount.factorize(10000)) //
+                        .deposit_("2015-06-15", Values.Amount.factorize(2000)) //
+                        .withdraw("2016-02-10", Values.Amount.factorize(500)) //
+                        .interest("2016-03-31", Values.Amount.factorize(12)) //
+                        .addTo(client);
+
+        new PortfolioBuilder(account) //
+                        .buy(security, "2015-01-05", Values.Share.factorize(100), Values.Amount.factorize(5000)) //
+                        .buy(security, "2015-07-01", Values.Share.factorize(20), Values.Amount.factorize(1100)) //
+                        .sell(security, "2016-05-02", Values.Share.factorize(50), Values.Amount.factorize(2700)) //
+                        .addTo(client);
+    }
+
+    private PerformanceIndex index(LocalDate start, LocalDate end)
+    {
+        return PerformanceIndex.forClient(client, converter, new ReportingPeriod.FromXtoY(start, end),
+                        new ArrayList<>());
+    }
+
+    @Test
+    public void testMonthlyReturnsEqualSeparateCalculation()
+    {
+        PeriodicReturns returns = new PeriodicReturns(index(LocalDate.parse("2014-12-31"), //
+                        LocalDate.parse("2016-12-31")));
+
+        for (LocalDate month = LocalDate.parse("2015-01-01"); month.getYear() < 2017; month = month.plusMonths(1))
+        {
+            LocalDate end = month.withDayOfMonth(month.lengthOfMonth());
+
+            double expected = index(month.minusDays(1), end).getFinalAccumulatedPercentage();
+            assertThat(month.toString(), returns.getReturn(Interval.of(month.minusDays(1), end)), is(expected));
+        }
+    }
+
+    @Test
+    public void testCustomRangesAreClippedToIndex()
+    {
+        PerformanceIndex index = index(LocalDate.parse("2015-03-15"), LocalDate.parse("2015-10-20"));
+        PeriodicReturns returns = new PeriodicReturns(index);
+
+        assertThat(returns.getReturn(Interval.of(LocalDate.parse("2015-01-01"), LocalDate.parse("2016-01-01"))),
+                        is(index.getFinalAccumulatedPercentage()));
+
+        assertThat(returns.getReturn(Interval.of(LocalDate.parse("2015-05-10"), LocalDate.parse("2015-08-03"))),
+                        is(index(LocalDate.parse("2015-05-10"), LocalDate.parse("2015-08-03"))
+                                        .getFinalAccumulatedPercentage()));
+
+        assertThat(returns.getReturn(Interval.of(LocalDate.parse("2016-01-01"), LocalDate.parse("2016-02-01"))),
+                        is(0d));
+    }
+
+    @Test
+    public void testSlicesChainToTotalReturn()
+    {
+        PerformanceIndex index = index(LocalDate.parse("2015-02-10"), LocalDate.parse("2016-11-20"));
+        PeriodicReturns returns = new PeriodicReturns(index);
+
+        for (Aggregation.Period period : new Aggregation.Period[] { Aggregation.Period.MONTHLY,
+                        Aggregation.Period.QUARTERLY, Aggregation.Period.YEARLY })
+        {
+            List<PeriodicReturns.Slice> slices = returns.slice(period);
+
+            double total = 0d;
+            for (PeriodicReturns.Slice slice : slices)
+                total = ((total + 1) * (slice.getDelta() + 1)) - 1;
+
+            assertThat(period.name(), Math.abs(total - index.getFinalAccumulatedPercentage()) < 1e-12, is(true));
+        }
+
+        List<PeriodicReturns.Slice> quarters = returns.slice(Aggregation.Period.QUARTERLY);
+        assertThat(quarters.size(), is(8));
+        assertThat(quarters.get(0).getInterval(),
+                        is(Interval.of(LocalDate.parse("2014-12-31"), LocalDate.parse("2015-03-31"))));
+        assertThat(quarters.get(1).getDelta(), is(returns.getReturn(quarters.get(1).getInterval())));
+    }
+}
@@ -0,0 +1,138 @@
+package name.abuchen.portfolio.snapshot.security;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import name.abuchen.portfolio.AccountBuilder;
+import name.abuchen.portfolio.PortfolioBuilder;
+import name.abuchen.portfolio.SecurityBuilder;
+import name.abuchen.portfolio.TestCurrencyConverter;
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.money.Values;
+import name.abuchen.portfolio.snapshot.ReportingPeriod;
+
+@SuppressWarnings("nls")
+public class SecurityPerformanceSnapshotTest
+{
+    private static final int SECURITIES = 40;
+
+    @After
+    public void resetProperty()
+    {
+        System.clearProperty(SecurityPerformanceSnapshot.SEQUENTIAL_PROPERTY);
+    }
+
+    private Client createClient()
+    {
+        Client client = new Client();
+        Account account = new AccountBuilder().addTo(client);
+        PortfolioBuilder portfolio = new PortfolioBuilder(account);
+
+        LocalDate start = LocalDate.parse("2015-01-01");
+        LocalDate end = LocalDate.parse("2016-12-31");
+
+        for (int ii = 0; ii < SECURITIES; ii++)
+        {
+            Security security = new SecurityBuilder() //
+                            .generatePrices(Values.Quote.factorize(10 + ii), start, end) //
+                            .addTo(client);
+
+            // the last security has no transactions and therefore no record
+            if (ii == SECURITIES - 1)
+                continue;
+
+            portfolio.buy(security, "2015-02-0" + (1 + ii % 9), Values.Share.factorize(10 + ii),
+                            Values.Amount.factorize(100 + 10 * ii));
+            if (ii % 3 == 0)
+                portfolio.sell(security, "2016-03-01", Values.Share.factorize(5), Values.Amount.factorize(80 + ii));
+        }
+
+        portfolio.addTo(client);
+        return client;
+    }
+
+    @Test
+    public void testParallelCalculationEqualsSequentialCalculation()
+    {
+        Client client = createClient();
+        CurrencyConverter converter = new TestCurrencyConverter();
+        ReportingPeriod period = new ReportingPeriod.FromXtoY(LocalDate.parse("2014-12-31"),
+                        LocalDate.parse("2016-12-31"));
+
+        List<SecurityPerformanceRecord> parallel = SecurityPerformanceSnapshot.create(client, converter, period)
+                        .getRecords();
+
+        System.setProperty(SecurityPerformanceSnapshot.SEQUENTIAL_PROPERTY, "true");
+        List<SecurityPerformanceRecord> sequential = SecurityPerformanceSnapshot.create(client, converter, period)
+                        .getRecords();
+
+        assertThat(parallel.size(), is(SECURITIES - 1));
+        assertThat(sequential.size(), is(SECURITIES - 1));
+
+        for (int ii = 0; ii < parallel.size(); ii++)
+        {
+            SecurityPerformanceRecord p = parallel.get(ii);
+            SecurityPerformanceRecord s = sequential.get(ii);
+
+            // records are in the order of the securities of the client
+            assertThat(p.getSecurity(), is(client.getSecurities().get(ii)));
+            assertThat(s.getSecurity(), is(client.getSecurities().get(ii)));
+
+            assertThat(p.getIrr(), is(s.getIrr()));
+            assertThat(p.getTrueTimeWeightedRateOfReturn(), is(s.getTrueTimeWeightedRateOfReturn()));
+            assertThat(p.getMarketValue(), is(s.getMarketValue()));
+            assertThat(p.getDelta(), is(s.getDelta()));
+            assertThat(p.getFifoCost(), is(s.getFifoCost()));
+            assertThat(p.getSharesHeld(), is(s.getSharesHeld()));
+            assertThat(p.getSumOfDividends(), is(s.getSumOfDividends()));
+        }
+    }
+
+    @Test
+    public void testTransactionsOfRecordsAreSortedByDate()
+    {
+        Client client = new Client();
+
+        Security security = new SecurityBuilder() //
+                        .generatePrices(Values.Quote.factorize(10), LocalDate.parse("2015-01-01"),
+                                        LocalDate.parse("2015-12-31")) //
+                        .addTo(client);
+
+        // transactions are not added in the order of their dates
+        Account account = new AccountBuilder() //
+                        .dividend("2015-06-01", Values.Amount.factorize(20), security) //
+                        .dividend("2015-03-01", Values.Amount.factorize(10), security) //
+                        .addTo(client);
+
+        new PortfolioBuilder(account) //
+                        .buy(security, "2015-03-01", Values.Share.factorize(5), Values.Amount.factorize(50)) //
+                        .buy(security, "2015-02-01", Values.Share.factorize(5), Values.Amount.factorize(50)) //
+                        .addTo(client);
+
+        ReportingPeriod period = new ReportingPeriod.FromXtoY(LocalDate.parse("2014-12-31"),
+                        LocalDate.parse("2015-12-31"));
+        List<Transaction> transactions = SecurityPerformanceSnapshot
+                        .create(client, new TestCurrencyConverter(), period).getRecords().get(0).getTransactions();
+
+        // buy, buy, dividend, dividend, valuation at the end of the period
+        assertThat(transactions.size(), is(5));
+        assertThat(transactions.get(0).getDate(), is(LocalDate.parse("2015-02-01")));
+        assertThat(transactions.get(1).getDate(), is(LocalDate.parse("2015-03-01")));
+        assertThat(transactions.get(1) instanceof PortfolioTransaction, is(true));
+        assertThat(transactions.get(2).getDate(), is(LocalDate.parse("2015-03-01")));
+        assertThat(transactions.get(2) instanceof DividendTransaction, is(true));
+        assertThat(transactions.get(3).getDate(), is(LocalDate.parse("2015-06-01")));
+        assertThat(transactions.get(4).getDate(), is(LocalDate.parse("2015-12-31")));
+    }
+}
@@ -0,0 +1,34 @@
+package scenarios;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.ClientFactory;
+
+@SuppressWarnings("nls")
+public final class Scenarios
+{
+    /**
+     * All client files of the scenarios. Tests which must hold for any client
+     * (e.g. saving and loading) run against each of them.
+     */
+    public static final List<String> ALL = Collections.unmodifiableList(Arrays.asList( //
+                    "account_performance_tax_refund.xml", //
+                    "classification_test_case.xml", //
+                    "currency_sample.xml", //
+                    "security_performance_tax_refund.xml", //
+                    "security_performance_tax_refund_all_sold.xml", //
+                    "security_performance_with_missing_historical_quotes.xml", //
+                    "volatility.xml"));
+
+    private Scenarios()
+    {}
+
+    public static Client load(String scenario) throws IOException
+    {
+        return ClientFactory.load(Scenarios.class.getResourceAsStream(scenario));
+    }
+}
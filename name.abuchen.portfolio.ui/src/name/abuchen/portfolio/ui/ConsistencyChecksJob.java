@@ -62,7 +62,11 @@ public class ConsistencyChecksJob extends AbstractClientJob
     protected IStatus run(IProgressMonitor monitor)
     {
         monitor.beginTask(Messages.JobMsgRunningConsistencyChecks, 1);
-        final List<Issue> issues = Checker.runAll(getClient());
+
+        // checks triggered by the user run on the whole client, otherwise only
+        // the elements modified since the previous run are checked
+        final List<Issue> issues = reportSuccess ? Checker.runAll(getClient())
+                        : Checker.runIncremental(getClient());
 
         if (issues.isEmpty())
         {
@@ -325,7 +329,7 @@ public class ConsistencyChecksJob extends AbstractClientJob
         {
             if (buttonId == IDialogConstants.RETRY_ID)
             {
-                List<Issue> list = Checker.runAll(client);
+                List<Issue> list = Checker.runIncremental(client);
                 issues.clear();
                 for (Issue issue : list)
                     this.issues.add(new ReportedIssue(issue));
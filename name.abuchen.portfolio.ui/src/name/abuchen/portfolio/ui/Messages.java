@@ -305,6 +305,7 @@ public class Messages extends NLS
     public static String InvestmentPlanOptionDelivery;
     public static String InvestmentPlanTitleEditPlan;
     public static String InvestmentPlanTitleNewPlan;
+    public static String JobLabelCalculatingSecurityPerformance;
     public static String JobLabelUpdateCPI;
     public static String JobLabelUpdateQuotes;
     public static String JobLabelUpdateStackedLineChart;
@@ -315,6 +316,7 @@ public class Messages extends NLS
     public static String JobMsgLoadingExchanges;
     public static String JobMsgRunningConsistencyChecks;
     public static String JobMsgSamplingHistoricalQuotes;
+    public static String JobMsgSavingFile;
     public static String JobMsgUpdatingQuotesFor;
     public static String LabelAbout;
     public static String JurisdictionFilesDownloadExplanation;
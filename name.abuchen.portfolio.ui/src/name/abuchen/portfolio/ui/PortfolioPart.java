@@ -2,9 +2,6 @@ package name.abuchen.portfolio.ui;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
@@ -18,6 +15,8 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
@@ -103,6 +102,16 @@ public class PortfolioPart implements LoadClientThread.Callback
     private PreferenceStore preferenceStore = new PreferenceStore();
     private List<Job> regularJobs = new ArrayList<>();
 
+    /**
+     * Saves are written in the background. The lock guards the file and the
+     * sequence number of the last written save (saves must not overwrite the
+     * file with an older snapshot).
+     */
+    private final Object saveLock = new Object();
+    private long saveSequence;
+    private long writtenSequence;
+    private Job saveJob;
+
     private Composite container;
     private PageBook book;
     private AbstractFinanceView view;
@@ -352,6 +361,19 @@ public class PortfolioPart implements LoadClientThread.Callback
             storePreferences(false);
 
         regularJobs.forEach(Job::cancel);
+
+        // do not lose the last save when closing the application
+        if (saveJob != null)
+        {
+            try
+            {
+                saveJob.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     @Persist
@@ -367,14 +389,29 @@ public class PortfolioPart implements LoadClientThread.Callback
         {
             part.getPersistedState().put(UIConstants.File.PERSISTED_STATE_KEY, clientFile.getAbsolutePath());
 
-            if (preferences.getBoolean(UIConstants.Preferences.CREATE_BACKUP_BEFORE_SAVING, true))
-                createBackup(clientFile, "backup"); //$NON-NLS-1$
+            // capture the client on the UI thread (which modifies the
+            // client) and write the file in the background
+            ClientFactory.Snapshot snapshot = ClientFactory.snapshot(client, clientFile, null, null);
 
-            ClientFactory.save(client, clientFile, null, null);
-            broker.post(UIConstants.Event.File.SAVED, clientFile.getAbsolutePath());
-            dirty.setDirty(false);
+            File file = clientFile;
+            File backup = preferences.getBoolean(UIConstants.Preferences.CREATE_BACKUP_BEFORE_SAVING, true)
+                            ? getBackupFile(file, "backup") //$NON-NLS-1$
+                            : null;
+            long sequence = ++saveSequence;
 
+            dirty.setDirty(false);
             storePreferences(false);
+
+            saveJob = new Job(MessageFormat.format(Messages.JobMsgSavingFile, file.getName()))
+            {
+                @Override
+                protected IStatus run(IProgressMonitor monitor)
+                {
+                    writeSnapshot(snapshot, file, backup, sequence);
+                    return Status.OK_STATUS;
+                }
+            };
+            saveJob.schedule();
         }
         catch (IOException e)
         {
@@ -383,20 +420,37 @@ public class PortfolioPart implements LoadClientThread.Callback
         }
     }
 
+    private void writeSnapshot(ClientFactory.Snapshot snapshot, File file, File backup, long sequence)
+    {
+        synchronized (saveLock)
+        {
+            // a later save has been written already
+            if (sequence < writtenSequence)
+                return;
+
+            try
+            {
+                snapshot.save(file, backup);
+                writtenSequence = sequence;
+                broker.post(UIConstants.Event.File.SAVED, file.getAbsolutePath());
+            }
+            catch (IOException e)
+            {
+                PortfolioPlugin.log(e);
+                Display.getDefault().asyncExec(() -> {
+                    dirty.setDirty(true);
+                    ErrorDialog.openError(Display.getDefault().getActiveShell(), Messages.LabelError, e.getMessage(),
+                                    new Status(Status.ERROR, PortfolioPlugin.PLUGIN_ID, e.getMessage(), e));
+                });
+            }
+        }
+    }
+
     private void createBackup(File file, String suffix)
     {
         try
         {
-            // keep original extension in order to be able to open the backup
-            // file directly from within PP
-            String filename = file.getName();
-            int l = filename.lastIndexOf('.');
-            String backupName = l > 0 ? filename.substring(0, l) + '.' + suffix + filename.substring(l)
-                            : filename + '.' + suffix;
-
-            Path sourceFile = file.toPath();
-            Path backupFile = sourceFile.resolveSibling(backupName);
-            Files.copy(sourceFile, backupFile, StandardCopyOption.REPLACE_EXISTING);
+            ClientFactory.createBackup(file, getBackupFile(file, suffix));
         }
         catch (IOException e)
         {
@@ -406,6 +460,18 @@ public class PortfolioPart implements LoadClientThread.Callback
         }
     }
 
+    private File getBackupFile(File file, String suffix)
+    {
+        // keep original extension in order to be able to open the backup
+        // file directly from within PP
+        String filename = file.getName();
+        int l = filename.lastIndexOf('.');
+        String backupName = l > 0 ? filename.substring(0, l) + '.' + suffix + filename.substring(l)
+                        : filename + '.' + suffix;
+
+        return new File(file.getParentFile(), backupName);
+    }
+
     public void doSaveAs(MPart part, Shell shell, String extension, String encryptionMethod) // NOSONAR
     {
         FileDialog dialog = new FileDialog(shell, SWT.SAVE);
@@ -448,7 +514,13 @@ public class PortfolioPart implements LoadClientThread.Callback
             clientFile = localFile;
 
             part.getPersistedState().put(UIConstants.File.PERSISTED_STATE_KEY, clientFile.getAbsolutePath());
-            ClientFactory.save(client, clientFile, encryptionMethod, password);
+
+            synchronized (saveLock)
+            {
+                ClientFactory.save(client, clientFile, encryptionMethod, password);
+                writtenSequence = ++saveSequence;
+            }
+
             broker.post(UIConstants.Event.File.SAVED, clientFile.getAbsolutePath());
 
             dirty.setDirty(false);
@@ -1,7 +1,5 @@
 package name.abuchen.portfolio.ui;
 
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -11,20 +9,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.ISchedulingRule;
-import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.core.runtime.jobs.JobGroup;
 
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.online.Factory;
 import name.abuchen.portfolio.online.QuoteFeed;
+import name.abuchen.portfolio.online.QuoteUpdateExecutor;
 import name.abuchen.portfolio.online.impl.HTMLTableQuoteFeed;
 
 public final class UpdateQuotesJob extends AbstractClientJob
@@ -35,7 +32,7 @@ public final class UpdateQuotesJob extends AbstractClientJob
     }
 
     /**
-     * Keeps dirty state of parallel jobs and marks the client file dirty after
+     * Keeps dirty state of parallel updates and marks the client file dirty after
      * 5th dirty result. Background: marking the client dirty after every job
      * sends too many update events to the GUI.
      */
@@ -65,48 +62,6 @@ public final class UpdateQuotesJob extends AbstractClientJob
         }
     }
 
-    /**
-     * Ensure that the HTMLTableQuoteFeed retrieves quotes from one host
-     * sequentially. #478
-     */
-    private static class HostSchedulingRule implements ISchedulingRule
-    {
-        private final String host;
-
-        private HostSchedulingRule(String host)
-        {
-            this.host = host;
-        }
-
-        @Override
-        public boolean contains(ISchedulingRule rule)
-        {
-            return isConflicting(rule);
-        }
-
-        @Override
-        public boolean isConflicting(ISchedulingRule rule)
-        {
-            return rule instanceof HostSchedulingRule && ((HostSchedulingRule) rule).host.equals(this.host);
-        }
-
-        public static ISchedulingRule createFor(String url)
-        {
-            try
-            {
-                final String hostname = new URI(url).getHost();
-                return hostname != null ? new HostSchedulingRule(hostname) : null;
-            }
-            catch (URISyntaxException e) // NOSONAR
-            {
-                // ignore syntax exception -> quote feed provide will also
-                // complain but with a better error message
-                return null;
-            }
-        }
-
-    }
-
     private final Set<Target> target;
     private final List<Security> securities;
     private long repeatPeriod;
@@ -140,22 +95,32 @@ public final class UpdateQuotesJob extends AbstractClientJob
     {
         monitor.beginTask(Messages.JobLabelUpdating, IProgressMonitor.UNKNOWN);
 
+        if (monitor.isCanceled())
+            return Status.CANCEL_STATUS;
+
         Dirtyable dirtyable = new Dirtyable(getClient());
-        List<Job> jobs = new ArrayList<>();
+        QuoteUpdateExecutor executor = new QuoteUpdateExecutor(
+                        (label, errors) -> PortfolioPlugin.log(createErrorStatus(label, errors)));
 
-        // include latest quotes
-        if (target.contains(Target.LATEST))
-            addLatestQuotesJobs(dirtyable, jobs);
+        try
+        {
+            // include latest quotes
+            if (target.contains(Target.LATEST))
+                submitLatestQuotes(executor, dirtyable);
 
-        // include historical quotes
-        if (target.contains(Target.HISTORIC))
-            addHistoricalQuotesJobs(dirtyable, jobs);
+            // include historical quotes
+            if (target.contains(Target.HISTORIC))
+                submitHistoricalQuotes(executor, dirtyable);
 
-        if (monitor.isCanceled())
-            return Status.CANCEL_STATUS;
+            awaitCompletion(executor, monitor);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
 
-        if (!jobs.isEmpty())
-            runJobs(monitor, jobs);
+        if (PortfolioPlugin.isDevelopmentMode())
+            logStatistics(executor);
 
         if (!monitor.isCanceled() && dirtyable.isDirty())
             getClient().markDirty();
@@ -166,26 +131,28 @@ public final class UpdateQuotesJob extends AbstractClientJob
         return Status.OK_STATUS;
     }
 
-    private void runJobs(IProgressMonitor monitor, List<Job> jobs)
+    private void awaitCompletion(QuoteUpdateExecutor executor, IProgressMonitor monitor)
     {
-        JobGroup group = new JobGroup(Messages.JobLabelUpdating, 10, jobs.size());
-        for (Job job : jobs)
-        {
-            job.setJobGroup(group);
-            job.schedule();
-        }
-
         try
         {
-            group.join(0, monitor);
+            while (!executor.await(100, TimeUnit.MILLISECONDS))
+            {
+                if (monitor.isCanceled())
+                {
+                    // do not wait for running requests
+                    executor.cancel();
+                    break;
+                }
+            }
         }
-        catch (InterruptedException ignore) // NOSONAR
+        catch (InterruptedException e)
         {
-            // ignore
+            Thread.currentThread().interrupt();
+            executor.cancel();
         }
     }
 
-    private void addLatestQuotesJobs(Dirtyable dirtyable, List<Job> jobs)
+    private void submitLatestQuotes(QuoteUpdateExecutor executor, Dirtyable dirtyable)
     {
         Map<QuoteFeed, List<Security>> feed2securities = new HashMap<>();
 
@@ -202,14 +169,13 @@ public final class UpdateQuotesJob extends AbstractClientJob
                 continue;
 
             // the HTML download makes request per URL (per security) -> execute
-            // as parallel jobs (although the scheduling rule ensures that only
-            // one request is made per host at a given time)
+            // in parallel (although the executor limits the number of
+            // concurrent requests per host)
             if (HTMLTableQuoteFeed.ID.equals(feedId))
             {
-                Job job = createLatestQuoteJob(dirtyable, feed, Arrays.asList(s));
-                job.setRule(HostSchedulingRule
-                                .createFor(s.getLatestFeedURL() == null ? s.getFeedURL() : s.getLatestFeedURL()));
-                jobs.add(job);
+                String host = QuoteUpdateExecutor
+                                .hostOf(s.getLatestFeedURL() == null ? s.getFeedURL() : s.getLatestFeedURL());
+                submitLatestQuotes(executor, dirtyable, feed, host, Arrays.asList(s));
             }
             else
             {
@@ -218,30 +184,19 @@ public final class UpdateQuotesJob extends AbstractClientJob
         }
 
         for (Entry<QuoteFeed, List<Security>> entry : feed2securities.entrySet())
-            jobs.add(createLatestQuoteJob(dirtyable, entry.getKey(), entry.getValue()));
+            submitLatestQuotes(executor, dirtyable, entry.getKey(), entry.getKey().getId(), entry.getValue());
     }
 
-    private Job createLatestQuoteJob(Dirtyable dirtyable, QuoteFeed feed, List<Security> securities)
+    private void submitLatestQuotes(QuoteUpdateExecutor executor, Dirtyable dirtyable, QuoteFeed feed, String host,
+                    List<Security> securities)
     {
-        return new Job(feed.getName())
-        {
-            @Override
-            protected IStatus run(IProgressMonitor monitor)
-            {
-                ArrayList<Exception> exceptions = new ArrayList<>();
-
-                if (feed.updateLatestQuotes(securities, exceptions))
-                    dirtyable.markDirty();
-
-                if (!exceptions.isEmpty())
-                    PortfolioPlugin.log(createErrorStatus(feed.getName(), exceptions));
-
-                return Status.OK_STATUS;
-            }
-        };
+        executor.submit(feed.getName(), host, feed.getName(), errors -> {
+            if (feed.updateLatestQuotes(securities, errors))
+                dirtyable.markDirty();
+        });
     }
 
-    private void addHistoricalQuotesJobs(Dirtyable dirtyable, List<Job> jobs)
+    private void submitHistoricalQuotes(QuoteUpdateExecutor executor, Dirtyable dirtyable)
     {
         // randomize list in case LRU cache size of HTMLTableQuote feed is too
         // small; otherwise entries would be evicted in order
@@ -249,34 +204,31 @@ public final class UpdateQuotesJob extends AbstractClientJob
 
         for (Security security : securities)
         {
-            Job job = new Job(security.getName())
-            {
-                @Override
-                protected IStatus run(IProgressMonitor monitor)
-                {
-                    QuoteFeed feed = Factory.getQuoteFeedProvider(security.getFeed());
-                    if (feed == null)
-                        return Status.OK_STATUS;
-
-                    ArrayList<Exception> exceptions = new ArrayList<>();
-
-                    if (feed.updateHistoricalQuotes(security, exceptions))
-                        dirtyable.markDirty();
-
-                    if (!exceptions.isEmpty())
-                        PortfolioPlugin.log(createErrorStatus(security.getName(), exceptions));
-
-                    return Status.OK_STATUS;
-                }
-            };
+            QuoteFeed feed = Factory.getQuoteFeedProvider(security.getFeed());
+            if (feed == null)
+                continue;
 
-            if (HTMLTableQuoteFeed.ID.equals(security.getFeed()))
-                job.setRule(HostSchedulingRule.createFor(security.getFeedURL()));
+            // HTML tables are requested per URL, all other feeds request the
+            // quotes from a single host
+            String host = HTMLTableQuoteFeed.ID.equals(security.getFeed())
+                            ? QuoteUpdateExecutor.hostOf(security.getFeedURL()) : feed.getId();
 
-            jobs.add(job);
+            executor.submit(feed.getName(), host, security.getName(), errors -> {
+                if (feed.updateHistoricalQuotes(security, errors))
+                    dirtyable.markDirty();
+            });
         }
     }
 
+    private void logStatistics(QuoteUpdateExecutor executor)
+    {
+        MultiStatus status = new MultiStatus(PortfolioPlugin.PLUGIN_ID, IStatus.INFO, Messages.JobLabelUpdateQuotes,
+                        null);
+        for (QuoteUpdateExecutor.Statistics statistics : executor.getStatistics())
+            status.add(new Status(IStatus.INFO, PortfolioPlugin.PLUGIN_ID, statistics.toString()));
+        PortfolioPlugin.log(status);
+    }
+
     private IStatus createErrorStatus(String label, List<Exception> exceptions)
     {
         MultiStatus status = new MultiStatus(PortfolioPlugin.PLUGIN_ID, IStatus.ERROR, label, null);
@@ -151,17 +151,23 @@ public class PerformanceChartView extends AbstractHistoricView
     @Override
     public void reportingPeriodUpdated()
     {
-        seriesBuilder.getCache().clear();
         updateChart();
     }
 
     @Override
     public void notifyModelUpdated()
     {
-        seriesBuilder.getCache().clear();
         updateChart();
     }
 
+    @Override
+    public void dispose()
+    {
+        if (seriesBuilder != null)
+            seriesBuilder.getCache().dispose();
+        super.dispose();
+    }
+
     private void updateChart()
     {
         try
@@ -142,17 +142,23 @@ public class ReturnsVolatilityChartView extends AbstractHistoricView
     @Override
     public void reportingPeriodUpdated()
     {
-        cache.clear();
         updateChart();
     }
 
     @Override
     public void notifyModelUpdated()
     {
-        cache.clear();
         updateChart();
     }
 
+    @Override
+    public void dispose()
+    {
+        if (cache != null)
+            cache.dispose();
+        super.dispose();
+    }
+
     private void updateChart()
     {
         try
@@ -38,6 +38,7 @@ import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.LatestSecurityPrice;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.SecurityTransactionIndex;
 import name.abuchen.portfolio.model.SecurityPrice;
 import name.abuchen.portfolio.model.Taxonomy;
 import name.abuchen.portfolio.model.Watchlist;
@@ -693,12 +694,13 @@ public final class SecuritiesTable implements ModificationListener
         {
             boolean isDirty = false;
             List<Security> withTransactions = new ArrayList<>();
+            SecurityTransactionIndex index = new SecurityTransactionIndex(getClient());
 
             for (Object obj : selection.toArray())
             {
                 Security security = (Security) obj;
 
-                if (!security.getTransactions(getClient()).isEmpty())
+                if (!index.getTransactions(security).isEmpty())
                 {
                     withTransactions.add(security);
                 }
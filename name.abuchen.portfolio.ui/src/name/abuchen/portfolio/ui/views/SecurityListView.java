@@ -238,13 +238,12 @@ public class SecurityListView extends AbstractListView implements ModificationLi
         // called from prices table
         Security security = (Security) prices.getData(Security.class.toString());
 
-        // if the date changed, the prices must be reordered --> binary search
+        // the security stores prices by value: if the date changed, remove
+        // the price at the old date before adding the edited price
+        SecurityPrice price = (SecurityPrice) element;
         if (newValue instanceof LocalDate)
-        {
-            SecurityPrice price = (SecurityPrice) element;
-            security.removePrice(price);
-            security.addPrice(price);
-        }
+            security.removePrice(new SecurityPrice((LocalDate) oldValue, price.getValue()));
+        security.addPrice(price);
 
         securities.refresh(security);
         prices.refresh(element);
@@ -1,13 +1,11 @@
 package name.abuchen.portfolio.ui.views;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.ArrayUtils;
+
+import name.abuchen.portfolio.math.MovingWindowIndicators;
+import name.abuchen.portfolio.model.LatestSecurityPrice;
+import name.abuchen.portfolio.model.PriceSeries;
 import name.abuchen.portfolio.model.Security;
-import name.abuchen.portfolio.model.SecurityPrice;
 import name.abuchen.portfolio.money.Values;
 import name.abuchen.portfolio.ui.util.chart.TimelineChart;
 
@@ -20,9 +18,6 @@ public class SimpleMovingAverage
     private LocalDate startDate;
     private ChartLineSeriesAxes SMA;
     private int calculatedMinimumDays;
-    private List<SecurityPrice> prices;
-    private List<LocalDate> datesSMA;
-    private List<Double> valuesSMA;
 
     public SimpleMovingAverage(int rangeSMA, Security security, LocalDate startDate)
     {
@@ -30,8 +25,6 @@ public class SimpleMovingAverage
         this.security = security;
         this.startDate = startDate;
         this.SMA = new ChartLineSeriesAxes();
-        this.datesSMA = new ArrayList<>();
-        this.valuesSMA = new ArrayList<>();
         this.calculatedMinimumDays = getMinimumDaysForSMA();
         this.calculateSMA();
     }
@@ -62,56 +55,50 @@ public class SimpleMovingAverage
         if (security == null)
             return;
 
-        this.prices = security.getPricesIncludingLatest();
-        int index;
+        PriceSeries series = security.getPriceSeries();
+        LatestSecurityPrice latest = security.getLatest();
 
-        SecurityPrice startPrice = null;
+        // include the latest price if no historic price exists for that date
+        int latestIndex = latest != null ? series.binarySearch(latest.getTime()) : 0;
+        int size = series.size() + (latestIndex < 0 ? 1 : 0);
 
-        if (prices == null || prices.size() < calculatedMinimumDays)
+        if (size == 0 || size < calculatedMinimumDays)
             return;
 
-        if (startDate == null)
-        {
-            startPrice = this.getStartPrice();
-            // in case no valid start date could be determined, return null
-            if (startPrice == null)
-                return;
-            index = prices.indexOf(startPrice);
-            if (index >= prices.size())
-                return;
-        }
-        else
+        long[] days = new long[size];
+        long[] values = new long[size];
+        for (int ii = 0, jj = 0; ii < size; ii++)
         {
-            startPrice = this.getStartPriceFromStartDate();
-            // in case no valid start date could be determined, return null
-            if (startPrice == null)
-                return;
-            index = prices.indexOf(startPrice);
-            if (index >= prices.size())
-                return;
+            if (ii == ~latestIndex)
+            {
+                days[ii] = latest.getTime().toEpochDay();
+                values[ii] = latest.getValue();
+            }
+            else
+            {
+                days[ii] = series.getEpochDay(jj);
+                values[ii] = series.getValue(jj);
+                jj++;
+            }
         }
 
-        for (; index < prices.size(); index++)
-        {
-            LocalDate nextDate = prices.get(index).getTime();
-            LocalDate isBefore = nextDate.plusDays(1);
-            LocalDate isAfter = isBefore.minusDays(rangeSMA + 1L);
-            List<SecurityPrice> filteredPrices = this.getFilteredList(isBefore, isAfter);
+        // the first SMA is calculated once the range of days since the first
+        // price has passed (or at the start date)
+        long startDay = startDate != null ? startDate.toEpochDay() : days[0] + rangeSMA - 1L;
 
-            if (filteredPrices.size() < calculatedMinimumDays)
-                continue; // skip this date and try to calculate SMA for next
-                          // entry
+        MovingWindowIndicators.Result result = new MovingWindowIndicators(rangeSMA, calculatedMinimumDays,
+                        Values.Quote.divider()).calculate(days, values, startDay);
 
-            double sum = filteredPrices.stream().mapToLong(SecurityPrice::getValue).sum();
+        if (result.isEmpty())
+            return;
 
-            valuesSMA.add(sum / Values.Quote.divider() / filteredPrices.size());
-            datesSMA.add(prices.get(index).getTime());
-        }
-        LocalDate[] tmpDates = datesSMA.toArray(new LocalDate[0]);
-        Double[] tmpPrices = valuesSMA.toArray(new Double[0]);
+        int[] indices = result.getIndices();
+        LocalDate[] dates = new LocalDate[indices.length];
+        for (int ii = 0; ii < indices.length; ii++)
+            dates[ii] = LocalDate.ofEpochDay(days[indices[ii]]);
 
-        this.SMA.setDates(TimelineChart.toJavaUtilDate(tmpDates));
-        this.SMA.setValues(ArrayUtils.toPrimitive(tmpPrices));
+        this.SMA.setDates(TimelineChart.toJavaUtilDate(dates));
+        this.SMA.setValues(result.getSimpleMovingAverage());
     }
 
     public int getMinimumDaysForSMA()
@@ -120,60 +107,4 @@ public class SimpleMovingAverage
         int minDays = weeks * MIN_AVERAGE_PRICES_PER_WEEK;
         return minDays > 0 ? minDays : 1;
     }
-
-    public SecurityPrice getStartPriceFromStartDate()
-    {
-        // get Date of first possible SMA calculation beginning from startDate
-        int index = Math.abs(
-                        Collections.binarySearch(prices, new SecurityPrice(startDate, 0), new SecurityPrice.ByDate()));
-
-        if (index >= prices.size())
-            return null;
-        return determineStartPrice(startDate);
-    }
-
-    public SecurityPrice getStartPrice()
-    {
-        // get Date of first possible SMA calculation
-        LocalDate smaPeriodEnd = prices.get(0).getTime().plusDays(rangeSMA - 1L);
-        int index = Math.abs(Collections.binarySearch(prices, new SecurityPrice(smaPeriodEnd, 0),
-                        new SecurityPrice.ByDate()));
-        if (index >= prices.size())
-            return null;
-
-        return determineStartPrice(smaPeriodEnd);
-    }
-
-    private SecurityPrice determineStartPrice(LocalDate smaPeriodEnd)
-    {
-        // check if an SMA can be calculated for this Date
-        List<SecurityPrice> filteredPrices = null;
-        LocalDate isBefore = smaPeriodEnd.plusDays(1);
-        LocalDate isAfter = smaPeriodEnd.minusDays(rangeSMA);
-        LocalDate lastDate = prices.get(prices.size() - 1).getTime();
-        filteredPrices = this.getFilteredList(isBefore, isAfter);
-
-        int i = 1;
-        while (!this.checkListIsValidForSMA(filteredPrices))
-        {
-            if (isBefore.plusDays(i).isAfter(lastDate) || isAfter.plusDays(i).isAfter(lastDate))
-                return null;
-
-            filteredPrices = this.getFilteredList(isBefore.plusDays(i), isAfter.plusDays(i));
-            i++;
-        }
-
-        return filteredPrices.get(filteredPrices.size() - 1);
-    }
-
-    private boolean checkListIsValidForSMA(List<SecurityPrice> filteredPrices)
-    {
-        return filteredPrices.size() < calculatedMinimumDays ? false : true;
-    }
-
-    private List<SecurityPrice> getFilteredList(LocalDate isBefore, LocalDate isAfter)
-    {
-        return prices.stream().filter(p -> p.getTime().isAfter(isAfter) && p.getTime().isBefore(isBefore))
-                        .collect(Collectors.toList());
-    }
 }
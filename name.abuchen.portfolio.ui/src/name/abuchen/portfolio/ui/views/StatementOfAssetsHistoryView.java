@@ -156,14 +156,20 @@ public class StatementOfAssetsHistoryView extends AbstractHistoricView
     @Override
     public void notifyModelUpdated()
     {
-        seriesBuilder.getCache().clear();
         updateChart();
     }
 
+    @Override
+    public void dispose()
+    {
+        if (seriesBuilder != null)
+            seriesBuilder.getCache().dispose();
+        super.dispose();
+    }
+
     @Override
     public void reportingPeriodUpdated()
     {
-        seriesBuilder.getCache().clear();
         updateChart();
     }
 
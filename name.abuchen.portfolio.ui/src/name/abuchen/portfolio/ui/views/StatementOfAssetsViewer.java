@@ -2,18 +2,22 @@ package name.abuchen.portfolio.ui.views;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.core.di.extensions.Preference;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IMenuManager;
@@ -56,10 +60,12 @@ import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.model.Taxonomy;
 import name.abuchen.portfolio.money.CurrencyConverter;
 import name.abuchen.portfolio.money.ExchangeRate;
+import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
 import name.abuchen.portfolio.money.Money;
 import name.abuchen.portfolio.money.Values;
 import name.abuchen.portfolio.snapshot.AssetCategory;
 import name.abuchen.portfolio.snapshot.AssetPosition;
+import name.abuchen.portfolio.snapshot.CalculationCache;
 import name.abuchen.portfolio.snapshot.ClientSnapshot;
 import name.abuchen.portfolio.snapshot.GroupByTaxonomy;
 import name.abuchen.portfolio.snapshot.PortfolioSnapshot;
@@ -71,6 +77,7 @@ import name.abuchen.portfolio.snapshot.security.SecurityPerformanceSnapshot;
 import name.abuchen.portfolio.ui.AbstractFinanceView;
 import name.abuchen.portfolio.ui.Images;
 import name.abuchen.portfolio.ui.Messages;
+import name.abuchen.portfolio.ui.PortfolioPlugin;
 import name.abuchen.portfolio.ui.UIConstants;
 import name.abuchen.portfolio.ui.dnd.SecurityDragListener;
 import name.abuchen.portfolio.ui.dnd.SecurityTransfer;
@@ -95,6 +102,61 @@ import name.abuchen.portfolio.ui.views.columns.TaxonomyColumn;
 @SuppressWarnings("restriction")
 public class StatementOfAssetsViewer
 {
+    /**
+     * Maximum number of cached performance records (of all reporting periods
+     * and filters).
+     */
+    private static final long MAXIMUM_PERFORMANCE_RECORDS = 100_000;
+
+    /**
+     * Identifies the performance records of one reporting period column. The
+     * records do not depend on the date of the statement of assets.
+     */
+    private static class PerformanceKey
+    {
+        private final ClientFilter clientFilter;
+        private final Portfolio portfolio;
+        private final String currencyCode;
+        private final ReportingPeriod reportingPeriod;
+
+        PerformanceKey(ClientFilter clientFilter, Portfolio portfolio, String currencyCode,
+                        ReportingPeriod reportingPeriod)
+        {
+            this.clientFilter = Objects.requireNonNull(clientFilter);
+            this.portfolio = portfolio;
+            this.currencyCode = Objects.requireNonNull(currencyCode);
+            this.reportingPeriod = Objects.requireNonNull(reportingPeriod);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(clientFilter, portfolio, currencyCode, reportingPeriod);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+
+            PerformanceKey other = (PerformanceKey) obj;
+            if (!clientFilter.equals(other.clientFilter))
+                return false;
+            if (!Objects.equals(portfolio, other.portfolio))
+                return false;
+            if (!currencyCode.equals(other.currencyCode))
+                return false;
+            if (!reportingPeriod.equals(other.reportingPeriod))
+                return false;
+            return true;
+        }
+    }
+
     @Inject
     private IPreferenceStore preference;
 
@@ -114,11 +176,33 @@ public class StatementOfAssetsViewer
     private PortfolioSnapshot portfolioSnapshot;
     private Taxonomy taxonomy;
 
+    /**
+     * The performance records by security. A security without record has no
+     * transactions in the reporting period. The records are calculated in
+     * the background and removed if the client is modified.
+     */
+    private final CalculationCache<PerformanceKey, Map<Security, SecurityPerformanceRecord>> performance;
+
+    /**
+     * Keys of the records currently calculated in the background. Accessed by
+     * the UI thread only.
+     */
+    private final Set<PerformanceKey> pendingPerformance = new HashSet<>();
+
+    /**
+     * Keys of the records which failed to calculate. They are calculated again
+     * once a new input is set, not with every refresh of the viewer. Accessed
+     * by the UI thread only.
+     */
+    private final Set<PerformanceKey> failedPerformance = new HashSet<>();
+
     @Inject
-    public StatementOfAssetsViewer(AbstractFinanceView owner, Client client)
+    public StatementOfAssetsViewer(AbstractFinanceView owner, Client client, ExchangeRateProviderFactory factory)
     {
         this.owner = owner;
         this.client = client;
+        this.performance = new CalculationCache<>(client, factory, MAXIMUM_PERFORMANCE_RECORDS,
+                        records -> records.size() + 1L);
     }
 
     @Inject
@@ -794,6 +878,8 @@ public class StatementOfAssetsViewer
 
     private void internalSetInput(GroupByTaxonomy grouping)
     {
+        failedPerformance.clear();
+
         assets.getTable().setRedraw(false);
         try
         {
@@ -833,6 +919,8 @@ public class StatementOfAssetsViewer
 
         if (contextMenu != null)
             contextMenu.dispose();
+
+        performance.dispose();
     }
 
     public static class Element implements Adaptable
@@ -849,8 +937,6 @@ public class StatementOfAssetsViewer
         private AssetCategory category;
         private AssetPosition position;
 
-        private Map<ReportingPeriod, SecurityPerformanceRecord> performance = new HashMap<>();
-
         private Element(AssetCategory category, int sortOrder)
         {
             this.category = category;
@@ -874,16 +960,6 @@ public class StatementOfAssetsViewer
             return sortOrder;
         }
 
-        public void setPerformance(ReportingPeriod period, SecurityPerformanceRecord record)
-        {
-            performance.put(period, record);
-        }
-
-        public SecurityPerformanceRecord getPerformance(ReportingPeriod period)
-        {
-            return performance.get(period);
-        }
-
         public boolean isGroupByTaxonomy()
         {
             return groupByTaxonomy != null;
@@ -1100,11 +1176,13 @@ public class StatementOfAssetsViewer
             Element element = (Element) e;
             if (element.isSecurity())
             {
-                calculatePerformance(element, option);
-                SecurityPerformanceRecord record = element.getPerformance(option);
+                Map<Security, SecurityPerformanceRecord> records = getPerformance(option);
+                if (records == null)
+                    return null;
 
                 // record is null if there are no transactions for the security
                 // in the given period
+                SecurityPerformanceRecord record = records.get(element.getSecurity());
                 return record != null ? valueProvider.apply(record) : null;
             }
             return null;
@@ -1190,36 +1268,78 @@ public class StatementOfAssetsViewer
 
             return v1.compareTo(v2);
         }
+    }
 
-        private void calculatePerformance(Element element, ReportingPeriod period)
-        {
-            // already calculated?
-            if (element.getPerformance(period) != null)
-                return;
+    /**
+     * Returns the performance records of the reporting period or null if they
+     * are not calculated yet. Missing records are calculated in the
+     * background; the viewer is refreshed once they are available.
+     */
+    private Map<Security, SecurityPerformanceRecord> getPerformance(ReportingPeriod period)
+    {
+        if (clientSnapshot == null && portfolioSnapshot == null)
+            return null;
 
-            if (clientSnapshot == null && portfolioSnapshot == null)
-                return;
+        Portfolio portfolio = portfolioSnapshot != null ? portfolioSnapshot.getPortfolio() : null;
+        CurrencyConverter converter = getCurrencyConverter();
+        PerformanceKey key = new PerformanceKey(clientFilter, portfolio, converter.getTermCurrency(), period);
 
-            Client filteredClient = clientFilter.filter(client);
+        Map<Security, SecurityPerformanceRecord> records = performance.peek(key);
+        if (records == null && !failedPerformance.contains(key) && pendingPerformance.add(key))
+            calculatePerformance(key, converter);
+        return records;
+    }
 
-            SecurityPerformanceSnapshot sps;
-            if (clientSnapshot != null)
-            {
-                sps = SecurityPerformanceSnapshot.create(filteredClient, clientSnapshot.getCurrencyConverter(), period);
-            }
-            else
+    private void calculatePerformance(PerformanceKey key, CurrencyConverter converter)
+    {
+        new Job(Messages.JobLabelCalculatingSecurityPerformance)
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
             {
-                sps = SecurityPerformanceSnapshot.create(filteredClient, portfolioSnapshot.getCurrencyConverter(),
-                                portfolioSnapshot.getPortfolio(), period);
+                boolean failed = true;
+
+                try
+                {
+                    performance.lookup(key, dependencies -> {
+                        dependencies.addClient();
+                        return calculatePerformance(key.clientFilter, key.portfolio, converter, key.reportingPeriod);
+                    });
+                    failed = false;
+                }
+                catch (RuntimeException e)
+                {
+                    PortfolioPlugin.log(e);
+                }
+                finally
+                {
+                    boolean isFailed = failed;
+                    Display.getDefault().asyncExec(() -> {
+                        pendingPerformance.remove(key);
+                        if (isFailed)
+                            failedPerformance.add(key);
+                        if (!assets.getTable().isDisposed())
+                            assets.refresh();
+                    });
+                }
+
+                return Status.OK_STATUS;
             }
+        }.schedule();
+    }
 
-            Map<Security, SecurityPerformanceRecord> map = sps.getRecords().stream()
-                            .collect(Collectors.toMap(SecurityPerformanceRecord::getSecurity, r -> r));
+    private Map<Security, SecurityPerformanceRecord> calculatePerformance(ClientFilter filter, Portfolio portfolio,
+                    CurrencyConverter converter, ReportingPeriod period)
+    {
+        Client filteredClient = filter.filter(client);
 
-            Arrays.stream(((StatementOfAssetsContentProvider) assets.getContentProvider()).elements) // NOSONAR
-                            .filter(Element::isSecurity)
-                            .forEach(e -> e.setPerformance(period, map.get(e.getSecurity())));
+        SecurityPerformanceSnapshot sps;
+        if (portfolio == null)
+            sps = SecurityPerformanceSnapshot.create(filteredClient, converter, period);
+        else
+            sps = SecurityPerformanceSnapshot.create(filteredClient, converter, portfolio, period);
 
-        }
+        return sps.getRecords().stream()
+                        .collect(Collectors.toMap(SecurityPerformanceRecord::getSecurity, r -> r));
     }
 }
@@ -8,8 +8,9 @@ import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Label;
 
 import name.abuchen.portfolio.model.Dashboard.Widget;
+import name.abuchen.portfolio.ui.Messages;
 
-public abstract class AbstractIndicatorWidget extends WidgetDelegate
+public abstract class AbstractIndicatorWidget<D> extends WidgetDelegate<D>
 {
     protected Label title;
     protected Label indicator;
@@ -48,7 +49,21 @@ public abstract class AbstractIndicatorWidget extends WidgetDelegate
     }
 
     @Override
-    void update()
+    void showPlaceholder()
+    {
+        this.title.setText(getWidget().getLabel());
+        this.indicator.setText("\u2026"); //$NON-NLS-1$
+    }
+
+    @Override
+    void showError(RuntimeException error)
+    {
+        this.title.setText(getWidget().getLabel());
+        this.indicator.setText(Messages.LabelError);
+    }
+
+    @Override
+    void update(D data)
     {
         this.title.setText(getWidget().getLabel());
     }
@@ -3,6 +3,7 @@ package name.abuchen.portfolio.ui.views.dashboard;
 import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IMenuManager;
@@ -36,15 +37,15 @@ import name.abuchen.portfolio.ui.views.dataseries.DataSeriesSet;
 import name.abuchen.portfolio.ui.views.dataseries.PerformanceChartSeriesBuilder;
 import name.abuchen.portfolio.ui.views.dataseries.StatementOfAssetsSeriesBuilder;
 
-public class ChartWidget extends WidgetDelegate
+public class ChartWidget extends WidgetDelegate<List<DataSeries>>
 {
     private class ChartConfig implements WidgetConfig
     {
-        private WidgetDelegate delegate;
+        private WidgetDelegate<?> delegate;
         private ConfigurationSet configSet;
         private ConfigurationSet.Configuration config;
 
-        public ChartConfig(WidgetDelegate delegate, DataSeries.UseCase useCase)
+        public ChartConfig(WidgetDelegate<?> delegate, DataSeries.UseCase useCase)
         {
             this.delegate = delegate;
 
@@ -92,10 +93,10 @@ public class ChartWidget extends WidgetDelegate
 
     private class AggregationConfig implements WidgetConfig
     {
-        private WidgetDelegate delegate;
+        private WidgetDelegate<?> delegate;
         private Aggregation.Period aggregation;
 
-        public AggregationConfig(WidgetDelegate delegate)
+        public AggregationConfig(WidgetDelegate<?> delegate)
         {
             this.delegate = delegate;
 
@@ -209,7 +210,22 @@ public class ChartWidget extends WidgetDelegate
     }
 
     @Override
-    public void update()
+    Supplier<List<DataSeries>> getUpdateTask()
+    {
+        List<DataSeries> series = new DataSeriesSerializer().fromString(dataSeriesSet,
+                        get(ChartConfig.class).getData());
+        ReportingPeriod reportingPeriod = get(ReportingPeriodConfig.class).getReportingPeriod();
+
+        // calculate the performance indices in the background; the series
+        // builders then retrieve the indices from the cache
+        return () -> {
+            series.forEach(s -> getDashboardData().getDataSeriesCache().lookup(s, reportingPeriod));
+            return series;
+        };
+    }
+
+    @Override
+    void update(List<DataSeries> series)
     {
         title.setText(getWidget().getLabel());
 
@@ -222,9 +238,6 @@ public class ChartWidget extends WidgetDelegate
             for (ISeries s : chart.getSeriesSet().getSeries())
                 chart.getSeriesSet().deleteSeries(s.getId());
 
-            List<DataSeries> series = new DataSeriesSerializer().fromString(dataSeriesSet,
-                            get(ChartConfig.class).getData());
-
             ReportingPeriod reportingPeriod = get(ReportingPeriodConfig.class).getReportingPeriod();
 
             switch (useCase)
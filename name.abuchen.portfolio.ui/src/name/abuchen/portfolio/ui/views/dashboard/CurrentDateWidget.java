@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.function.Supplier;
 
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
@@ -14,7 +15,7 @@ import org.eclipse.swt.widgets.Label;
 
 import name.abuchen.portfolio.model.Dashboard.Widget;
 
-public class CurrentDateWidget extends WidgetDelegate
+public class CurrentDateWidget extends WidgetDelegate<Object>
 {
     private Label title;
 
@@ -47,7 +48,13 @@ public class CurrentDateWidget extends WidgetDelegate
     }
 
     @Override
-    void update()
+    Supplier<Object> getUpdateTask()
+    {
+        return () -> null;
+    }
+
+    @Override
+    void update(Object data)
     {
         this.title.setText(getWidget().getLabel() + ' ' + formatter.format(LocalDate.now()));
     }
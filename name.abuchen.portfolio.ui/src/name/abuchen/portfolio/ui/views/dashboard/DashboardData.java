@@ -1,29 +1,59 @@
 package name.abuchen.portfolio.ui.views.dashboard;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.swt.widgets.Display;
 
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Dashboard;
 import name.abuchen.portfolio.money.CurrencyConverter;
 import name.abuchen.portfolio.money.CurrencyConverterImpl;
 import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
+import name.abuchen.portfolio.snapshot.CalculationCache;
 import name.abuchen.portfolio.snapshot.ClientPerformanceSnapshot;
 import name.abuchen.portfolio.snapshot.PerformanceIndex;
 import name.abuchen.portfolio.snapshot.ReportingPeriod;
+import name.abuchen.portfolio.ui.PortfolioPlugin;
 import name.abuchen.portfolio.ui.views.dataseries.DataSeries;
 import name.abuchen.portfolio.ui.views.dataseries.DataSeriesCache;
 import name.abuchen.portfolio.ui.views.dataseries.DataSeriesSet;
 
+/**
+ * Data and calculation results shared by the widgets of a dashboard.
+ * <p/>
+ * Calculations are run on a pool of worker threads (see
+ * {@link #schedule(Supplier, Consumer, Consumer)}). Identical calculations
+ * requested by multiple widgets are performed only once by the caches.
+ * Calculations which are still pending when the client, the dashboard or the
+ * default reporting period changes are cancelled and their results discarded.
+ * <p/>
+ * The caches remove outdated results themselves when the client is modified
+ * (see {@link CalculationCache}).
+ */
 public class DashboardData
 {
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Maximum of the estimated memory used by the cached results.
+     */
+    private static final long MAXIMUM_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * Rough estimate of the memory used by a performance snapshot.
+     */
+    private static final long SNAPSHOT_SIZE = 100L * 1024;
+
     private static final class CacheKey
     {
         private Class<?> type;
@@ -66,7 +96,11 @@ public class DashboardData
     private final ExchangeRateProviderFactory factory;
     private final CurrencyConverter converter;
 
-    private final Map<CacheKey, Object> cache = new HashMap<>();
+    private final CalculationCache<CacheKey, Object> cache;
+
+    private final ExecutorService executor;
+    private final List<Future<?>> pending = new ArrayList<>();
+    private int generation;
 
     private List<ReportingPeriod> defaultReportingPeriods = new ArrayList<>();
     private ReportingPeriod defaultReportingPeriod;
@@ -83,9 +117,19 @@ public class DashboardData
         this.preferences = preferences;
         this.factory = factory;
         this.converter = new CurrencyConverterImpl(factory, client.getBaseCurrency());
+        this.cache = new CalculationCache<>(client, factory, MAXIMUM_SIZE,
+                        result -> result instanceof PerformanceIndex
+                                        ? DataSeriesCache.estimateSize((PerformanceIndex) result)
+                                        : SNAPSHOT_SIZE);
 
         this.dataSeriesSet = new DataSeriesSet(client, preferences, DataSeries.UseCase.RETURN_VOLATILITY);
         this.dataSeriesCache = new DataSeriesCache(client, factory);
+
+        this.executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "DashboardData"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public Client getClient()
@@ -105,6 +149,7 @@ public class DashboardData
 
     public void setDashboard(Dashboard dashboard)
     {
+        cancelPendingCalculations();
         this.dashboard = dashboard;
     }
 
@@ -120,6 +165,7 @@ public class DashboardData
 
     public void setDefaultReportingPeriod(ReportingPeriod reportingPeriod)
     {
+        cancelPendingCalculations();
         this.defaultReportingPeriod = reportingPeriod;
     }
 
@@ -138,16 +184,72 @@ public class DashboardData
         return dataSeriesSet;
     }
 
-    public void clearCache()
+    /**
+     * Runs the task on a worker thread and passes the result to the consumer
+     * on the UI thread. Must be called on the UI thread. If the calculation
+     * fails, the error is logged and passed to the error handler on the UI
+     * thread instead. If the calculation is cancelled, neither is called.
+     */
+    public <T> void schedule(Supplier<T> task, Consumer<T> consumer, Consumer<RuntimeException> errorHandler)
+    {
+        Display display = Display.getCurrent();
+        int scheduledGeneration = generation;
+
+        pending.removeIf(Future::isDone);
+        pending.add(executor.submit(() -> {
+            try
+            {
+                T result = task.get();
+                runOnUIThread(display, scheduledGeneration, () -> consumer.accept(result));
+            }
+            catch (RuntimeException e)
+            {
+                PortfolioPlugin.log(e);
+                runOnUIThread(display, scheduledGeneration, () -> errorHandler.accept(e));
+            }
+        }));
+    }
+
+    private void runOnUIThread(Display display, int scheduledGeneration, Runnable callback)
     {
-        cache.clear();
-        dataSeriesCache.clear();
+        if (!display.isDisposed())
+            display.asyncExec(() -> {
+                if (scheduledGeneration == generation)
+                    callback.run();
+            });
+    }
+
+    /**
+     * Cancels all calculations which have not been started yet. Results of
+     * running calculations are not passed to the widgets anymore, but are
+     * still added to the caches.
+     */
+    public void cancelPendingCalculations()
+    {
+        generation++;
+        pending.forEach(f -> f.cancel(false));
+        pending.clear();
+    }
+
+    /**
+     * Cancels all calculations and stops the worker threads.
+     */
+    public void dispose()
+    {
+        cancelPendingCalculations();
+        executor.shutdown();
+
+        cache.dispose();
+        dataSeriesCache.dispose();
     }
 
     public <T> T calculate(Class<T> type, ReportingPeriod period)
     {
         CacheKey key = new CacheKey(type, period);
-        return type.cast(cache.computeIfAbsent(key, k -> doCalculate(type, period)));
+        return type.cast(cache.lookup(key, dependencies -> {
+            dependencies.addClient();
+            return doCalculate(type, period);
+        }));
     }
 
     private Object doCalculate(Class<?> type, ReportingPeriod period)
@@ -194,7 +194,7 @@ public class DashboardView extends AbstractHistoricView
     @Override
     public void notifyModelUpdated()
     {
-        this.dashboardData.clearCache();
+        this.dashboardData.cancelPendingCalculations();
         updateWidgets();
     }
 
@@ -254,8 +254,11 @@ public class DashboardView extends AbstractHistoricView
 
         selectDashboard(dashboard);
 
-        container.addDisposeListener(e -> preferences.setValue(SELECTED_DASHBOARD_KEY,
-                        getClient().getDashboards().collect(Collectors.toList()).indexOf(dashboard)));
+        container.addDisposeListener(e -> {
+            preferences.setValue(SELECTED_DASHBOARD_KEY,
+                            getClient().getDashboards().collect(Collectors.toList()).indexOf(dashboard));
+            dashboardData.dispose();
+        });
 
         return container;
     }
@@ -309,9 +312,9 @@ public class DashboardView extends AbstractHistoricView
         return columnControl;
     }
 
-    private WidgetDelegate buildDelegate(Composite columnControl, WidgetFactory widgetType, Dashboard.Widget widget)
+    private WidgetDelegate<?> buildDelegate(Composite columnControl, WidgetFactory widgetType, Dashboard.Widget widget)
     {
-        WidgetDelegate delegate = widgetType.create(widget, dashboardData);
+        WidgetDelegate<?> delegate = widgetType.create(widget, dashboardData);
 
         Composite element = delegate.createControl(columnControl, resources);
         element.setData(widget);
@@ -333,14 +336,14 @@ public class DashboardView extends AbstractHistoricView
         return delegate;
     }
 
-    private String buildToolTip(WidgetDelegate delegate)
+    private String buildToolTip(WidgetDelegate<?> delegate)
     {
         StringJoiner text = new StringJoiner("\n"); //$NON-NLS-1$
         delegate.getWidgetConfigs().forEach(c -> text.add(c.getLabel()));
         return text.toString();
     }
 
-    private void widgetMenuAboutToShow(IMenuManager manager, WidgetDelegate delegate)
+    private void widgetMenuAboutToShow(IMenuManager manager, WidgetDelegate<?> delegate)
     {
         manager.add(new Separator(INFO_MENU_GROUP_NAME));
         manager.add(new Separator("edit")); //$NON-NLS-1$
@@ -365,7 +368,7 @@ public class DashboardView extends AbstractHistoricView
         }));
     }
 
-    private Composite findCompositeFor(WidgetDelegate delegate)
+    private Composite findCompositeFor(WidgetDelegate<?> delegate)
     {
         for (Control column : container.getChildren())
         {
@@ -413,7 +416,7 @@ public class DashboardView extends AbstractHistoricView
         {
             for (Control child : ((Composite) column).getChildren())
             {
-                WidgetDelegate delegate = (WidgetDelegate) child.getData(DELEGATE_KEY);
+                WidgetDelegate<?> delegate = (WidgetDelegate<?>) child.getData(DELEGATE_KEY);
                 if (delegate != null)
                     delegate.update();
             }
@@ -491,7 +494,7 @@ public class DashboardView extends AbstractHistoricView
         widget.setType(widgetType.name());
         column.getWidgets().add(widget);
 
-        WidgetDelegate delegate = buildDelegate(columnControl, widgetType, widget);
+        WidgetDelegate<?> delegate = buildDelegate(columnControl, widgetType, widget);
 
         markDirty();
         delegate.update();
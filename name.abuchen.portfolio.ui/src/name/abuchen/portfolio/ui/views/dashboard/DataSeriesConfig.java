@@ -18,12 +18,12 @@ import name.abuchen.portfolio.ui.views.dataseries.DataSeriesLabelProvider;
 
 public class DataSeriesConfig implements WidgetConfig
 {
-    private final WidgetDelegate delegate;
+    private final WidgetDelegate<?> delegate;
     private final boolean supportsBenchmarks;
 
     private DataSeries dataSeries;
 
-    public DataSeriesConfig(WidgetDelegate delegate, boolean supportsBenchmarks)
+    public DataSeriesConfig(WidgetDelegate<?> delegate, boolean supportsBenchmarks)
     {
         this.delegate = delegate;
         this.supportsBenchmarks = supportsBenchmarks;
@@ -17,11 +17,11 @@ import name.abuchen.portfolio.ui.util.SimpleAction;
 
 public class ExchangeRateSeriesConfig implements WidgetConfig
 {
-    private WidgetDelegate delegate;
+    private WidgetDelegate<?> delegate;
     private List<ExchangeRateTimeSeries> available;
     private ExchangeRateTimeSeries series;
 
-    public ExchangeRateSeriesConfig(WidgetDelegate delegate)
+    public ExchangeRateSeriesConfig(WidgetDelegate<?> delegate)
     {
         this.delegate = delegate;
 
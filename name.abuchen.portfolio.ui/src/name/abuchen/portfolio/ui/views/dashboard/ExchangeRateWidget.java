@@ -5,6 +5,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
@@ -21,7 +22,7 @@ import name.abuchen.portfolio.snapshot.ReportingPeriod;
 import name.abuchen.portfolio.ui.Messages;
 import name.abuchen.portfolio.ui.util.InfoToolTip;
 
-public class ExchangeRateWidget extends WidgetDelegate
+public class ExchangeRateWidget extends WidgetDelegate<Object>
 {
     private DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.LONG)
                     .withZone(ZoneId.systemDefault());
@@ -71,7 +72,13 @@ public class ExchangeRateWidget extends WidgetDelegate
     }
 
     @Override
-    void update()
+    Supplier<Object> getUpdateTask()
+    {
+        return () -> null;
+    }
+
+    @Override
+    void update(Object data)
     {
         this.title.setText(getWidget().getLabel());
 
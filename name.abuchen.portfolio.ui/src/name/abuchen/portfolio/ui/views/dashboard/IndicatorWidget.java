@@ -2,6 +2,7 @@ package name.abuchen.portfolio.ui.views.dashboard;
 
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
@@ -13,7 +14,7 @@ import name.abuchen.portfolio.snapshot.ReportingPeriod;
 import name.abuchen.portfolio.ui.util.InfoToolTip;
 import name.abuchen.portfolio.ui.views.dataseries.DataSeries;
 
-public class IndicatorWidget<N extends Number> extends AbstractIndicatorWidget
+public class IndicatorWidget<N extends Number> extends AbstractIndicatorWidget<N>
 {
     public static class Builder<N extends Number>
     {
@@ -123,12 +124,19 @@ public class IndicatorWidget<N extends Number> extends AbstractIndicatorWidget
     }
 
     @Override
-    public void update()
+    Supplier<N> getUpdateTask()
     {
-        super.update();
+        DataSeries dataSeries = get(DataSeriesConfig.class).getDataSeries();
+        ReportingPeriod reportingPeriod = get(ReportingPeriodConfig.class).getReportingPeriod();
+
+        return () -> provider.apply(dataSeries, reportingPeriod);
+    }
+
+    @Override
+    void update(N value)
+    {
+        super.update(value);
 
-        N value = provider.apply(get(DataSeriesConfig.class).getDataSeries(),
-                        get(ReportingPeriodConfig.class).getReportingPeriod());
         indicator.setText(formatter.format(value));
 
         if (isValueColored)
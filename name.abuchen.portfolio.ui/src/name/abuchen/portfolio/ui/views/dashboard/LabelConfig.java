@@ -10,9 +10,9 @@ import name.abuchen.portfolio.ui.util.SimpleAction;
 
 public class LabelConfig implements WidgetConfig
 {
-    private final WidgetDelegate delegate;
+    private final WidgetDelegate<?> delegate;
 
-    public LabelConfig(WidgetDelegate delegate)
+    public LabelConfig(WidgetDelegate<?> delegate)
     {
         this.delegate = delegate;
     }
@@ -4,15 +4,18 @@ import java.text.MessageFormat;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.function.Supplier;
 
 import name.abuchen.portfolio.math.Risk.Drawdown;
 import name.abuchen.portfolio.model.Dashboard.Widget;
 import name.abuchen.portfolio.snapshot.PerformanceIndex;
+import name.abuchen.portfolio.snapshot.ReportingPeriod;
 import name.abuchen.portfolio.ui.Messages;
 import name.abuchen.portfolio.ui.util.InfoToolTip;
+import name.abuchen.portfolio.ui.views.dataseries.DataSeries;
 import name.abuchen.portfolio.util.Interval;
 
-public class MaxDrawdownDurationWidget extends AbstractIndicatorWidget
+public class MaxDrawdownDurationWidget extends AbstractIndicatorWidget<PerformanceIndex>
 {
     private DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.LONG)
                     .withZone(ZoneId.systemDefault());
@@ -23,13 +26,18 @@ public class MaxDrawdownDurationWidget extends AbstractIndicatorWidget
     }
 
     @Override
-    public void update()
+    Supplier<PerformanceIndex> getUpdateTask()
     {
-        super.update();
+        DataSeries dataSeries = get(DataSeriesConfig.class).getDataSeries();
+        ReportingPeriod reportingPeriod = get(ReportingPeriodConfig.class).getReportingPeriod();
 
-        PerformanceIndex index = getDashboardData().getDataSeriesCache().lookup(
-                        get(DataSeriesConfig.class).getDataSeries(),
-                        get(ReportingPeriodConfig.class).getReportingPeriod());
+        return () -> getDashboardData().getDataSeriesCache().lookup(dataSeries, reportingPeriod);
+    }
+
+    @Override
+    void update(PerformanceIndex index)
+    {
+        super.update(index);
 
         Drawdown drawdown = index.getDrawdown();
         Interval maxDDDuration = drawdown.getMaxDrawdownDuration();
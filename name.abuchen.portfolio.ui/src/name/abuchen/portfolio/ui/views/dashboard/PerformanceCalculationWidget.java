@@ -1,5 +1,7 @@
 package name.abuchen.portfolio.ui.views.dashboard;
 
+import java.util.function.Supplier;
+
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.swt.SWT;
@@ -10,9 +12,10 @@ import org.eclipse.swt.widgets.Label;
 import name.abuchen.portfolio.model.Dashboard.Widget;
 import name.abuchen.portfolio.money.Values;
 import name.abuchen.portfolio.snapshot.ClientPerformanceSnapshot;
-import name.abuchen.portfolio.snapshot.PerformanceIndex;
+import name.abuchen.portfolio.snapshot.ReportingPeriod;
+import name.abuchen.portfolio.ui.views.dataseries.DataSeries;
 
-public class PerformanceCalculationWidget extends WidgetDelegate
+public class PerformanceCalculationWidget extends WidgetDelegate<ClientPerformanceSnapshot>
 {
     private Composite container;
     private Label title;
@@ -61,13 +64,18 @@ public class PerformanceCalculationWidget extends WidgetDelegate
     }
 
     @Override
-    public void update()
+    Supplier<ClientPerformanceSnapshot> getUpdateTask()
     {
-        title.setText(getWidget().getLabel());
+        DataSeries dataSeries = get(DataSeriesConfig.class).getDataSeries();
+        ReportingPeriod reportingPeriod = get(ReportingPeriodConfig.class).getReportingPeriod();
+
+        return () -> getDashboardData().calculate(dataSeries, reportingPeriod).getClientPerformanceSnapshot();
+    }
 
-        PerformanceIndex index = getDashboardData().calculate(get(DataSeriesConfig.class).getDataSeries(),
-                        get(ReportingPeriodConfig.class).getReportingPeriod());
-        ClientPerformanceSnapshot snapshot = index.getClientPerformanceSnapshot();
+    @Override
+    void update(ClientPerformanceSnapshot snapshot)
+    {
+        title.setText(getWidget().getLabel());
 
         int ii = 0;
         for (ClientPerformanceSnapshot.Category category : snapshot.getCategories())
@@ -3,6 +3,7 @@ package name.abuchen.portfolio.ui.views.dashboard;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
 import java.util.Locale;
+import java.util.function.Supplier;
 
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
@@ -16,13 +17,14 @@ import org.eclipse.swt.widgets.Label;
 import name.abuchen.portfolio.model.Dashboard.Widget;
 import name.abuchen.portfolio.money.Values;
 import name.abuchen.portfolio.snapshot.PerformanceIndex;
+import name.abuchen.portfolio.snapshot.PeriodicReturns;
 import name.abuchen.portfolio.snapshot.ReportingPeriod;
 import name.abuchen.portfolio.ui.Messages;
 import name.abuchen.portfolio.ui.util.InfoToolTip;
 import name.abuchen.portfolio.ui.views.dataseries.DataSeries;
 import name.abuchen.portfolio.util.Interval;
 
-public class PerformanceHeatmapWidget extends WidgetDelegate
+public class PerformanceHeatmapWidget extends WidgetDelegate<PeriodicReturns>
 {
     private Composite table;
     private Label title;
@@ -54,7 +56,6 @@ public class PerformanceHeatmapWidget extends WidgetDelegate
         GridDataFactory.fillDefaults().grab(true, false).applyTo(table);
         GridLayoutFactory.fillDefaults().numColumns(13).spacing(1, 1).applyTo(table);
         table.setBackground(container.getBackground());
-        fillTable();
 
         return container;
     }
@@ -68,14 +69,12 @@ public class PerformanceHeatmapWidget extends WidgetDelegate
         return resources.getResourceManager().createColor(color);
     }
 
-    private void fillTable()
+    private void fillTable(PeriodicReturns returns)
     {
         // fill the table lines according to the supplied period
-        // calculate the performance with a temporary reporting period
         // calculate the color interpolated between red and green with white as
         // the median
         Interval interval = get(ReportingPeriodConfig.class).getReportingPeriod().toInterval();
-        ReportingPeriod currPeriod;
 
         // Top Left is empty
         Label topLeft = new Label(table, SWT.NONE);
@@ -93,8 +92,6 @@ public class PerformanceHeatmapWidget extends WidgetDelegate
         }
 
         // now loop the years
-        DataSeries dataSeries = get(DataSeriesConfig.class).getDataSeries();
-
         for (Integer year : interval.iterYears())
         {
             Label currLabel = new Label(table, SWT.NONE);
@@ -105,16 +102,15 @@ public class PerformanceHeatmapWidget extends WidgetDelegate
                             .plusMonths(1))
             {
                 currLabel = new Label(table, SWT.RIGHT);
-                if (interval.contains(currMonth))
+                if (returns != null && interval.contains(currMonth))
                 {
-                    currPeriod = new ReportingPeriod.FromXtoY(currMonth.minusDays(1),
-                                    currMonth.withDayOfMonth(currMonth.lengthOfMonth()));
-                    PerformanceIndex performance = getDashboardData().calculate(dataSeries, currPeriod);
+                    double performance = returns.getReturn(Interval.of(currMonth.minusDays(1),
+                                    currMonth.withDayOfMonth(currMonth.lengthOfMonth())));
 
                     currLabel.setFont(resources.getSmallFont());
                     currLabel.setAlignment(SWT.CENTER);
-                    currLabel.setText(Values.PercentShort.format(performance.getFinalAccumulatedPercentage()));
-                    currLabel.setBackground(getScaledColorForPerformance(performance.getFinalAccumulatedPercentage()));
+                    currLabel.setText(Values.PercentShort.format(performance));
+                    currLabel.setBackground(getScaledColorForPerformance(performance));
                     InfoToolTip.attach(currLabel, Messages.PerformanceHeatmapToolTip);
                 }
                 GridDataFactory.fillDefaults().grab(true, false).align(SWT.FILL, SWT.FILL).applyTo(currLabel);
@@ -124,12 +120,34 @@ public class PerformanceHeatmapWidget extends WidgetDelegate
     }
 
     @Override
-    void update()
+    Supplier<PeriodicReturns> getUpdateTask()
+    {
+        Interval interval = get(ReportingPeriodConfig.class).getReportingPeriod().toInterval();
+        DataSeries dataSeries = get(DataSeriesConfig.class).getDataSeries();
+
+        return () -> {
+            // calculate one performance index covering all displayed months
+            // and derive the monthly returns from it
+            LocalDate firstMonth = interval.getStart().plusDays(1).withDayOfMonth(1);
+            if (!interval.contains(firstMonth))
+                firstMonth = firstMonth.plusMonths(1);
+            if (!interval.contains(firstMonth))
+                return null;
+
+            LocalDate lastMonth = interval.getEnd().withDayOfMonth(1);
+            PerformanceIndex index = getDashboardData().calculate(dataSeries, new ReportingPeriod.FromXtoY(
+                            firstMonth.minusDays(1), lastMonth.withDayOfMonth(lastMonth.lengthOfMonth())));
+            return new PeriodicReturns(index);
+        };
+    }
+
+    @Override
+    void update(PeriodicReturns returns)
     {
         title.setText(getWidget().getLabel() != null ? getWidget().getLabel() : ""); //$NON-NLS-1$
         for (Control child : table.getChildren())
             child.dispose();
-        fillTable();
+        fillTable(returns);
         table.getParent().layout(true);
         table.getParent().getParent().layout(true);
     }
@@ -19,12 +19,12 @@ import name.abuchen.portfolio.ui.util.SimpleAction;
 
 public class ReportingPeriodConfig implements WidgetConfig
 {
-    private final WidgetDelegate delegate;
+    private final WidgetDelegate<?> delegate;
     private DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.LONG);
 
     private ReportingPeriod reportingPeriod;
 
-    public ReportingPeriodConfig(WidgetDelegate delegate)
+    public ReportingPeriodConfig(WidgetDelegate<?> delegate)
     {
         this.delegate = delegate;
 
@@ -2,6 +2,7 @@ package name.abuchen.portfolio.ui.views.dashboard;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.eclipse.swt.widgets.Composite;
@@ -10,7 +11,17 @@ import org.eclipse.swt.widgets.Control;
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Dashboard;
 
-public abstract class WidgetDelegate
+/**
+ * Base class of all dashboard widgets.
+ * <p/>
+ * Widgets are updated in two steps: the data of the widget is calculated on a
+ * worker thread (see {@link #getUpdateTask()}), then the widget is updated with
+ * the data on the UI thread (see {@link #update(Object)}).
+ *
+ * @param <D>
+ *            type of the data displayed by the widget
+ */
+public abstract class WidgetDelegate<D>
 {
     private final Dashboard.Widget widget;
     private final DashboardData data;
@@ -56,7 +67,51 @@ public abstract class WidgetDelegate
 
     abstract Composite createControl(Composite parent, DashboardResources resources);
 
-    abstract void update();
+    /**
+     * Schedules the calculation of the data and updates the widget once the
+     * data is available. Meanwhile, the widget shows a placeholder. If the
+     * calculation fails, the widget shows an error instead.
+     */
+    /* package */ final void update()
+    {
+        showPlaceholder();
+
+        data.schedule(getUpdateTask(), result -> {
+            if (!getTitleControl().isDisposed())
+                update(result);
+        }, error -> {
+            if (!getTitleControl().isDisposed())
+                showError(error);
+        });
+    }
+
+    /**
+     * Returns the task which calculates the data of the widget. This method is
+     * called on the UI thread and should read the configuration of the widget.
+     * The returned task is run on a worker thread and must not access any
+     * widgets.
+     */
+    abstract Supplier<D> getUpdateTask();
+
+    /**
+     * Updates the widget with the calculated data. Called on the UI thread.
+     */
+    abstract void update(D data);
+
+    /**
+     * Shows a placeholder while the data of the widget is calculated.
+     */
+    void showPlaceholder()
+    {
+    }
+
+    /**
+     * Shows that the data of the widget could not be calculated. The error
+     * has already been logged. Called on the UI thread.
+     */
+    void showError(RuntimeException error)
+    {
+    }
 
     /**
      * Returns the title control to which context menu and default tooltip are
@@ -140,9 +140,9 @@ public enum WidgetFactory
     EXCHANGE_RATE(Messages.LabelExchangeRate, ExchangeRateWidget::new);
 
     private String label;
-    private BiFunction<Dashboard.Widget, DashboardData, WidgetDelegate> createFunction;
+    private BiFunction<Dashboard.Widget, DashboardData, WidgetDelegate<?>> createFunction;
 
-    private WidgetFactory(String label, BiFunction<Dashboard.Widget, DashboardData, WidgetDelegate> createFunction)
+    private WidgetFactory(String label, BiFunction<Dashboard.Widget, DashboardData, WidgetDelegate<?>> createFunction)
     {
         this.label = label;
         this.createFunction = createFunction;
@@ -153,7 +153,7 @@ public enum WidgetFactory
         return label;
     }
 
-    public WidgetDelegate create(Dashboard.Widget widget, DashboardData data)
+    public WidgetDelegate<?> create(Dashboard.Widget widget, DashboardData data)
     {
         return this.createFunction.apply(widget, data);
     }
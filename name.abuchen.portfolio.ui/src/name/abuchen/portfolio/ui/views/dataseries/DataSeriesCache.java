@@ -1,9 +1,7 @@
 package name.abuchen.portfolio.ui.views.dataseries;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 import javax.inject.Inject;
@@ -12,10 +10,13 @@ import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.Classification;
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.money.CurrencyConverter;
 import name.abuchen.portfolio.money.CurrencyConverterImpl;
 import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
+import name.abuchen.portfolio.snapshot.CalculationCache;
+import name.abuchen.portfolio.snapshot.CalculationCache.Dependencies;
 import name.abuchen.portfolio.snapshot.PerformanceIndex;
 import name.abuchen.portfolio.snapshot.ReportingPeriod;
 import name.abuchen.portfolio.ui.PortfolioPlugin;
@@ -23,9 +24,24 @@ import name.abuchen.portfolio.ui.util.ClientFilterMenu;
 
 /**
  * Cache for calculation results of DataSeries.
+ * <p/>
+ * If the client is modified, only the results of data series which depend on
+ * modified accounts, portfolios or securities are removed (see
+ * {@link CalculationCache}). The cache can be used from multiple threads.
  */
 public class DataSeriesCache
 {
+    /**
+     * Maximum of the estimated memory used by the cached performance indices.
+     */
+    private static final long MAXIMUM_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Estimated memory per day of a performance index: the date plus eight
+     * arrays of long and double values.
+     */
+    private static final long BYTES_PER_DAY = 100;
+
     private static class CacheKey
     {
         private final String uuid;
@@ -65,13 +81,22 @@ public class DataSeriesCache
     private final Client client;
     private final CurrencyConverter converter;
 
-    private final Map<CacheKey, PerformanceIndex> cache = new HashMap<>();
+    private final CalculationCache<CacheKey, PerformanceIndex> cache;
 
     @Inject
     public DataSeriesCache(Client client, ExchangeRateProviderFactory factory)
     {
         this.client = client;
         this.converter = new CurrencyConverterImpl(factory, client.getBaseCurrency());
+        this.cache = new CalculationCache<>(client, factory, MAXIMUM_SIZE, DataSeriesCache::estimateSize);
+    }
+
+    /**
+     * Returns the estimated memory used by the performance index.
+     */
+    public static long estimateSize(PerformanceIndex index)
+    {
+        return index.getDates().length * BYTES_PER_DAY;
     }
 
     public void clear()
@@ -79,6 +104,20 @@ public class DataSeriesCache
         this.cache.clear();
     }
 
+    /**
+     * Stops listening to modifications of the client. Must be called when the
+     * cache is not used anymore.
+     */
+    public void dispose()
+    {
+        this.cache.dispose();
+    }
+
+    public CalculationCache.Statistics getStatistics()
+    {
+        return cache.getStatistics();
+    }
+
     public PerformanceIndex lookup(DataSeries series, ReportingPeriod reportingPeriod)
     {
         // Every data series is cached separately except the for the client. The
@@ -87,13 +126,16 @@ public class DataSeriesCache
         String uuid = series.getType() == DataSeries.Type.CLIENT ? "$client$" : series.getUUID(); //$NON-NLS-1$
 
         CacheKey key = new CacheKey(uuid, reportingPeriod);
-        return cache.computeIfAbsent(key, k -> calculate(series, reportingPeriod));
+        return cache.lookup(key, dependencies -> calculate(series, reportingPeriod, dependencies));
     }
 
-    private PerformanceIndex calculate(DataSeries series, ReportingPeriod reportingPeriod)
+    private PerformanceIndex calculate(DataSeries series, ReportingPeriod reportingPeriod,
+                    Dependencies dependencies)
     {
         List<Exception> warnings = new ArrayList<>();
 
+        addDependencies(series, dependencies);
+
         try
         {
             switch (series.getType())
@@ -146,4 +188,32 @@ public class DataSeriesCache
                 PortfolioPlugin.log(warnings);
         }
     }
+
+    private void addDependencies(DataSeries series, Dependencies dependencies)
+    {
+        switch (series.getType())
+        {
+            case SECURITY:
+                // the fingerprint of a security includes its transactions
+                dependencies.add(series.getInstance());
+                break;
+
+            case PORTFOLIO:
+            case PORTFOLIO_PLUS_ACCOUNT:
+                // dividends are taken from the reference account
+                Portfolio portfolio = (Portfolio) series.getInstance();
+                dependencies.add(portfolio).add(portfolio.getReferenceAccount());
+                for (PortfolioTransaction t : portfolio.getTransactions())
+                    dependencies.add(t.getSecurity());
+                break;
+
+            case ACCOUNT:
+                dependencies.add(series.getInstance());
+                break;
+
+            default:
+                // client, benchmarks, classifications and client filters
+                dependencies.addClient();
+        }
+    }
 }
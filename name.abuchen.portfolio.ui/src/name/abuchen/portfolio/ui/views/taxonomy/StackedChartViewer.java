@@ -31,8 +31,7 @@ import name.abuchen.portfolio.model.Classification;
 import name.abuchen.portfolio.model.InvestmentVehicle;
 import name.abuchen.portfolio.snapshot.Aggregation;
 import name.abuchen.portfolio.snapshot.Aggregation.Period;
-import name.abuchen.portfolio.snapshot.AssetPosition;
-import name.abuchen.portfolio.snapshot.ClientSnapshot;
+import name.abuchen.portfolio.snapshot.HoldingsSweep;
 import name.abuchen.portfolio.ui.Messages;
 import name.abuchen.portfolio.ui.PortfolioPart;
 import name.abuchen.portfolio.ui.util.SimpleAction;
@@ -53,10 +52,8 @@ public class StackedChartViewer extends AbstractChartPage
             this.series.add(series);
         }
 
-        public void book(int index, AssetPosition pos)
+        public void book(int index, long value)
         {
-            long value = pos.getValuation().getAmount();
-
             for (int ii = 0; ii < weights.size(); ii++)
                 series.get(ii).book(index, value * weights.get(ii) / Classification.ONE_HUNDRED_PERCENT);
         }
@@ -250,23 +247,21 @@ public class StackedChartViewer extends AbstractChartPage
 
         final long[] totals = new long[dates.size()];
 
-        int index = 0;
-        for (LocalDate current : dates)
-        {
-            ClientSnapshot snapshot = ClientSnapshot.create(getModel().getClient(), getModel().getCurrencyConverter(),
-                            current);
-            totals[index] = snapshot.getMonetaryAssets().getAmount();
+        // roll the holdings forward instead of creating a snapshot per date
+        HoldingsSweep sweep = new HoldingsSweep(getModel().getClient(), getModel().getCurrencyConverter());
 
-            Map<InvestmentVehicle, AssetPosition> p = snapshot.getPositionsByVehicle();
+        for (int index = 0; index < totals.length; index++)
+        {
+            sweep.moveTo(dates.get(index));
 
-            for (Map.Entry<InvestmentVehicle, VehicleBuilder> entry : vehicle2builder.entrySet())
-            {
-                AssetPosition pos = p.get(entry.getKey());
-                if (pos != null)
-                    entry.getValue().book(index, pos);
-            }
+            int ii = index;
+            sweep.forEachValuation((vehicle, value) -> {
+                totals[ii] += value;
 
-            index++;
+                VehicleBuilder builder = vehicle2builder.get(vehicle);
+                if (builder != null)
+                    builder.book(ii, value);
+            });
         }
 
         // if the unassigned category is excluded, reduce the total values
@@ -20,6 +20,7 @@ import org.eclipse.swt.widgets.Table;
 
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.SecurityTransactionIndex;
 import name.abuchen.portfolio.ui.Images;
 import name.abuchen.portfolio.ui.Messages;
 import name.abuchen.portfolio.ui.wizards.AbstractWizardPage;
@@ -44,7 +45,8 @@ import name.abuchen.portfolio.ui.wizards.AbstractWizardPage;
     {
         if (tableViewer.getTable().getItemCount() == 0)
         {
-            List<Security> candidates = client.getSecurities().stream().filter(s -> !s.hasTransactions(client))
+            SecurityTransactionIndex index = new SecurityTransactionIndex(client);
+            List<Security> candidates = client.getSecurities().stream().filter(s -> !index.hasTransactions(s))
                             .sorted(new Security.ByName()).collect(Collectors.toList());
 
             tableViewer.setInput(candidates);
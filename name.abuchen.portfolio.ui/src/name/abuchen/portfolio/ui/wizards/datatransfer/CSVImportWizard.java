@@ -1,10 +1,14 @@
 package name.abuchen.portfolio.ui.wizards.datatransfer;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.BiConsumer;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.wizard.Wizard;
 import org.eclipse.swt.graphics.Image;
@@ -24,6 +28,12 @@ public class CSVImportWizard extends Wizard
 {
     private static class ExtractorProxy implements Extractor
     {
+        /**
+         * Number of lines converted to items before the items are passed to
+         * the review page.
+         */
+        private static final int BATCH_SIZE = 1000;
+
         private final CSVImporter importer;
 
         public ExtractorProxy(CSVImporter importer)
@@ -48,6 +58,20 @@ public class CSVImportWizard extends Wizard
         {
             return this.importer.createItems(errors);
         }
+
+        @Override
+        public void extract(List<File> files, IProgressMonitor monitor,
+                        BiConsumer<List<Item>, List<Exception>> consumer)
+        {
+            try
+            {
+                this.importer.createItems(monitor, BATCH_SIZE, consumer);
+            }
+            catch (IOException e)
+            {
+                consumer.accept(Collections.emptyList(), Arrays.asList(e));
+            }
+        }
     }
 
     private Client client;
@@ -132,13 +156,7 @@ public class CSVImportWizard extends Wizard
 
         List<SecurityPrice> prices = importer.createItems(new ArrayList<>()).get(0).getSecurity().getPrices();
 
-        boolean isDirty = false;
-        for (SecurityPrice p : prices)
-        {
-            if (security.addPrice(p))
-                isDirty = true;
-        }
-        return isDirty;
+        return security.addAllPrices(prices);
     }
 
     private boolean importItems()
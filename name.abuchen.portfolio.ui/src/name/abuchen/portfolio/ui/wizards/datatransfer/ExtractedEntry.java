@@ -38,9 +38,9 @@ public class ExtractedEntry
         if (isImported != null && !isImported.booleanValue())
             return false;
 
-        // otherwise import if either the status is OK or the user explicitly
-        // overrides warnings
-        return maxCode == Status.Code.OK
+        // otherwise import if either the status is OK (or informational) or
+        // the user explicitly overrides warnings
+        return maxCode == Status.Code.OK || maxCode == Status.Code.INFO
                         || (maxCode == Status.Code.WARNING && isImported != null && isImported.booleanValue());
     }
 
@@ -7,7 +7,6 @@ import org.eclipse.swt.graphics.Image;
 
 import name.abuchen.portfolio.model.LatestSecurityPrice;
 import name.abuchen.portfolio.model.Security;
-import name.abuchen.portfolio.model.SecurityPrice;
 import name.abuchen.portfolio.ui.Images;
 import name.abuchen.portfolio.ui.wizards.AbstractWizardPage;
 
@@ -45,11 +44,7 @@ public class ImportQuotesWizard extends Wizard
     {
         List<LatestSecurityPrice> quotes = reviewPage.getQuotes();
 
-        for (LatestSecurityPrice p : quotes)
-        {
-            SecurityPrice quote = new SecurityPrice(p.getTime(), p.getValue());
-            security.addPrice(quote);
-        }
+        security.addAllPrices(quotes);
 
         return true;
     }
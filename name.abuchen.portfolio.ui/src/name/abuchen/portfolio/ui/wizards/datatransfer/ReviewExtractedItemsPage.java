@@ -3,7 +3,6 @@ package name.abuchen.portfolio.ui.wizards.datatransfer;
 import java.io.File;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -11,6 +10,7 @@ import java.util.stream.IntStream;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IMenuManager;
 import org.eclipse.jface.action.MenuManager;
@@ -95,6 +95,14 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
     private List<File> files;
 
     private List<ExtractedEntry> allEntries = new ArrayList<ExtractedEntry>();
+    private List<Exception> allErrors = new ArrayList<Exception>();
+
+    /**
+     * The checks of one check run. They are kept while the items are added in
+     * batches because the detection of duplicates indexes the existing
+     * transactions once. Checking all entries again starts a new check run.
+     */
+    private List<ImportAction> checks = createChecks();
 
     public ReviewExtractedItemsPage(Client client, Extractor extractor, IPreferenceStore preferences, List<File> files)
     {
@@ -295,6 +303,9 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
                 Images image = null;
                 switch (element.getMaxCode())
                 {
+                    case INFO:
+                        image = Images.INFO;
+                        break;
                     case WARNING:
                         image = Images.WARNING;
                         break;
@@ -441,8 +452,13 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
             entry.getStatus() //
                             .filter(s -> s.getCode() != ImportAction.Status.Code.OK) //
                             .forEach(s -> {
-                                Images image = s.getCode() == ImportAction.Status.Code.WARNING ? //
-                                                Images.WARNING : Images.ERROR;
+                                Images image;
+                                if (s.getCode() == ImportAction.Status.Code.INFO)
+                                    image = Images.INFO;
+                                else if (s.getCode() == ImportAction.Status.Code.WARNING)
+                                    image = Images.WARNING;
+                                else
+                                    image = Images.ERROR;
                                 manager.add(new LabelOnly(s.getMessage(), image.descriptor()));
                             });
         }
@@ -485,8 +501,10 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
 
         // clear all entries (if embedded into multi-page wizard)
         allEntries.clear();
+        allErrors.clear();
+        checks = createChecks();
         tableViewer.setInput(allEntries);
-        errorTableViewer.setInput(Collections.emptyList());
+        errorTableViewer.setInput(allErrors);
 
         try
         {
@@ -495,18 +513,21 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
                 @Override
                 protected IStatus run(IProgressMonitor monitor)
                 {
-                    monitor.beginTask(Messages.PDFImportWizardMsgExtracting, files.size());
+                    SubMonitor progress = SubMonitor.convert(monitor, Messages.PDFImportWizardMsgExtracting, 1);
 
-                    final List<Exception> errors = new ArrayList<Exception>();
-                    List<ExtractedEntry> entries = extractor //
-                                    .extract(files, errors).stream() //
-                                    .map(i -> new ExtractedEntry(i)) //
-                                    .collect(Collectors.toList());
+                    // the items are shown and checked batch by batch while the
+                    // extraction continues
+                    extractor.extract(files, progress.newChild(1), (items, errors) -> {
+                        List<ExtractedEntry> entries = items.stream() //
+                                        .map(i -> new ExtractedEntry(i)) //
+                                        .collect(Collectors.toList());
 
-                    // Logging them is not a bad idea if the whole method fails
-                    PortfolioPlugin.log(errors);
+                        // Logging them is not a bad idea if the whole method
+                        // fails
+                        PortfolioPlugin.log(errors);
 
-                    Display.getDefault().asyncExec(() -> setResults(entries, errors));
+                        Display.getDefault().asyncExec(() -> addResults(entries, errors));
+                    });
 
                     return Status.OK_STATUS;
                 }
@@ -525,13 +546,21 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
         preferences.setValue(IMPORT_TARGET_PORTFOLIO + extractor.getClass().getSimpleName(), getPortfolio().getUUID());
     }
 
-    private void setResults(List<ExtractedEntry> entries, List<Exception> errors)
+    private void addResults(List<ExtractedEntry> entries, List<Exception> errors)
     {
+        if (tableViewer.getTable().isDisposed())
+            return;
+
         checkEntries(entries);
 
         allEntries.addAll(entries);
-        tableViewer.setInput(allEntries);
-        errorTableViewer.setInput(errors);
+        tableViewer.add(entries.toArray());
+
+        if (!errors.isEmpty())
+        {
+            allErrors.addAll(errors);
+            errorTableViewer.refresh();
+        }
 
         for (ExtractedEntry entry : entries)
         {
@@ -550,21 +579,26 @@ public class ReviewExtractedItemsPage extends AbstractWizardPage implements Impo
 
     private void checkEntriesAndRefresh(List<ExtractedEntry> entries)
     {
+        checks = createChecks();
         checkEntries(entries);
         tableViewer.refresh();
     }
 
-    private void checkEntries(List<ExtractedEntry> entries)
+    private static List<ImportAction> createChecks()
     {
         List<ImportAction> actions = new ArrayList<>();
         actions.add(new CheckValidTypesAction());
         actions.add(new DetectDuplicatesAction());
         actions.add(new CheckCurrenciesAction());
+        return actions;
+    }
 
+    private void checkEntries(List<ExtractedEntry> entries)
+    {
         for (ExtractedEntry entry : entries)
         {
             entry.clearStatus();
-            for (ImportAction action : actions)
+            for (ImportAction action : checks)
                 entry.addStatus(entry.getItem().apply(action, this));
         }
     }
@@ -1,6 +1,7 @@
 package name.abuchen.portfolio.ui.wizards.splits;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import name.abuchen.portfolio.model.Client;
@@ -109,12 +110,13 @@ public class StockSplitModel extends BindingHelper.Model
 
         if (isChangeHistoricalQuotes())
         {
-            List<SecurityPrice> quotes = security.getPrices();
-            for (SecurityPrice p : quotes)
+            List<SecurityPrice> quotes = new ArrayList<>();
+            for (SecurityPrice p : security.getPrices())
             {
                 if (p.getTime().isBefore(exDate))
-                    p.setValue(p.getValue() * oldShares / newShares);
+                    quotes.add(new SecurityPrice(p.getTime(), p.getValue() * oldShares / newShares));
             }
+            security.addAllPrices(quotes);
         }
 
     }
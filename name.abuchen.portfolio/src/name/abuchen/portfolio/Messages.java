@@ -104,6 +104,7 @@ public class Messages extends NLS
     public static String LabelNoCurrency;
     public static String LabelNoCurrencyDescription;
     public static String LabelPotentialDuplicate;
+    public static String LabelPotentialNearDuplicate;
     public static String LabelRemovals;
     public static String LabelReportingPeriodFromXtoY;
     public static String LabelReportingPeriodLastXDays;
@@ -146,6 +147,7 @@ public class Messages extends NLS
     public static String MsgErrorsConvertingValue;
     public static String MsgErrorUnexpectedStatusCode;
     public static String MsgErrorUnitCurrencyMismatch;
+    public static String MsgErrorUnresolvedReference;
     public static String MsgFileNotFound;
     public static String MsgIncorrectPassword;
     public static String MsgKeyLengthNotSupported;
@@ -161,6 +163,7 @@ public class Messages extends NLS
     public static String MsgNotANumber;
     public static String MsgNotAPortflioFile;
     public static String MsgPasswordMissing;
+    public static String MsgQuoteFeedStatistics;
     public static String MsgReadingFile;
     public static String MsgResponseContainsNoIndices;
     public static String MsgUnexpectedHeader;
@@ -168,8 +171,10 @@ public class Messages extends NLS
     public static String MsgUnexpectedValue;
     public static String MsgUnsupportedVersionClientFiled;
     public static String MsgXMLFormatInvalid;
+    public static String PDFAutoDetectLabel;
     public static String PDFdbLabel;
     public static String PDFdbMsgCannotDetermineFileType;
+    public static String PDFMsgBankNotDetected;
     public static String PDFMsgFileNotSupported;
     public static String PDFMsgMissingShares;
     public static String QuoteFeedManual;
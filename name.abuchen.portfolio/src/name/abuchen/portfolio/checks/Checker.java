@@ -1,16 +1,114 @@
 package name.abuchen.portfolio.checks;
 
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
 
+import name.abuchen.portfolio.checks.TransactionCheck.Scan;
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.snapshot.ClientFingerprint;
 
 public class Checker
 {
+    /**
+     * The issues of the previous incremental run of a client. The issues
+     * reference the client, hence the state is kept in a transient field of the
+     * client (see {@link Client#getCheckerState()}) and not in a map of the
+     * checker: it is garbage collected together with the client.
+     */
+    private static final class IncrementalState
+    {
+        private volatile boolean isModified = true;
+        private final PropertyChangeListener listener = event -> isModified = true;
+
+        private ClientFingerprint fingerprint;
+        private final Map<ElementCheck, Map<Object, List<Issue>>> elementIssues = new HashMap<>();
+        private List<Issue> issues;
+
+        private IncrementalState(Client client)
+        {
+            client.addPropertyChangeListener(listener);
+        }
+
+        private synchronized List<Issue> run(Client client)
+        {
+            if (!isModified && issues != null)
+                return new ArrayList<>(issues);
+
+            // events fired while checking are handled with the next run
+            isModified = false;
+
+            ClientFingerprint start = new ClientFingerprint(client);
+            removeModified(start, fingerprint);
+
+            List<Issue> answer = Checker.run(client, check -> !(check instanceof ElementCheck),
+                            check -> execute(client, (ElementCheck) check), null);
+
+            // checks which repair the client might have modified elements
+            // already checked: check them again with the next run
+            ClientFingerprint end = new ClientFingerprint(client);
+            removeModified(end, start);
+
+            fingerprint = end;
+            issues = answer;
+
+            return new ArrayList<>(answer);
+        }
+
+        private void removeModified(ClientFingerprint current, ClientFingerprint previous)
+        {
+            if (previous == null || current.isClientModified(previous))
+            {
+                elementIssues.clear();
+                return;
+            }
+
+            Set<Object> modified = current.getModifiedObjects(previous);
+            if (modified.isEmpty())
+                return;
+
+            Iterator<Map<Object, List<Issue>>> iterator = elementIssues.values().iterator();
+            while (iterator.hasNext())
+                iterator.next().keySet().removeAll(modified);
+        }
+
+        private List<Issue> execute(Client client, ElementCheck check)
+        {
+            Map<Object, List<Issue>> cache = elementIssues.computeIfAbsent(check, c -> new IdentityHashMap<>());
+
+            List<Issue> answer = new ArrayList<>();
+
+            for (Account account : client.getAccounts())
+                answer.addAll(cache.computeIfAbsent(account, a -> check.execute(client, account)));
+
+            for (Portfolio portfolio : client.getPortfolios())
+                answer.addAll(cache.computeIfAbsent(portfolio, p -> check.execute(client, portfolio)));
+
+            for (Security security : client.getSecurities())
+                answer.addAll(cache.computeIfAbsent(security, s -> check.execute(client, security)));
+
+            return answer;
+        }
+    }
+
     private static final List<Check> CHECKS;
 
+    private static final Object STATE_LOCK = new Object();
+
     static
     {
         CHECKS = new ArrayList<Check>();
@@ -20,12 +118,189 @@ public class Checker
     }
 
     public static final List<Issue> runAll(Client client)
+    {
+        return runAll(client, null);
+    }
+
+    /**
+     * Runs all checks on the whole client. The transactions are visited once
+     * by all {@link TransactionCheck}s (see {@link #scan}).
+     *
+     * @param timings
+     *            if not null, receives the time spent per check in
+     *            nanoseconds
+     */
+    public static final List<Issue> runAll(Client client, ObjLongConsumer<Check> timings)
+    {
+        // checks repair the client without firing events
+        synchronized (STATE_LOCK)
+        {
+            Object state = client.getCheckerState();
+            if (state instanceof IncrementalState)
+                ((IncrementalState) state).isModified = true;
+        }
+
+        return run(client, check -> true, check -> check.execute(client), timings);
+    }
+
+    /**
+     * Runs the checks in their order. Consecutive transaction checks accepted
+     * by the filter share one scan, all other checks are executed by the
+     * executor.
+     */
+    private static List<Issue> run(Client client, Predicate<Check> isScanned, Function<Check, List<Issue>> executor,
+                    ObjLongConsumer<Check> timings)
     {
         List<Issue> answer = new ArrayList<Issue>();
+        List<TransactionCheck> scanned = new ArrayList<>();
 
         for (Check check : CHECKS)
-            answer.addAll(check.execute(client));
+        {
+            if (check instanceof TransactionCheck && isScanned.test(check))
+            {
+                scanned.add((TransactionCheck) check);
+                continue;
+            }
+
+            scan(client, scanned, answer, timings);
+            scanned.clear();
+
+            long start = System.nanoTime();
+            answer.addAll(executor.apply(check));
+            if (timings != null)
+                timings.accept(check, System.nanoTime() - start);
+        }
+
+        scan(client, scanned, answer, timings);
 
         return answer;
     }
+
+    /**
+     * Visits every transaction once and passes it to the scans of all given
+     * checks. The scans are finished in the order of the checks. If finishing
+     * a scan modifies the client, the remaining checks are executed with a
+     * new scan. Therefore the issues are identical to executing the checks
+     * one by one.
+     */
+    private static void scan(Client client, List<TransactionCheck> checks, List<Issue> answer,
+                    ObjLongConsumer<Check> timings)
+    {
+        int from = 0;
+        while (from < checks.size())
+        {
+            int size = checks.size() - from;
+            Scan[] scans = new Scan[size];
+            long[] nanos = new long[size];
+
+            for (int ii = 0; ii < size; ii++)
+            {
+                long start = System.nanoTime();
+                scans[ii] = checks.get(from + ii).startScan(client);
+                nanos[ii] += System.nanoTime() - start;
+            }
+
+            if (timings != null)
+                visitMeasured(client, scans, nanos);
+            else
+                visit(client, scans);
+
+            int next = checks.size();
+            for (int ii = 0; ii < size; ii++)
+            {
+                long start = System.nanoTime();
+                answer.addAll(scans[ii].finish());
+                nanos[ii] += System.nanoTime() - start;
+
+                if (timings != null)
+                    timings.accept(checks.get(from + ii), nanos[ii]);
+
+                if (scans[ii].hasModifiedClient())
+                {
+                    next = from + ii + 1;
+                    break;
+                }
+            }
+
+            from = next;
+        }
+    }
+
+    private static void visit(Client client, Scan[] scans)
+    {
+        for (Account account : client.getAccounts())
+        {
+            for (Scan scan : scans)
+                scan.visit(account);
+
+            for (AccountTransaction t : account.getTransactions())
+                for (Scan scan : scans)
+                    scan.visit(account, t);
+        }
+
+        for (Portfolio portfolio : client.getPortfolios())
+        {
+            for (Scan scan : scans)
+                scan.visit(portfolio);
+
+            for (PortfolioTransaction t : portfolio.getTransactions())
+                for (Scan scan : scans)
+                    scan.visit(portfolio, t);
+        }
+    }
+
+    private static void visitMeasured(Client client, Scan[] scans, long[] nanos)
+    {
+        for (Account account : client.getAccounts())
+        {
+            for (int ii = 0; ii < scans.length; ii++)
+            {
+                long start = System.nanoTime();
+                scans[ii].visit(account);
+                for (AccountTransaction t : account.getTransactions())
+                    scans[ii].visit(account, t);
+                nanos[ii] += System.nanoTime() - start;
+            }
+        }
+
+        for (Portfolio portfolio : client.getPortfolios())
+        {
+            for (int ii = 0; ii < scans.length; ii++)
+            {
+                long start = System.nanoTime();
+                scans[ii].visit(portfolio);
+                for (PortfolioTransaction t : portfolio.getTransactions())
+                    scans[ii].visit(portfolio, t);
+                nanos[ii] += System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Runs all checks like {@link #runAll(Client)}, but reuses the issues of
+     * the previous run for all accounts, portfolios and securities which have
+     * not been modified since. Modifications are detected with the property
+     * change events of the client (see {@link Client#markDirty()}) and the
+     * fingerprints of its elements. Only {@link ElementCheck}s are executed
+     * incrementally, all other checks inspect the whole client (sharing one
+     * scan of the transactions) with every run that follows a modification.
+     */
+    public static final List<Issue> runIncremental(Client client)
+    {
+        IncrementalState state;
+        synchronized (STATE_LOCK)
+        {
+            Object current = client.getCheckerState();
+            if (current instanceof IncrementalState)
+            {
+                state = (IncrementalState) current;
+            }
+            else
+            {
+                state = new IncrementalState(client);
+                client.setCheckerState(state);
+            }
+        }
+        return state.run(client);
+    }
 }
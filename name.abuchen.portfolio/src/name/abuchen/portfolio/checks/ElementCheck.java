@@ -0,0 +1,52 @@
+package name.abuchen.portfolio.checks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.Security;
+
+/**
+ * A check which inspects accounts, portfolios and securities one by one, i.e.
+ * the issues of an element depend only on the element itself and on the lists
+ * of accounts, portfolios and securities of the client. The
+ * {@link Checker#runIncremental(Client)} caches the issues per element and
+ * checks only elements modified since the previous run.
+ */
+public interface ElementCheck extends Check
+{
+    default List<Issue> execute(Client client, Account account)
+    {
+        return Collections.emptyList();
+    }
+
+    default List<Issue> execute(Client client, Portfolio portfolio)
+    {
+        return Collections.emptyList();
+    }
+
+    default List<Issue> execute(Client client, Security security)
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    default List<Issue> execute(Client client)
+    {
+        List<Issue> issues = new ArrayList<>();
+
+        for (Account account : client.getAccounts())
+            issues.addAll(execute(client, account));
+
+        for (Portfolio portfolio : client.getPortfolios())
+            issues.addAll(execute(client, portfolio));
+
+        for (Security security : client.getSecurities())
+            issues.addAll(execute(client, security));
+
+        return issues;
+    }
+}
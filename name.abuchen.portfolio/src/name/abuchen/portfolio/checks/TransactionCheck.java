@@ -0,0 +1,108 @@
+package name.abuchen.portfolio.checks;
+
+import java.util.List;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+
+/**
+ * A check which inspects the transactions of the client. The {@link Checker}
+ * passes every transaction once to the scans of all transaction checks
+ * instead of letting each check iterate all accounts and portfolios.
+ */
+public interface TransactionCheck extends Check
+{
+    /**
+     * Visitor of the accounts and portfolios of one scan. The accounts are
+     * visited first, then the portfolios, each in the order of the client. An
+     * account or portfolio is visited before its transactions.
+     * <p/>
+     * A scan may modify the visited transaction only. Other modifications of
+     * the client must be done when finishing the scan.
+     */
+    interface Scan
+    {
+        default void visit(Account account)
+        {}
+
+        default void visit(Account account, AccountTransaction transaction)
+        {}
+
+        default void visit(Portfolio portfolio)
+        {}
+
+        default void visit(Portfolio portfolio, PortfolioTransaction transaction)
+        {}
+
+        /**
+         * Returns the issues found by the scan.
+         */
+        List<Issue> finish();
+
+        /**
+         * Returns true if finishing the scan has modified the client. The
+         * checks which follow are then executed with a new scan.
+         */
+        default boolean hasModifiedClient()
+        {
+            return false;
+        }
+    }
+
+    Scan startScan(Client client);
+
+    @Override
+    default List<Issue> execute(Client client)
+    {
+        Scan scan = startScan(client);
+
+        for (Account account : client.getAccounts())
+        {
+            scan.visit(account);
+            for (AccountTransaction t : account.getTransactions())
+                scan.visit(account, t);
+        }
+
+        for (Portfolio portfolio : client.getPortfolios())
+        {
+            scan.visit(portfolio);
+            for (PortfolioTransaction t : portfolio.getTransactions())
+                scan.visit(portfolio, t);
+        }
+
+        return scan.finish();
+    }
+
+    /**
+     * Scans the transactions of one account only, e.g. to implement an
+     * {@link ElementCheck}.
+     */
+    default List<Issue> scan(Client client, Account account)
+    {
+        Scan scan = startScan(client);
+
+        scan.visit(account);
+        for (AccountTransaction t : account.getTransactions())
+            scan.visit(account, t);
+
+        return scan.finish();
+    }
+
+    /**
+     * Scans the transactions of one portfolio only, e.g. to implement an
+     * {@link ElementCheck}.
+     */
+    default List<Issue> scan(Client client, Portfolio portfolio)
+    {
+        Scan scan = startScan(client);
+
+        scan.visit(portfolio);
+        for (PortfolioTransaction t : portfolio.getTransactions())
+            scan.visit(portfolio, t);
+
+        return scan.finish();
+    }
+}
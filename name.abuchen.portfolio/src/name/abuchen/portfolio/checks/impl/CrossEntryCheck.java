@@ -6,8 +6,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
-import name.abuchen.portfolio.checks.Check;
 import name.abuchen.portfolio.checks.Issue;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.AccountTransferEntry;
@@ -17,13 +17,13 @@ import name.abuchen.portfolio.model.Portfolio;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.PortfolioTransferEntry;
 
-public class CrossEntryCheck implements Check
+public class CrossEntryCheck implements TransactionCheck
 {
 
     @Override
-    public List<Issue> execute(Client client)
+    public Scan startScan(Client client)
     {
-        return new CheckImpl(client).execute();
+        return new CheckImpl(client);
     }
 
     private static class AccountEntry
@@ -50,7 +50,7 @@ public class CrossEntryCheck implements Check
         }
     }
 
-    private static class CheckImpl
+    private static class CheckImpl implements Scan
     {
         private Client client;
 
@@ -58,17 +58,16 @@ public class CrossEntryCheck implements Check
         private List<PortfolioEntry> portfolioTransactions = new ArrayList<PortfolioEntry>();
 
         private List<Issue> issues = new ArrayList<Issue>();
+        private boolean isModified = false;
 
         public CheckImpl(Client client)
         {
             this.client = client;
         }
 
-        public List<Issue> execute()
+        @Override
+        public List<Issue> finish()
         {
-            collectAccountTransactions();
-            collectPortfolioTransactions();
-
             matchBuySell();
             matchAccountTransfers();
             matchPortfolioTransfers();
@@ -76,51 +75,47 @@ public class CrossEntryCheck implements Check
             return issues;
         }
 
-        private void collectAccountTransactions()
+        @Override
+        public boolean hasModifiedClient()
         {
-            for (Account account : client.getAccounts())
-            {
-                for (AccountTransaction t : account.getTransactions())
-                {
-                    if (t.getCrossEntry() != null)
-                        continue;
+            return isModified;
+        }
 
-                    switch (t.getType())
-                    {
-                        case BUY:
-                        case SELL:
-                        case TRANSFER_IN:
-                        case TRANSFER_OUT:
-                            accountTransactions.add(new AccountEntry(account, t));
-                            break;
-                        default:
-                            break;
-                    }
-                }
+        @Override
+        public void visit(Account account, AccountTransaction t)
+        {
+            if (t.getCrossEntry() != null)
+                return;
+
+            switch (t.getType())
+            {
+                case BUY:
+                case SELL:
+                case TRANSFER_IN:
+                case TRANSFER_OUT:
+                    accountTransactions.add(new AccountEntry(account, t));
+                    break;
+                default:
+                    break;
             }
         }
 
-        private void collectPortfolioTransactions()
+        @Override
+        public void visit(Portfolio portfolio, PortfolioTransaction t)
         {
-            for (Portfolio portfolio : client.getPortfolios())
-            {
-                for (PortfolioTransaction t : portfolio.getTransactions())
-                {
-                    if (t.getCrossEntry() != null)
-                        continue;
+            if (t.getCrossEntry() != null)
+                return;
 
-                    switch (t.getType())
-                    {
-                        case BUY:
-                        case SELL:
-                        case TRANSFER_IN:
-                        case TRANSFER_OUT:
-                            portfolioTransactions.add(new PortfolioEntry(portfolio, t));
-                            break;
-                        default:
-                            break;
-                    }
-                }
+            switch (t.getType())
+            {
+                case BUY:
+                case SELL:
+                case TRANSFER_IN:
+                case TRANSFER_OUT:
+                    portfolioTransactions.add(new PortfolioEntry(portfolio, t));
+                    break;
+                default:
+                    break;
             }
         }
 
@@ -186,6 +181,7 @@ public class CrossEntryCheck implements Check
 
                     portfolioTransactions.remove(match);
                     iterAccount.remove();
+                    isModified = true;
                 }
             }
 
@@ -268,6 +264,7 @@ public class CrossEntryCheck implements Check
 
                     matched.add(suspect);
                     matched.add(match);
+                    isModified = true;
                 }
             }
 
@@ -346,6 +343,7 @@ public class CrossEntryCheck implements Check
 
                     matched.add(suspect);
                     matched.add(match);
+                    isModified = true;
                 }
             }
 
@@ -3,12 +3,13 @@ package name.abuchen.portfolio.checks.impl;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
 import name.abuchen.portfolio.checks.Issue;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.BuySellEntry;
 import name.abuchen.portfolio.model.Client;
@@ -22,41 +23,65 @@ import name.abuchen.portfolio.model.PortfolioTransaction;
  * a bug in previous versions, when deleting an account from the account list,
  * it was not removed as reference account.
  */
-public class DanglingAccountsCheck implements Check
+public class DanglingAccountsCheck implements TransactionCheck
 {
-
-    @Override
-    public List<Issue> execute(Client client)
+    private static class DanglingAccountsScan implements Scan
     {
-        Set<Account> accounts = new HashSet<Account>(client.getAccounts());
+        private final Client client;
+
+        /** referenced accounts in the order of their first reference */
+        private final Set<Account> referenced = new LinkedHashSet<Account>();
+        private boolean isModified = false;
 
-        for (Portfolio portfolio : client.getPortfolios())
+        public DanglingAccountsScan(Client client)
         {
-            Account referenceAccount = portfolio.getReferenceAccount();
-            check(client, accounts, referenceAccount);
+            this.client = client;
+        }
 
-            for (PortfolioTransaction transaction : portfolio.getTransactions())
-            {
-                CrossEntry entry = transaction.getCrossEntry();
-                if (!(entry instanceof BuySellEntry))
-                    continue;
+        @Override
+        public void visit(Portfolio portfolio)
+        {
+            referenced.add(portfolio.getReferenceAccount());
+        }
 
-                Account account = (Account) entry.getCrossOwner(transaction);
-                check(client, accounts, account);
-            }
+        @Override
+        public void visit(Portfolio portfolio, PortfolioTransaction transaction)
+        {
+            CrossEntry entry = transaction.getCrossEntry();
+            if (entry instanceof BuySellEntry)
+                referenced.add((Account) entry.getCrossOwner(transaction));
         }
 
-        return Collections.emptyList();
-    }
+        @Override
+        public List<Issue> finish()
+        {
+            Set<Account> accounts = new HashSet<Account>(client.getAccounts());
 
-    private void check(Client client, Set<Account> accounts, Account account)
-    {
-        if (!accounts.contains(account))
+            for (Account account : referenced)
+            {
+                if (!accounts.contains(account))
+                {
+                    account.setName(MessageFormat.format(Messages.LabelNameReferenceAccountRecovered,
+                                    account.getName()));
+                    accounts.add(account);
+                    client.addAccount(account);
+                    isModified = true;
+                }
+            }
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean hasModifiedClient()
         {
-            account.setName(MessageFormat.format(Messages.LabelNameReferenceAccountRecovered, account.getName()));
-            accounts.add(account);
-            client.addAccount(account);
+            return isModified;
         }
     }
 
+    @Override
+    public Scan startScan(Client client)
+    {
+        return new DanglingAccountsScan(client);
+    }
 }
@@ -5,15 +5,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.ElementCheck;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.checks.QuickFix;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.AccountTransaction.Type;
 import name.abuchen.portfolio.model.Client;
 
-public class DividendsAndInterestCheck implements Check
+public class DividendsAndInterestCheck implements ElementCheck, TransactionCheck
 {
     private static final class DividendsAndInterestIssue extends AbstractAccountIssue
     {
@@ -75,13 +76,14 @@ public class DividendsAndInterestCheck implements Check
     }
 
     @Override
-    public List<Issue> execute(Client client)
+    public Scan startScan(Client client)
     {
         List<Issue> answer = new ArrayList<Issue>();
 
-        for (Account account : client.getAccounts())
+        return new Scan()
         {
-            for (AccountTransaction transaction : account.getTransactions())
+            @Override
+            public void visit(Account account, AccountTransaction transaction)
             {
                 if (transaction.getType() == Type.DIVIDENDS && transaction.getSecurity() == null)
                 {
@@ -92,8 +94,24 @@ public class DividendsAndInterestCheck implements Check
                     answer.add(new DividendsAndInterestIssue(client, account, transaction, Type.DIVIDENDS));
                 }
             }
-        }
 
-        return answer;
+            @Override
+            public List<Issue> finish()
+            {
+                return answer;
+            }
+        };
+    }
+
+    @Override
+    public List<Issue> execute(Client client, Account account)
+    {
+        return scan(client, account);
+    }
+
+    @Override
+    public List<Issue> execute(Client client)
+    {
+        return TransactionCheck.super.execute(client);
     }
 }
@@ -1,14 +1,17 @@
 package name.abuchen.portfolio.checks.impl;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
 import name.abuchen.portfolio.checks.Issue;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
 
 /**
@@ -17,24 +20,43 @@ import name.abuchen.portfolio.model.Security;
  * transaction from PDF but explicitly does not import the newly created
  * security. That created orphaned securities.
  */
-public class FixOrphanedSecurtiesCheck implements Check
+public class FixOrphanedSecurtiesCheck implements TransactionCheck
 {
 
     @Override
-    public List<Issue> execute(Client client)
+    public Scan startScan(Client client)
     {
-        Set<Security> missing = client.getPortfolios().stream() //
-                        .flatMap(p -> p.getTransactions().stream()) //
-                        .map(t -> t.getSecurity()) //
-                        .filter(s -> !client.getSecurities().contains(s)) //
-                        .collect(Collectors.toSet());
-
-        missing.stream().forEach(security -> {
-            security.setName(security.getName() + Messages.LabelSuffixEntryCorrected);
-            client.addSecurity(security);
-        });
-
-        return Collections.emptyList();
+        Set<Security> available = Collections.newSetFromMap(new IdentityHashMap<>());
+        available.addAll(client.getSecurities());
+
+        Set<Security> missing = new HashSet<>();
+
+        return new Scan()
+        {
+            @Override
+            public void visit(Portfolio portfolio, PortfolioTransaction t)
+            {
+                if (!available.contains(t.getSecurity()))
+                    missing.add(t.getSecurity());
+            }
+
+            @Override
+            public List<Issue> finish()
+            {
+                missing.stream().forEach(security -> {
+                    security.setName(security.getName() + Messages.LabelSuffixEntryCorrected);
+                    client.addSecurity(security);
+                });
+
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean hasModifiedClient()
+            {
+                return !missing.isEmpty();
+            }
+        };
     }
 
 }
@@ -3,8 +3,9 @@ package name.abuchen.portfolio.checks.impl;
 import java.util.Collections;
 import java.util.List;
 
-import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.ElementCheck;
 import name.abuchen.portfolio.checks.Issue;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.Client;
@@ -15,34 +16,53 @@ import name.abuchen.portfolio.model.Security;
  * when in fact the transaction should not be bound to a security at all. Remove
  * it.
  */
-public class FixTaxRefundsCheck implements Check
+public class FixTaxRefundsCheck implements ElementCheck, TransactionCheck
 {
 
     @Override
-    public List<Issue> execute(Client client)
+    public Scan startScan(Client client)
     {
         // issue is fixed version 29
-        if (client.getFileVersionAfterRead() > 29)
-            return Collections.emptyList();
+        boolean isFixed = client.getFileVersionAfterRead() > 29;
 
-        for (Account account : client.getAccounts())
+        return new Scan()
         {
-            for (AccountTransaction t : account.getTransactions())
+            @Override
+            public void visit(Account account, AccountTransaction t)
             {
+                if (isFixed)
+                    return;
+
                 if (t.getType() != AccountTransaction.Type.TAX_REFUND)
-                    continue;
+                    return;
 
                 if (t.getSecurity() == null)
-                    continue;
+                    return;
 
                 Security security = t.getSecurity();
 
                 if (!client.getSecurities().contains(security))
                     t.setSecurity(null);
             }
-        }
 
-        return Collections.emptyList();
+            @Override
+            public List<Issue> finish()
+            {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    @Override
+    public List<Issue> execute(Client client, Account account)
+    {
+        return scan(client, account);
+    }
+
+    @Override
+    public List<Issue> execute(Client client)
+    {
+        return TransactionCheck.super.execute(client);
     }
 
 }
@@ -5,21 +5,27 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.checks.QuickFix;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.SecurityTransactionIndex;
 import name.abuchen.portfolio.money.CurrencyUnit;
 
 /**
  * Checks if there is at least one account or security without a currency.
  */
-public class MissingCurrencyCheck implements Check
+public class MissingCurrencyCheck implements TransactionCheck
 {
     public class CurrencyQuickFix implements QuickFix
     {
@@ -54,8 +60,9 @@ public class MissingCurrencyCheck implements Check
                 if (account.getCurrencyCode() == null)
                     account.setCurrencyCode(currency.getCurrencyCode());
 
+            SecurityTransactionIndex index = new SecurityTransactionIndex(client);
             for (Security security : client.getSecurities())
-                if (security.getCurrencyCode() == null && security.hasTransactions(client))
+                if (security.getCurrencyCode() == null && index.hasTransactions(security))
                     security.setCurrencyCode(currency.getCurrencyCode());
         }
     }
@@ -115,29 +122,53 @@ public class MissingCurrencyCheck implements Check
     }
 
     @Override
-    public List<Issue> execute(Client client)
+    public Scan startScan(Client client)
     {
-        boolean hasCurrencyMissing = false;
+        // securities without currency which are used by transactions
+        Set<Security> missing = new HashSet<>();
 
-        for (Account account : client.getAccounts())
-            if (account.getCurrencyCode() == null)
-                hasCurrencyMissing = true;
-
-        if (!hasCurrencyMissing)
-        {
-            for (Security security : client.getSecurities())
-                if (security.getCurrencyCode() == null && security.hasTransactions(client))
-                    hasCurrencyMissing = true;
-        }
-
-        if (hasCurrencyMissing)
-        {
-            Issue issue = new MissingCurrencyIssue(client);
-            return Arrays.asList(issue);
-        }
-        else
+        return new Scan()
         {
-            return Collections.emptyList();
-        }
+            @Override
+            public void visit(Account account, AccountTransaction t)
+            {
+                if (t.getSecurity() != null && t.getSecurity().getCurrencyCode() == null)
+                    missing.add(t.getSecurity());
+            }
+
+            @Override
+            public void visit(Portfolio portfolio, PortfolioTransaction t)
+            {
+                if (t.getSecurity() != null && t.getSecurity().getCurrencyCode() == null)
+                    missing.add(t.getSecurity());
+            }
+
+            @Override
+            public List<Issue> finish()
+            {
+                boolean hasCurrencyMissing = false;
+
+                for (Account account : client.getAccounts())
+                    if (account.getCurrencyCode() == null)
+                        hasCurrencyMissing = true;
+
+                if (!hasCurrencyMissing)
+                {
+                    for (Security security : client.getSecurities())
+                        if (missing.contains(security))
+                            hasCurrencyMissing = true;
+                }
+
+                if (hasCurrencyMissing)
+                {
+                    Issue issue = new MissingCurrencyIssue(client);
+                    return Arrays.asList(issue);
+                }
+                else
+                {
+                    return Collections.emptyList();
+                }
+            }
+        };
     }
 }
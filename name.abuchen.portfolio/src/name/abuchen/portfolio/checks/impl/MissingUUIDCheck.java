@@ -3,20 +3,22 @@ package name.abuchen.portfolio.checks.impl;
 import java.util.Collections;
 import java.util.List;
 
-import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.ElementCheck;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.Security;
 
 /**
  * As per issue #571 some securities are missing UUIDs.
  */
-public class MissingUUIDCheck implements Check
+public class MissingUUIDCheck implements ElementCheck
 {
 
     @Override
-    public List<Issue> execute(Client client)
+    public List<Issue> execute(Client client, Security security)
     {
-        client.getSecurities().stream().filter(s -> s.getUUID() == null).forEach(s -> s.fixMissingUUID());
+        if (security.getUUID() == null)
+            security.fixMissingUUID();
         return Collections.emptyList();
     }
 
@@ -6,15 +6,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.ElementCheck;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.checks.QuickFix;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
 
-public class PortfolioTransactionWithoutSecurityCheck implements Check
+public class PortfolioTransactionWithoutSecurityCheck implements ElementCheck, TransactionCheck
 {
     public static class MissingSecurityIssue implements Issue
     {
@@ -100,19 +101,37 @@ public class PortfolioTransactionWithoutSecurityCheck implements Check
     }
 
     @Override
-    public List<Issue> execute(Client client)
+    public Scan startScan(Client client)
     {
         List<Issue> issues = new ArrayList<Issue>();
 
-        for (Portfolio portfolio : client.getPortfolios())
+        return new Scan()
         {
-            portfolio.getTransactions().stream() //
-                            .filter(t -> t.getSecurity() == null) //
-                            .forEach(t -> issues.add(new MissingSecurityIssue(client, portfolio, t)));
+            @Override
+            public void visit(Portfolio portfolio, PortfolioTransaction t)
+            {
+                if (t.getSecurity() == null)
+                    issues.add(new MissingSecurityIssue(client, portfolio, t));
+            }
+
+            @Override
+            public List<Issue> finish()
+            {
+                return issues;
+            }
+        };
+    }
 
-        }
+    @Override
+    public List<Issue> execute(Client client, Portfolio portfolio)
+    {
+        return scan(client, portfolio);
+    }
 
-        return issues;
+    @Override
+    public List<Issue> execute(Client client)
+    {
+        return TransactionCheck.super.execute(client);
     }
 
 }
@@ -2,17 +2,19 @@ package name.abuchen.portfolio.checks.impl;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.ElementCheck;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.checks.QuickFix;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
 
-public class ReferenceAccountCheck implements Check
+public class ReferenceAccountCheck implements ElementCheck
 {
     private static class MissingReferenceAccountIssue extends AbstractPortfolioIssue
     {
@@ -104,17 +106,12 @@ public class ReferenceAccountCheck implements Check
     }
 
     @Override
-    public List<Issue> execute(Client client)
+    public List<Issue> execute(Client client, Portfolio portfolio)
     {
-        List<Issue> answer = new ArrayList<Issue>();
-
-        for (Portfolio portfolio : client.getPortfolios())
-        {
-            if (portfolio.getReferenceAccount() == null)
-                answer.add(new MissingReferenceAccountIssue(client, portfolio));
-        }
-
-        return answer;
+        if (portfolio.getReferenceAccount() == null)
+            return Arrays.asList(new MissingReferenceAccountIssue(client, portfolio));
+        else
+            return Collections.emptyList();
     }
 
 }
@@ -4,19 +4,22 @@ import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
+import name.abuchen.portfolio.checks.ElementCheck;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.checks.QuickFix;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.money.Values;
 
-public class SharesHeldConsistencyCheck implements Check
+public class SharesHeldConsistencyCheck implements ElementCheck, TransactionCheck
 {
 
     private static class SharesIssue implements Issue
@@ -65,41 +68,64 @@ public class SharesHeldConsistencyCheck implements Check
         }
     }
 
-    @Override
-    public List<Issue> execute(Client client)
+    private static class SharesHeldScan implements Scan
     {
-        List<Issue> issues = new ArrayList<Issue>();
-        List<Security> securities = client.getSecurities();
+        private final List<Issue> issues = new ArrayList<Issue>();
+        private final List<Security> securities;
+        private final Map<Security, Integer> security2index = new IdentityHashMap<>();
 
-        for (Portfolio portfolio : client.getPortfolios())
+        private Portfolio portfolio;
+        private long[] shares;
+
+        public SharesHeldScan(Client client)
         {
-            long[] shares = new long[securities.size()];
+            this.securities = client.getSecurities();
 
-            for (PortfolioTransaction t : portfolio.getTransactions())
-            {
-                int index = securities.indexOf(t.getSecurity());
+            // same index as List#indexOf for securities listed twice
+            for (int ii = 0; ii < securities.size(); ii++)
+                security2index.putIfAbsent(securities.get(ii), ii);
+        }
 
-                // negative index means either the security is not known to the
-                // global collection or the security is null -> other checks
-                if (index < 0)
-                    continue;
+        @Override
+        public void visit(Portfolio portfolio)
+        {
+            collectIssues();
 
-                switch (t.getType())
-                {
-                    case BUY:
-                    case TRANSFER_IN:
-                    case DELIVERY_INBOUND:
-                        shares[index] += t.getShares();
-                        break;
-                    case SELL:
-                    case TRANSFER_OUT:
-                    case DELIVERY_OUTBOUND:
-                        shares[index] -= t.getShares();
-                        break;
-                    default:
-                        throw new UnsupportedOperationException();
-                }
+            this.portfolio = portfolio;
+            this.shares = new long[securities.size()];
+        }
+
+        @Override
+        public void visit(Portfolio portfolio, PortfolioTransaction t)
+        {
+            Integer index = security2index.get(t.getSecurity());
+
+            // missing index means either the security is not known to the
+            // global collection or the security is null -> other checks
+            if (index == null)
+                return;
+
+            switch (t.getType())
+            {
+                case BUY:
+                case TRANSFER_IN:
+                case DELIVERY_INBOUND:
+                    shares[index] += t.getShares();
+                    break;
+                case SELL:
+                case TRANSFER_OUT:
+                case DELIVERY_OUTBOUND:
+                    shares[index] -= t.getShares();
+                    break;
+                default:
+                    throw new UnsupportedOperationException();
             }
+        }
+
+        private void collectIssues()
+        {
+            if (portfolio == null)
+                return;
 
             for (int ii = 0; ii < shares.length; ii++)
             {
@@ -111,6 +137,30 @@ public class SharesHeldConsistencyCheck implements Check
             }
         }
 
-        return issues;
+        @Override
+        public List<Issue> finish()
+        {
+            collectIssues();
+            portfolio = null;
+            return issues;
+        }
+    }
+
+    @Override
+    public Scan startScan(Client client)
+    {
+        return new SharesHeldScan(client);
+    }
+
+    @Override
+    public List<Issue> execute(Client client, Portfolio portfolio)
+    {
+        return scan(client, portfolio);
+    }
+
+    @Override
+    public List<Issue> execute(Client client)
+    {
+        return TransactionCheck.super.execute(client);
     }
 }
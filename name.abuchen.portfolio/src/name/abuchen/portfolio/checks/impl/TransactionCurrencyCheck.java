@@ -9,9 +9,9 @@ import java.util.Objects;
 import java.util.Set;
 
 import name.abuchen.portfolio.Messages;
-import name.abuchen.portfolio.checks.Check;
 import name.abuchen.portfolio.checks.Issue;
 import name.abuchen.portfolio.checks.QuickFix;
+import name.abuchen.portfolio.checks.TransactionCheck;
 import name.abuchen.portfolio.model.Account;
 import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.model.AccountTransferEntry;
@@ -28,7 +28,7 @@ import name.abuchen.portfolio.money.CurrencyUnit;
 /**
  * Checks if there is at least one account or security without a currency.
  */
-public class TransactionCurrencyCheck implements Check
+public class TransactionCurrencyCheck implements TransactionCheck
 {
     public static class TransactionCurrencyQuickFix implements QuickFix
     {
@@ -131,29 +131,47 @@ public class TransactionCurrencyCheck implements Check
         }
     }
 
-    @Override
-    public List<Issue> execute(Client client)
+    private static class TransactionCurrencyScan implements Scan
     {
-        Set<Object> transactions = new HashSet<Object>();
+        private final Client client;
+        private final Set<Object> transactions = new HashSet<Object>();
 
-        for (Account account : client.getAccounts())
+        public TransactionCurrencyScan(Client client)
         {
-            account.getTransactions()
-                            .stream()
-                            .filter(t -> t.getCurrencyCode() == null)
-                            .forEach(t -> transactions.add(t.getCrossEntry() != null ? t.getCrossEntry()
-                                            : new TransactionPair<AccountTransaction>(account, t)));
+            this.client = client;
         }
 
-        for (Portfolio portfolio : client.getPortfolios())
+        @Override
+        public void visit(Account account, AccountTransaction t)
         {
-            portfolio.getTransactions()
-                            .stream()
-                            .filter(t -> t.getCurrencyCode() == null)
-                            .forEach(t -> transactions.add(t.getCrossEntry() != null ? t.getCrossEntry()
-                                            : new TransactionPair<PortfolioTransaction>(portfolio, t)));
+            if (t.getCurrencyCode() == null)
+                transactions.add(t.getCrossEntry() != null ? t.getCrossEntry()
+                                : new TransactionPair<AccountTransaction>(account, t));
         }
 
+        @Override
+        public void visit(Portfolio portfolio, PortfolioTransaction t)
+        {
+            if (t.getCurrencyCode() == null)
+                transactions.add(t.getCrossEntry() != null ? t.getCrossEntry()
+                                : new TransactionPair<PortfolioTransaction>(portfolio, t));
+        }
+
+        @Override
+        public List<Issue> finish()
+        {
+            return createIssues(client, transactions);
+        }
+    }
+
+    @Override
+    public Scan startScan(Client client)
+    {
+        return new TransactionCurrencyScan(client);
+    }
+
+    private static List<Issue> createIssues(Client client, Set<Object> transactions)
+    {
         List<Issue> issues = new ArrayList<Issue>();
 
         for (Object t : transactions)
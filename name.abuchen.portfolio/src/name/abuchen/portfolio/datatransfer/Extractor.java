@@ -2,8 +2,12 @@ package name.abuchen.portfolio.datatransfer;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 
 import name.abuchen.portfolio.Messages;
 import name.abuchen.portfolio.datatransfer.ImportAction.Context;
@@ -333,4 +337,21 @@ public interface Extractor
      */
     List<Item> extract(List<File> files, List<Exception> errors);
 
+    /**
+     * Extracts the items and passes them together with the errors in batches
+     * to the consumer. The extractor begins and finishes the task of the
+     * progress monitor. The default implementation extracts all items at once
+     * and passes them as one batch.
+     */
+    default void extract(List<File> files, IProgressMonitor monitor,
+                    BiConsumer<List<Item>, List<Exception>> consumer)
+    {
+        monitor.beginTask(getLabel(), files.size());
+
+        List<Exception> errors = new ArrayList<>();
+        List<Item> items = extract(files, errors);
+        consumer.accept(items, errors);
+
+        monitor.done();
+    }
 }
@@ -26,7 +26,7 @@ public interface ImportAction
     {
         public enum Code
         {
-            OK, WARNING, ERROR;
+            OK, INFO, WARNING, ERROR;
 
             public boolean isHigherSeverityAs(Code other)
             {
@@ -4,7 +4,9 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,9 +30,19 @@ public class SecurityCache
 
     private final List<Map<String, Security>> localMaps = new ArrayList<>();
 
+    /**
+     * Attributes looked up and attributes of securities created by this
+     * cache. Used to detect whether lookups would have returned different
+     * securities if run against another cache.
+     */
+    private final List<Set<String>> lookedUp = new ArrayList<>();
+    private final List<Set<String>> created = new ArrayList<>();
+    private final Map<Security, List<String>> createdSecurities = new LinkedHashMap<>();
+
     public SecurityCache(Client client)
     {
         this.client = client;
+        initLookupSets();
 
         this.localMaps.add(client.getSecurities().stream().filter(s -> s.getIsin() != null && !s.getIsin().isEmpty())
                         .collect(Collectors.toMap(Security::getIsin, s -> s, (l, r) -> DUPLICATE_SECURITY_MARKER)));
@@ -45,7 +57,29 @@ public class SecurityCache
 
         this.localMaps.add(client.getSecurities().stream().filter(s -> s.getName() != null && !s.getName().isEmpty())
                         .collect(Collectors.toMap(Security::getName, s -> s, (l, r) -> DUPLICATE_SECURITY_MARKER)));
+    }
 
+    /**
+     * Creates a copy of the given cache which can be used independently, for
+     * example by another thread. The copy does not include the lookups of the
+     * given cache.
+     */
+    public SecurityCache(SecurityCache other)
+    {
+        this.client = other.client;
+        initLookupSets();
+
+        for (Map<String, Security> map : other.localMaps)
+            this.localMaps.add(new HashMap<>(map));
+    }
+
+    private void initLookupSets()
+    {
+        for (int ii = 0; ii < MESSAGES.size(); ii++)
+        {
+            lookedUp.add(new HashSet<>());
+            created.add(new HashSet<>());
+        }
     }
 
     public Security lookup(String isin, String tickerSymbol, String wkn, String name,
@@ -53,6 +87,12 @@ public class SecurityCache
     {
         List<String> attributes = Arrays.asList(isin, tickerSymbol, wkn, name);
 
+        for (int ii = 0; ii < attributes.size(); ii++)
+        {
+            if (attributes.get(ii) != null)
+                lookedUp.get(ii).add(attributes.get(ii));
+        }
+
         // first: check the identifying attributes (ISIN, Ticker, WKN)
         for (int ii = 0; ii < 3; ii++)
         {
@@ -73,21 +113,61 @@ public class SecurityCache
         if (security != null)
             return security;
 
-
         security = creationFunction.get();
         security.setIsin(isin);
         security.setWkn(wkn);
         security.setTickerSymbol(tickerSymbol);
         security.setName(name);
 
+        register(security, attributes);
+
+        return security;
+    }
+
+    private void register(Security security, List<String> attributes)
+    {
         for (int ii = 0; ii < localMaps.size(); ii++)
         {
             String attribute = attributes.get(ii);
             if (attribute != null)
+            {
                 localMaps.get(ii).put(attribute, security);
+                created.get(ii).add(attribute);
+            }
         }
 
-        return security;
+        createdSecurities.put(security, attributes);
+    }
+
+    /**
+     * Returns true if the lookups of the other cache could have returned a
+     * different security if run against this cache, i.e. if this cache
+     * created a security with one of the looked up attributes. Both caches
+     * must be copies of the same original cache.
+     */
+    public boolean conflictsWith(SecurityCache other)
+    {
+        for (int ii = 0; ii < created.size(); ii++)
+        {
+            Set<String> attributes = created.get(ii);
+            if (!attributes.isEmpty() && other.lookedUp.get(ii).stream().anyMatch(attributes::contains))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the securities created by the other cache to this cache and records
+     * the lookups of the other cache as lookups of this cache. The caller must
+     * make sure the caches do not conflict (see
+     * {@link #conflictsWith(SecurityCache)}).
+     */
+    public void merge(SecurityCache other)
+    {
+        other.createdSecurities.forEach(this::register);
+
+        for (int ii = 0; ii < lookedUp.size(); ii++)
+            lookedUp.get(ii).addAll(other.lookedUp.get(ii));
     }
 
     private Security lookupSecurityByName(String isin, String tickerSymbol, String wkn, String name)
@@ -118,11 +198,20 @@ public class SecurityCache
      * might be created out of erroneous transactions.
      */
     public Collection<Item> createMissingSecurityItems(List<Item> items)
+    {
+        return createMissingSecurityItems(items, new HashSet<>(client.getSecurities()));
+    }
+
+    /**
+     * Returns a list of {@link SecurityItem} like
+     * {@link #createMissingSecurityItems(List)} for items extracted in
+     * batches. The securities already available (including those of previous
+     * batches) are kept in the given set between the calls.
+     */
+    public Collection<Item> createMissingSecurityItems(List<Item> items, Set<Security> available)
     {
         List<Item> answer = new ArrayList<>();
 
-        Set<Security> available = new HashSet<>();
-        available.addAll(client.getSecurities());
         items.stream().filter(i -> i instanceof SecurityItem).map(Item::getSecurity).forEach(available::add);
 
         for (Item item : items)
@@ -1,7 +1,13 @@
 package name.abuchen.portfolio.datatransfer.actions;
 
+import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import name.abuchen.portfolio.Messages;
 import name.abuchen.portfolio.datatransfer.ImportAction;
@@ -14,9 +20,114 @@ import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.PortfolioTransferEntry;
 import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.model.Transaction;
-
+import name.abuchen.portfolio.money.Values;
+
+/**
+ * Detects transactions which already exist in the target account or
+ * portfolio. Transactions with the same type, date, currency, amount, shares
+ * and security are reported as potential duplicates (warning). Transactions
+ * which differ only by up to {@link #NEAR_DUPLICATE_DAYS} days are reported as
+ * near duplicates (info).
+ * <p/>
+ * The transactions of each account and portfolio are indexed on first use. The
+ * index is a snapshot which is not updated if transactions are added, removed
+ * or modified afterwards. Therefore an action must be used for one check run
+ * only: create a new action to check again, e.g. after transactions have been
+ * imported.
+ */
 public class DetectDuplicatesAction implements ImportAction
 {
+    /* package */ static final int NEAR_DUPLICATE_DAYS = 2;
+
+    private static final class Key
+    {
+        private final Object type;
+        private final LocalDate date;
+        private final String currencyCode;
+        private final long amount;
+        private final long shares;
+        private final Security security;
+
+        private Key(Object type, LocalDate date, String currencyCode, long amount, long shares, Security security)
+        {
+            this.type = type;
+            this.date = date;
+            this.currencyCode = currencyCode;
+            this.amount = amount;
+            this.shares = shares;
+            this.security = security;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(type, date, currencyCode, amount, shares, security);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+
+            Key other = (Key) obj;
+            return amount == other.amount && shares == other.shares && Objects.equals(type, other.type)
+                            && Objects.equals(date, other.date) && Objects.equals(currencyCode, other.currencyCode)
+                            && Objects.equals(security, other.security);
+        }
+    }
+
+    private static final class Index
+    {
+        private final List<? extends Transaction> transactions;
+        private final Set<Key> keys = new HashSet<>();
+
+        private Index(List<? extends Transaction> transactions)
+        {
+            this.transactions = transactions;
+
+            for (Transaction t : transactions)
+                keys.add(key(t, t.getDate()));
+        }
+
+        private Status check(Transaction subject)
+        {
+            if (keys.contains(key(subject, subject.getDate())))
+                return new Status(Status.Code.WARNING, Messages.LabelPotentialDuplicate);
+
+            for (int days = 1; days <= NEAR_DUPLICATE_DAYS; days++)
+            {
+                for (LocalDate date : new LocalDate[] { subject.getDate().minusDays(days),
+                                subject.getDate().plusDays(days) })
+                {
+                    if (keys.contains(key(subject, date)))
+                        return new Status(Status.Code.INFO, MessageFormat
+                                        .format(Messages.LabelPotentialNearDuplicate, Values.Date.format(date)));
+                }
+            }
+
+            return Status.OK_STATUS;
+        }
+
+        private static Key key(Transaction t, LocalDate date)
+        {
+            return new Key(typeOf(t), date, t.getCurrencyCode(), t.getAmount(), t.getShares(), t.getSecurity());
+        }
+
+        private static Object typeOf(Transaction t)
+        {
+            if (t instanceof AccountTransaction)
+                return ((AccountTransaction) t).getType();
+            else if (t instanceof PortfolioTransaction)
+                return ((PortfolioTransaction) t).getType();
+            else // transactions without type are compared by their class
+                return t.getClass();
+        }
+    }
+
+    private final Map<Object, Index> indices = new IdentityHashMap<>();
 
     @Override
     public Status process(Security security)
@@ -27,81 +138,47 @@ public class DetectDuplicatesAction implements ImportAction
     @Override
     public Status process(AccountTransaction transaction, Account account)
     {
-        return check(transaction, account.getTransactions());
+        return check(transaction, account, account.getTransactions());
     }
 
     @Override
     public Status process(PortfolioTransaction transaction, Portfolio portfolio)
     {
-        return check(transaction, portfolio.getTransactions());
+        return check(transaction, portfolio, portfolio.getTransactions());
     }
 
     @Override
     public Status process(BuySellEntry entry, Account account, Portfolio portfolio)
     {
-        Status status = check(entry.getAccountTransaction(), account.getTransactions());
-        if (status.getCode() != Status.Code.OK)
+        Status status = check(entry.getAccountTransaction(), account, account.getTransactions());
+        if (status.getCode() == Status.Code.WARNING)
             return status;
-        return check(entry.getPortfolioTransaction(), portfolio.getTransactions());
+
+        Status other = check(entry.getPortfolioTransaction(), portfolio, portfolio.getTransactions());
+        return other.getCode().isHigherSeverityAs(status.getCode()) ? other : status;
     }
 
     @Override
     public Status process(AccountTransferEntry entry, Account source, Account target)
     {
-        return check(entry.getSourceTransaction(), source.getTransactions());
+        return check(entry.getSourceTransaction(), source, source.getTransactions());
     }
 
     @Override
     public Status process(PortfolioTransferEntry entry, Portfolio source, Portfolio target)
     {
-        return check(entry.getTargetTransaction(), source.getTransactions());
-    }
-
-    private Status check(AccountTransaction subject, List<AccountTransaction> transactions)
-    {
-        for (AccountTransaction t : transactions)
-        {
-            if (subject.getType() != t.getType())
-                continue;
-
-            if (isPotentialDuplicate(subject, t))
-                return new Status(Status.Code.WARNING, Messages.LabelPotentialDuplicate);
-        }
-
-        return Status.OK_STATUS;
+        return check(entry.getTargetTransaction(), source, source.getTransactions());
     }
 
-    private Status check(PortfolioTransaction subject, List<PortfolioTransaction> transactions)
+    private Status check(Transaction subject, Object owner, List<? extends Transaction> transactions)
     {
-        for (PortfolioTransaction t : transactions)
+        Index index = indices.get(owner);
+        if (index == null || index.transactions != transactions)
         {
-            if (subject.getType() != t.getType())
-                continue;
-
-            if (isPotentialDuplicate(subject, t))
-                return new Status(Status.Code.WARNING, Messages.LabelPotentialDuplicate);
+            index = new Index(transactions);
+            indices.put(owner, index);
         }
 
-        return Status.OK_STATUS;
-    }
-
-    private boolean isPotentialDuplicate(Transaction subject, Transaction other)
-    {
-        if (!other.getDate().equals(subject.getDate()))
-            return false;
-
-        if (!other.getCurrencyCode().equals(subject.getCurrencyCode()))
-            return false;
-
-        if (other.getAmount() != subject.getAmount())
-            return false;
-
-        if (other.getShares() != subject.getShares())
-            return false;
-
-        if (!Objects.equals(other.getSecurity(), subject.getSecurity()))
-            return false;
-
-        return true;
+        return index.check(subject);
     }
 }
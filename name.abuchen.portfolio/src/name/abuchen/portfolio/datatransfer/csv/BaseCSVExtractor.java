@@ -4,8 +4,12 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import name.abuchen.portfolio.Messages;
@@ -57,15 +61,34 @@ import name.abuchen.portfolio.money.Money;
     @Override
     public List<Item> extract(int skipLines, List<String[]> rawValues, Map<String, Column> field2column,
                     List<Exception> errors)
+    {
+        List<Item> results = new ArrayList<>();
+
+        extract(skipLines, rawValues.iterator(), field2column, Integer.MAX_VALUE, (items, e) -> {
+            results.addAll(items);
+            errors.addAll(e);
+        });
+
+        return results;
+    }
+
+    @Override
+    public void extract(int skipLines, Iterator<String[]> rows, Map<String, Column> field2column, int batchSize,
+                    BiConsumer<List<Item>, List<Exception>> consumer)
     {
         // careful: the security cache makes the extractor stateful because
         // securities extracted during a previous run will not be created again
         securityCache = new SecurityCache(client);
+        Set<Security> available = new HashSet<>(client.getSecurities());
 
         List<Item> results = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        int count = 0;
+
         int lineNo = 1 + skipLines; // +1 because of end user
-        for (String[] strings : rawValues)
+        while (rows.hasNext())
         {
+            String[] strings = rows.next();
             try
             {
                 extract(results, strings, field2column);
@@ -75,13 +98,22 @@ import name.abuchen.portfolio.money.Money;
                 errors.add(new IOException(MessageFormat.format(Messages.CSVLineXwithMsgY, lineNo, e.getMessage()), e));
             }
             lineNo++;
+
+            if (++count == batchSize && rows.hasNext())
+            {
+                results.addAll(securityCache.createMissingSecurityItems(results, available));
+                consumer.accept(results, errors);
+
+                results = new ArrayList<>();
+                errors = new ArrayList<>();
+                count = 0;
+            }
         }
 
-        results.addAll(securityCache.createMissingSecurityItems(results));
+        results.addAll(securityCache.createMissingSecurityItems(results, available));
+        consumer.accept(results, errors);
 
         securityCache = null;
-
-        return results;
     }
 
     /* package */ abstract void extract(List<Item> items, String[] rawValues, Map<String, Column> field2column)
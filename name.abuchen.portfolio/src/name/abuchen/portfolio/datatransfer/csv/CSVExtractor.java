@@ -6,9 +6,12 @@ import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import name.abuchen.portfolio.datatransfer.Extractor;
 import name.abuchen.portfolio.datatransfer.csv.CSVImporter.Column;
@@ -23,6 +26,26 @@ public abstract class CSVExtractor implements Extractor
     public abstract List<Item> extract(int skipLines, List<String[]> rawValues, Map<String, Column> field2column,
                     List<Exception> errors);
 
+    /**
+     * Extracts the items of the rows and passes them together with the errors
+     * in batches to the consumer. The rows are consumed lazily. The default
+     * implementation collects all rows and passes the items as one batch.
+     *
+     * @param batchSize
+     *            number of rows after which the items and errors are passed
+     *            to the consumer
+     */
+    public void extract(int skipLines, Iterator<String[]> rows, Map<String, Column> field2column, int batchSize,
+                    BiConsumer<List<Item>, List<Exception>> consumer)
+    {
+        List<String[]> rawValues = new ArrayList<>();
+        rows.forEachRemaining(rawValues::add);
+
+        List<Exception> errors = new ArrayList<>();
+        List<Item> items = extract(skipLines, rawValues, field2column, errors);
+        consumer.accept(items, errors);
+    }
+
     @Override
     public String getFilterExtension()
     {
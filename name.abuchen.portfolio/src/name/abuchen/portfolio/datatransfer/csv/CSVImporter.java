@@ -5,6 +5,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -25,14 +26,19 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVStrategy;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
 import name.abuchen.portfolio.Messages;
 import name.abuchen.portfolio.datatransfer.Extractor.Item;
 import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.util.ProgressMonitorInputStream;
 
 public class CSVImporter
 {
@@ -290,6 +296,11 @@ public class CSVImporter
         }
     }
 
+    /**
+     * Number of lines read to preview the file and to guess the formats.
+     */
+    public static final int PREVIEW_LINES = 1000;
+
     private final Client client;
     private final File inputFile;
     private final List<CSVExtractor> extractors;
@@ -375,21 +386,16 @@ public class CSVImporter
         return columns;
     }
 
+    /**
+     * Reads the header and the first {@link #PREVIEW_LINES} lines of the file.
+     * The preview is used to map the columns and to guess the formats. The
+     * items are created from the full file by {@link #createItems}.
+     */
     public void processFile() throws IOException
     {
-        FileInputStream stream = null;
-        try
+        try (Reader reader = new InputStreamReader(new FileInputStream(inputFile), encoding))
         {
-            stream = new FileInputStream(inputFile);
-            Reader reader = new InputStreamReader(stream, encoding);
-
-            CSVStrategy strategy = new CSVStrategy(delimiter, '"', CSVStrategy.COMMENTS_DISABLED,
-                            CSVStrategy.ESCAPE_DISABLED, false, false, false, false);
-
-            CSVParser parser = new CSVParser(reader, strategy);
-
-            for (int ii = 0; ii < skipLines; ii++)
-                parser.getLine();
+            CSVParser parser = createParser(reader);
 
             List<String[]> input = new ArrayList<>();
             String[] header = null;
@@ -406,7 +412,7 @@ public class CSVImporter
                 input.add(line);
             }
 
-            while ((line = parser.getLine()) != null)
+            while (input.size() < PREVIEW_LINES && (line = parser.getLine()) != null)
                 input.add(line);
 
             this.columns = new CSVImporter.Column[header.length];
@@ -417,18 +423,22 @@ public class CSVImporter
 
             mapToImportDefinition();
         }
-        finally
-        {
-            if (stream != null)
-            {
-                try
-                {
-                    stream.close();
-                }
-                catch (IOException ignore)
-                {}
-            }
-        }
+    }
+
+    /**
+     * Creates a parser positioned after the skipped lines.
+     */
+    private CSVParser createParser(Reader reader) throws IOException
+    {
+        CSVStrategy strategy = new CSVStrategy(delimiter, '"', CSVStrategy.COMMENTS_DISABLED,
+                        CSVStrategy.ESCAPE_DISABLED, false, false, false, false);
+
+        CSVParser parser = new CSVParser(reader, strategy);
+
+        for (int ii = 0; ii < skipLines; ii++)
+            parser.getLine();
+
+        return parser;
     }
 
     private void mapToImportDefinition()
@@ -471,14 +481,92 @@ public class CSVImporter
     }
 
     public List<Item> createItems(List<Exception> errors)
+    {
+        List<Item> items = new ArrayList<>();
+
+        try
+        {
+            createItems(new NullProgressMonitor(), Integer.MAX_VALUE, (i, e) -> {
+                items.addAll(i);
+                errors.addAll(e);
+            });
+        }
+        catch (IOException e)
+        {
+            errors.add(e);
+        }
+
+        return items;
+    }
+
+    /**
+     * Reads the file line by line and passes the items in batches to the
+     * consumer. Only one batch of lines is held in memory at a time. The
+     * progress is reported in bytes read.
+     *
+     * @param batchSize
+     *            number of lines per batch
+     */
+    public void createItems(IProgressMonitor monitor, int batchSize,
+                    BiConsumer<List<Item>, List<Exception>> consumer) throws IOException
     {
         Map<String, Column> field2column = new HashMap<>();
         for (Column column : getColumns())
             if (column.getField() != null)
                 field2column.put(column.getField().name, column);
 
-        int startingLineNo = skipLines + (isFirstLineHeader ? 1 : 0);
-        return currentExtractor.extract(startingLineNo, values, field2column, errors);
+        int increment = (int) Math.max(1, Math.min(inputFile.length() / 20L, Integer.MAX_VALUE));
+        monitor.beginTask(MessageFormat.format(Messages.MsgReadingFile, inputFile.getName()), 20);
+
+        try (Reader reader = new InputStreamReader(
+                        new ProgressMonitorInputStream(new FileInputStream(inputFile), increment, monitor), encoding))
+        {
+            CSVParser parser = createParser(reader);
+
+            if (isFirstLineHeader)
+                parser.getLine();
+
+            Iterator<String[]> rows = new Iterator<String[]>()
+            {
+                private String[] next = readLine();
+
+                private String[] readLine()
+                {
+                    try
+                    {
+                        return parser.getLine();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public boolean hasNext()
+                {
+                    return next != null;
+                }
+
+                @Override
+                public String[] next()
+                {
+                    if (next == null)
+                        throw new NoSuchElementException();
+
+                    String[] answer = next;
+                    next = readLine();
+                    return answer;
+                }
+            };
+
+            int startingLineNo = skipLines + (isFirstLineHeader ? 1 : 0);
+            currentExtractor.extract(startingLineNo, rows, field2column, batchSize, consumer);
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
     }
 
     /**
@@ -2,6 +2,7 @@ package name.abuchen.portfolio.datatransfer.pdf;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
@@ -13,6 +14,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.util.PDFTextStripper;
@@ -30,20 +35,56 @@ import name.abuchen.portfolio.money.Values;
 {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy", Locale.GERMANY); //$NON-NLS-1$
 
-    private final NumberFormat numberFormat = NumberFormat.getInstance(Locale.GERMANY);
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The result of extracting one file.
+     */
+    private static final class FileResult
+    {
+        private final File file;
+        private String text;
+        private SecurityCache securityCache;
+        private List<Item> items = new ArrayList<>();
+        private List<Exception> errors = new ArrayList<>();
+
+        private FileResult(File file)
+        {
+            this.file = file;
+        }
+    }
+
+    // number formats and text strippers are not thread-safe
+    private final ThreadLocal<NumberFormat> numberFormat = ThreadLocal
+                    .withInitial(() -> NumberFormat.getInstance(Locale.GERMANY));
+    private final ThreadLocal<PDFTextStripper> textStripper = ThreadLocal.withInitial(() -> {
+        try
+        {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            return stripper;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    });
 
     private final Client client;
-    private SecurityCache securityCache;
-    private final PDFTextStripper textStripper;
+    private final ThreadLocal<SecurityCache> securityCache = new ThreadLocal<>();
     private final List<String> bankIdentifier = new ArrayList<>();
     private final List<DocumentType> documentTypes = new ArrayList<>();
 
+    /**
+     * Finds the bank identifiers and the keywords of all document types in one
+     * pass over the text. Created on first use after the subclass has
+     * registered the document types.
+     */
+    private TextMatcher keywordMatcher;
+
     public AbstractPDFExtractor(Client client) throws IOException
     {
         this.client = client;
-
-        textStripper = new PDFTextStripper();
-        textStripper.setSortByPosition(true);
     }
 
     protected final void addDocumentTyp(DocumentType type)
@@ -62,48 +103,149 @@ import name.abuchen.portfolio.money.Values;
         return "*.pdf"; //$NON-NLS-1$
     }
 
+    /**
+     * Extracts the items of all files. Loading and parsing of the documents
+     * runs in parallel. The items are merged in the order of the files and are
+     * identical to the items of a sequential extraction: each file is parsed
+     * against a private copy of the security cache. If an earlier file created
+     * a security which the file has looked up, the file is parsed again
+     * against the shared security cache.
+     */
     @Override
     public List<Item> extract(List<File> files, List<Exception> errors)
     {
         // careful: security cache makes extractor stateful
-        securityCache = new SecurityCache(client);
+        SecurityCache initial = new SecurityCache(client);
+        SecurityCache shared = new SecurityCache(initial);
 
         List<Item> results = new ArrayList<>();
-        for (File f : files)
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(THREADS, Math.max(1, files.size())),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "PDFExtractor"); //$NON-NLS-1$
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+
+        try
         {
-            try
-            {
-                String text = strip(f);
-                results.addAll(extract(f.getName(), text, errors));
-            }
-            catch (IOException e)
+            List<Future<FileResult>> futures = new ArrayList<>();
+            for (File f : files)
+                futures.add(executor.submit(() -> extract(f, new SecurityCache(initial))));
+
+            for (Future<FileResult> future : futures)
             {
-                errors.add(new IOException(f.getName() + ": " + e.getMessage(), e)); //$NON-NLS-1$
+                FileResult result = future.get();
+
+                if (result.text != null)
+                {
+                    if (shared.conflictsWith(result.securityCache))
+                        result = parse(result.file, result.text, shared);
+                    else
+                        shared.merge(result.securityCache);
+                }
+
+                results.addAll(result.items);
+                errors.addAll(result.errors);
             }
         }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            errors.add(e);
+            return Collections.emptyList();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
 
-        results.addAll(securityCache.createMissingSecurityItems(results));
-
-        securityCache = null;
+        results.addAll(shared.createMissingSecurityItems(results));
 
         return results;
     }
 
+    private FileResult extract(File file, SecurityCache cache)
+    {
+        try
+        {
+            return parse(file, strip(file), cache);
+        }
+        catch (IOException e)
+        {
+            FileResult result = new FileResult(file);
+            result.errors.add(new IOException(file.getName() + ": " + e.getMessage(), e)); //$NON-NLS-1$
+            return result;
+        }
+    }
+
+    private FileResult parse(File file, String text, SecurityCache cache)
+    {
+        FileResult result = new FileResult(file);
+        result.text = text;
+        result.securityCache = cache;
+
+        result.items = extract(file.getName(), text, cache, result.errors);
+
+        return result;
+    }
+
     /* testing */ protected String strip(File file) throws IOException
     {
         try (PDDocument doc = PDDocument.load(file))
         {
-            return textStripper.getText(doc);
+            return textStripper.get().getText(doc);
+        }
+    }
+
+    /**
+     * Extracts the items of one document using the given security cache.
+     */
+    /* package */List<Item> extract(String filename, String text, SecurityCache cache, List<Exception> errors)
+    {
+        return extract(filename, text, getKeywordMatcher().match(text), cache, errors);
+    }
+
+    /**
+     * Extracts the items of one document given the keywords found in the
+     * text. The keywords must include {@link #getKeywords()}.
+     */
+    /* package */final List<Item> extract(String filename, String text, TextMatcher.Result keywords,
+                    SecurityCache cache, List<Exception> errors)
+    {
+        securityCache.set(cache);
+        try
+        {
+            return extractItems(filename, text, keywords, errors);
+        }
+        finally
+        {
+            securityCache.remove();
         }
     }
 
-    private final List<Item> extract(String filename, String text, List<Exception> errors)
+    private List<Item> extractItems(String filename, String text, TextMatcher.Result keywords, List<Exception> errors)
     {
         try
         {
-            checkBankIdentifier(filename, text);
+            if (!isBankIdentified(keywords, false))
+                throw new UnsupportedOperationException( //
+                                MessageFormat.format(Messages.PDFMsgFileNotSupported, filename, getLabel()));
 
-            List<Item> items = parseDocumentTypes(documentTypes, filename, text);
+            List<Item> items = new ArrayList<>();
+            for (DocumentType type : documentTypes)
+            {
+                if (type.matches(keywords))
+                    type.parse(filename, items, text);
+            }
 
             if (items.isEmpty())
             {
@@ -128,27 +270,61 @@ import name.abuchen.portfolio.money.Values;
         }
     }
     
-    protected final List<Item> parseDocumentTypes(List<DocumentType> documentTypes, String filename, String text) {
-        List<Item> items = new ArrayList<>();
+    private List<String> getBankIdentifier()
+    {
+        return bankIdentifier.isEmpty() ? Collections.singletonList(getLabel()) : bankIdentifier;
+    }
+
+    /**
+     * Returns the bank identifiers and the keywords of the document types.
+     */
+    /* package */List<String> getKeywords()
+    {
+        List<String> keywords = new ArrayList<>(getBankIdentifier());
         for (DocumentType type : documentTypes)
         {
-            if (type.matches(text))
-                type.parse(filename, items, text);
+            keywords.add(type.getMustInclude());
+            if (type.getMustExclude() != null)
+                keywords.add(type.getMustExclude());
         }
-        return items;
+        return keywords;
     }
 
-    private void checkBankIdentifier(String filename, String text)
+    private synchronized TextMatcher getKeywordMatcher()
     {
-        if (bankIdentifier.isEmpty())
-            bankIdentifier.add(getLabel());
+        if (keywordMatcher == null)
+            keywordMatcher = new TextMatcher(getKeywords());
+        return keywordMatcher;
+    }
 
-        for (String identifier : bankIdentifier)
-            if (text.contains(identifier))
-                return;
+    /**
+     * Returns true if the text contains one of the bank identifiers.
+     *
+     * @param specific
+     *            if true, an empty identifier (matching every document) does
+     *            not identify the bank
+     */
+    /* package */boolean isBankIdentified(TextMatcher.Result keywords, boolean specific)
+    {
+        for (String identifier : getBankIdentifier())
+        {
+            if ((!specific || !identifier.isEmpty()) && keywords.contains(identifier))
+                return true;
+        }
+        return false;
+    }
 
-        throw new UnsupportedOperationException( //
-                        MessageFormat.format(Messages.PDFMsgFileNotSupported, filename, getLabel()));
+    /**
+     * Returns true if at least one document type matches the text.
+     */
+    /* package */boolean isDocumentTypeMatching(TextMatcher.Result keywords)
+    {
+        for (DocumentType type : documentTypes)
+        {
+            if (type.matches(keywords))
+                return true;
+        }
+        return false;
     }
 
     protected Security getOrCreateSecurity(Map<String, String> values)
@@ -169,7 +345,7 @@ import name.abuchen.portfolio.money.Values;
         if (name != null)
             name = name.trim();
 
-        Security security = securityCache.lookup(isin, tickerSymbol, wkn, name, () -> {
+        Security security = securityCache.get().lookup(isin, tickerSymbol, wkn, name, () -> {
             Security s = new Security();
             s.setCurrencyCode(asCurrencyCode(values.get("currency"))); //$NON-NLS-1$
             return s;
@@ -185,7 +361,7 @@ import name.abuchen.portfolio.money.Values;
     {
         try
         {
-            return Math.round(numberFormat.parse(value).doubleValue() * Values.Share.factor());
+            return Math.round(numberFormat.get().parse(value).doubleValue() * Values.Share.factor());
         }
         catch (ParseException e)
         {
@@ -207,7 +383,7 @@ import name.abuchen.portfolio.money.Values;
     {
         try
         {
-            return Math.abs(Math.round(numberFormat.parse(value).doubleValue() * Values.Amount.factor()));
+            return Math.abs(Math.round(numberFormat.get().parse(value).doubleValue() * Values.Amount.factor()));
         }
         catch (ParseException e)
         {
@@ -219,7 +395,7 @@ import name.abuchen.portfolio.money.Values;
     {
         try
         {
-            return BigDecimal.valueOf(numberFormat.parse(value).doubleValue());
+            return BigDecimal.valueOf(numberFormat.get().parse(value).doubleValue());
         }
         catch (ParseException e)
         {
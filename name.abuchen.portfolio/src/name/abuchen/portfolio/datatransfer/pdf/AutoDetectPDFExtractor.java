@@ -0,0 +1,136 @@
+package name.abuchen.portfolio.datatransfer.pdf;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import name.abuchen.portfolio.Messages;
+import name.abuchen.portfolio.datatransfer.SecurityCache;
+import name.abuchen.portfolio.model.Client;
+
+/**
+ * Extracts documents of all supported banks. The bank identifiers and the
+ * keywords of the document types of all banks are searched in one pass over
+ * the text to route the document to the extractor of its bank.
+ */
+public class AutoDetectPDFExtractor extends AbstractPDFExtractor
+{
+    private final List<AbstractPDFExtractor> extractors = new ArrayList<>();
+    private final TextMatcher keywordMatcher;
+
+    public AutoDetectPDFExtractor(Client client) throws IOException
+    {
+        this(client, Arrays.asList(new BankSLMPDFExctractor(client), //
+                        new ComdirectPDFExtractor(client), //
+                        new CommerzbankPDFExctractor(client), //
+                        new ConsorsbankPDFExctractor(client), //
+                        new DABPDFExctractor(client), //
+                        new DeutscheBankPDFExctractor(client), //
+                        new DkbPDFExtractor(client), //
+                        new FlatexPDFExtractor(client), //
+                        new INGDiBaExtractor(client), //
+                        new OnvistaPDFExtractor(client), //
+                        new SBrokerPDFExtractor(client)));
+    }
+
+    /* testing */ AutoDetectPDFExtractor(Client client, List<AbstractPDFExtractor> extractors) throws IOException
+    {
+        super(client);
+
+        this.extractors.addAll(extractors);
+
+        List<String> keywords = new ArrayList<>();
+        for (AbstractPDFExtractor extractor : extractors)
+            keywords.addAll(extractor.getKeywords());
+        this.keywordMatcher = new TextMatcher(keywords);
+    }
+
+    @Override
+    public String getLabel()
+    {
+        return Messages.PDFAutoDetectLabel;
+    }
+
+    /**
+     * Returns the extractors which support the document: first the extractors
+     * which find the name of their bank in the text, then the extractors
+     * which accept documents without bank identifier. In both cases at least
+     * one document type must match.
+     */
+    /* package */List<AbstractPDFExtractor> detect(String text)
+    {
+        return detect(keywordMatcher.match(text));
+    }
+
+    private List<AbstractPDFExtractor> detect(TextMatcher.Result keywords)
+    {
+        List<AbstractPDFExtractor> identified = new ArrayList<>();
+        List<AbstractPDFExtractor> unspecific = new ArrayList<>();
+
+        for (AbstractPDFExtractor extractor : extractors)
+        {
+            if (!extractor.isDocumentTypeMatching(keywords))
+                continue;
+
+            if (extractor.isBankIdentified(keywords, true))
+                identified.add(extractor);
+            else if (extractor.isBankIdentified(keywords, false))
+                unspecific.add(extractor);
+        }
+
+        identified.addAll(unspecific);
+        return identified;
+    }
+
+    /**
+     * Extracts the document with the first supporting extractor which returns
+     * items without errors. If no extractor succeeds, the errors of the first
+     * extractor are reported. Every extractor works on a copy of the security
+     * cache; only the securities of the extractor whose items are returned are
+     * added to the cache.
+     */
+    @Override
+    /* package */List<Item> extract(String filename, String text, SecurityCache cache, List<Exception> errors)
+    {
+        TextMatcher.Result keywords = keywordMatcher.match(text);
+        List<AbstractPDFExtractor> candidates = detect(keywords);
+
+        if (candidates.isEmpty())
+        {
+            errors.add(new UnsupportedOperationException(
+                            MessageFormat.format(Messages.PDFMsgBankNotDetected, filename)));
+            return Collections.emptyList();
+        }
+
+        List<Item> firstItems = null;
+        List<Exception> firstErrors = null;
+        SecurityCache firstCache = null;
+
+        for (AbstractPDFExtractor candidate : candidates)
+        {
+            SecurityCache attemptCache = new SecurityCache(cache);
+            List<Exception> attemptErrors = new ArrayList<>();
+            List<Item> items = candidate.extract(filename, text, keywords, attemptCache, attemptErrors);
+
+            if (!items.isEmpty() && attemptErrors.isEmpty())
+            {
+                cache.merge(attemptCache);
+                return items;
+            }
+
+            if (firstItems == null)
+            {
+                firstItems = items;
+                firstErrors = attemptErrors;
+                firstCache = attemptCache;
+            }
+        }
+
+        cache.merge(firstCache);
+        errors.addAll(firstErrors);
+        return firstItems;
+    }
+}
@@ -17,13 +17,16 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
 
 /* package */final class PDFParser
 {
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r?\\n"); //$NON-NLS-1$
+
     /* package */static class DocumentType
     {
         private String mustInclude;
         private String mustExclude;
 
         private List<Block> blocks = new ArrayList<>();
-        private Map<String, String> context = new HashMap<>();
+        // documents are parsed in parallel, each in its own thread
+        private ThreadLocal<Map<String, String>> context = ThreadLocal.withInitial(HashMap::new);
         private BiConsumer<Map<String, String>, String[]> contextProvider;
 
         public DocumentType(String mustInclude)
@@ -48,6 +51,22 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
             return true;
         }
 
+        /**
+         * Returns true if the document matches given the keywords found in
+         * the text. The matcher must include {@link #getMustInclude()} and
+         * {@link #getMustExclude()}.
+         */
+        public boolean matches(TextMatcher.Result keywords)
+        {
+            if (!keywords.contains(mustInclude))
+                return false;
+
+            if (mustExclude != null)
+                return !keywords.contains(mustExclude);
+
+            return true;
+        }
+
         public void setMustExclude(String mustExclude)
         {
             this.mustExclude = mustExclude;
@@ -70,16 +89,17 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
          */
         public Map<String, String> getCurrentContext()
         {
-            return context;
+            return context.get();
         }
 
         public void parse(String filename, List<Item> items, String text)
         {
-            String[] lines = text.split("\\r?\\n"); //$NON-NLS-1$
+            String[] lines = LINE_BREAK.split(text);
 
             // reset context and parse it from this file
-            context.clear();
-            parseContext(context, filename, lines);
+            Map<String, String> current = context.get();
+            current.clear();
+            parseContext(current, filename, lines);
 
             for (Block block : blocks)
                 block.parse(filename, items, lines);
@@ -106,20 +126,25 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
             }
         }
 
-       public String getMustInclude()
-       {
-           return mustInclude;
-       }
+        public String getMustInclude()
+        {
+            return mustInclude;
+        }
+
+        public String getMustExclude()
+        {
+            return mustExclude;
+        }
     }
 
     /* package */static class Block
     {
-        private Pattern marker;
+        private LinePattern marker;
         private Transaction<?> transaction;
 
         public Block(String marker)
         {
-            this.marker = Pattern.compile(marker);
+            this.marker = new LinePattern(marker);
         }
 
         public void set(Transaction<?> transaction)
@@ -133,8 +158,7 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
 
             for (int ii = 0; ii < lines.length; ii++)
             {
-                Matcher matcher = marker.matcher(lines[ii]);
-                if (matcher.matches())
+                if (marker.matches(lines[ii]) != null)
                     blocks.add(ii);
             }
 
@@ -194,7 +218,7 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
         private boolean isOptional = false;
         private Transaction<T> transaction;
         private String[] attributes;
-        private List<Pattern> pattern = new ArrayList<>();
+        private List<LinePattern> pattern = new ArrayList<>();
         private BiConsumer<T, Map<String, String>> assignment;
 
         public Section(Transaction<T> transaction, String[] attributes)
@@ -211,13 +235,13 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
 
         public Section<T> find(String string)
         {
-            pattern.add(Pattern.compile("^" + string + "$")); //$NON-NLS-1$ //$NON-NLS-2$
+            pattern.add(new LinePattern("^" + string + "$", attributes)); //$NON-NLS-1$ //$NON-NLS-2$
             return this;
         }
 
         public Section<T> match(String regex)
         {
-            pattern.add(Pattern.compile(regex));
+            pattern.add(new LinePattern(regex, attributes));
             return this;
         }
 
@@ -234,12 +258,12 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
             int patternNo = 0;
             for (int ii = lineNo; ii <= lineNoEnd; ii++)
             {
-                Pattern p = pattern.get(patternNo);
-                Matcher m = p.matcher(lines[ii]);
-                if (m.matches())
+                LinePattern p = pattern.get(patternNo);
+                Matcher m = p.matches(lines[ii]);
+                if (m != null)
                 {
                     // extract attributes
-                    extractAttributes(values, p, m);
+                    p.extractAttributes(values, m);
 
                     // next pattern?
                     patternNo++;
@@ -267,19 +291,90 @@ import name.abuchen.portfolio.datatransfer.Extractor.Item;
 
             assignment.accept(target, values);
         }
+    }
+
+    /**
+     * Pattern matched against a complete line. Lines which do not start with
+     * the literal prefix of the regular expression are rejected without
+     * running the regular expression.
+     */
+    private static final class LinePattern
+    {
+        private static final String[] NO_ATTRIBUTES = new String[0];
+
+        private final Pattern pattern;
+        private final String prefix;
+        private final String[] attributes;
+
+        private LinePattern(String regex)
+        {
+            this(regex, NO_ATTRIBUTES);
+        }
 
-        private void extractAttributes(Map<String, String> values, Pattern p, Matcher m)
+        private LinePattern(String regex, String[] attributes)
         {
+            this.pattern = Pattern.compile(regex);
+            this.prefix = literalPrefix(regex);
+
+            // attributes captured by a named group of this pattern
+            List<String> captured = new ArrayList<>();
             for (String attribute : attributes)
             {
-                if (p.pattern().contains("<" + attribute + ">")) //$NON-NLS-1$ //$NON-NLS-2$
-                {
-                    String v = m.group(attribute);
-                    if (v != null)
-                        values.put(attribute, v);
-                }
+                if (regex.contains("<" + attribute + ">")) //$NON-NLS-1$ //$NON-NLS-2$
+                    captured.add(attribute);
             }
+            this.attributes = captured.toArray(new String[captured.size()]);
+        }
+
+        /**
+         * Returns the matcher if the complete line matches, otherwise null.
+         */
+        private Matcher matches(String line)
+        {
+            if (!line.startsWith(prefix))
+                return null;
+
+            Matcher matcher = pattern.matcher(line);
+            return matcher.matches() ? matcher : null;
         }
+
+        private void extractAttributes(Map<String, String> values, Matcher m)
+        {
+            for (String attribute : attributes)
+            {
+                String v = m.group(attribute);
+                if (v != null)
+                    values.put(attribute, v);
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return pattern.toString();
+        }
+    }
+
+    /**
+     * Returns the literal text every match of the regular expression starts
+     * with. Stops at the first character with a special meaning and returns
+     * the empty string if the expression contains alternatives.
+     */
+    /* package */static String literalPrefix(String regex)
+    {
+        if (regex.indexOf('|') >= 0)
+            return ""; //$NON-NLS-1$
+
+        int start = regex.startsWith("^") ? 1 : 0; //$NON-NLS-1$
+        int end = start;
+        while (end < regex.length() && "\\[](){}.*+?^$|".indexOf(regex.charAt(end)) < 0) //$NON-NLS-1$
+            end++;
+
+        // a quantifier applies to the last literal character
+        if (end < regex.length() && "*+?{".indexOf(regex.charAt(end)) >= 0 && end > start) //$NON-NLS-1$
+            end--;
+
+        return regex.substring(start, end);
     }
 
     private PDFParser()
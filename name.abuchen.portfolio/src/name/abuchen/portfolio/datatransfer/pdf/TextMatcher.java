@@ -0,0 +1,217 @@
+package name.abuchen.portfolio.datatransfer.pdf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds all occurrences of a fixed set of keywords in a text in one pass
+ * (Aho-Corasick automaton). The automaton is immutable and can be shared
+ * between threads.
+ */
+/* package */final class TextMatcher
+{
+    /**
+     * The keywords found in a text.
+     */
+    /* package */static final class Result
+    {
+        private final Map<String, Integer> ids;
+        private final BitSet found;
+
+        private Result(Map<String, Integer> ids, BitSet found)
+        {
+            this.ids = ids;
+            this.found = found;
+        }
+
+        /**
+         * Returns true if the text contains the keyword. The empty string is
+         * contained in every text.
+         *
+         * @throws IllegalArgumentException
+         *             if the keyword is not known to the matcher
+         */
+        public boolean contains(String keyword)
+        {
+            if (keyword.isEmpty())
+                return true;
+
+            Integer id = ids.get(keyword);
+            if (id == null)
+                throw new IllegalArgumentException(keyword);
+            return found.get(id);
+        }
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /** symbols of the characters below 256 */
+    private final int[] latin = new int[256];
+    /** sorted characters above 255 and their symbols */
+    private final char[] others;
+    private final int[] otherSymbols;
+
+    private final int symbols;
+    /** transitions of the automaton: state * symbols + symbol */
+    private final int[] transitions;
+    /** ids of the keywords ending at a state */
+    private final int[][] output;
+
+    public TextMatcher(Collection<String> keywords)
+    {
+        // symbol 0 represents all characters which are not part of a keyword
+        List<Character> unicode = new ArrayList<>();
+        int nextSymbol = 1;
+        int states = 1;
+
+        for (String keyword : keywords)
+        {
+            if (keyword.isEmpty() || ids.containsKey(keyword))
+                continue;
+
+            ids.put(keyword, ids.size());
+            states += keyword.length();
+
+            for (int ii = 0; ii < keyword.length(); ii++)
+            {
+                char c = keyword.charAt(ii);
+                if (c < latin.length)
+                {
+                    if (latin[c] == 0)
+                        latin[c] = nextSymbol++;
+                }
+                else if (!unicode.contains(c))
+                {
+                    unicode.add(c);
+                    nextSymbol++;
+                }
+            }
+        }
+
+        unicode.sort(null);
+        others = new char[unicode.size()];
+        otherSymbols = new int[unicode.size()];
+        int symbol = nextSymbol - unicode.size();
+        for (int ii = 0; ii < others.length; ii++)
+        {
+            others[ii] = unicode.get(ii);
+            otherSymbols[ii] = symbol++;
+        }
+
+        this.symbols = nextSymbol;
+
+        // build the trie; -1 marks a missing transition
+
+        int[] trie = new int[states * symbols];
+        Arrays.fill(trie, -1);
+        List<List<Integer>> keywordsOfState = new ArrayList<>();
+        keywordsOfState.add(new ArrayList<>());
+        int stateCount = 1;
+
+        for (Map.Entry<String, Integer> entry : ids.entrySet())
+        {
+            String keyword = entry.getKey();
+            int state = 0;
+            for (int ii = 0; ii < keyword.length(); ii++)
+            {
+                int index = state * symbols + symbolOf(keyword.charAt(ii));
+                if (trie[index] < 0)
+                {
+                    trie[index] = stateCount++;
+                    keywordsOfState.add(new ArrayList<>());
+                }
+                state = trie[index];
+            }
+            keywordsOfState.get(state).add(entry.getValue());
+        }
+
+        // complete the transitions along the failure links (breadth first)
+
+        this.transitions = Arrays.copyOf(trie, stateCount * symbols);
+        this.output = new int[stateCount][];
+        int[] failure = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        output[0] = NO_OUTPUT;
+        for (int s = 0; s < symbols; s++)
+        {
+            int next = transitions[s];
+            if (next < 0)
+            {
+                transitions[s] = 0;
+            }
+            else
+            {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty())
+        {
+            int state = queue.poll();
+            output[state] = merge(keywordsOfState.get(state), output[failure[state]]);
+
+            for (int s = 0; s < symbols; s++)
+            {
+                int index = state * symbols + s;
+                int next = transitions[index];
+                int fallback = transitions[failure[state] * symbols + s];
+
+                if (next < 0)
+                {
+                    transitions[index] = fallback;
+                }
+                else
+                {
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited)
+    {
+        if (own.isEmpty())
+            return inherited;
+
+        int[] answer = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int ii = 0; ii < own.size(); ii++)
+            answer[inherited.length + ii] = own.get(ii);
+        return answer;
+    }
+
+    private int symbolOf(char c)
+    {
+        if (c < latin.length)
+            return latin[c];
+
+        int index = Arrays.binarySearch(others, c);
+        return index >= 0 ? otherSymbols[index] : 0;
+    }
+
+    public Result match(String text)
+    {
+        BitSet found = new BitSet(ids.size());
+
+        int state = 0;
+        for (int ii = 0; ii < text.length(); ii++)
+        {
+            state = transitions[state * symbols + symbolOf(text.charAt(ii))];
+            for (int id : output[state])
+                found.set(id);
+        }
+
+        return new Result(ids, found);
+    }
+}
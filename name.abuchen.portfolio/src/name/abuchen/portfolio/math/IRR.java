@@ -3,14 +3,359 @@ package name.abuchen.portfolio.math;
 import java.time.LocalDate;
 import java.util.List;
 
-import name.abuchen.portfolio.math.NewtonGoalSeek.Function;
-
+/**
+ * Internal rate of return of a series of cash flows, i.e. the annual rate r at
+ * which the net present value of the cash flows is zero:
+ *
+ * <pre>
+ * sum(value[i] * (1 + r) ^ (-(day[i] - day[0]) / 365)) = 0
+ * </pre>
+ *
+ * The solver works on x = 1 + r. It starts with Newton's method using the
+ * analytic derivative of the net present value. If Newton's method leaves the
+ * domain or does not converge, the solver searches an interval with a change
+ * of sign around the start value and narrows it with a safeguarded
+ * Newton-bisection. Therefore a root is found if the net present value changes
+ * its sign within the searched range of rates.
+ */
 public final class IRR
 {
+    /**
+     * Start value used if no guess is given and no estimate can be calculated.
+     */
+    private static final double DEFAULT_GUESS = 0.05d;
+
+    /**
+     * Range of the start value. The search for an interval with a change of
+     * sign expands from the start value with growing steps, hence it must not
+     * start at extreme rates.
+     */
+    private static final double MIN_GUESS = -0.99d;
+    private static final double MAX_GUESS = 10d;
+
+    private static final int MAX_NEWTON_ITERATIONS = 50;
+    private static final int MAX_BISECTION_ITERATIONS = 200;
+
+    /** relative tolerance of x = 1 + r */
+    private static final double TOLERANCE = 1e-10;
+
+    /**
+     * maximum net present value relative to the sum of the absolute discounted
+     * cash flows at which Newton's method is considered to have found a root
+     */
+    private static final double RESIDUAL = 1e-9;
+
+    /**
+     * initial step of the search for an interval with a change of sign in
+     * log(x); the step grows with every iteration to reach extreme rates in
+     * few iterations
+     */
+    private static final double SEARCH_STEP = 0.02;
+    private static final double SEARCH_STEP_GROWTH = 1.1;
+
+    /**
+     * x = 1 + r is searched in [MIN_X, MAX_X]; the annualized rates of short
+     * periods can be extreme
+     */
+    private static final double MIN_X = 1e-300;
+    private static final double MAX_X = 1e300;
+
+    private IRR()
+    {}
+
     public static double calculate(List<LocalDate> dates, List<Double> values)
     {
-        Function npv = new NPVFunction(dates, values);
-        Function derivative = new PseudoDerivativeFunction(npv);
-        return NewtonGoalSeek.seek(npv, derivative, 0.05d) - 1;
+        if (dates == null || values == null)
+            throw new NullPointerException("dates and/or values are null"); //$NON-NLS-1$
+        if (dates.size() != values.size())
+            throw new UnsupportedOperationException("dates and values must have equal size."); //$NON-NLS-1$
+
+        int[] days = new int[dates.size()];
+        double[] amounts = new double[values.size()];
+        for (int ii = 0; ii < days.length; ii++)
+        {
+            days[ii] = (int) dates.get(ii).toEpochDay();
+            amounts[ii] = values.get(ii);
+        }
+
+        return calculate(days, amounts, days.length);
+    }
+
+    /**
+     * Calculates the internal rate of return starting with an estimate derived
+     * from the cash flows.
+     *
+     * @param days
+     *            days of the cash flows, e.g. epoch days
+     * @param values
+     *            amounts of the cash flows (negative for payments)
+     * @param size
+     *            number of cash flows in the arrays
+     * @return the internal rate of return or {@link Double#NaN} if no rate can
+     *         be found
+     */
+    public static double calculate(int[] days, double[] values, int size)
+    {
+        return calculate(days, values, size, Double.NaN);
+    }
+
+    /**
+     * Calculates the internal rate of return starting with the given guess,
+     * e.g. the result of a previous calculation of similar cash flows.
+     *
+     * @param guess
+     *            rate to start with; if NaN, an estimate is derived from the
+     *            cash flows
+     * @see #calculate(int[], double[], int)
+     */
+    public static double calculate(int[] days, double[] values, int size, double guess)
+    {
+        if (size > days.length || size > values.length)
+            throw new IllegalArgumentException();
+        if (size == 0)
+            throw new UnsupportedOperationException("at least one data point must be provided"); //$NON-NLS-1$
+
+        double[] years = new double[size];
+        boolean hasPeriod = false;
+        for (int ii = 0; ii < size; ii++)
+        {
+            years[ii] = (days[ii] - days[0]) / 365.0;
+            hasPeriod |= years[ii] != 0;
+        }
+
+        // without a period the net present value does not depend on the rate
+        if (!hasPeriod)
+            return Double.NaN;
+
+        double start = Double.isNaN(guess) ? estimate(years, values, size) : guess;
+        double x0 = 1 + (Double.isFinite(start) ? Math.max(MIN_GUESS, Math.min(MAX_GUESS, start)) : DEFAULT_GUESS);
+
+        double x = newton(years, values, size, x0);
+        if (Double.isNaN(x))
+            x = bracketAndSolve(years, values, size, x0);
+
+        return x - 1;
+    }
+
+    /**
+     * Estimates the rate from the ratio of inflows to outflows and the average
+     * time between outflows and inflows.
+     */
+    private static double estimate(double[] years, double[] values, int size)
+    {
+        double in = 0;
+        double out = 0;
+        double inTime = 0;
+        double outTime = 0;
+
+        for (int ii = 0; ii < size; ii++)
+        {
+            if (values[ii] > 0)
+            {
+                in += values[ii];
+                inTime += values[ii] * years[ii];
+            }
+            else
+            {
+                out -= values[ii];
+                outTime -= values[ii] * years[ii];
+            }
+        }
+
+        if (in == 0 || out == 0)
+            return DEFAULT_GUESS;
+
+        double duration = inTime / in - outTime / out;
+        if (Math.abs(duration) < 1 / 365.0)
+            return DEFAULT_GUESS;
+
+        return Math.pow(in / out, 1 / duration) - 1;
+    }
+
+    /**
+     * Newton's method. Returns NaN if it leaves the domain or does not
+     * converge.
+     */
+    private static double newton(double[] years, double[] values, int size, double x0)
+    {
+        double[] fx = new double[3];
+        double x = x0;
+
+        for (int ii = 0; ii < MAX_NEWTON_ITERATIONS; ii++)
+        {
+            npv(years, values, size, x, fx);
+
+            if (fx[0] == 0)
+                return x;
+
+            double next = x - fx[0] / fx[1];
+
+            if (!(next > MIN_X && next < MAX_X))
+                return Double.NaN;
+
+            // small steps also occur close to a minimum without root
+            if (Math.abs(next - x) <= TOLERANCE * next)
+                return Math.abs(fx[0]) <= RESIDUAL * fx[2] ? next : Double.NaN;
+
+            x = next;
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Searches an interval with a change of sign in both directions starting
+     * with the start value and solves within the interval found first.
+     */
+    private static double bracketAndSolve(double[] years, double[] values, int size, double x0)
+    {
+        double[] fx = new double[3];
+
+        npv(years, values, size, x0, fx);
+        double f0 = fx[0];
+        if (f0 == 0)
+            return x0;
+        if (!Double.isFinite(f0))
+            return Double.NaN;
+
+        double upper = x0;
+        double fUpper = f0;
+        double lower = x0;
+        double fLower = f0;
+
+        boolean searchUp = true;
+        boolean searchDown = true;
+        double step = SEARCH_STEP;
+
+        while (searchUp || searchDown)
+        {
+            double factor = Math.exp(step);
+
+            if (searchUp)
+            {
+                double x = upper * factor;
+                npv(years, values, size, x, fx);
+
+                if (x > MAX_X || !Double.isFinite(fx[0]))
+                {
+                    searchUp = false;
+                }
+                else if (fx[0] == 0)
+                {
+                    return x;
+                }
+                else if (Math.signum(fx[0]) != Math.signum(fUpper))
+                {
+                    return solve(years, values, size, upper, fUpper, x);
+                }
+                else
+                {
+                    upper = x;
+                    fUpper = fx[0];
+                }
+            }
+
+            if (searchDown)
+            {
+                double x = lower / factor;
+                npv(years, values, size, x, fx);
+
+                if (x < MIN_X || !Double.isFinite(fx[0]))
+                {
+                    searchDown = false;
+                }
+                else if (fx[0] == 0)
+                {
+                    return x;
+                }
+                else if (Math.signum(fx[0]) != Math.signum(fLower))
+                {
+                    return solve(years, values, size, lower, fLower, x);
+                }
+                else
+                {
+                    lower = x;
+                    fLower = fx[0];
+                }
+            }
+
+            step *= SEARCH_STEP_GROWTH;
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Safeguarded Newton-bisection within an interval with a change of sign.
+     * A Newton step is only taken if it stays within the interval and at
+     * least halves the previous step, otherwise the interval is bisected.
+     */
+    private static double solve(double[] years, double[] values, int size, double a, double fa, double b)
+    {
+        // keep f(low) < 0 < f(high)
+        double low = fa < 0 ? a : b;
+        double high = fa < 0 ? b : a;
+
+        double[] fx = new double[3];
+        double x = middle(low, high);
+        double step = Math.abs(high - low);
+
+        for (int ii = 0; ii < MAX_BISECTION_ITERATIONS; ii++)
+        {
+            npv(years, values, size, x, fx);
+
+            if (fx[0] == 0)
+                return x;
+            else if (fx[0] < 0)
+                low = x;
+            else
+                high = x;
+
+            double newton = x - fx[0] / fx[1];
+            boolean isInside = (newton - low) * (newton - high) < 0;
+
+            double next = isInside && Math.abs(2 * fx[0]) < Math.abs(step * fx[1]) ? newton : middle(low, high);
+            step = next - x;
+            x = next;
+
+            if (Math.abs(step) <= TOLERANCE * x)
+                return x;
+        }
+
+        return x;
+    }
+
+    /**
+     * Returns the middle of the interval. If the interval spans orders of
+     * magnitude, the geometric mean is used to bisect the exponent.
+     */
+    private static double middle(double a, double b)
+    {
+        double min = Math.min(a, b);
+        double max = Math.max(a, b);
+        return max > 4 * min ? Math.sqrt(min) * Math.sqrt(max) : (min + max) / 2;
+    }
+
+    /**
+     * Calculates the net present value, its derivative and the sum of the
+     * absolute discounted cash flows at x = 1 + r.
+     */
+    private static void npv(double[] years, double[] values, int size, double x, double[] answer)
+    {
+        double value = 0;
+        double derivative = 0;
+        double magnitude = 0;
+
+        for (int ii = 0; ii < size; ii++)
+        {
+            double discounted = values[ii] * Math.pow(x, -years[ii]);
+            value += discounted;
+            derivative -= years[ii] * discounted;
+            magnitude += Math.abs(discounted);
+        }
+
+        answer[0] = value;
+        answer[1] = derivative / x;
+        answer[2] = magnitude;
     }
 }
@@ -0,0 +1,303 @@
+package name.abuchen.portfolio.math;
+
+import java.util.Arrays;
+
+/**
+ * Technical indicators of a time series calculated over a moving window of
+ * calendar days: simple and exponential moving average, Bollinger Bands and
+ * the moving minimum and maximum.
+ * <p/>
+ * The window of an observation covers the given number of calendar days up to
+ * and including the day of the observation. A value is only calculated if the
+ * window contains at least the minimum number of observations.
+ * <p/>
+ * All indicators are calculated in one pass over the primitive arrays. The
+ * sums are updated when observations enter and leave the window, the moving
+ * minimum and maximum are kept in ring buffers of monotonic indices. Hence the
+ * calculation is linear in the number of observations and independent of the
+ * size of the window.
+ */
+public final class MovingWindowIndicators
+{
+    /**
+     * Number of standard deviations between the moving average and the upper
+     * and lower Bollinger Band.
+     */
+    public static final double BOLLINGER_BANDS_FACTOR = 2;
+
+    /**
+     * Indicators calculated for the observations at {@link #getIndices()}.
+     */
+    public static final class Result
+    {
+        private int[] indices;
+        private double[] sma;
+        private double[] ema;
+        private double[] upperBand;
+        private double[] lowerBand;
+        private double[] minimum;
+        private double[] maximum;
+        private int size;
+
+        private Result(int capacity)
+        {
+            indices = new int[capacity];
+            sma = new double[capacity];
+            ema = new double[capacity];
+            upperBand = new double[capacity];
+            lowerBand = new double[capacity];
+            minimum = new double[capacity];
+            maximum = new double[capacity];
+        }
+
+        private void trim()
+        {
+            indices = Arrays.copyOf(indices, size);
+            sma = Arrays.copyOf(sma, size);
+            ema = Arrays.copyOf(ema, size);
+            upperBand = Arrays.copyOf(upperBand, size);
+            lowerBand = Arrays.copyOf(lowerBand, size);
+            minimum = Arrays.copyOf(minimum, size);
+            maximum = Arrays.copyOf(maximum, size);
+        }
+
+        public int size()
+        {
+            return size;
+        }
+
+        public boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        /**
+         * Returns the indices of the observations for which the indicators
+         * have been calculated.
+         */
+        public int[] getIndices()
+        {
+            return indices;
+        }
+
+        public double[] getSimpleMovingAverage()
+        {
+            return sma;
+        }
+
+        /**
+         * Returns the exponential moving average. The smoothing factor is
+         * 2 / (window + 1) per calendar day, i.e. the weight of an observation
+         * decays with the calendar days elapsed since.
+         */
+        public double[] getExponentialMovingAverage()
+        {
+            return ema;
+        }
+
+        public double[] getUpperBollingerBand()
+        {
+            return upperBand;
+        }
+
+        public double[] getLowerBollingerBand()
+        {
+            return lowerBand;
+        }
+
+        public double[] getMovingMinimum()
+        {
+            return minimum;
+        }
+
+        public double[] getMovingMaximum()
+        {
+            return maximum;
+        }
+    }
+
+    /**
+     * Double-ended queue of indices backed by a ring buffer.
+     */
+    private static final class IndexDeque
+    {
+        private final int[] buffer;
+        private int head;
+        private int size;
+
+        private IndexDeque(int capacity)
+        {
+            buffer = new int[Math.max(1, capacity)];
+        }
+
+        private boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        private int first()
+        {
+            return buffer[head];
+        }
+
+        private int last()
+        {
+            return buffer[(head + size - 1) % buffer.length];
+        }
+
+        private void addLast(int index)
+        {
+            buffer[(head + size) % buffer.length] = index;
+            size++;
+        }
+
+        private void removeFirst()
+        {
+            head = (head + 1) % buffer.length;
+            size--;
+        }
+
+        private void removeLast()
+        {
+            size--;
+        }
+    }
+
+    private final int windowDays;
+    private final int minimumObservations;
+    private final double divider;
+
+    /**
+     * @param windowDays
+     *            number of calendar days covered by the window
+     * @param minimumObservations
+     *            minimum number of observations within the window
+     * @param divider
+     *            the values are divided by the divider, e.g. to convert quotes
+     *            stored as long into decimal values
+     */
+    public MovingWindowIndicators(int windowDays, int minimumObservations, double divider)
+    {
+        if (windowDays < 1)
+            throw new IllegalArgumentException(String.valueOf(windowDays));
+
+        this.windowDays = windowDays;
+        this.minimumObservations = Math.max(1, minimumObservations);
+        this.divider = divider;
+    }
+
+    /**
+     * Calculates the indicators for all observations starting with the given
+     * start day.
+     * <p/>
+     * If the window ending at the start day contains enough observations, the
+     * first value is calculated for the last observation on or before the
+     * start day. Otherwise the calculation starts with the first observation
+     * after the start day whose window contains enough observations. If the
+     * start day is after the last observation, the result is empty.
+     *
+     * @param days
+     *            epoch days of the observations, strictly increasing
+     * @param values
+     *            values of the observations
+     * @param startDay
+     *            the epoch day of the first window
+     */
+    public Result calculate(long[] days, long[] values, long startDay)
+    {
+        if (days.length != values.length)
+            throw new IllegalArgumentException();
+
+        int length = days.length;
+
+        if (length == 0 || startDay > days[length - 1])
+            return new Result(0);
+
+        int startIndex = floorIndex(days, startDay);
+        if (startIndex < 0 || startIndex - floorIndex(days, startDay - windowDays) < minimumObservations)
+            startIndex++;
+
+        Result result = new Result(length - startIndex);
+
+        int capacity = Math.min(length, windowDays + 1);
+        IndexDeque minimum = new IndexDeque(capacity);
+        IndexDeque maximum = new IndexDeque(capacity);
+
+        // shift the squares to reduce the cancellation when subtracting
+        long shift = values[0];
+
+        int tail = 0;
+        long sum = 0;
+        double sumOfSquares = 0;
+        double ema = values[0];
+        double alpha = 2d / (windowDays + 1);
+
+        for (int ii = 0; ii < length; ii++)
+        {
+            long day = days[ii];
+            long value = values[ii];
+
+            // add observation to the window
+
+            sum += value;
+            sumOfSquares += (double) (value - shift) * (value - shift);
+
+            while (!minimum.isEmpty() && values[minimum.last()] >= value)
+                minimum.removeLast();
+            minimum.addLast(ii);
+
+            while (!maximum.isEmpty() && values[maximum.last()] <= value)
+                maximum.removeLast();
+            maximum.addLast(ii);
+
+            if (ii > 0)
+                ema += (1 - Math.pow(1 - alpha, (double) day - days[ii - 1])) * (value - ema);
+
+            // remove observations which left the window
+
+            while (days[tail] <= day - windowDays)
+            {
+                sum -= values[tail];
+                sumOfSquares -= (double) (values[tail] - shift) * (values[tail] - shift);
+
+                if (minimum.first() == tail)
+                    minimum.removeFirst();
+                if (maximum.first() == tail)
+                    maximum.removeFirst();
+
+                tail++;
+            }
+
+            int count = ii - tail + 1;
+            if (ii < startIndex || count < minimumObservations)
+                continue;
+
+            double average = sum / divider / count;
+            double mean = (double) sum / count - shift;
+            double variance = Math.max(0, sumOfSquares / count - mean * mean);
+            double deviation = BOLLINGER_BANDS_FACTOR * Math.sqrt(variance) / divider;
+
+            int index = result.size++;
+            result.indices[index] = ii;
+            result.sma[index] = average;
+            result.ema[index] = ema / divider;
+            result.upperBand[index] = average + deviation;
+            result.lowerBand[index] = average - deviation;
+            result.minimum[index] = values[minimum.first()] / divider;
+            result.maximum[index] = values[maximum.first()] / divider;
+        }
+
+        result.trim();
+        return result;
+    }
+
+    /**
+     * Returns the index of the last observation on or before the given day or
+     * -1 if there is none.
+     */
+    private static int floorIndex(long[] days, long day)
+    {
+        int index = Arrays.binarySearch(days, day);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -1,5 +1,6 @@
 package name.abuchen.portfolio.model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +17,8 @@ public class Account implements TransactionOwner<AccountTransaction>, Investment
 
     private List<AccountTransaction> transactions = new ArrayList<>();
 
+    private transient volatile TransactionDateIndex<AccountTransaction> dateIndex;
+
     public Account()
     {
         this.uuid = UUID.randomUUID().toString();
@@ -98,12 +101,38 @@ public class Account implements TransactionOwner<AccountTransaction>, Investment
             throw new IllegalArgumentException();
 
         this.transactions.add(transaction);
+        this.dateIndex = null;
     }
 
     @Override
     public void shallowDeleteTransaction(AccountTransaction transaction, Client client)
     {
         this.transactions.remove(transaction);
+        this.dateIndex = null;
+    }
+
+    /**
+     * Returns the transactions sorted by date. The running sum of the index is
+     * the balance of the account (see {@link #getBalance(LocalDate)}).
+     */
+    public TransactionDateIndex<AccountTransaction> getDateIndex()
+    {
+        TransactionDateIndex<AccountTransaction> index = dateIndex;
+        if (index == null || !index.isValid(transactions))
+        {
+            index = new TransactionDateIndex<>(transactions,
+                            t -> t.getType().isDebit() ? -t.getAmount() : t.getAmount());
+            dateIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the balance of the account at the end of the given day.
+     */
+    public long getBalance(LocalDate date)
+    {
+        return getDateIndex().getSum(date);
     }
 
     public long getCurrentAmount()
@@ -95,6 +95,7 @@ public class AccountTransaction extends Transaction
     public void setType(Type type)
     {
         this.type = type;
+        indexedFieldModified();
     }
 
     /**
@@ -27,6 +27,22 @@ public class AccountTransferEntry implements CrossEntry, Annotated
         this.accountTo = accountTo;
     }
 
+    /**
+     * Creates a cross entry for existing transactions, e.g. when reading the
+     * transactions from the binary file format.
+     */
+    /* package */ AccountTransferEntry(Account accountFrom, AccountTransaction transactionFrom, Account accountTo,
+                    AccountTransaction transactionTo)
+    {
+        this.accountFrom = accountFrom;
+        this.transactionFrom = transactionFrom;
+        this.transactionFrom.setCrossEntry(this);
+
+        this.accountTo = accountTo;
+        this.transactionTo = transactionTo;
+        this.transactionTo.setCrossEntry(this);
+    }
+
     public AccountTransaction getSourceTransaction()
     {
         return this.transactionFrom;
@@ -0,0 +1,553 @@
+package name.abuchen.portfolio.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import name.abuchen.portfolio.Messages;
+import name.abuchen.portfolio.model.Transaction.Unit;
+import name.abuchen.portfolio.money.Money;
+
+/**
+ * Reads and writes the bulk data of a client - historical prices and
+ * transactions - in a compact binary format.
+ * <p/>
+ * Prices are stored per security as two delta-encoded columns (epoch day and
+ * value). Transactions are stored in typed record blocks per account and
+ * portfolio. Cross entries and investment plans refer to transactions by their
+ * position in the file. All other model elements are stored by the
+ * {@link ClientFactory} as XML.
+ */
+/* package */ class BinaryFormat
+{
+    private static final int NULL = -1;
+
+    private static final byte BUY_SELL_ENTRY = 1;
+    private static final byte ACCOUNT_TRANSFER_ENTRY = 2;
+    private static final byte PORTFOLIO_TRANSFER_ENTRY = 3;
+
+    private static final byte NO_FOREX = 0;
+    private static final byte WITH_FOREX = 1;
+
+    private BinaryFormat()
+    {}
+
+    // //////////////////////////////////////////////////////////////
+    // writing
+    // //////////////////////////////////////////////////////////////
+
+    private static class Writer
+    {
+        private final Client client;
+        private final DataOutputStream out;
+
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Security, Integer> securities = new IdentityHashMap<>();
+        private final Map<Object, Integer> owners = new IdentityHashMap<>();
+        private final Map<Transaction, Integer> transactions = new IdentityHashMap<>();
+
+        private Writer(Client client, DataOutputStream out)
+        {
+            this.client = client;
+            this.out = out;
+
+            for (Security security : client.getSecurities())
+                securities.put(security, securities.size());
+            for (Account account : client.getAccounts())
+                owners.put(account, owners.size());
+            for (Portfolio portfolio : client.getPortfolios())
+                owners.put(portfolio, owners.size());
+        }
+
+        private void write() throws IOException
+        {
+            writePrices();
+
+            List<CrossEntry> entries = new ArrayList<>();
+            Map<CrossEntry, Boolean> seen = new IdentityHashMap<>();
+
+            for (Account account : client.getAccounts())
+            {
+                writeVarInt(out, account.getTransactions().size());
+                for (AccountTransaction t : account.getTransactions())
+                {
+                    writeString(t.getType().name());
+                    writeTransaction(t);
+                    collect(t, entries, seen);
+                }
+            }
+
+            for (Portfolio portfolio : client.getPortfolios())
+            {
+                writeVarInt(out, portfolio.getTransactions().size());
+                for (PortfolioTransaction t : portfolio.getTransactions())
+                {
+                    writeString(t.getType().name());
+                    writeTransaction(t);
+                    collect(t, entries, seen);
+                }
+            }
+
+            writeCrossEntries(entries);
+            writePlans();
+        }
+
+        private void writePrices() throws IOException
+        {
+            for (Security security : client.getSecurities())
+            {
+                PriceSeries prices = security.getPriceSeries();
+                writeVarInt(out, prices.size());
+
+                long previousDay = 0;
+                long previousValue = 0;
+                for (int ii = 0; ii < prices.size(); ii++)
+                {
+                    long day = prices.getEpochDay(ii);
+                    long value = prices.getValue(ii);
+                    writeVarLong(out, day - previousDay);
+                    writeVarLong(out, value - previousValue);
+                    previousDay = day;
+                    previousValue = value;
+                }
+            }
+        }
+
+        private void writeTransaction(Transaction t) throws IOException
+        {
+            transactions.put(t, transactions.size());
+
+            writeDate(t.getDate());
+            writeString(t.getCurrencyCode());
+            writeVarLong(out, t.getAmount());
+            writeVarInt(out, t.getSecurity() == null ? NULL : indexOf(securities, t.getSecurity()));
+            writeVarLong(out, t.getShares());
+            writeText(out, t.getNote());
+
+            List<Unit> units = new ArrayList<>();
+            t.getUnits().forEach(units::add);
+            writeVarInt(out, units.size());
+            for (Unit unit : units)
+            {
+                writeString(unit.getType().name());
+                writeMoney(unit.getAmount());
+
+                if (unit.getForex() == null)
+                {
+                    out.writeByte(NO_FOREX);
+                }
+                else
+                {
+                    out.writeByte(WITH_FOREX);
+                    writeMoney(unit.getForex());
+                    writeBigDecimal(unit.getExchangeRate());
+                }
+            }
+        }
+
+        private void collect(Transaction t, List<CrossEntry> entries, Map<CrossEntry, Boolean> seen)
+        {
+            CrossEntry entry = t.getCrossEntry();
+            if (entry != null && seen.put(entry, Boolean.TRUE) == null)
+                entries.add(entry);
+        }
+
+        private void writeCrossEntries(List<CrossEntry> entries) throws IOException
+        {
+            writeVarInt(out, entries.size());
+
+            for (CrossEntry entry : entries)
+            {
+                Transaction from;
+                Transaction to;
+
+                if (entry instanceof BuySellEntry)
+                {
+                    out.writeByte(BUY_SELL_ENTRY);
+                    from = ((BuySellEntry) entry).getPortfolioTransaction();
+                    to = ((BuySellEntry) entry).getAccountTransaction();
+                }
+                else if (entry instanceof AccountTransferEntry)
+                {
+                    out.writeByte(ACCOUNT_TRANSFER_ENTRY);
+                    from = ((AccountTransferEntry) entry).getSourceTransaction();
+                    to = ((AccountTransferEntry) entry).getTargetTransaction();
+                }
+                else if (entry instanceof PortfolioTransferEntry)
+                {
+                    out.writeByte(PORTFOLIO_TRANSFER_ENTRY);
+                    from = ((PortfolioTransferEntry) entry).getSourceTransaction();
+                    to = ((PortfolioTransferEntry) entry).getTargetTransaction();
+                }
+                else
+                {
+                    throw new IOException(MessageFormat.format(Messages.MsgErrorUnresolvedReference, entry));
+                }
+
+                writeVarInt(out, indexOf(owners, entry.getOwner(from)));
+                writeVarInt(out, indexOf(transactions, from));
+                writeVarInt(out, indexOf(owners, entry.getOwner(to)));
+                writeVarInt(out, indexOf(transactions, to));
+            }
+        }
+
+        private void writePlans() throws IOException
+        {
+            for (InvestmentPlan plan : client.getPlans())
+            {
+                writeVarInt(out, plan.getTransactions().size());
+                for (PortfolioTransaction t : plan.getTransactions())
+                    writeVarInt(out, indexOf(transactions, t));
+            }
+        }
+
+        private void writeDate(LocalDate date) throws IOException
+        {
+            out.writeBoolean(date != null);
+            if (date != null)
+                writeVarLong(out, date.toEpochDay());
+        }
+
+        private void writeMoney(Money money) throws IOException
+        {
+            writeString(money.getCurrencyCode());
+            writeVarLong(out, money.getAmount());
+        }
+
+        private void writeBigDecimal(BigDecimal value) throws IOException
+        {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarInt(out, value.scale());
+            writeVarInt(out, unscaled.length);
+            out.write(unscaled);
+        }
+
+        /**
+         * Writes strings which are repeated often (e.g. currency codes) only
+         * once and afterwards refers to the first occurrence.
+         */
+        private void writeString(String value) throws IOException
+        {
+            if (value == null)
+            {
+                writeVarInt(out, NULL);
+                return;
+            }
+
+            Integer index = strings.get(value);
+            if (index != null)
+            {
+                writeVarInt(out, index);
+            }
+            else
+            {
+                writeVarInt(out, strings.size());
+                writeText(out, value);
+                strings.put(value, strings.size());
+            }
+        }
+
+        private <T> int indexOf(Map<T, Integer> map, T object) throws IOException
+        {
+            Integer index = map.get(object);
+            if (index == null)
+                throw new IOException(MessageFormat.format(Messages.MsgErrorUnresolvedReference, object));
+            return index;
+        }
+    }
+
+    // //////////////////////////////////////////////////////////////
+    // reading
+    // //////////////////////////////////////////////////////////////
+
+    private static class Reader
+    {
+        private final Client client;
+        private final DataInputStream in;
+
+        private final List<String> strings = new ArrayList<>();
+        private final List<Object> owners = new ArrayList<>();
+        private final List<Transaction> transactions = new ArrayList<>();
+
+        private Reader(Client client, DataInputStream in)
+        {
+            this.client = client;
+            this.in = in;
+
+            owners.addAll(client.getAccounts());
+            owners.addAll(client.getPortfolios());
+        }
+
+        private void read() throws IOException
+        {
+            readPrices();
+
+            for (Account account : client.getAccounts())
+            {
+                int size = readVarInt(in);
+                List<AccountTransaction> list = account.getTransactions();
+                for (int ii = 0; ii < size; ii++)
+                {
+                    AccountTransaction t = new AccountTransaction();
+                    t.setType(AccountTransaction.Type.valueOf(readString()));
+                    readTransaction(t);
+                    list.add(t);
+                }
+            }
+
+            for (Portfolio portfolio : client.getPortfolios())
+            {
+                int size = readVarInt(in);
+                List<PortfolioTransaction> list = portfolio.getTransactions();
+                for (int ii = 0; ii < size; ii++)
+                {
+                    PortfolioTransaction t = new PortfolioTransaction();
+                    t.setType(PortfolioTransaction.Type.valueOf(readString()));
+                    readTransaction(t);
+                    list.add(t);
+                }
+            }
+
+            readCrossEntries();
+            readPlans();
+        }
+
+        private void readPrices() throws IOException
+        {
+            for (Security security : client.getSecurities())
+            {
+                int size = readVarInt(in);
+                PriceSeries prices = security.getPriceSeries();
+
+                long day = 0;
+                long value = 0;
+                for (int ii = 0; ii < size; ii++)
+                {
+                    day += readVarLong(in);
+                    value += readVarLong(in);
+
+                    // prices are written in ascending order
+                    prices.append(Math.toIntExact(day), value);
+                }
+
+                prices.trimToSize();
+            }
+        }
+
+        private void readTransaction(Transaction t) throws IOException
+        {
+            transactions.add(t);
+
+            t.setDate(readDate());
+            t.setCurrencyCode(readString());
+            t.setAmount(readVarLong(in));
+            int security = readVarInt(in);
+            t.setSecurity(security == NULL ? null : client.getSecurities().get(security));
+            t.setShares(readVarLong(in));
+            t.setNote(readText(in));
+
+            int size = readVarInt(in);
+            if (size > 0)
+            {
+                List<Unit> units = new ArrayList<>(size);
+                for (int ii = 0; ii < size; ii++)
+                {
+                    Unit.Type type = Unit.Type.valueOf(readString());
+                    Money amount = readMoney();
+
+                    if (in.readByte() == WITH_FOREX)
+                        units.add(new Unit(type, amount, readMoney(), readBigDecimal(), true));
+                    else
+                        units.add(new Unit(type, amount, null, null, true));
+                }
+                t.addUnits(units.stream());
+            }
+        }
+
+        private void readCrossEntries() throws IOException
+        {
+            int size = readVarInt(in);
+            for (int ii = 0; ii < size; ii++)
+            {
+                byte type = in.readByte();
+                Object fromOwner = owners.get(readVarInt(in));
+                Transaction from = transactions.get(readVarInt(in));
+                Object toOwner = owners.get(readVarInt(in));
+                Transaction to = transactions.get(readVarInt(in));
+
+                switch (type)
+                {
+                    case BUY_SELL_ENTRY:
+                        new BuySellEntry((Portfolio) fromOwner, (PortfolioTransaction) from, (Account) toOwner,
+                                        (AccountTransaction) to);
+                        break;
+                    case ACCOUNT_TRANSFER_ENTRY:
+                        new AccountTransferEntry((Account) fromOwner, (AccountTransaction) from, (Account) toOwner,
+                                        (AccountTransaction) to);
+                        break;
+                    case PORTFOLIO_TRANSFER_ENTRY:
+                        new PortfolioTransferEntry((Portfolio) fromOwner, (PortfolioTransaction) from,
+                                        (Portfolio) toOwner, (PortfolioTransaction) to);
+                        break;
+                    default:
+                        throw new IOException(Messages.MsgNotAPortflioFile);
+                }
+            }
+        }
+
+        private void readPlans() throws IOException
+        {
+            for (InvestmentPlan plan : client.getPlans())
+            {
+                int size = readVarInt(in);
+                for (int ii = 0; ii < size; ii++)
+                    plan.getTransactions().add((PortfolioTransaction) transactions.get(readVarInt(in)));
+            }
+        }
+
+        private LocalDate readDate() throws IOException
+        {
+            return in.readBoolean() ? LocalDate.ofEpochDay(readVarLong(in)) : null;
+        }
+
+        private Money readMoney() throws IOException
+        {
+            return Money.of(readString(), readVarLong(in));
+        }
+
+        private BigDecimal readBigDecimal() throws IOException
+        {
+            int scale = readVarInt(in);
+            byte[] unscaled = new byte[readVarInt(in)];
+            in.readFully(unscaled);
+            return new BigDecimal(new BigInteger(unscaled), scale);
+        }
+
+        private String readString() throws IOException
+        {
+            int index = readVarInt(in);
+            if (index == NULL)
+                return null;
+
+            if (index < strings.size())
+                return strings.get(index);
+
+            String value = readText(in);
+            strings.add(value);
+            return value;
+        }
+    }
+
+    // //////////////////////////////////////////////////////////////
+    // public API
+    // //////////////////////////////////////////////////////////////
+
+    /**
+     * Writes prices, transactions, cross entries, and the transactions of
+     * investment plans. Securities, accounts, portfolios, and plans are
+     * referenced by their position in the client.
+     */
+    /* package */ static void write(Client client, DataOutputStream out) throws IOException
+    {
+        new Writer(client, out).write();
+    }
+
+    /**
+     * Reads the data written by {@link #write} into the given client which must
+     * contain the same securities, accounts, portfolios, and plans (in the same
+     * order) but no prices or transactions.
+     */
+    /* package */ static void read(Client client, DataInputStream in) throws IOException
+    {
+        try
+        {
+            new Reader(client, in).read();
+        }
+        catch (IndexOutOfBoundsException | ClassCastException | IllegalArgumentException | NullPointerException
+                        | ArithmeticException e)
+        {
+            throw new IOException(Messages.MsgNotAPortflioFile, e);
+        }
+    }
+
+    // //////////////////////////////////////////////////////////////
+    // primitives
+    // //////////////////////////////////////////////////////////////
+
+    /* package */ static void writeVarInt(DataOutputStream out, int value) throws IOException
+    {
+        writeVarLong(out, value);
+    }
+
+    /* package */ static int readVarInt(DataInputStream in) throws IOException
+    {
+        return (int) readVarLong(in);
+    }
+
+    /**
+     * Writes a zig-zag encoded variable length long, i.e. small positive and
+     * negative numbers (like deltas) occupy only one or two bytes.
+     */
+    /* package */ static void writeVarLong(DataOutputStream out, long value) throws IOException
+    {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0)
+        {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    /* package */ static long readVarLong(DataInputStream in) throws IOException
+    {
+        long v = 0;
+        int shift = 0;
+        while (true)
+        {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+            shift += 7;
+            if (shift > 63)
+                throw new IOException(Messages.MsgNotAPortflioFile);
+        }
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /* package */ static void writeText(DataOutputStream out, String value) throws IOException
+    {
+        if (value == null)
+        {
+            writeVarInt(out, NULL);
+        }
+        else
+        {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /* package */ static String readText(DataInputStream in) throws IOException
+    {
+        int length = readVarInt(in);
+        if (length == NULL)
+            return null;
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
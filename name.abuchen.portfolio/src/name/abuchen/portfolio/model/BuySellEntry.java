@@ -28,6 +28,22 @@ public class BuySellEntry implements CrossEntry, Annotated
         this.accountTransaction.setCrossEntry(this);
     }
 
+    /**
+     * Creates a cross entry for existing transactions, e.g. when reading the
+     * transactions from the binary file format.
+     */
+    /* package */ BuySellEntry(Portfolio portfolio, PortfolioTransaction portfolioTransaction, Account account,
+                    AccountTransaction accountTransaction)
+    {
+        this.portfolio = portfolio;
+        this.portfolioTransaction = portfolioTransaction;
+        this.portfolioTransaction.setCrossEntry(this);
+
+        this.account = account;
+        this.accountTransaction = accountTransaction;
+        this.accountTransaction.setCrossEntry(this);
+    }
+
     public void setPortfolio(Portfolio portfolio)
     {
         this.portfolio = portfolio;
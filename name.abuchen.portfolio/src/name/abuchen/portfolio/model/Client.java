@@ -64,6 +64,14 @@ public class Client
 
     private transient SecretKey secret;
 
+    /**
+     * State of the incremental consistency checks (see
+     * name.abuchen.portfolio.checks.Checker). The state references issues
+     * which in turn reference the client. It is kept with the client in order
+     * to be garbage collected together with the client.
+     */
+    private transient Object checkerState;
+
     public Client()
     {
         doPostLoadInitialization();
@@ -399,6 +407,16 @@ public class Client
         this.secret = secret;
     }
 
+    public Object getCheckerState()
+    {
+        return checkerState;
+    }
+
+    public void setCheckerState(Object checkerState)
+    {
+        this.checkerState = checkerState;
+    }
+
     /**
      * Removes the given account as reference account from any portfolios. As
      * the model expects that there is always a reference account, an arbitrary
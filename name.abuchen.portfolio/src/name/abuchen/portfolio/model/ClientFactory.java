@@ -1,5 +1,12 @@
 package name.abuchen.portfolio.model;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -14,6 +21,10 @@ import java.io.Writer;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.AlgorithmParameters;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
@@ -26,6 +37,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -44,8 +56,13 @@ import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.XStreamException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
 import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.mapper.Mapper;
 
 import name.abuchen.portfolio.Messages;
@@ -84,6 +101,96 @@ public class ClientFactory
 
     }
 
+    /**
+     * Writes the price series in the same format as a list of
+     * {@link SecurityPrice} elements.
+     */
+    private static class PriceSeriesConverter implements Converter
+    {
+        private final Mapper mapper;
+
+        public PriceSeriesConverter(Mapper mapper)
+        {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean canConvert(@SuppressWarnings("rawtypes") Class type)
+        {
+            return type == PriceSeries.class;
+        }
+
+        @Override
+        public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context)
+        {
+            String name = mapper.serializedClass(SecurityPrice.class);
+
+            for (SecurityPrice price : ((PriceSeries) source).asList())
+            {
+                writer.startNode(name);
+                context.convertAnother(price);
+                writer.endNode();
+            }
+        }
+
+        @Override
+        public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context)
+        {
+            PriceSeries series = new PriceSeries();
+
+            while (reader.hasMoreChildren())
+            {
+                reader.moveDown();
+
+                Class<?> type = mapper.realClass(reader.getNodeName());
+                if (SecurityPrice.class.isAssignableFrom(type))
+                {
+                    SecurityPrice price = (SecurityPrice) context.convertAnother(series, type);
+                    if (price.getTime() != null)
+                        series.put(price.getTime(), price.getValue());
+                }
+
+                reader.moveUp();
+            }
+
+            series.trimToSize();
+            return series;
+        }
+    }
+
+    /**
+     * Converter for fields whose elements are not written to XML because they
+     * are stored separately by the {@link BinaryFormat}. Upon reading, an empty
+     * instance is created which is filled later.
+     */
+    private static class DetachedConverter implements Converter
+    {
+        private final Supplier<Object> factory;
+
+        public DetachedConverter(Supplier<Object> factory)
+        {
+            this.factory = factory;
+        }
+
+        @Override
+        public boolean canConvert(@SuppressWarnings("rawtypes") Class type)
+        {
+            return true;
+        }
+
+        @Override
+        public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context)
+        {
+            // elements are written by the binary format
+        }
+
+        @Override
+        public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context)
+        {
+            return factory.get();
+        }
+    }
+
     private static class XmlSerialization
     {
         public Client load(Reader input) throws IOException
@@ -134,10 +241,150 @@ public class ClientFactory
         @Override
         public void save(Client client, OutputStream output) throws IOException
         {
-            try (Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8))
+            new XmlSerialization().save(client, output);
+        }
+    }
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    private interface Content
+    {
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    /**
+     * A client captured for saving. The snapshot does not reference the
+     * client, hence it can be saved on a background thread while the client
+     * is modified.
+     */
+    public static final class Snapshot
+    {
+        private final Content content;
+
+        private Snapshot(Content content)
+        {
+            this.content = content;
+        }
+
+        /**
+         * Writes the snapshot into a temporary file and replaces the file
+         * atomically with the temporary file. If writing fails, the file
+         * remains untouched.
+         *
+         * @param backup
+         *            if not null, the current content of the file is kept as
+         *            backup (see {@link ClientFactory#createBackup})
+         */
+        public void save(File file, File backup) throws IOException
+        {
+            Path target = file.exists() ? file.toPath().toRealPath() : file.toPath().toAbsolutePath();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp"); //$NON-NLS-1$
+
+            try
+            {
+                try (FileOutputStream output = new FileOutputStream(temp.toFile()))
+                {
+                    content.writeTo(output);
+                    output.flush();
+                    output.getFD().sync();
+                }
+
+                if (backup != null && Files.exists(target))
+                    createBackup(target.toFile(), backup);
+
+                try
+                {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+                catch (AtomicMoveNotSupportedException e)
+                {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            finally
+            {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static class BinaryPersister implements ClientPersister
+    {
+        private static final byte[] SIGNATURE = new byte[] { 'P', 'P', 'B', 'I', 'N' };
+
+        private static final int FORMAT_VERSION = 1;
+
+        private static final int BUFFER_SIZE = 65536;
+
+        @Override
+        public Client load(InputStream input) throws IOException
+        {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+
+            try
+            {
+                // check signature
+                byte[] signature = new byte[SIGNATURE.length];
+                in.readFully(signature);
+                if (!Arrays.equals(signature, SIGNATURE))
+                    throw new IOException(Messages.MsgNotAPortflioFile);
+
+                // read version information
+                int formatVersion = in.readInt();
+                int majorVersion = in.readInt();
+                int version = in.readInt();
+
+                if (formatVersion > FORMAT_VERSION || majorVersion > Client.MAJOR_VERSION
+                                || version > Client.CURRENT_VERSION)
+                    throw new IOException(MessageFormat.format(Messages.MsgUnsupportedVersionClientFiled, version));
+
+                // model without prices and transactions
+                Client client = (Client) binaryXStream().fromXML(BinaryFormat.readText(in));
+
+                BinaryFormat.read(client, in);
+
+                upgradeModel(client);
+
+                return client;
+            }
+            catch (EOFException e)
+            {
+                throw new IOException(Messages.MsgNotAPortflioFile, e);
+            }
+            catch (XStreamException e)
+            {
+                throw new IOException(MessageFormat.format(Messages.MsgXMLFormatInvalid, e.getMessage()), e);
+            }
+        }
+
+        @Override
+        public void save(Client client, OutputStream output) throws IOException
+        {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+
+            // write signature and version information
+            out.write(SIGNATURE);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(Client.MAJOR_VERSION);
+            out.writeInt(client.getVersion());
+
+            // model without prices and transactions
+            BinaryFormat.writeText(out, binaryXStream().toXML(client));
+
+            BinaryFormat.write(client, out);
+
+            out.flush();
+        }
+
+        private static boolean hasSignature(File file) throws IOException
+        {
+            try (InputStream input = new FileInputStream(file))
             {
-                xstream().toXML(client, writer);
-                writer.flush();
+                byte[] signature = new byte[SIGNATURE.length];
+                int length = input.read(signature);
+                return length == SIGNATURE.length && Arrays.equals(signature, SIGNATURE);
             }
         }
     }
@@ -254,15 +501,7 @@ public class ClientFactory
                 if (!isKeyLengthSupported(this.keyLength))
                     throw new IOException(Messages.MsgKeyLengthNotSupported);
 
-                // get or build secret key
-                // if password is given, it is used (when the user chooses
-                // "save as" from the menu)
-                SecretKey secret = password != null ? buildSecretKey() : client.getSecret();
-                if (secret == null)
-                    throw new IOException(Messages.MsgPasswordMissing);
-
-                // save secret key for next save
-                client.setSecret(secret);
+                SecretKey secret = resolveSecretKey(client);
 
                 // write signature
                 output.write(SIGNATURE);
@@ -303,6 +542,25 @@ public class ClientFactory
             }
         }
 
+        /**
+         * Returns the secret key used to encrypt the client and keeps it for
+         * the next save.
+         */
+        private SecretKey resolveSecretKey(Client client) throws IOException, GeneralSecurityException
+        {
+            // get or build secret key
+            // if password is given, it is used (when the user chooses
+            // "save as" from the menu)
+            SecretKey secret = password != null ? buildSecretKey() : client.getSecret();
+            if (secret == null)
+                throw new IOException(Messages.MsgPasswordMissing);
+
+            // save secret key for next save
+            client.setSecret(secret);
+
+            return secret;
+        }
+
         private SecretKey buildSecretKey() throws NoSuchAlgorithmException, InvalidKeySpecException
         {
             SecretKeyFactory factory = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
@@ -313,12 +571,22 @@ public class ClientFactory
     }
 
     private static XStream xstream;
+    private static XStream binaryXStream;
 
     public static boolean isEncrypted(File file)
     {
         return file.getName().endsWith(".portfolio"); //$NON-NLS-1$
     }
 
+    /**
+     * Returns true if the file is saved in the binary format which stores
+     * historical prices and transactions in a compact binary form.
+     */
+    public static boolean isBinary(File file)
+    {
+        return file.getName().endsWith(".pbin"); //$NON-NLS-1$
+    }
+
     public static boolean isKeyLengthSupported(int keyLength)
     {
         try
@@ -346,7 +614,11 @@ public class ClientFactory
             monitor.beginTask(MessageFormat.format(Messages.MsgReadingFile, file.getName()), 20);
             input = new ProgressMonitorInputStream(new FileInputStream(file), increment, monitor);
 
-            return buildPersister(file, null, password).load(input);
+            // binary files are recognized by their signature
+            ClientPersister persister = !isEncrypted(file) && BinaryPersister.hasSignature(file)
+                            ? new BinaryPersister() : buildPersister(file, null, password);
+
+            return persister.load(input);
         }
         catch (FileNotFoundException e)
         {
@@ -385,9 +657,75 @@ public class ClientFactory
         if (isEncrypted(file) && password == null && client.getSecret() == null)
             throw new IOException(Messages.MsgPasswordMissing);
 
-        try (OutputStream output = new FileOutputStream(file))
+        ClientPersister persister = buildPersister(file, method, password);
+        new Snapshot(output -> persister.save(client, output)).save(file, null);
+    }
+
+    /**
+     * Captures the client for saving it later into the given file. Must be
+     * called by the thread which modifies the client.
+     * <p/>
+     * The client is copied in the compact binary format, which is fast. The
+     * expensive serialization into XML (and the encryption) is done with a
+     * copy of the client when saving the snapshot.
+     */
+    public static Snapshot snapshot(final Client client, final File file, String method, char[] password)
+                    throws IOException
+    {
+        if (isEncrypted(file) && password == null && client.getSecret() == null)
+            throw new IOException(Messages.MsgPasswordMissing);
+
+        ClientPersister persister = buildPersister(file, method, password);
+
+        SecretKey secret = null;
+        if (persister instanceof Decryptor)
+        {
+            try
+            {
+                secret = ((Decryptor) persister).resolveSecretKey(client);
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IOException(MessageFormat.format(Messages.MsgErrorEncrypting, e.getMessage()), e);
+            }
+        }
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        new BinaryPersister().save(client, binary);
+
+        if (persister instanceof BinaryPersister)
+            return new Snapshot(binary::writeTo);
+
+        SecretKey key = secret;
+        ClientPersister target = buildPersister(file, method, null);
+
+        return new Snapshot(output -> {
+            Client copy = new BinaryPersister().load(new ByteArrayInputStream(binary.toByteArray()));
+            copy.setSecret(key);
+            target.save(copy, output);
+        });
+    }
+
+    /**
+     * Keeps the current content of the file as backup. The backup is a hard
+     * link to the file if supported by the file system, otherwise a copy.
+     * Because saving replaces the file (instead of writing into it), later
+     * saves do not modify the backup.
+     */
+    public static void createBackup(File file, File backup) throws IOException
+    {
+        Path source = file.toPath().toRealPath();
+        Path target = backup.toPath();
+
+        Files.deleteIfExists(target);
+
+        try
+        {
+            Files.createLink(target, source);
+        }
+        catch (UnsupportedOperationException | IOException e)
         {
-            buildPersister(file, method, password).save(client, output);
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -395,6 +733,8 @@ public class ClientFactory
     {
         if (file != null && isEncrypted(file))
             return new Decryptor(method, password);
+        else if (file != null && isBinary(file))
+            return new BinaryPersister();
         else
             return new PlainWriter();
     }
@@ -734,9 +1074,11 @@ public class ClientFactory
 
     private static void assignSharesToDividendTransactions(Client client)
     {
+        SecurityTransactionIndex index = new SecurityTransactionIndex(client);
+
         for (Security security : client.getSecurities())
         {
-            List<TransactionPair<?>> transactions = security.getTransactions(client);
+            List<TransactionPair<?>> transactions = index.getTransactions(security);
 
             // sort by date of transaction
             Collections.sort(transactions,
@@ -900,7 +1242,8 @@ public class ClientFactory
 
         for (Security security : client.getSecurities())
         {
-            security.getPrices().stream().forEach(p -> p.setValue(p.getValue() * decimalPlacesAdded));
+            for (SecurityPrice p : security.getPrices())
+                security.addPrice(new SecurityPrice(p.getTime(), p.getValue() * decimalPlacesAdded));
             if (security.getLatest() != null)
             {
                 LatestSecurityPrice l = security.getLatest();
@@ -978,7 +1321,6 @@ public class ClientFactory
         }
     }
 
-    @SuppressWarnings("nls")
     private static XStream xstream()
     {
         if (xstream == null)
@@ -986,69 +1328,104 @@ public class ClientFactory
             synchronized (ClientFactory.class)
             {
                 if (xstream == null)
+                    xstream = newXStream();
+            }
+        }
+        return xstream;
+    }
+
+    /**
+     * Returns the XStream used by the binary format: prices and transactions
+     * are excluded from the XML as they are stored in binary form.
+     */
+    @SuppressWarnings("nls")
+    private static XStream binaryXStream()
+    {
+        if (binaryXStream == null)
+        {
+            synchronized (ClientFactory.class)
+            {
+                if (binaryXStream == null)
                 {
-                    xstream = new XStream();
-
-                    xstream.setClassLoader(ClientFactory.class.getClassLoader());
-
-                    xstream.registerConverter(new XStreamLocalDateConverter());
-                    xstream.registerConverter(new PortfolioTransactionConverter(xstream.getMapper(),
-                                    xstream.getReflectionProvider()));
-
-                    xstream.useAttributeFor(Money.class, "amount");
-                    xstream.useAttributeFor(Money.class, "currencyCode");
-                    xstream.aliasAttribute(Money.class, "currencyCode", "currency");
-
-                    xstream.alias("account", Account.class);
-                    xstream.alias("client", Client.class);
-                    xstream.alias("settings", ClientSettings.class);
-                    xstream.alias("bookmark", Bookmark.class);
-                    xstream.alias("portfolio", Portfolio.class);
-                    xstream.alias("unit", Transaction.Unit.class);
-                    xstream.useAttributeFor(Transaction.Unit.class, "type");
-                    xstream.alias("account-transaction", AccountTransaction.class);
-                    xstream.alias("portfolio-transaction", PortfolioTransaction.class);
-                    xstream.alias("security", Security.class);
-                    xstream.alias("latest", LatestSecurityPrice.class);
-                    xstream.alias("category", Category.class);
-                    xstream.alias("watchlist", Watchlist.class);
-                    xstream.alias("investment-plan", InvestmentPlan.class);
-                    xstream.alias("attribute-type", AttributeType.class);
-
-                    xstream.alias("price", SecurityPrice.class);
-                    xstream.useAttributeFor(SecurityPrice.class, "time");
-                    xstream.aliasField("t", SecurityPrice.class, "time");
-                    xstream.useAttributeFor(SecurityPrice.class, "value");
-                    xstream.aliasField("v", SecurityPrice.class, "value");
-
-                    xstream.alias("cpi", ConsumerPriceIndex.class);
-                    xstream.useAttributeFor(ConsumerPriceIndex.class, "year");
-                    xstream.aliasField("y", ConsumerPriceIndex.class, "year");
-                    xstream.useAttributeFor(ConsumerPriceIndex.class, "month");
-                    xstream.aliasField("m", ConsumerPriceIndex.class, "month");
-                    xstream.useAttributeFor(ConsumerPriceIndex.class, "index");
-                    xstream.aliasField("i", ConsumerPriceIndex.class, "index");
-
-                    xstream.alias("buysell", BuySellEntry.class);
-                    xstream.alias("account-transfer", AccountTransferEntry.class);
-                    xstream.alias("portfolio-transfer", PortfolioTransferEntry.class);
-
-                    xstream.alias("taxonomy", Taxonomy.class);
-                    xstream.alias("classification", Classification.class);
-                    xstream.alias("assignment", Assignment.class);
-
-                    xstream.alias("dashboard", Dashboard.class);
-                    xstream.useAttributeFor(Dashboard.class, "name");
-                    xstream.alias("column", Dashboard.Column.class);
-                    xstream.alias("widget", Dashboard.Widget.class);
-                    xstream.useAttributeFor(Dashboard.Widget.class, "type");
-
-                    xstream.alias("event", SecurityEvent.class);
-                    xstream.alias("config-set", ConfigurationSet.class);
-                    xstream.alias("config", ConfigurationSet.Configuration.class);
+                    XStream x = newXStream();
+
+                    DetachedConverter list = new DetachedConverter(ArrayList::new);
+                    x.registerLocalConverter(Security.class, "prices", new DetachedConverter(PriceSeries::new));
+                    x.registerLocalConverter(Account.class, "transactions", list);
+                    x.registerLocalConverter(Portfolio.class, "transactions", list);
+                    x.registerLocalConverter(InvestmentPlan.class, "transactions", list);
+
+                    binaryXStream = x;
                 }
             }
         }
+        return binaryXStream;
+    }
+
+    @SuppressWarnings("nls")
+    private static XStream newXStream()
+    {
+        XStream xstream = new XStream();
+
+        xstream.setClassLoader(ClientFactory.class.getClassLoader());
+
+        xstream.registerConverter(new XStreamLocalDateConverter());
+        xstream.registerConverter(new PortfolioTransactionConverter(xstream.getMapper(),
+                        xstream.getReflectionProvider()));
+        xstream.registerConverter(new PriceSeriesConverter(xstream.getMapper()));
+
+        xstream.useAttributeFor(Money.class, "amount");
+        xstream.useAttributeFor(Money.class, "currencyCode");
+        xstream.aliasAttribute(Money.class, "currencyCode", "currency");
+
+        xstream.alias("account", Account.class);
+        xstream.alias("client", Client.class);
+        xstream.alias("settings", ClientSettings.class);
+        xstream.alias("bookmark", Bookmark.class);
+        xstream.alias("portfolio", Portfolio.class);
+        xstream.alias("unit", Transaction.Unit.class);
+        xstream.useAttributeFor(Transaction.Unit.class, "type");
+        xstream.alias("account-transaction", AccountTransaction.class);
+        xstream.alias("portfolio-transaction", PortfolioTransaction.class);
+        xstream.alias("security", Security.class);
+        xstream.alias("latest", LatestSecurityPrice.class);
+        xstream.alias("category", Category.class);
+        xstream.alias("watchlist", Watchlist.class);
+        xstream.alias("investment-plan", InvestmentPlan.class);
+        xstream.alias("attribute-type", AttributeType.class);
+
+        xstream.alias("price", SecurityPrice.class);
+        xstream.useAttributeFor(SecurityPrice.class, "time");
+        xstream.aliasField("t", SecurityPrice.class, "time");
+        xstream.useAttributeFor(SecurityPrice.class, "value");
+        xstream.aliasField("v", SecurityPrice.class, "value");
+
+        xstream.alias("cpi", ConsumerPriceIndex.class);
+        xstream.useAttributeFor(ConsumerPriceIndex.class, "year");
+        xstream.aliasField("y", ConsumerPriceIndex.class, "year");
+        xstream.useAttributeFor(ConsumerPriceIndex.class, "month");
+        xstream.aliasField("m", ConsumerPriceIndex.class, "month");
+        xstream.useAttributeFor(ConsumerPriceIndex.class, "index");
+        xstream.aliasField("i", ConsumerPriceIndex.class, "index");
+
+        xstream.alias("buysell", BuySellEntry.class);
+        xstream.alias("account-transfer", AccountTransferEntry.class);
+        xstream.alias("portfolio-transfer", PortfolioTransferEntry.class);
+
+        xstream.alias("taxonomy", Taxonomy.class);
+        xstream.alias("classification", Classification.class);
+        xstream.alias("assignment", Assignment.class);
+
+        xstream.alias("dashboard", Dashboard.class);
+        xstream.useAttributeFor(Dashboard.class, "name");
+        xstream.alias("column", Dashboard.Column.class);
+        xstream.alias("widget", Dashboard.Widget.class);
+        xstream.useAttributeFor(Dashboard.Widget.class, "type");
+
+        xstream.alias("event", SecurityEvent.class);
+        xstream.alias("config-set", ConfigurationSet.class);
+        xstream.alias("config", ConfigurationSet.Configuration.class);
+
         return xstream;
     }
 }
@@ -253,7 +253,7 @@ public class InvestmentPlan implements Named, Adaptable
         boolean needsCurrencyConversion = !targetCurrencyCode.equals(security.getCurrencyCode());
 
         Transaction.Unit forex = null;
-        long price = getSecurity().getSecurityPrice(tDate).getValue();
+        long price = getSecurity().getSecurityPriceValue(tDate);
         long availableAmount = amount - fees;
 
         if (needsCurrencyConversion)
@@ -15,6 +15,8 @@ public class Portfolio implements Named, TransactionOwner<PortfolioTransaction>
 
     private List<PortfolioTransaction> transactions = new ArrayList<PortfolioTransaction>();
 
+    private transient volatile TransactionDateIndex<PortfolioTransaction> dateIndex;
+
     public Portfolio()
     {
         this.uuid = UUID.randomUUID().toString();
@@ -85,12 +87,14 @@ public class Portfolio implements Named, TransactionOwner<PortfolioTransaction>
     public void addTransaction(PortfolioTransaction transaction)
     {
         this.transactions.add(transaction);
+        this.dateIndex = null;
     }
 
     @Override
     public void shallowDeleteTransaction(PortfolioTransaction transaction, Client client)
     {
         this.transactions.remove(transaction);
+        this.dateIndex = null;
 
         client.getPlans().stream().forEach(plan -> plan.removeTransaction(transaction));
     }
@@ -98,6 +102,21 @@ public class Portfolio implements Named, TransactionOwner<PortfolioTransaction>
     public void addAllTransaction(List<PortfolioTransaction> transactions)
     {
         this.transactions.addAll(transactions);
+        this.dateIndex = null;
+    }
+
+    /**
+     * Returns the transactions sorted by date.
+     */
+    public TransactionDateIndex<PortfolioTransaction> getDateIndex()
+    {
+        TransactionDateIndex<PortfolioTransaction> index = dateIndex;
+        if (index == null || !index.isValid(transactions))
+        {
+            index = new TransactionDateIndex<>(transactions, null);
+            dateIndex = index;
+        }
+        return index;
     }
 
     @Override
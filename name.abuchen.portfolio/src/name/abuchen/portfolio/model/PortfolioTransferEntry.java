@@ -27,6 +27,22 @@ public class PortfolioTransferEntry implements CrossEntry, Annotated
         this.portfolioTo = portfolioTo;
     }
 
+    /**
+     * Creates a cross entry for existing transactions, e.g. when reading the
+     * transactions from the binary file format.
+     */
+    /* package */ PortfolioTransferEntry(Portfolio portfolioFrom, PortfolioTransaction transactionFrom,
+                    Portfolio portfolioTo, PortfolioTransaction transactionTo)
+    {
+        this.portfolioFrom = portfolioFrom;
+        this.transactionFrom = transactionFrom;
+        this.transactionFrom.setCrossEntry(this);
+
+        this.portfolioTo = portfolioTo;
+        this.transactionTo = transactionTo;
+        this.transactionTo.setCrossEntry(this);
+    }
+
     public PortfolioTransaction getSourceTransaction()
     {
         return this.transactionFrom;
@@ -0,0 +1,302 @@
+package name.abuchen.portfolio.model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Historical prices of a security stored as two parallel, primitive columns:
+ * the epoch day and the value. The prices are sorted by date and there is at
+ * most one price per date.
+ * <p/>
+ * Lookups by date are a binary search on the epoch days and do not allocate
+ * objects. {@link SecurityPrice} objects are only created when accessing the
+ * series as a list.
+ */
+public final class PriceSeries
+{
+    /**
+     * Read-only list view of the series. Each access creates a new
+     * {@link SecurityPrice}, i.e. changing the returned object does not change
+     * the series.
+     */
+    private final class ListView extends AbstractList<SecurityPrice> implements RandomAccess
+    {
+        @Override
+        public SecurityPrice get(int index)
+        {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            return new SecurityPrice(LocalDate.ofEpochDay(days[index]), values[index]);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+
+    private static final int[] EMPTY_DAYS = new int[0];
+    private static final long[] EMPTY_VALUES = new long[0];
+
+    private int[] days = EMPTY_DAYS;
+    private long[] values = EMPTY_VALUES;
+    private int size;
+
+    private final ListView view = new ListView();
+
+    public PriceSeries()
+    {}
+
+    /* package */ PriceSeries(PriceSeries other)
+    {
+        this.days = Arrays.copyOf(other.days, other.size);
+        this.values = Arrays.copyOf(other.values, other.size);
+        this.size = other.size;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public LocalDate getDate(int index)
+    {
+        checkIndex(index);
+        return LocalDate.ofEpochDay(days[index]);
+    }
+
+    public long getEpochDay(int index)
+    {
+        checkIndex(index);
+        return days[index];
+    }
+
+    public long getValue(int index)
+    {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Returns the series as read-only list of {@link SecurityPrice}. The list
+     * is backed by the series and reflects later changes.
+     */
+    public List<SecurityPrice> asList()
+    {
+        return view;
+    }
+
+    /**
+     * Returns the index of the given date or, if no price exists for the
+     * date, <code>(-(insertion point) - 1)</code> as specified by
+     * {@link Arrays#binarySearch(int[], int)}.
+     */
+    public int binarySearch(LocalDate date)
+    {
+        return binarySearch(toDay(date));
+    }
+
+    /**
+     * Returns the index of the price valid at the given date, i.e. the last
+     * price on or before the date, or -1 if the date is before the first price.
+     */
+    public int floorIndex(LocalDate date)
+    {
+        int index = binarySearch(toDay(date));
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Adds the price or replaces the value of an existing price at the same
+     * date.
+     *
+     * @return true if the series was changed
+     */
+    /* package */ boolean put(LocalDate date, long value)
+    {
+        int day = toDay(date);
+
+        // fast path: prices are typically appended in chronological order
+        if (size == 0 || days[size - 1] < day)
+        {
+            append(day, value);
+            return true;
+        }
+
+        int index = binarySearch(day);
+        if (index >= 0)
+        {
+            if (values[index] == value)
+                return false;
+            values[index] = value;
+            return true;
+        }
+
+        index = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(days, index, days, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        days[index] = day;
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Merges the given prices into the series in a single pass. Prices of
+     * existing dates are replaced.
+     *
+     * @return true if the series was changed
+     */
+    /* package */ boolean putAll(Collection<? extends SecurityPrice> prices)
+    {
+        if (prices.isEmpty())
+            return false;
+
+        List<SecurityPrice> sorted = new ArrayList<>(prices);
+        sorted.sort(new SecurityPrice.ByDate());
+
+        // fast path: all prices are newer than the existing ones
+        if (size == 0 || days[size - 1] < toDay(sorted.get(0).getTime()))
+        {
+            ensureCapacity(size + sorted.size());
+            boolean isChanged = false;
+            for (SecurityPrice price : sorted)
+                isChanged = put(price.getTime(), price.getValue()) || isChanged;
+            return isChanged;
+        }
+
+        int[] mergedDays = new int[size + sorted.size()];
+        long[] mergedValues = new long[size + sorted.size()];
+        int count = 0;
+        boolean isChanged = false;
+
+        int ii = 0;
+        int jj = 0;
+        while (ii < size || jj < sorted.size())
+        {
+            int day = jj < sorted.size() ? toDay(sorted.get(jj).getTime()) : Integer.MAX_VALUE;
+
+            if (ii < size && days[ii] < day)
+            {
+                mergedDays[count] = days[ii];
+                mergedValues[count++] = values[ii++];
+                continue;
+            }
+
+            long value = sorted.get(jj++).getValue();
+
+            if (ii < size && days[ii] == day)
+            {
+                isChanged = isChanged || values[ii] != value;
+                ii++;
+            }
+            else if (count > 0 && mergedDays[count - 1] == day)
+            {
+                // multiple new prices for the same date: last one wins
+                isChanged = isChanged || mergedValues[count - 1] != value;
+                mergedValues[count - 1] = value;
+                continue;
+            }
+            else
+            {
+                isChanged = true;
+            }
+
+            mergedDays[count] = day;
+            mergedValues[count++] = value;
+        }
+
+        days = mergedDays;
+        values = mergedValues;
+        size = count;
+
+        return isChanged;
+    }
+
+    /**
+     * Appends a price which must be after all existing prices. Used when
+     * reading prices which are known to be sorted.
+     */
+    /* package */ void append(int day, long value)
+    {
+        if (size > 0 && days[size - 1] >= day)
+            throw new IllegalArgumentException(LocalDate.ofEpochDay(day).toString());
+
+        ensureCapacity(size + 1);
+        days[size] = day;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Removes the price if the series contains a price with the same date and
+     * value.
+     *
+     * @return true if the series was changed
+     */
+    /* package */ boolean remove(LocalDate date, long value)
+    {
+        int index = binarySearch(toDay(date));
+        if (index < 0 || values[index] != value)
+            return false;
+
+        System.arraycopy(days, index + 1, days, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    /* package */ void clear()
+    {
+        days = EMPTY_DAYS;
+        values = EMPTY_VALUES;
+        size = 0;
+    }
+
+    /* package */ void trimToSize()
+    {
+        if (days.length != size)
+        {
+            days = Arrays.copyOf(days, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private int binarySearch(int day)
+    {
+        return Arrays.binarySearch(days, 0, size, day);
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (days.length >= capacity)
+            return;
+
+        int newCapacity = Math.max(capacity, days.length + (days.length >> 1) + 1);
+        days = Arrays.copyOf(days, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+
+    private static int toDay(LocalDate date)
+    {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
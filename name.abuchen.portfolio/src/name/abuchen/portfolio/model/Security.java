@@ -3,7 +3,7 @@ package name.abuchen.portfolio.model;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -41,7 +41,7 @@ public final class Security implements Attributable, InvestmentVehicle
     // feed and feedURL are used to update historical prices
     private String feed;
     private String feedURL;
-    private List<SecurityPrice> prices = new ArrayList<>();
+    private PriceSeries prices = new PriceSeries();
 
     // latestFeed and latestFeedURL are used to update the latest (current)
     // quote. If null, the values from feed and feedURL are used instead.
@@ -232,7 +232,17 @@ public final class Security implements Attributable, InvestmentVehicle
 
     public List<SecurityPrice> getPrices()
     {
-        return Collections.unmodifiableList(prices);
+        return prices.asList();
+    }
+
+    /**
+     * Returns the historical prices as primitive series. Use the series
+     * instead of {@link #getPrices()} to iterate or look up large numbers of
+     * prices without creating objects.
+     */
+    public PriceSeries getPriceSeries()
+    {
+        return prices;
     }
 
     /**
@@ -244,12 +254,12 @@ public final class Security implements Attributable, InvestmentVehicle
         if (latest == null)
             return getPrices();
 
-        int index = Collections.binarySearch(prices, new SecurityPrice(latest.getTime(), latest.getValue()));
+        int index = prices.binarySearch(latest.getTime());
 
         if (index >= 0) // historic quote exists -> use it
             return getPrices();
 
-        List<SecurityPrice> copy = new ArrayList<>(prices);
+        List<SecurityPrice> copy = new ArrayList<>(getPrices());
         copy.add(~index, latest);
         return copy;
     }
@@ -263,33 +273,27 @@ public final class Security implements Attributable, InvestmentVehicle
     {
         Objects.requireNonNull(price);
 
-        int index = Collections.binarySearch(prices, price);
+        return prices.put(price.getTime(), price.getValue());
+    }
 
-        if (index < 0)
-        {
-            prices.add(~index, price);
-            return true;
-        }
-        else
-        {
-            SecurityPrice replaced = prices.get(index);
+    /**
+     * Adds all security prices to the historical quotes. Merging a larger
+     * number of prices at once is considerably faster than adding them one by
+     * one.
+     * 
+     * @return true if the historical quotes were updated.
+     */
+    public boolean addAllPrices(Collection<? extends SecurityPrice> prices)
+    {
+        Objects.requireNonNull(prices);
 
-            if (!replaced.equals(price))
-            {
-                // only replace if necessary -> UI might keep reference!
-                prices.set(index, price);
-                return true;
-            }
-            else
-            {
-                return false;
-            }
-        }
+        return this.prices.putAll(prices);
     }
 
     public void removePrice(SecurityPrice price)
     {
-        prices.remove(price);
+        if (price != null)
+            prices.remove(price.getTime(), price.getValue());
     }
 
     public void removeAllPrices()
@@ -298,12 +302,39 @@ public final class Security implements Attributable, InvestmentVehicle
     }
 
     public SecurityPrice getSecurityPrice(LocalDate requestedTime)
+    {
+        if (isLatestValidAt(requestedTime))
+            return latest;
+
+        if (prices.isEmpty())
+            return new SecurityPrice(requestedTime, 0);
+
+        int index = Math.max(0, prices.floorIndex(requestedTime));
+        return new SecurityPrice(prices.getDate(index), prices.getValue(index));
+    }
+
+    /**
+     * Returns the value of the security price valid at the given date. The
+     * result is identical to <code>getSecurityPrice(date).getValue()</code>,
+     * but the lookup does not create any objects.
+     */
+    public long getSecurityPriceValue(LocalDate requestedTime)
+    {
+        if (isLatestValidAt(requestedTime))
+            return latest.getValue();
+
+        if (prices.isEmpty())
+            return 0;
+
+        // requested date before first historic quote -> use first quote
+        return prices.getValue(Math.max(0, prices.floorIndex(requestedTime)));
+    }
+
+    private boolean isLatestValidAt(LocalDate requestedTime)
     {
         // assumption: prefer historic quote over latest if there are more
         // up-to-date historic quotes
 
-        SecurityPrice lastHistoric = prices.isEmpty() ? null : prices.get(prices.size() - 1);
-
         // use latest quote only
         // * if one exists
         // * and if either no historic quotes exist
@@ -311,29 +342,14 @@ public final class Security implements Attributable, InvestmentVehicle
         // ** if the requested time is after the latest quote
         // ** and the historic quotes are older than the latest quote
 
-        if (latest != null //
-                        && (lastHistoric == null //
-                                        || (!requestedTime.isBefore(latest.getTime()) && //
-                                                        !latest.getTime().isBefore(lastHistoric.getTime()) //
-                                        )))
-            return latest;
-
-        if (lastHistoric == null)
-            return new SecurityPrice(requestedTime, 0);
-
-        // avoid binary search if last historic quote <= requested date
-        if (!lastHistoric.getTime().isAfter(requestedTime))
-            return lastHistoric;
+        if (latest == null)
+            return false;
 
-        SecurityPrice p = new SecurityPrice(requestedTime, 0);
-        int index = Collections.binarySearch(prices, p);
+        if (prices.isEmpty())
+            return true;
 
-        if (index >= 0)
-            return prices.get(index);
-        else if (index == -1) // requested is date before first historic quote
-            return prices.get(0);
-        else
-            return prices.get(-index - 2);
+        long latestDay = latest.getTime().toEpochDay();
+        return requestedTime.toEpochDay() >= latestDay && latestDay >= prices.getEpochDay(prices.size() - 1);
     }
 
     public String getLatestFeed()
@@ -418,6 +434,12 @@ public final class Security implements Attributable, InvestmentVehicle
         this.attributes = attributes;
     }
 
+    /**
+     * Returns the dividend, interest and tax refund transactions of accounts
+     * and all portfolio transactions of this security. Use the
+     * {@link SecurityTransactionIndex} when looking up the transactions of
+     * many securities.
+     */
     public List<TransactionPair<?>> getTransactions(Client client)
     {
         List<TransactionPair<?>> answer = new ArrayList<>();
@@ -481,7 +503,7 @@ public final class Security implements Attributable, InvestmentVehicle
 
         answer.feed = feed;
         answer.feedURL = feedURL;
-        answer.prices = new ArrayList<>(prices);
+        answer.prices = new PriceSeries(prices);
 
         answer.latestFeed = latestFeed;
         answer.latestFeedURL = latestFeedURL;
@@ -0,0 +1,78 @@
+package name.abuchen.portfolio.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the transactions of a client by security. Building the index
+ * visits every transaction once; afterwards the transactions of a security are
+ * available without scanning all accounts and portfolios.
+ * <p/>
+ * Use the index when looking up the transactions of many securities, e.g. in
+ * a loop over all securities of the client. The index is not updated if
+ * transactions are added, removed or changed afterwards.
+ */
+public final class SecurityTransactionIndex
+{
+    private final Map<Security, List<TransactionPair<?>>> security2transactions = new HashMap<>();
+    private final Set<Security> withTransactions = new HashSet<>();
+
+    public SecurityTransactionIndex(Client client)
+    {
+        for (Account account : client.getAccounts())
+        {
+            for (AccountTransaction t : account.getTransactions())
+            {
+                if (t.getSecurity() == null)
+                    continue;
+
+                withTransactions.add(t.getSecurity());
+
+                if (t.getType() == AccountTransaction.Type.INTEREST || t.getType() == AccountTransaction.Type.DIVIDENDS
+                                || t.getType() == AccountTransaction.Type.TAX_REFUND)
+                    add(t.getSecurity(), new TransactionPair<AccountTransaction>(account, t));
+            }
+        }
+
+        for (Portfolio portfolio : client.getPortfolios())
+        {
+            for (PortfolioTransaction t : portfolio.getTransactions())
+            {
+                if (t.getSecurity() == null)
+                    continue;
+
+                withTransactions.add(t.getSecurity());
+                add(t.getSecurity(), new TransactionPair<PortfolioTransaction>(portfolio, t));
+            }
+        }
+    }
+
+    private void add(Security security, TransactionPair<?> pair)
+    {
+        security2transactions.computeIfAbsent(security, s -> new ArrayList<>()).add(pair);
+    }
+
+    /**
+     * Returns the same transactions in the same order as
+     * {@link Security#getTransactions(Client)}. The list is a copy and can be
+     * modified by the caller.
+     */
+    public List<TransactionPair<?>> getTransactions(Security security)
+    {
+        List<TransactionPair<?>> transactions = security2transactions.get(security);
+        return transactions != null ? new ArrayList<>(transactions) : new ArrayList<>();
+    }
+
+    /**
+     * Returns true if the security is used by any transaction (see
+     * {@link Security#hasTransactions(Client)}).
+     */
+    public boolean hasTransactions(Security security)
+    {
+        return withTransactions.contains(security);
+    }
+}
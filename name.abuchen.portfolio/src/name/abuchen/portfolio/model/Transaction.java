@@ -10,12 +10,13 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import name.abuchen.portfolio.Messages;
 import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.money.MonetaryException;
 import name.abuchen.portfolio.money.Money;
-import name.abuchen.portfolio.money.MoneyCollectors;
 import name.abuchen.portfolio.money.Values;
 
 public abstract class Transaction implements Annotated
@@ -75,6 +76,19 @@ public abstract class Transaction implements Annotated
                                                 Values.Money.format(forex), exchangeRate, Values.Money.format(amount)));
         }
 
+        /**
+         * Creates a unit without checking the exchange rate. Used to restore
+         * units from a file, i.e. units which have been created (and checked)
+         * before.
+         */
+        /* package */ Unit(Type type, Money amount, Money forex, BigDecimal exchangeRate, boolean restore) // NOSONAR
+        {
+            this.type = Objects.requireNonNull(type);
+            this.amount = Objects.requireNonNull(amount);
+            this.forex = forex;
+            this.exchangeRate = exchangeRate;
+        }
+
         public Type getType()
         {
             return type;
@@ -108,6 +122,12 @@ public abstract class Transaction implements Annotated
         }
     }
 
+    /**
+     * Number of modifications of indexed transactions (see
+     * {@link TransactionDateIndex}).
+     */
+    private static final AtomicLong INDEXED_MODIFICATIONS = new AtomicLong();
+
     private LocalDate date;
     private String currencyCode;
     private long amount;
@@ -119,6 +139,8 @@ public abstract class Transaction implements Annotated
 
     private List<Unit> units;
 
+    private transient volatile boolean isIndexed;
+
     public Transaction()
     {}
 
@@ -145,6 +167,7 @@ public abstract class Transaction implements Annotated
     public void setDate(LocalDate date)
     {
         this.date = date;
+        indexedFieldModified();
     }
 
     public String getCurrencyCode()
@@ -165,6 +188,7 @@ public abstract class Transaction implements Annotated
     public void setAmount(long amount)
     {
         this.amount = amount;
+        indexedFieldModified();
     }
 
     public Money getMonetaryAmount()
@@ -176,6 +200,7 @@ public abstract class Transaction implements Annotated
     {
         this.currencyCode = value.getCurrencyCode();
         this.amount = value.getAmount();
+        indexedFieldModified();
     }
 
     public Security getSecurity()
@@ -273,8 +298,25 @@ public abstract class Transaction implements Annotated
      */
     public Money getUnitSum(Unit.Type type)
     {
-        return getUnits().filter(u -> u.getType() == type) //
-                        .collect(MoneyCollectors.sum(getCurrencyCode(), Unit::getAmount));
+        long sum = 0;
+
+        if (units != null)
+        {
+            // no streams: called for every transaction by the calculations
+            for (Unit unit : units)
+            {
+                if (unit.getType() != type)
+                    continue;
+
+                Money amount = unit.getAmount();
+                if (!amount.getCurrencyCode().equals(getCurrencyCode()))
+                    throw new MonetaryException();
+
+                sum += amount.getAmount();
+            }
+        }
+
+        return Money.of(getCurrencyCode(), sum);
     }
 
     /**
@@ -282,16 +324,48 @@ public abstract class Transaction implements Annotated
      */
     public Money getUnitSum(Unit.Type type, CurrencyConverter converter)
     {
-        return getUnits().filter(u -> u.getType() == type)
-                        .collect(MoneyCollectors.sum(converter.getTermCurrency(), unit -> {
-                            if (converter.getTermCurrency().equals(unit.getAmount().getCurrencyCode()))
-                                return unit.getAmount();
-                            else if (unit.getForex() != null
-                                            && converter.getTermCurrency().equals(unit.getForex().getCurrencyCode()))
-                                return unit.getForex();
-                            else
-                                return unit.getAmount().with(converter.at(date));
-                        }));
+        String termCurrency = converter.getTermCurrency();
+        long sum = 0;
+
+        if (units != null)
+        {
+            for (Unit unit : units)
+            {
+                if (unit.getType() != type)
+                    continue;
+
+                Money amount = unit.getAmount();
+                if (termCurrency.equals(amount.getCurrencyCode()))
+                    sum += amount.getAmount();
+                else if (unit.getForex() != null && termCurrency.equals(unit.getForex().getCurrencyCode()))
+                    sum += unit.getForex().getAmount();
+                else
+                    sum += converter.convert(date, amount.getCurrencyCode(), amount.getAmount());
+            }
+        }
+
+        return Money.of(termCurrency, sum);
+    }
+
+    /* package */ static long getIndexedModifications()
+    {
+        return INDEXED_MODIFICATIONS.get();
+    }
+
+    /* package */ void markIndexed()
+    {
+        isIndexed = true;
+    }
+
+    /**
+     * Invalidates the date indices if the date, amount, or type of an indexed
+     * transaction is modified. Transactions which have never been indexed,
+     * e.g. transactions being created, do not invalidate any index.
+     */
+    /* package */ void indexedFieldModified()
+    {
+        if (isIndexed)
+            INDEXED_MODIFICATIONS.incrementAndGet();
     }
 
     public static final <E extends Transaction> List<E> sortByDate(List<E> transactions)
@@ -0,0 +1,135 @@
+package name.abuchen.portfolio.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * The transactions of an {@link Account} or {@link Portfolio} sorted by date.
+ * Transactions of the same date keep the order of the owner. Range queries are
+ * answered with a binary search instead of a scan of all transactions.
+ * Optionally, the index keeps the running sum of a value of the transactions,
+ * e.g. the balance of an account.
+ * <p/>
+ * The index is a snapshot: the owner creates a new index if transactions are
+ * added or removed, or if the date, amount, or type of an indexed transaction
+ * is changed (see {@link Account#getDateIndex()} and
+ * {@link Portfolio#getDateIndex()}).
+ */
+public final class TransactionDateIndex<T extends Transaction>
+{
+    private final List<T> transactions;
+    private final long[] epochDays;
+    private final long[] sums;
+
+    private final int size;
+    private final long modifications;
+
+    /**
+     * @param value
+     *            the value of which the running sum is kept; null if
+     *            {@link #getSum} is not used
+     */
+    /* package */ TransactionDateIndex(List<T> transactions, ToLongFunction<T> value)
+    {
+        @SuppressWarnings("unchecked")
+        T[] sorted = (T[]) transactions.toArray(new Transaction[0]);
+
+        // mark the transactions before reading their dates: modifications
+        // from now on invalidate the index
+        for (T t : sorted)
+            t.markIndexed();
+
+        this.size = sorted.length;
+        this.modifications = Transaction.getIndexedModifications();
+
+        Arrays.sort(sorted, new Transaction.ByDate());
+
+        this.transactions = Collections.unmodifiableList(Arrays.asList(sorted));
+        this.epochDays = new long[sorted.length];
+        for (int ii = 0; ii < sorted.length; ii++)
+            epochDays[ii] = sorted[ii].getDate().toEpochDay();
+
+        if (value != null)
+        {
+            this.sums = new long[sorted.length + 1];
+            for (int ii = 0; ii < sorted.length; ii++)
+                sums[ii + 1] = sums[ii] + value.applyAsLong(sorted[ii]);
+        }
+        else
+        {
+            this.sums = null;
+        }
+    }
+
+    /**
+     * Returns true if the index still reflects the given transactions of the
+     * owner. Changes to the list which keep its size (for example removing one
+     * transaction and adding another one directly to the list) are not
+     * detected, hence owners invalidate the index when adding and removing
+     * transactions.
+     */
+    /* package */ boolean isValid(List<T> ownerTransactions)
+    {
+        return size == ownerTransactions.size() && modifications == Transaction.getIndexedModifications();
+    }
+
+    /**
+     * Returns all transactions sorted by date.
+     */
+    public List<T> getTransactions()
+    {
+        return transactions;
+    }
+
+    /**
+     * Returns the transactions up to and including the given date.
+     */
+    public List<T> getTransactionsUntil(LocalDate date)
+    {
+        return transactions.subList(0, count(date.toEpochDay()));
+    }
+
+    /**
+     * Returns the transactions between the start and end date, both dates
+     * inclusive.
+     */
+    public List<T> getTransactions(LocalDate start, LocalDate end)
+    {
+        int from = count(start.toEpochDay() - 1);
+        int to = count(end.toEpochDay());
+        return from < to ? transactions.subList(from, to) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the sum of the values of all transactions up to and including
+     * the given date.
+     */
+    public long getSum(LocalDate date)
+    {
+        if (sums == null)
+            throw new UnsupportedOperationException();
+
+        return sums[count(date.toEpochDay())];
+    }
+
+    /**
+     * Returns the number of transactions up to and including the given day.
+     */
+    private int count(long epochDay)
+    {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= epochDay)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
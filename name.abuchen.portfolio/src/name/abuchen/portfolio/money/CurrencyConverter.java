@@ -2,12 +2,27 @@ package name.abuchen.portfolio.money;
 
 import java.time.LocalDate;
 
+/**
+ * Converts monetary amounts into the term currency. Implementations must be
+ * thread-safe because calculations (for example of the security performance)
+ * use one converter from multiple threads.
+ */
 public interface CurrencyConverter
 {
     String getTermCurrency();
 
     Money convert(LocalDate date, Money amount);
 
+    /**
+     * Converts the amount given in the currency into the term currency. Same
+     * result as {@link #convert(LocalDate, Money)}, but without creating
+     * instances of {@link Money} for use in calculation loops.
+     */
+    default long convert(LocalDate date, String currencyCode, long amount)
+    {
+        return convert(date, Money.of(currencyCode, amount)).getAmount();
+    }
+
     default MonetaryOperator at(LocalDate date)
     {
         return m -> convert(date, m);
@@ -3,7 +3,8 @@ package name.abuchen.portfolio.money;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import name.abuchen.portfolio.Messages;
 
@@ -12,6 +13,12 @@ public class CurrencyConverterImpl implements CurrencyConverter
     private final ExchangeRateProviderFactory factory;
     private final String termCurrency;
 
+    /**
+     * Exchange rate tables by currency code. The tables are held by the
+     * converter to avoid looking up the currency pair for every conversion.
+     */
+    private final Map<String, ExchangeRateTable> tables = new ConcurrentHashMap<>();
+
     public CurrencyConverterImpl(ExchangeRateProviderFactory factory, String termCurrency)
     {
         this.factory = factory;
@@ -33,9 +40,16 @@ public class CurrencyConverterImpl implements CurrencyConverter
         if (amount.isZero())
             return Money.of(termCurrency, 0);
 
-        ExchangeRate rate = getRate(date, amount.getCurrencyCode());
-        BigDecimal converted = rate.getValue().multiply(BigDecimal.valueOf(amount.getAmount()));
-        return Money.of(termCurrency, Math.round(converted.doubleValue()));
+        return Money.of(termCurrency, lookupTable(amount.getCurrencyCode()).convert(date, amount.getAmount()));
+    }
+
+    @Override
+    public long convert(LocalDate date, String currencyCode, long amount)
+    {
+        if (termCurrency.equals(currencyCode) || amount == 0)
+            return amount;
+
+        return lookupTable(currencyCode).convert(date, amount);
     }
 
     @Override
@@ -44,24 +58,22 @@ public class CurrencyConverterImpl implements CurrencyConverter
         if (termCurrency.equals(currencyCode))
             return new ExchangeRate(date, BigDecimal.ONE);
 
-        ExchangeRateTimeSeries series = lookupSeries(currencyCode);
-
-        Optional<ExchangeRate> rate = series.lookupRate(date);
-        if (!rate.isPresent())
-            throw new MonetaryException(MessageFormat.format(Messages.MsgNoExchangeRateAvailableForConversion,
-                            currencyCode, termCurrency));
-
-        return rate.get();
+        return lookupTable(currencyCode).lookupRate(date);
     }
 
-    private ExchangeRateTimeSeries lookupSeries(String currencyCode) // NOSONAR
+    private ExchangeRateTable lookupTable(String currencyCode)
     {
-        ExchangeRateTimeSeries series = factory.getTimeSeries(currencyCode, termCurrency);
-        if (series == null)
+        ExchangeRateTable table = tables.get(currencyCode);
+        if (table != null && table.isValid())
+            return table;
+
+        table = factory.getTable(currencyCode, termCurrency);
+        if (table == null)
             throw new MonetaryException(MessageFormat.format(Messages.MsgNoExchangeRateTimeSeriesFound, currencyCode,
                             termCurrency));
 
-        return series;
+        tables.put(currencyCode, table);
+        return table;
     }
 
     @Override
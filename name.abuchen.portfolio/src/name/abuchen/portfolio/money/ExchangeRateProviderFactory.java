@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.imageio.spi.ServiceRegistry;
@@ -143,7 +144,9 @@ public class ExchangeRateProviderFactory
     }
 
     private final List<ExchangeRateProvider> providers;
-    private final Map<CurrencyPair, ExchangeRateTimeSeries> cache = new HashMap<>();
+    private final Map<CurrencyPair, ExchangeRateTimeSeries> cache = new ConcurrentHashMap<>();
+    private final Map<CurrencyPair, ExchangeRateTable> tables = new ConcurrentHashMap<>();
+    private volatile long modificationCount;
 
     public ExchangeRateProviderFactory()
     {
@@ -172,6 +175,22 @@ public class ExchangeRateProviderFactory
     public void clearCache()
     {
         cache.clear();
+
+        // converters keep a reference to the tables
+        tables.values().forEach(ExchangeRateTable::invalidate);
+        tables.clear();
+
+        modificationCount++; // NOSONAR only called by the update job
+    }
+
+    /**
+     * Returns a number which changes whenever the cache is cleared, i.e. the
+     * exchange rates have been updated. Caches of calculation results use it
+     * to detect outdated results.
+     */
+    public long getModificationCount()
+    {
+        return modificationCount;
     }
 
     public ExchangeRateTimeSeries getTimeSeries(String baseCurrency, String termCurrency)
@@ -180,6 +199,26 @@ public class ExchangeRateProviderFactory
                         pair -> computeTimeSeries(baseCurrency, termCurrency));
     }
 
+    /**
+     * Returns the dense table of exchange rates for the given currency pair or
+     * null if no time series exists. The table becomes invalid once the cache
+     * is cleared, i.e. the exchange rates have been updated.
+     */
+    /* package */ ExchangeRateTable getTable(String baseCurrency, String termCurrency)
+    {
+        CurrencyPair pair = new CurrencyPair(baseCurrency, termCurrency);
+
+        ExchangeRateTable table = tables.get(pair);
+        if (table != null)
+            return table;
+
+        ExchangeRateTimeSeries series = getTimeSeries(baseCurrency, termCurrency);
+        if (series == null)
+            return null;
+
+        return tables.computeIfAbsent(pair, p -> new ExchangeRateTable(series));
+    }
+
     private ExchangeRateTimeSeries computeTimeSeries(String baseCurrency, String termCurrency)
     {
         Dijkstra dijkstra = new Dijkstra(getAvailableTimeSeries(), baseCurrency);
@@ -0,0 +1,175 @@
+package name.abuchen.portfolio.money;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import name.abuchen.portfolio.Messages;
+
+/**
+ * Dense table of the exchange rates of one time series indexed by epoch day.
+ * <p/>
+ * The table is filled lazily: the first request for a day looks up the rate
+ * in the time series (including the multiplication of chained series) and
+ * stores it. Later requests for that day are an array read. The table is
+ * invalidated by the {@link ExchangeRateProviderFactory} when the exchange
+ * rates are updated.
+ */
+/* package */ final class ExchangeRateTable
+{
+    private static final class Entry
+    {
+        private final ExchangeRate rate;
+        private final double value;
+
+        private Entry(ExchangeRate rate)
+        {
+            this.rate = rate;
+            this.value = rate.getValue().doubleValue();
+        }
+    }
+
+    private static final class Days
+    {
+        private final long origin;
+        private final Entry[] entries;
+
+        private Days(long origin, int length)
+        {
+            this.origin = origin;
+            this.entries = new Entry[length];
+        }
+    }
+
+    /**
+     * Maximum number of days held by the table. Requests outside the range are
+     * answered directly by the time series.
+     */
+    private static final int MAX_DAYS = 366 * 100;
+
+    /**
+     * Products beyond this magnitude have no fractional digits in double
+     * precision and are always calculated with BigDecimal.
+     */
+    private static final double MAX_FAST_PRODUCT = 0x1p50;
+
+    /**
+     * Relative error bound of the product of a rate (rounded to double) and an
+     * amount. Includes a generous safety margin.
+     */
+    private static final double RELATIVE_ERROR = 0x1p-48;
+
+    private final ExchangeRateTimeSeries series;
+
+    private volatile Days days;
+    private volatile boolean isValid = true;
+
+    /* package */ ExchangeRateTable(ExchangeRateTimeSeries series)
+    {
+        this.series = series;
+    }
+
+    /* package */ boolean isValid()
+    {
+        return isValid;
+    }
+
+    /* package */ void invalidate()
+    {
+        isValid = false;
+    }
+
+    /* package */ ExchangeRate lookupRate(LocalDate date)
+    {
+        return lookup(date).rate;
+    }
+
+    /**
+     * Converts the amount with the exchange rate valid at the given date. The
+     * result is identical to multiplying the amount with the BigDecimal rate
+     * and rounding the double value of the product.
+     */
+    /* package */ long convert(LocalDate date, long amount)
+    {
+        Entry entry = lookup(date);
+
+        double product = entry.value * amount;
+        double magnitude = Math.abs(product);
+
+        // if the product is not close to the rounding boundary x.5, the error
+        // of the double arithmetic cannot change the rounded result
+        if (magnitude < MAX_FAST_PRODUCT)
+        {
+            double distance = Math.abs(product - Math.floor(product) - 0.5);
+            if (distance > magnitude * RELATIVE_ERROR)
+                return Math.round(product);
+        }
+
+        BigDecimal converted = entry.rate.getValue().multiply(BigDecimal.valueOf(amount));
+        return Math.round(converted.doubleValue());
+    }
+
+    private Entry lookup(LocalDate date)
+    {
+        long day = date.toEpochDay();
+
+        Days d = days;
+        if (d != null)
+        {
+            long index = day - d.origin;
+            if (index >= 0 && index < d.entries.length)
+            {
+                Entry entry = d.entries[(int) index];
+                if (entry != null)
+                    return entry;
+            }
+        }
+
+        return fill(date, day);
+    }
+
+    private synchronized Entry fill(LocalDate date, long day)
+    {
+        Entry entry = new Entry(lookupSeries(date));
+
+        Days d = days;
+
+        if (d == null)
+        {
+            d = new Days(day, 32);
+        }
+        else if (day < d.origin || day >= d.origin + d.entries.length)
+        {
+            long from = Math.min(d.origin, day);
+            long to = Math.max(d.origin + d.entries.length, day + 1);
+
+            if (to - from > MAX_DAYS)
+                return entry;
+
+            // grow by at least half of the current size to reduce copying
+            // when the table is filled day by day
+            int length = (int) Math.min(MAX_DAYS, Math.max(to - from, d.entries.length + (d.entries.length >> 1)));
+            if (from < d.origin)
+                from = d.origin + d.entries.length - length;
+
+            Days grown = new Days(from, length);
+            System.arraycopy(d.entries, 0, grown.entries, (int) (d.origin - from), d.entries.length);
+            d = grown;
+        }
+
+        d.entries[(int) (day - d.origin)] = entry;
+        days = d;
+
+        return entry;
+    }
+
+    private ExchangeRate lookupSeries(LocalDate date)
+    {
+        Optional<ExchangeRate> rate = series.lookupRate(date);
+        if (!rate.isPresent())
+            throw new MonetaryException(MessageFormat.format(Messages.MsgNoExchangeRateAvailableForConversion,
+                            series.getBaseCurrency(), series.getTermCurrency()));
+        return rate.get();
+    }
+}
@@ -0,0 +1,461 @@
+package name.abuchen.portfolio.online;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.jsoup.HttpStatusException;
+
+import name.abuchen.portfolio.Messages;
+
+/**
+ * Executes quote updates in parallel while limiting the number of concurrent
+ * requests per host.
+ * <p/>
+ * Tasks are queued per host. At most {@code maxPerHost} tasks of one host run
+ * at the same time; tasks of other hosts are not blocked by a busy host. The
+ * limit is kept below the number of idle connections the JDK keeps alive per
+ * host (system property http.maxConnections, default 5) so that the
+ * connections of HttpURLConnection and Jsoup are reused instead of reopened.
+ * <p/>
+ * Tasks failing with a transient network error (time out, refused
+ * connection, HTTP status 429 or 5xx) are retried with exponential backoff.
+ * The executor records per feed the number of requests, retries, failures and
+ * the latency.
+ */
+public class QuoteUpdateExecutor
+{
+    /**
+     * A quote update. Errors are added to the given list, i.e. the feeds do
+     * not throw exceptions.
+     */
+    @FunctionalInterface
+    public interface Task
+    {
+        void run(List<Exception> errors);
+    }
+
+    public static final class Statistics
+    {
+        private final String feed;
+
+        private int tasks;
+        private int requests;
+        private int retries;
+        private int failures;
+        private long totalNanos;
+        private long maxNanos;
+        private long firstStart = Long.MAX_VALUE;
+        private long lastEnd = Long.MIN_VALUE;
+
+        private Statistics(String feed)
+        {
+            this.feed = feed;
+        }
+
+        private Statistics(Statistics other)
+        {
+            this.feed = other.feed;
+            this.tasks = other.tasks;
+            this.requests = other.requests;
+            this.retries = other.retries;
+            this.failures = other.failures;
+            this.totalNanos = other.totalNanos;
+            this.maxNanos = other.maxNanos;
+            this.firstStart = other.firstStart;
+            this.lastEnd = other.lastEnd;
+        }
+
+        private void record(long start, long end)
+        {
+            long duration = end - start;
+
+            requests++;
+            totalNanos += duration;
+            maxNanos = Math.max(maxNanos, duration);
+            firstStart = Math.min(firstStart, start);
+            lastEnd = Math.max(lastEnd, end);
+        }
+
+        public String getFeed()
+        {
+            return feed;
+        }
+
+        /**
+         * Returns the number of completed tasks.
+         */
+        public int getTasks()
+        {
+            return tasks;
+        }
+
+        /**
+         * Returns the number of executions including retries.
+         */
+        public int getRequests()
+        {
+            return requests;
+        }
+
+        public int getRetries()
+        {
+            return retries;
+        }
+
+        /**
+         * Returns the number of tasks which reported errors after the last
+         * attempt.
+         */
+        public int getFailures()
+        {
+            return failures;
+        }
+
+        public long getAverageLatency(TimeUnit unit)
+        {
+            return requests == 0 ? 0 : unit.convert(totalNanos / requests, TimeUnit.NANOSECONDS);
+        }
+
+        public long getMaximumLatency(TimeUnit unit)
+        {
+            return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the number of requests per second between the start of the
+         * first and the end of the last request.
+         */
+        public double getThroughput()
+        {
+            if (requests == 0 || lastEnd <= firstStart)
+                return 0d;
+            return requests / ((lastEnd - firstStart) / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+
+        @Override
+        public String toString()
+        {
+            return MessageFormat.format(Messages.MsgQuoteFeedStatistics, feed, tasks, requests, retries, failures,
+                            getThroughput(), getAverageLatency(TimeUnit.MILLISECONDS),
+                            getMaximumLatency(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static final class Item
+    {
+        private final String feed;
+        private final String label;
+        private final Task task;
+
+        private Item(String feed, String label, Task task)
+        {
+            this.feed = feed;
+            this.label = label;
+            this.task = task;
+        }
+    }
+
+    private static final class HostQueue
+    {
+        private final Deque<Item> pending = new ArrayDeque<>();
+        private int running;
+    }
+
+    public static final int DEFAULT_THREADS = 10;
+    public static final int DEFAULT_MAX_PER_HOST = 4;
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+
+    private final ExecutorService executor;
+    private final int maxPerHost;
+    private final BiConsumer<String, List<Exception>> errorHandler;
+
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final Map<String, Statistics> statistics = new HashMap<>();
+
+    private int outstanding;
+    private boolean isCanceled;
+    private long initialBackoff = INITIAL_BACKOFF_MILLIS;
+
+    /**
+     * @param threads
+     *            total number of concurrent tasks
+     * @param maxPerHost
+     *            number of concurrent tasks per host
+     * @param errorHandler
+     *            called with the label of the task and the errors reported in
+     *            the last attempt
+     */
+    public QuoteUpdateExecutor(int threads, int maxPerHost, BiConsumer<String, List<Exception>> errorHandler)
+    {
+        if (threads < 1 || maxPerHost < 1)
+            throw new IllegalArgumentException();
+
+        this.maxPerHost = maxPerHost;
+        this.errorHandler = errorHandler;
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "QuoteUpdate-" + counter.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    public QuoteUpdateExecutor(BiConsumer<String, List<Exception>> errorHandler)
+    {
+        this(DEFAULT_THREADS, DEFAULT_MAX_PER_HOST, errorHandler);
+    }
+
+    /* testing */ void setInitialBackoff(long millis)
+    {
+        this.initialBackoff = millis;
+    }
+
+    /**
+     * Returns the host of the URL or null if the URL cannot be parsed.
+     */
+    public static String hostOf(String url)
+    {
+        if (url == null)
+            return null;
+
+        try
+        {
+            return new URI(url).getHost();
+        }
+        catch (URISyntaxException e) // NOSONAR
+        {
+            // ignore syntax exception -> quote feed provide will also
+            // complain but with a better error message
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the error (or one of its causes) is a network error
+     * which might disappear when retrying the request.
+     */
+    public static boolean isTransient(Throwable error)
+    {
+        Throwable t = error;
+        while (t != null)
+        {
+            // includes refused and reset connections
+            if (t instanceof SocketTimeoutException || t instanceof SocketException)
+                return true;
+
+            if (t instanceof HttpStatusException)
+            {
+                int status = ((HttpStatusException) t).getStatusCode();
+                return status == 429 || status >= 500;
+            }
+
+            t = t.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Submits a task.
+     *
+     * @param feed
+     *            name of the feed under which statistics are recorded
+     * @param host
+     *            the host (or any other key) to which the number of concurrent
+     *            tasks is limited; null if not limited
+     * @param label
+     *            label passed to the error handler
+     */
+    public void submit(String feed, String host, String label, Task task)
+    {
+        Item item = new Item(feed, label, task);
+
+        synchronized (this)
+        {
+            if (isCanceled)
+                return;
+
+            outstanding++;
+            statistics.computeIfAbsent(feed, Statistics::new);
+
+            if (host == null)
+            {
+                executor.execute(() -> execute(item, null));
+                return;
+            }
+
+            HostQueue queue = hosts.computeIfAbsent(host, h -> new HostQueue());
+            if (queue.running < maxPerHost)
+            {
+                queue.running++;
+                executor.execute(() -> execute(item, queue));
+            }
+            else
+            {
+                queue.pending.add(item);
+            }
+        }
+    }
+
+    private void execute(Item item, HostQueue queue)
+    {
+        Item current = item;
+
+        while (current != null)
+        {
+            run(current);
+
+            synchronized (this)
+            {
+                outstanding--;
+
+                // continue with the next task of the same host in this thread
+                current = queue != null ? queue.pending.poll() : null;
+                if (current == null && queue != null)
+                    queue.running--;
+
+                if (outstanding == 0)
+                    notifyAll();
+            }
+        }
+    }
+
+    private void run(Item item)
+    {
+        List<Exception> errors = new ArrayList<>();
+        long backoff = initialBackoff;
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++)
+        {
+            if (isCanceled())
+                return;
+
+            errors.clear();
+
+            long start = System.nanoTime();
+            try
+            {
+                item.task.run(errors);
+            }
+            catch (RuntimeException e)
+            {
+                errors.add(e);
+            }
+            long end = System.nanoTime();
+
+            synchronized (this)
+            {
+                statistics.get(item.feed).record(start, end);
+            }
+
+            if (attempt == MAX_ATTEMPTS || !errors.stream().anyMatch(QuoteUpdateExecutor::isTransient))
+                break;
+
+            synchronized (this)
+            {
+                statistics.get(item.feed).retries++;
+            }
+
+            try
+            {
+                Thread.sleep(backoff);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff *= 2;
+        }
+
+        synchronized (this)
+        {
+            Statistics s = statistics.get(item.feed);
+            s.tasks++;
+            if (!errors.isEmpty())
+                s.failures++;
+        }
+
+        if (!errors.isEmpty() && errorHandler != null)
+            errorHandler.accept(item.label, errors);
+    }
+
+    /**
+     * Waits until all submitted tasks are completed or the timeout elapses.
+     *
+     * @return true if all tasks are completed
+     */
+    public synchronized boolean await(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        while (outstanding > 0)
+        {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return false;
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+
+        return true;
+    }
+
+    /**
+     * Discards all pending tasks. Running tasks are not interrupted but will
+     * not be retried.
+     */
+    public synchronized void cancel()
+    {
+        isCanceled = true;
+
+        for (HostQueue queue : hosts.values())
+        {
+            outstanding -= queue.pending.size();
+            queue.pending.clear();
+        }
+
+        if (outstanding == 0)
+            notifyAll();
+    }
+
+    public synchronized boolean isCanceled()
+    {
+        return isCanceled;
+    }
+
+    /**
+     * Stops the threads after the submitted tasks are completed.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns a copy of the statistics per feed.
+     */
+    public synchronized List<Statistics> getStatistics()
+    {
+        List<Statistics> answer = new ArrayList<>();
+        statistics.values().forEach(s -> answer.add(new Statistics(s)));
+        return answer;
+    }
+}
@@ -10,6 +10,7 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.MessageFormat;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -31,7 +32,6 @@ import name.abuchen.portfolio.Messages;
 import name.abuchen.portfolio.model.Exchange;
 import name.abuchen.portfolio.model.LatestSecurityPrice;
 import name.abuchen.portfolio.model.Security;
-import name.abuchen.portfolio.model.SecurityPrice;
 import name.abuchen.portfolio.money.Values;
 import name.abuchen.portfolio.online.QuoteFeed;
 import name.abuchen.portfolio.util.Strings;
@@ -238,7 +238,11 @@ public class HTMLTableQuoteFeed implements QuoteFeed
     private static final Column[] COLUMNS = new Column[] { new DateColumn(), new CloseColumn(), new HighColumn(),
                     new LowColumn() };
 
-    private final PageCache cache = new PageCache();
+    /**
+     * Pages are reused for five minutes, e.g. if multiple securities are
+     * configured with the same URL, and revalidated afterwards.
+     */
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
 
     @Override
     public String getId()
@@ -287,14 +291,7 @@ public class HTMLTableQuoteFeed implements QuoteFeed
     {
         List<LatestSecurityPrice> quotes = internalGetQuotes(security, security.getFeedURL(), errors);
 
-        boolean isUpdated = false;
-        for (LatestSecurityPrice quote : quotes)
-        {
-            boolean isAdded = security.addPrice(new SecurityPrice(quote.getTime(), quote.getValue()));
-            isUpdated = isUpdated || isAdded;
-        }
-
-        return isUpdated;
+        return security.addAllPrices(quotes);
     }
 
     @Override
@@ -311,16 +308,7 @@ public class HTMLTableQuoteFeed implements QuoteFeed
             return Collections.emptyList();
         }
 
-        List<LatestSecurityPrice> answer = cache.lookup(feedURL);
-        if (answer != null)
-            return answer;
-
-        answer = parseFromURL(feedURL, errors);
-
-        if (!answer.isEmpty())
-            cache.put(feedURL, answer);
-
-        return answer;
+        return parseFromURL(feedURL, errors);
     }
 
     @Override
@@ -340,7 +328,8 @@ public class HTMLTableQuoteFeed implements QuoteFeed
         try
         {
             String escapedUrl = new URI(url).toASCIIString();
-            return parse(Jsoup.connect(escapedUrl).userAgent(OnlineHelper.getUserAgent()).timeout(30000).get(), errors);
+            HttpCache.Response response = HttpCache.getDefault().get(escapedUrl, CACHE_TTL);
+            return parse(Jsoup.parse(response.getBodyAsStream(), response.getCharset(), escapedUrl), errors);
         }
         catch (URISyntaxException | IOException e)
         {
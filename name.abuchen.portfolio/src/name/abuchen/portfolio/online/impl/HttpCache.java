@@ -0,0 +1,563 @@
+package name.abuchen.portfolio.online.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jsoup.HttpStatusException;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+import name.abuchen.portfolio.Messages;
+
+/**
+ * Persistent cache of HTTP responses used by the quote feeds.
+ * <p/>
+ * Each response is stored in a file named after the hash of the cache key.
+ * Responses younger than the time-to-live given by the feed are returned
+ * without a request. Older responses are revalidated with a conditional
+ * request (If-None-Match and If-Modified-Since) and only downloaded again if
+ * the server returns new content. Because the files survive a restart, the
+ * first update after starting the application issues conditional requests
+ * only.
+ * <p/>
+ * The total size of the cache is limited. The least recently used responses
+ * are evicted first. The index (key, size, last access) is kept in memory and
+ * built from the file attributes upon first use.
+ */
+/* package */ final class HttpCache
+{
+    /* package */ static final class Response
+    {
+        private final String key;
+        private final String etag;
+        private final String lastModified;
+        private final String contentType;
+        private final long fetchedAt;
+        private final byte[] body;
+
+        private Response(String key, String etag, String lastModified, String contentType, long fetchedAt,
+                        byte[] body)
+        {
+            this.key = key;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.fetchedAt = fetchedAt;
+            this.body = body;
+        }
+
+        public byte[] getBody()
+        {
+            return body;
+        }
+
+        public InputStream getBodyAsStream()
+        {
+            return new ByteArrayInputStream(body);
+        }
+
+        public String getContentType()
+        {
+            return contentType;
+        }
+
+        /**
+         * Returns the charset given by the content type or null if the
+         * response does not specify one.
+         */
+        public String getCharset()
+        {
+            if (contentType == null)
+                return null;
+
+            for (String parameter : contentType.split(";")) //$NON-NLS-1$
+            {
+                String p = parameter.trim();
+                if (p.toLowerCase(Locale.ROOT).startsWith("charset=")) //$NON-NLS-1$
+                {
+                    String charset = p.substring("charset=".length()).replace("\"", "").trim(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    try
+                    {
+                        return Charset.isSupported(charset) ? charset : null;
+                    }
+                    catch (IllegalArgumentException e)
+                    {
+                        return null;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        public String getBodyAsString()
+        {
+            String charset = getCharset();
+            return new String(body, charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8);
+        }
+
+        private Response refreshed(long now)
+        {
+            return new Response(key, etag, lastModified, contentType, now, body);
+        }
+
+        private long size()
+        {
+            // approximate the overhead of the object and the headers
+            return body.length + 256L;
+        }
+    }
+
+    private static final class IndexEntry
+    {
+        private final long size;
+
+        /**
+         * The response if the cache is held in memory only
+         */
+        private final Response response;
+
+        private IndexEntry(long size, Response response)
+        {
+            this.size = size;
+            this.response = response;
+        }
+    }
+
+    private static final int MAGIC = 0x50504843; // PPHC
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".cache"; //$NON-NLS-1$
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int TIMEOUT = 30000;
+    private static final int MAX_REDIRECTS = 10;
+
+    private static volatile HttpCache instance; // NOSONAR
+
+    private final File directory;
+    private final long maxBytes;
+
+    /**
+     * Index in access order, i.e. the first entry is the least recently
+     * used. Null until initialized from the directory.
+     */
+    private LinkedHashMap<String, IndexEntry> index;
+    private long totalBytes;
+
+    /**
+     * @param directory
+     *            the directory to store the responses in; if null, the
+     *            responses are kept in memory only
+     * @param maxBytes
+     *            the maximum size of the cache
+     */
+    /* package */ HttpCache(File directory, long maxBytes)
+    {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache stored in the data area of the bundle. Outside of an
+     * OSGi runtime (e.g. in tests) the responses are kept in memory.
+     */
+    /* package */ static HttpCache getDefault()
+    {
+        HttpCache cache = instance;
+        if (cache != null)
+            return cache;
+
+        synchronized (HttpCache.class)
+        {
+            if (instance == null)
+            {
+                File dir = null;
+
+                Bundle bundle = FrameworkUtil.getBundle(HttpCache.class);
+                if (bundle != null)
+                    dir = bundle.getDataFile("http-cache"); //$NON-NLS-1$
+
+                instance = new HttpCache(dir, DEFAULT_MAX_BYTES);
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Returns the response for the given URL. The URL is also the cache key.
+     */
+    /* package */ Response get(String url, Duration ttl) throws IOException
+    {
+        return get(url, url, ttl, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the response for the given URL.
+     *
+     * @param url
+     *            URL to request
+     * @param key
+     *            cache key, e.g. the URL without session parameters
+     * @param ttl
+     *            time during which the cached response is used without
+     *            revalidating it
+     * @param headers
+     *            additional request headers, e.g. cookies
+     */
+    /* package */ Response get(String url, String key, Duration ttl, Map<String, String> headers)
+                    throws IOException
+    {
+        long now = System.currentTimeMillis();
+
+        Response cached = lookup(key);
+        if (cached != null && cached.fetchedAt + ttl.toMillis() > now)
+            return cached;
+
+        HttpURLConnection connection = connect(url, headers, cached);
+        try
+        {
+            int status = connection.getResponseCode();
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null)
+            {
+                Response refreshed = cached.refreshed(now);
+                store(refreshed);
+                return refreshed;
+            }
+
+            if (status != HttpURLConnection.HTTP_OK)
+                throw new HttpStatusException(
+                                MessageFormat.format(Messages.MsgErrorUnexpectedStatusCode, key, status, url), status,
+                                url);
+
+            byte[] body = readFully(connection.getInputStream());
+
+            Response response = new Response(key, connection.getHeaderField("ETag"), //$NON-NLS-1$
+                            connection.getHeaderField("Last-Modified"), //$NON-NLS-1$
+                            connection.getContentType(), now, body);
+            store(response);
+            return response;
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Opens the connection and follows redirects, also from http to https and
+     * to other hosts (which HttpURLConnection does not follow by itself).
+     * Returns the connection after the response code of the final location
+     * has been received.
+     */
+    private HttpURLConnection connect(String url, Map<String, String> headers, Response cached) throws IOException
+    {
+        String location = url;
+
+        for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++)
+        {
+            HttpURLConnection connection = open(location, headers);
+
+            if (cached != null && cached.etag != null)
+                connection.setRequestProperty("If-None-Match", cached.etag); //$NON-NLS-1$
+            if (cached != null && cached.lastModified != null)
+                connection.setRequestProperty("If-Modified-Since", cached.lastModified); //$NON-NLS-1$
+
+            String target = isRedirect(connection.getResponseCode()) ? connection.getHeaderField("Location") //$NON-NLS-1$
+                            : null;
+            if (target == null)
+                return connection;
+
+            connection.disconnect();
+            location = resolve(location, target);
+        }
+
+        throw new IOException(MessageFormat.format("Too many redirects: {0}", url)); //$NON-NLS-1$
+    }
+
+    private static boolean isRedirect(int status)
+    {
+        return status == HttpURLConnection.HTTP_MOVED_PERM || status == HttpURLConnection.HTTP_MOVED_TEMP
+                        || status == HttpURLConnection.HTTP_SEE_OTHER || status == 307 || status == 308;
+    }
+
+    private static String resolve(String base, String location) throws IOException
+    {
+        try
+        {
+            return new URI(base).resolve(location).toString();
+        }
+        catch (URISyntaxException | IllegalArgumentException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private HttpURLConnection open(String url, Map<String, String> headers) throws IOException
+    {
+        try
+        {
+            HttpURLConnection connection = (HttpURLConnection) new URI(url).toURL().openConnection();
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+            connection.setInstanceFollowRedirects(false);
+            connection.setRequestProperty("User-Agent", OnlineHelper.getUserAgent()); //$NON-NLS-1$
+            headers.forEach(connection::setRequestProperty);
+            return connection;
+        }
+        catch (URISyntaxException | IllegalArgumentException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException
+    {
+        try (InputStream in = input)
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0)
+                out.write(buffer, 0, read);
+            return out.toByteArray();
+        }
+    }
+
+    /* package */ Response lookup(String key)
+    {
+        String hash = hash(key);
+
+        IndexEntry entry;
+        synchronized (this)
+        {
+            entry = index().get(hash);
+        }
+
+        if (entry == null)
+            return null;
+
+        if (entry.response != null)
+            return entry.response;
+
+        File file = new File(directory, hash + SUFFIX);
+        try
+        {
+            Response response = read(file);
+
+            // protect against hash collisions
+            if (!key.equals(response.key))
+                return null;
+
+            file.setLastModified(System.currentTimeMillis()); // NOSONAR
+            return response;
+        }
+        catch (IOException e)
+        {
+            remove(hash);
+            return null;
+        }
+    }
+
+    private void store(Response response)
+    {
+        String hash = hash(response.key);
+
+        IndexEntry entry;
+        if (directory == null)
+        {
+            entry = new IndexEntry(response.size(), response);
+        }
+        else
+        {
+            try
+            {
+                File file = new File(directory, hash + SUFFIX);
+                write(file, response);
+                entry = new IndexEntry(file.length(), null);
+            }
+            catch (IOException e)
+            {
+                // the cache is an optimization only
+                return;
+            }
+        }
+
+        List<String> evicted = new ArrayList<>();
+
+        synchronized (this)
+        {
+            IndexEntry previous = index().put(hash, entry);
+            if (previous != null)
+                totalBytes -= previous.size;
+            totalBytes += entry.size;
+
+            Iterator<Map.Entry<String, IndexEntry>> iter = index.entrySet().iterator();
+            while (totalBytes > maxBytes && iter.hasNext())
+            {
+                Map.Entry<String, IndexEntry> eldest = iter.next();
+                if (eldest.getKey().equals(hash))
+                    continue;
+
+                totalBytes -= eldest.getValue().size;
+                iter.remove();
+                evicted.add(eldest.getKey());
+            }
+        }
+
+        if (directory != null)
+            evicted.forEach(h -> new File(directory, h + SUFFIX).delete());
+    }
+
+    private void remove(String hash)
+    {
+        synchronized (this)
+        {
+            IndexEntry entry = index().remove(hash);
+            if (entry != null)
+                totalBytes -= entry.size;
+        }
+
+        if (directory != null)
+            new File(directory, hash + SUFFIX).delete();
+    }
+
+    /* package */ synchronized long getTotalBytes()
+    {
+        index();
+        return totalBytes;
+    }
+
+    private LinkedHashMap<String, IndexEntry> index()
+    {
+        if (index != null)
+            return index;
+
+        index = new LinkedHashMap<>(16, 0.75f, true);
+        totalBytes = 0;
+
+        if (directory == null)
+            return index;
+
+        directory.mkdirs();
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null)
+            return index;
+
+        // restore the access order from the modification time of the files
+        List<File> sorted = new ArrayList<>();
+        Collections.addAll(sorted, files);
+        sorted.sort((a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+
+        for (File file : sorted)
+        {
+            String name = file.getName();
+            IndexEntry entry = new IndexEntry(file.length(), null);
+            index.put(name.substring(0, name.length() - SUFFIX.length()), entry);
+            totalBytes += entry.size;
+        }
+
+        return index;
+    }
+
+    private void write(File file, Response response) throws IOException
+    {
+        directory.mkdirs();
+
+        File tmp = File.createTempFile("response", ".tmp", directory); //$NON-NLS-1$ //$NON-NLS-2$
+        try
+        {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp.toPath())))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(response.key);
+                writeOptional(out, response.etag);
+                writeOptional(out, response.lastModified);
+                writeOptional(out, response.contentType);
+                out.writeLong(response.fetchedAt);
+                out.writeInt(response.body.length);
+                out.write(response.body);
+            }
+
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            tmp.delete();
+        }
+    }
+
+    private Response read(File file) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath())))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(file.getName());
+
+            String key = in.readUTF();
+            String etag = readOptional(in);
+            String lastModified = readOptional(in);
+            String contentType = readOptional(in);
+            long fetchedAt = in.readLong();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+
+            return new Response(key, etag, lastModified, contentType, fetchedAt, body);
+        }
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+            out.writeUTF(value);
+    }
+
+    private static String readOptional(DataInputStream in) throws IOException
+    {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static String hash(String key)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder buffer = new StringBuilder(hash.length * 2);
+            for (byte b : hash)
+                buffer.append(String.format("%02x", b)); //$NON-NLS-1$
+            return buffer.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+}
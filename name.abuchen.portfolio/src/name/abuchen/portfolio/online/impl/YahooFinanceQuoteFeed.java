@@ -9,12 +9,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -89,7 +89,19 @@ public class YahooFinanceQuoteFeed implements QuoteFeed
 
     private static final String HISTORICAL_URL = "https://query1.finance.yahoo.com/v7/finance/download/{0}?period1={1}&period2={2}&interval=1d&events=history&crumb={3}";
 
-    private Crumb crumb;
+    /**
+     * Historical quotes of a given period change rarely. Cached responses are
+     * reused for one hour and revalidated afterwards.
+     */
+    private static final Duration CACHE_TTL = Duration.ofHours(1);
+
+    /**
+     * The crumb and cookies are shared by all instances (including the
+     * adjusted close feed) and all threads updating quotes in parallel. A
+     * crumb is only loaded again after a request with it failed.
+     */
+    private static final Object CRUMB_LOCK = new Object();
+    private static volatile Crumb crumb; // NOSONAR
 
     @Override
     public String getId()
@@ -199,16 +211,7 @@ public class YahooFinanceQuoteFeed implements QuoteFeed
 
         List<SecurityPrice> quotes = internalGetQuotes(SecurityPrice.class, security, start, errors);
 
-        boolean isUpdated = false;
-        if (quotes != null)
-        {
-            for (SecurityPrice p : quotes)
-            {
-                boolean isAdded = security.addPrice(p);
-                isUpdated = isUpdated || isAdded;
-            }
-        }
-        return isUpdated;
+        return quotes != null && security.addAllPrices(quotes);
     }
 
     /**
@@ -251,16 +254,15 @@ public class YahooFinanceQuoteFeed implements QuoteFeed
 
         int attempt = 0;
 
-        Crumb thisCrump = crumb;
-
         while (attempt < 2)
         {
             attempt++;
 
+            Crumb thisCrump = null;
+
             try
             {
-                if (thisCrump == null)
-                    thisCrump = crumb = loadCrump(security.getTickerSymbol());
+                thisCrump = getCrumb(security.getTickerSymbol());
 
                 String responseBody = requestData(security, startDate, thisCrump);
 
@@ -271,13 +273,38 @@ public class YahooFinanceQuoteFeed implements QuoteFeed
                 errors.add(new IOException(MessageFormat.format(Messages.MsgErrorDownloadYahoo, attempt,
                                 security.getTickerSymbol(), e.getMessage()), e));
 
-                thisCrump = crumb = null;
+                invalidateCrumb(thisCrump);
             }
         }
 
         return Collections.emptyList();
     }
 
+    private Crumb getCrumb(String tickerSymbol) throws IOException
+    {
+        Crumb answer = crumb;
+        if (answer != null)
+            return answer;
+
+        // only one thread loads the crumb, the others wait for it
+        synchronized (CRUMB_LOCK)
+        {
+            if (crumb == null)
+                crumb = loadCrump(tickerSymbol);
+            return crumb;
+        }
+    }
+
+    private void invalidateCrumb(Crumb failed)
+    {
+        // do not discard a crumb which another thread loaded in the meantime
+        synchronized (CRUMB_LOCK)
+        {
+            if (crumb == failed)
+                crumb = null;
+        }
+    }
+
     private Crumb loadCrump(String tickerSymbol) throws IOException
     {
         String url = MessageFormat.format("https://de.finance.yahoo.com/quote/{0}/history?p={0}", tickerSymbol); //$NON-NLS-1$
@@ -310,22 +337,24 @@ public class YahooFinanceQuoteFeed implements QuoteFeed
     {
         LocalDate stopDate = LocalDate.now();
 
+        String period1 = String.valueOf(startDate.atStartOfDay(ZoneId.systemDefault()).toEpochSecond());
+        String period2 = String.valueOf(stopDate.atStartOfDay(ZoneId.systemDefault()).toEpochSecond());
+
         String wknUrl = MessageFormat.format(HISTORICAL_URL, //
-                        security.getTickerSymbol(), //
-                        String.valueOf(startDate.atStartOfDay(ZoneId.systemDefault()).toEpochSecond()), //
-                        String.valueOf(stopDate.atStartOfDay(ZoneId.systemDefault()).toEpochSecond()),
+                        security.getTickerSymbol(), period1, period2,
                         URLEncoder.encode(requestCrumb.getId(), StandardCharsets.UTF_8.name()));
 
-        Response response = Jsoup.connect(wknUrl) //
-                        .userAgent(OnlineHelper.getUserAgent()) //
-                        .cookies(requestCrumb.getCookies()) //
-                        .timeout(30000).execute();
+        // the crumb changes per session and is not part of the cache key
+        String cacheKey = MessageFormat.format(HISTORICAL_URL, security.getTickerSymbol(), period1, period2, ""); //$NON-NLS-1$
+
+        String cookies = requestCrumb.getCookies().entrySet().stream() //
+                        .map(e -> e.getKey() + "=" + e.getValue()) //$NON-NLS-1$
+                        .collect(Collectors.joining("; ")); //$NON-NLS-1$
 
-        if (response.statusCode() != HttpURLConnection.HTTP_OK)
-            throw new IOException(MessageFormat.format(Messages.MsgErrorUnexpectedStatusCode,
-                            security.getTickerSymbol(), response.statusCode(), wknUrl));
+        HttpCache.Response response = HttpCache.getDefault().get(wknUrl, cacheKey, CACHE_TTL,
+                        Collections.singletonMap("Cookie", cookies)); //$NON-NLS-1$
 
-        return response.body();
+        return response.getBodyAsString();
     }
 
     private <T extends SecurityPrice> List<T> extractQuotes(Class<T> klass, String responseBody, List<Exception> errors)
@@ -12,6 +12,7 @@ import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -34,6 +35,11 @@ public class YahooSearchProvider implements SecuritySearchProvider
     private static final String SEARCH_URL = "https://de.finance.yahoo.com/lookup?s=%s&t=A&b=0&m=ALL"; //$NON-NLS-1$
     private static final String LOOKUP_URL = "https://download.finance.yahoo.com/d/quotes.csv?s=%s&f=snl1"; //$NON-NLS-1$
 
+    /**
+     * Search results are reused for one hour and revalidated afterwards.
+     */
+    /* package */ static final Duration CACHE_TTL = Duration.ofHours(1);
+
     private static final ThreadLocal<DecimalFormat> FMT_INDEX = new ThreadLocal<DecimalFormat>()
     {
         protected DecimalFormat initialValue()
@@ -73,7 +79,8 @@ public class YahooSearchProvider implements SecuritySearchProvider
     {
         // search both the HTML page as well as the symbol search
         String url = String.format(SEARCH_URL, URLEncoder.encode(query, StandardCharsets.UTF_8.name()));
-        Document document = Jsoup.connect(url).get();
+        HttpCache.Response response = HttpCache.getDefault().get(url, CACHE_TTL);
+        Document document = Jsoup.parse(response.getBodyAsStream(), response.getCharset(), url);
 
         List<ResultItem> answer = extractFrom(document);
         addSymbolSearchResults(answer, query);
@@ -1,13 +1,11 @@
 package name.abuchen.portfolio.online.impl;
 
 import java.io.IOException;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 import java.util.stream.Stream;
 
 import org.json.simple.JSONArray;
@@ -70,27 +68,27 @@ import org.json.simple.JSONValue;
 
         List<Result> answer = new ArrayList<>();
 
-        try (Scanner scanner = new Scanner(new URL(searchUrl).openStream(), StandardCharsets.UTF_8.name()))
-        {
-            String html = scanner.useDelimiter("\\A").next(); //$NON-NLS-1$
+        HttpCache.Response response = HttpCache.getDefault().get(searchUrl, YahooSearchProvider.CACHE_TTL);
+        String html = response.getBodyAsString();
 
-            // strip away java script call back method
-            int start = html.indexOf('(');
-            int end = html.lastIndexOf(')');
-            html = html.substring(start + 1, end);
+        // strip away java script call back method
+        int start = html.indexOf('(');
+        int end = html.lastIndexOf(')');
+        if (start < 0 || end < start)
+            return answer.stream();
+        html = html.substring(start + 1, end);
 
-            JSONObject response = (JSONObject) JSONValue.parse(html);
-            if (response != null)
+        JSONObject json = (JSONObject) JSONValue.parse(html);
+        if (json != null)
+        {
+            JSONObject resultSet = (JSONObject) json.get("ResultSet"); //$NON-NLS-1$
+            if (resultSet != null)
             {
-                JSONObject resultSet = (JSONObject) response.get("ResultSet"); //$NON-NLS-1$
-                if (resultSet != null)
+                JSONArray result = (JSONArray) resultSet.get("Result"); //$NON-NLS-1$
+                if (result != null)
                 {
-                    JSONArray result = (JSONArray) resultSet.get("Result"); //$NON-NLS-1$
-                    if (result != null)
-                    {
-                        for (int ii = 0; ii < result.size(); ii++)
-                            answer.add(Result.from((JSONObject) result.get(ii)));
-                    }
+                    for (int ii = 0; ii < result.size(); ii++)
+                        answer.add(Result.from((JSONObject) result.get(ii)));
                 }
             }
         }
@@ -3,7 +3,6 @@ package name.abuchen.portfolio.snapshot;
 import java.time.LocalDate;
 
 import name.abuchen.portfolio.model.Account;
-import name.abuchen.portfolio.model.AccountTransaction;
 import name.abuchen.portfolio.money.CurrencyConverter;
 import name.abuchen.portfolio.money.Money;
 import name.abuchen.portfolio.snapshot.filter.ReadOnlyAccount;
@@ -16,18 +15,7 @@ public class AccountSnapshot
 
     public static AccountSnapshot create(Account account, CurrencyConverter converter, LocalDate date)
     {
-        long funds = 0;
-
-        for (AccountTransaction t : account.getTransactions())
-        {
-            if (!t.getDate().isAfter(date))
-            {
-                if (t.getType().isDebit())
-                    funds -= t.getAmount();
-                else
-                    funds += t.getAmount();
-            }
-        }
+        long funds = account.getBalance(date);
 
         return new AccountSnapshot(account, date, converter, Money.of(account.getCurrencyCode(), funds));
     }
@@ -0,0 +1,395 @@
+package name.abuchen.portfolio.snapshot;
+
+import java.beans.PropertyChangeListener;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.money.ExchangeRateProviderFactory;
+
+/**
+ * Cache for calculation results which depend on the data of a client.
+ * <p/>
+ * Each calculation declares the accounts, portfolios and securities it depends
+ * on. When the client fires a property change event, the cache compares the
+ * fingerprints of the client (see {@link ClientFingerprint}) with the next
+ * lookup and removes only the results which depend on modified objects. If
+ * the exchange rates are updated, all results are removed.
+ * <p/>
+ * The total size of the results is bounded. If the estimated size exceeds the
+ * maximum size, the least recently used results are removed.
+ * <p/>
+ * The cache can be used from multiple threads. If a result is requested while
+ * it is calculated by another thread, the request waits for the running
+ * calculation instead of starting a second one.
+ */
+public class CalculationCache<K, V>
+{
+    /**
+     * The objects a calculation depends on.
+     */
+    public static final class Dependencies
+    {
+        private final Set<Object> objects = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean dependsOnClient;
+
+        /* package */ Dependencies()
+        {}
+
+        /**
+         * Adds an account, portfolio or security. Other objects and null
+         * values are ignored.
+         */
+        public Dependencies add(Object object)
+        {
+            if (object != null)
+                objects.add(object);
+            return this;
+        }
+
+        /**
+         * Declares that the calculation depends on all data of the client,
+         * i.e. the result is removed with every modification of the client.
+         */
+        public Dependencies addClient()
+        {
+            dependsOnClient = true;
+            return this;
+        }
+
+        private boolean isAffectedBy(Set<Object> modified, boolean isClientModified)
+        {
+            if (dependsOnClient)
+                return isClientModified || !modified.isEmpty();
+
+            for (Object object : objects)
+            {
+                if (modified.contains(object))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    public static final class Statistics
+    {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int entries;
+        private final long size;
+
+        private Statistics(long hits, long misses, long evictions, long invalidations, int entries, long size)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.size = size;
+        }
+
+        public long getHits()
+        {
+            return hits;
+        }
+
+        public long getMisses()
+        {
+            return misses;
+        }
+
+        /**
+         * Returns the number of results removed to bound the size.
+         */
+        public long getEvictions()
+        {
+            return evictions;
+        }
+
+        /**
+         * Returns the number of results removed because the client has been
+         * modified.
+         */
+        public long getInvalidations()
+        {
+            return invalidations;
+        }
+
+        public int getEntries()
+        {
+            return entries;
+        }
+
+        public long getSize()
+        {
+            return size;
+        }
+
+        @Override
+        public String toString()
+        {
+            return MessageFormat.format("hits={0} misses={1} evictions={2} invalidations={3} entries={4} size={5}", //$NON-NLS-1$
+                            hits, misses, evictions, invalidations, entries, size);
+        }
+    }
+
+    private final class Entry
+    {
+        private final Dependencies dependencies = new Dependencies();
+        private final FutureTask<V> task;
+        private long size = -1;
+
+        private Entry(Function<Dependencies, V> calculation)
+        {
+            this.task = new FutureTask<>(() -> calculation.apply(dependencies));
+        }
+
+        private boolean isCalculated()
+        {
+            return size >= 0;
+        }
+    }
+
+    private final Client client;
+    private final ExchangeRateProviderFactory factory;
+    private final long maximumSize;
+    private final ToLongFunction<V> sizeEstimator;
+
+    /** entries in access order, i.e. the least recently used first */
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    private volatile boolean isModified = true;
+    private ClientFingerprint fingerprint;
+    private volatile long exchangeRatesModificationCount;
+    private final PropertyChangeListener listener = event -> isModified = true;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param client
+     *            the client; the cache listens to its property change events
+     *            until {@link #dispose} is called
+     * @param factory
+     *            the factory of the exchange rates used by the calculations
+     * @param maximumSize
+     *            maximum of the total estimated size of all results
+     * @param sizeEstimator
+     *            estimates the size of one result
+     */
+    public CalculationCache(Client client, ExchangeRateProviderFactory factory, long maximumSize,
+                    ToLongFunction<V> sizeEstimator)
+    {
+        this.client = client;
+        this.factory = factory;
+        this.exchangeRatesModificationCount = factory.getModificationCount();
+        this.maximumSize = maximumSize;
+        this.sizeEstimator = sizeEstimator;
+
+        this.client.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Returns the cached result or calculates it. The calculation declares its
+     * dependencies with the given {@link Dependencies}. If the calculation
+     * looks up other results of this cache, it must declare their
+     * dependencies, too.
+     */
+    public V lookup(K key, Function<Dependencies, V> calculation)
+    {
+        if (isModified || exchangeRatesModificationCount != factory.getModificationCount())
+            removeModifiedEntries();
+
+        Entry entry;
+        boolean isNew = false;
+
+        synchronized (this)
+        {
+            entry = entries.get(key);
+            if (entry != null)
+            {
+                hits++;
+            }
+            else
+            {
+                misses++;
+                entry = new Entry(calculation);
+                entries.put(key, entry);
+                isNew = true;
+            }
+        }
+
+        // the calculation runs outside of the lock because it may look up
+        // other results of this cache
+        if (isNew)
+            entry.task.run();
+
+        try
+        {
+            V result = entry.task.get();
+            if (isNew)
+                added(key, entry, result);
+            return result;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e)
+        {
+            // do not cache failed calculations
+            synchronized (this)
+            {
+                entries.remove(key, entry);
+            }
+
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the cached result or null if the result is not (yet) calculated.
+     * In contrast to {@link #lookup}, the method neither calculates the result
+     * nor waits for a running calculation. Therefore it can be used by the UI
+     * thread while the result is calculated in the background.
+     */
+    public V peek(K key)
+    {
+        if (isModified || exchangeRatesModificationCount != factory.getModificationCount())
+            removeModifiedEntries();
+
+        Entry entry;
+
+        synchronized (this)
+        {
+            entry = entries.get(key);
+            if (entry == null || !entry.isCalculated())
+                return null;
+
+            hits++;
+        }
+
+        try
+        {
+            return entry.task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e)
+        {
+            // failed calculations are not cached
+            return null;
+        }
+    }
+
+    private synchronized void added(K key, Entry entry, V result)
+    {
+        // the entry might have been removed in the meantime
+        if (entries.get(key) != entry)
+            return;
+
+        entry.size = Math.max(0, sizeEstimator.applyAsLong(result));
+        size += entry.size;
+
+        // remove the least recently used entries, but keep the new one
+        Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maximumSize && iterator.hasNext())
+        {
+            Entry candidate = iterator.next().getValue();
+            if (candidate == entry || !candidate.isCalculated())
+                continue;
+
+            iterator.remove();
+            size -= candidate.size;
+            evictions++;
+        }
+    }
+
+    private synchronized void removeModifiedEntries()
+    {
+        if (exchangeRatesModificationCount != factory.getModificationCount())
+        {
+            exchangeRatesModificationCount = factory.getModificationCount();
+            invalidations += entries.size();
+            entries.clear();
+            size = 0;
+        }
+
+        if (!isModified)
+            return;
+
+        // events fired while comparing are handled with the next lookup
+        isModified = false;
+
+        ClientFingerprint current = new ClientFingerprint(client);
+        ClientFingerprint previous = fingerprint;
+        fingerprint = current;
+
+        if (previous == null)
+            return;
+
+        Set<Object> modified = current.getModifiedObjects(previous);
+        boolean isClientModified = current.isClientModified(previous);
+
+        if (modified.isEmpty() && !isClientModified)
+            return;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext())
+        {
+            Entry entry = iterator.next();
+
+            // results still being calculated might have read modified data
+            if (!entry.task.isDone() || entry.dependencies.isAffectedBy(modified, isClientModified))
+            {
+                iterator.remove();
+                if (entry.isCalculated())
+                    size -= entry.size;
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Removes all results.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Removes all results and stops listening to the client.
+     */
+    public void dispose()
+    {
+        client.removePropertyChangeListener(listener);
+        clear();
+    }
+
+    public synchronized Statistics getStatistics()
+    {
+        return new Statistics(hits, misses, evictions, invalidations, entries.size(), size);
+    }
+}
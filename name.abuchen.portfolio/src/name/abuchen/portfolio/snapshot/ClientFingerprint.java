@@ -0,0 +1,207 @@
+package name.abuchen.portfolio.snapshot;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Classification;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.ConsumerPriceIndex;
+import name.abuchen.portfolio.model.LatestSecurityPrice;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+import name.abuchen.portfolio.model.PriceSeries;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.Taxonomy;
+import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.money.Money;
+
+/**
+ * Fingerprints of the accounts, portfolios and securities of a client. Two
+ * fingerprints taken before and after a modification of the client tell which
+ * objects have been modified.
+ * <p/>
+ * The fingerprint of an account or portfolio covers its transactions. The
+ * fingerprint of a security covers its prices and all transactions of the
+ * security in any account or portfolio. All other data used by calculations
+ * (taxonomies, consumer price indices, base currency, the list of accounts,
+ * portfolios and securities) is covered by one fingerprint of the client.
+ */
+public final class ClientFingerprint
+{
+    private static final long PRIME = 0x100000001b3L;
+
+    private final Map<Object, Long> fingerprints = new IdentityHashMap<>();
+    private final long clientFingerprint;
+
+    public ClientFingerprint(Client client)
+    {
+        Map<Security, Long> securities = new IdentityHashMap<>();
+        for (Security security : client.getSecurities())
+            securities.put(security, fingerprint(security));
+
+        for (Account account : client.getAccounts())
+        {
+            long fingerprint = hash(account.getCurrencyCode());
+            for (AccountTransaction t : account.getTransactions())
+            {
+                long hash = fingerprint(t, t.getType().ordinal());
+                fingerprint += hash;
+                if (t.getSecurity() != null)
+                    securities.merge(t.getSecurity(), hash, Long::sum);
+            }
+            fingerprints.put(account, fingerprint);
+        }
+
+        for (Portfolio portfolio : client.getPortfolios())
+        {
+            long fingerprint = portfolio.getReferenceAccount() != null
+                            ? hash(portfolio.getReferenceAccount().getUUID()) : 0L;
+            for (PortfolioTransaction t : portfolio.getTransactions())
+            {
+                long hash = fingerprint(t, t.getType().ordinal());
+                fingerprint += hash;
+                if (t.getSecurity() != null)
+                    securities.merge(t.getSecurity(), hash, Long::sum);
+            }
+            fingerprints.put(portfolio, fingerprint);
+        }
+
+        fingerprints.putAll(securities);
+
+        this.clientFingerprint = fingerprint(client);
+    }
+
+    /**
+     * Returns the accounts, portfolios and securities which have been added,
+     * removed or modified since the given fingerprint was taken.
+     */
+    public Set<Object> getModifiedObjects(ClientFingerprint previous)
+    {
+        Set<Object> answer = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Map.Entry<Object, Long> entry : fingerprints.entrySet())
+        {
+            if (!entry.getValue().equals(previous.fingerprints.get(entry.getKey())))
+                answer.add(entry.getKey());
+        }
+
+        for (Object object : previous.fingerprints.keySet())
+        {
+            if (!fingerprints.containsKey(object))
+                answer.add(object);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns true if data not covered by the accounts, portfolios and
+     * securities has been modified since the given fingerprint was taken.
+     */
+    public boolean isClientModified(ClientFingerprint previous)
+    {
+        return clientFingerprint != previous.clientFingerprint;
+    }
+
+    private static long fingerprint(Security security)
+    {
+        long fingerprint = hash(security.getCurrencyCode());
+
+        PriceSeries prices = security.getPriceSeries();
+        for (int ii = 0; ii < prices.size(); ii++)
+            fingerprint = combine(combine(fingerprint, prices.getEpochDay(ii)), prices.getValue(ii));
+
+        LatestSecurityPrice latest = security.getLatest();
+        if (latest != null)
+            fingerprint = combine(combine(fingerprint, latest.getTime().toEpochDay()), latest.getValue());
+
+        return fingerprint;
+    }
+
+    private static long fingerprint(Transaction t, int type)
+    {
+        long fingerprint = combine(type, t.getDate() != null ? t.getDate().toEpochDay() : 0L);
+        fingerprint = combine(fingerprint, hash(t.getCurrencyCode()));
+        fingerprint = combine(fingerprint, t.getAmount());
+        fingerprint = combine(fingerprint, t.getShares());
+        fingerprint = combine(fingerprint, t.getSecurity() != null ? hash(t.getSecurity().getUUID()) : 0L);
+
+        // units are independent of their order
+        long units = t.getUnits().mapToLong(ClientFingerprint::fingerprint).sum();
+
+        return combine(fingerprint, units);
+    }
+
+    private static long fingerprint(Transaction.Unit unit)
+    {
+        long fingerprint = combine(unit.getType().ordinal(), hash(unit.getAmount()));
+        fingerprint = combine(fingerprint, hash(unit.getForex()));
+        return combine(fingerprint, hash(unit.getExchangeRate()));
+    }
+
+    private static long fingerprint(Client client)
+    {
+        long fingerprint = hash(client.getBaseCurrency());
+
+        for (Account account : client.getAccounts())
+            fingerprint = combine(fingerprint, System.identityHashCode(account));
+        for (Portfolio portfolio : client.getPortfolios())
+            fingerprint = combine(fingerprint, System.identityHashCode(portfolio));
+        for (Security security : client.getSecurities())
+            fingerprint = combine(fingerprint, System.identityHashCode(security));
+
+        for (ConsumerPriceIndex index : client.getConsumerPriceIndices())
+            fingerprint = combine(combine(combine(fingerprint, index.getYear()), index.getMonth()), index.getIndex());
+
+        long[] taxonomies = new long[] { fingerprint };
+        for (Taxonomy taxonomy : client.getTaxonomies())
+        {
+            taxonomy.foreach(new Taxonomy.Visitor()
+            {
+                @Override
+                public void visit(Classification classification)
+                {
+                    taxonomies[0] = combine(taxonomies[0], hash(classification.getId()));
+                    taxonomies[0] = combine(taxonomies[0], classification.getWeight());
+                }
+
+                @Override
+                public void visit(Classification classification, Classification.Assignment assignment)
+                {
+                    taxonomies[0] = combine(taxonomies[0],
+                                    System.identityHashCode(assignment.getInvestmentVehicle()));
+                    taxonomies[0] = combine(taxonomies[0], assignment.getWeight());
+                }
+            });
+        }
+
+        return taxonomies[0];
+    }
+
+    private static long hash(Object object)
+    {
+        return Objects.hashCode(object);
+    }
+
+    private static long hash(Money money)
+    {
+        return money != null ? combine(hash(money.getCurrencyCode()), money.getAmount()) : 0L;
+    }
+
+    private static long hash(BigDecimal value)
+    {
+        // equal values with a different scale must have the same hash
+        return value != null ? value.stripTrailingZeros().hashCode() : 0L;
+    }
+
+    private static long combine(long hash, long value)
+    {
+        return (hash ^ value) * PRIME + (value >>> 32);
+    }
+}
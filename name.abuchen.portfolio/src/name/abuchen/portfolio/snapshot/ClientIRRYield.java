@@ -1,6 +1,5 @@
 package name.abuchen.portfolio.snapshot;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,11 +27,12 @@ public class ClientIRRYield
         collectPortfolioTransactions(client, interval, transactions);
         Collections.sort(transactions, new Transaction.ByDate());
 
-        List<LocalDate> dates = new ArrayList<LocalDate>();
-        List<Double> values = new ArrayList<Double>();
-        collectDatesAndValues(interval, snapshotStart, snapshotEnd, transactions, dates, values);
+        // start and end valuation plus one cash flow per transaction
+        int[] days = new int[transactions.size() + 2];
+        double[] values = new double[transactions.size() + 2];
+        collectDatesAndValues(interval, snapshotStart, snapshotEnd, transactions, days, values);
 
-        double irr = IRR.calculate(dates, values);
+        double irr = IRR.calculate(days, values, days.length);
 
         return new ClientIRRYield(irr);
     }
@@ -107,18 +107,19 @@ public class ClientIRRYield
     }
 
     private static void collectDatesAndValues(Interval interval, ClientSnapshot snapshotStart,
-                    ClientSnapshot snapshotEnd, List<Transaction> transactions, List<LocalDate> dates,
-                    List<Double> values)
+                    ClientSnapshot snapshotEnd, List<Transaction> transactions, int[] days, double[] values)
     {
         CurrencyConverter converter = snapshotStart.getCurrencyConverter();
 
-        dates.add(interval.getStart());
+        int index = 0;
+
+        days[index] = (int) interval.getStart().toEpochDay();
         // snapshots are always in target currency, no conversion needed
-        values.add(-snapshotStart.getMonetaryAssets().getAmount() / Values.Amount.divider());
+        values[index++] = -snapshotStart.getMonetaryAssets().getAmount() / Values.Amount.divider();
 
         for (Transaction t : transactions)
         {
-            dates.add(t.getDate());
+            days[index] = (int) t.getDate().toEpochDay();
 
             if (t instanceof AccountTransaction)
             {
@@ -126,7 +127,7 @@ public class ClientIRRYield
                 long amount = converter.convert(t.getDate(), t.getMonetaryAmount()).getAmount();
                 if (at.getType() == Type.DEPOSIT || at.getType() == Type.TRANSFER_IN)
                     amount = -amount;
-                values.add(amount / Values.Amount.divider());
+                values[index++] = amount / Values.Amount.divider();
             }
             else if (t instanceof PortfolioTransaction)
             {
@@ -135,7 +136,7 @@ public class ClientIRRYield
                 if (pt.getType() == PortfolioTransaction.Type.DELIVERY_INBOUND
                                 || pt.getType() == PortfolioTransaction.Type.TRANSFER_IN)
                     amount = -amount;
-                values.add(amount / Values.Amount.divider());
+                values[index++] = amount / Values.Amount.divider();
             }
             else
             {
@@ -143,7 +144,7 @@ public class ClientIRRYield
             }
         }
 
-        dates.add(interval.getEnd());
-        values.add(snapshotEnd.getMonetaryAssets().getAmount() / Values.Amount.divider());
+        days[index] = (int) interval.getEnd().toEpochDay();
+        values[index] = snapshotEnd.getMonetaryAssets().getAmount() / Values.Amount.divider();
     }
 }
@@ -12,7 +12,6 @@ import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
 import name.abuchen.portfolio.model.Transaction.Unit;
 import name.abuchen.portfolio.money.CurrencyConverter;
-import name.abuchen.portfolio.money.Money;
 import name.abuchen.portfolio.money.Values;
 import name.abuchen.portfolio.util.Dates;
 import name.abuchen.portfolio.util.Interval;
@@ -62,8 +61,9 @@ import name.abuchen.portfolio.util.Interval;
         dates[0] = interval.getStart();
         delta[0] = 0;
         accumulated[0] = 0;
-        ClientSnapshot snapshot = ClientSnapshot.create(getClient(), getCurrencyConverter(), dates[0]);
-        long valuation = totals[0] = snapshot.getMonetaryAssets().getAmount();
+        HoldingsSweep sweep = new HoldingsSweep(getClient(), getCurrencyConverter());
+        sweep.moveTo(dates[0]);
+        long valuation = totals[0] = sweep.getMonetaryAssets().getAmount();
 
         // calculate series
         int index = 1;
@@ -72,8 +72,8 @@ import name.abuchen.portfolio.util.Interval;
         {
             dates[index] = date;
 
-            snapshot = ClientSnapshot.create(getClient(), getCurrencyConverter(), dates[index]);
-            long thisValuation = totals[index] = snapshot.getMonetaryAssets().getAmount();
+            sweep.moveTo(dates[index]);
+            long thisValuation = totals[index] = sweep.getMonetaryAssets().getAmount();
 
             if (valuation + inboundTransferals[index] == 0)
             {
@@ -108,20 +108,15 @@ import name.abuchen.portfolio.util.Interval;
 
         int ii = Dates.daysBetween(interval.getStart(), time);
 
-        if (!currencyCode.equals(getCurrencyConverter().getTermCurrency()))
-            array[ii] += getCurrencyConverter().convert(time, Money.of(currencyCode, value)).getAmount();
-        else
-            array[ii] += value;
+        array[ii] += getCurrencyConverter().convert(time, currencyCode, value);
     }
 
     private void collectTransferalsAndTaxes(Interval interval)
     {
         for (Account account : getClient().getAccounts())
         {
-            account.getTransactions() //
-                            .stream() //
-                            .filter(t -> !t.getDate().isBefore(interval.getStart())
-                                            && !t.getDate().isAfter(interval.getEnd()))
+            account.getDateIndex() //
+                            .getTransactions(interval.getStart(), interval.getEnd()) //
                             .forEach(t -> { // NOSONAR
                                 switch (t.getType())
                                 {
@@ -162,10 +157,8 @@ import name.abuchen.portfolio.util.Interval;
 
         for (Portfolio portfolio : getClient().getPortfolios())
         {
-            portfolio.getTransactions() //
-                            .stream() //
-                            .filter(t -> !t.getDate().isBefore(interval.getStart())
-                                            && !t.getDate().isAfter(interval.getEnd()))
+            portfolio.getDateIndex() //
+                            .getTransactions(interval.getStart(), interval.getEnd()) //
                             .forEach(t -> {
                                 // collect taxes
                                 addValue(taxes, t.getCurrencyCode(), t.getUnitSum(Unit.Type.TAX).getAmount(), //
@@ -240,11 +240,9 @@ public class ClientPerformanceSnapshot
         snapshotStart.getJointPortfolio().getPositions().stream().forEach(p -> valuation.get(p.getInvestmentVehicle())
                         .subtract(p.calculateValue().with(converter.at(snapshotStart.getTime()))));
 
-        for (PortfolioTransaction t : snapshotStart.getJointPortfolio().getSource().getTransactions())
+        Portfolio jointPortfolio = snapshotStart.getJointPortfolio().getSource();
+        for (PortfolioTransaction t : period.getTransactions(jointPortfolio.getDateIndex()))
         {
-            if (!period.containsTransaction().test(t))
-                continue;
-
             switch (t.getType())
             {
                 case BUY:
@@ -291,6 +289,10 @@ public class ClientPerformanceSnapshot
 
         Map<Security, MutableMoney> earningsBySecurity = new HashMap<>();
 
+        // the earnings, fees and taxes are listed in the order of the
+        // transactions of the accounts and portfolios, hence the transactions
+        // are not taken from the date index
+
         for (Account account : client.getAccounts())
         {
             for (AccountTransaction t : account.getTransactions())
@@ -444,11 +446,8 @@ public class ClientPerformanceSnapshot
             value.subtract(snapshot.getFunds());
 
             // add and subtract transactions
-            for (AccountTransaction t : snapshot.getAccount().getTransactions())
+            for (AccountTransaction t : period.getTransactions(snapshot.getAccount().getDateIndex()))
             {
-                if (!period.containsTransaction().test(t))
-                    continue;
-
                 switch (t.getType())
                 {
                     case DIVIDENDS:
@@ -0,0 +1,191 @@
+package name.abuchen.portfolio.snapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+import name.abuchen.portfolio.model.Account;
+import name.abuchen.portfolio.model.AccountTransaction;
+import name.abuchen.portfolio.model.Client;
+import name.abuchen.portfolio.model.InvestmentVehicle;
+import name.abuchen.portfolio.model.Portfolio;
+import name.abuchen.portfolio.model.PortfolioTransaction;
+import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.money.CurrencyConverter;
+import name.abuchen.portfolio.money.Money;
+import name.abuchen.portfolio.money.Values;
+import name.abuchen.portfolio.snapshot.filter.ReadOnlyAccount;
+
+/**
+ * Rolls the cash balances and share holdings of a client forward in time.
+ * <p/>
+ * The transactions are sorted once upon construction. Moving the sweep to a
+ * later date only applies the transactions in between, and the valuation
+ * re-prices the currently open positions. The valuation is identical to the
+ * one of {@link ClientSnapshot#create} for the same date.
+ */
+public class HoldingsSweep
+{
+    private static class AccountHolding
+    {
+        private final Account account;
+        private final List<AccountTransaction> transactions;
+        private int next = 0;
+        private long balance = 0;
+
+        private AccountHolding(Account account)
+        {
+            this.account = account;
+            this.transactions = new ArrayList<>(account.getTransactions());
+            this.transactions.sort(new Transaction.ByDate());
+        }
+
+        private void moveTo(LocalDate date)
+        {
+            while (next < transactions.size() && !transactions.get(next).getDate().isAfter(date))
+            {
+                AccountTransaction t = transactions.get(next++);
+                if (t.getType().isDebit())
+                    balance -= t.getAmount();
+                else
+                    balance += t.getAmount();
+            }
+        }
+
+        private long calculateValue(CurrencyConverter converter, LocalDate date)
+        {
+            return converter.convert(date, account.getCurrencyCode(), balance);
+        }
+    }
+
+    private static class SecurityHolding
+    {
+        private final Security security;
+        private long shares = 0;
+
+        private SecurityHolding(Security security)
+        {
+            this.security = security;
+        }
+
+        private long calculateValue(CurrencyConverter converter, LocalDate date)
+        {
+            // same arithmetic as SecurityPosition#calculateValue to guarantee
+            // identical rounding
+            long price = security.getSecurityPriceValue(date);
+            double marketValue = shares * price / Values.Share.divider() / Values.Quote.dividerToMoney();
+            return converter.convert(date, security.getCurrencyCode(), Math.round(marketValue));
+        }
+    }
+
+    private final CurrencyConverter converter;
+
+    private final List<AccountHolding> accounts = new ArrayList<>();
+
+    private final List<PortfolioTransaction> transactions = new ArrayList<>();
+    private final Map<Security, SecurityHolding> securities = new LinkedHashMap<>();
+    private int next = 0;
+
+    private LocalDate date;
+
+    public HoldingsSweep(Client client, CurrencyConverter converter)
+    {
+        this.converter = Objects.requireNonNull(converter);
+
+        for (Account account : client.getAccounts())
+            accounts.add(new AccountHolding(account));
+
+        // positions are valued across all portfolios (like the joint
+        // portfolio) to reduce rounding errors if a security is split across
+        // multiple portfolios
+        for (Portfolio portfolio : client.getPortfolios())
+            transactions.addAll(portfolio.getTransactions());
+        transactions.sort(new Transaction.ByDate());
+    }
+
+    /**
+     * Applies all transactions up to and including the given date. The sweep
+     * only moves forward, i.e. the date must not be before the date of the
+     * previous call.
+     */
+    public void moveTo(LocalDate date)
+    {
+        if (this.date != null && date.isBefore(this.date))
+            throw new IllegalArgumentException(date + " < " + this.date); //$NON-NLS-1$
+
+        this.date = date;
+
+        for (AccountHolding holding : accounts)
+            holding.moveTo(date);
+
+        while (next < transactions.size() && !transactions.get(next).getDate().isAfter(date))
+        {
+            PortfolioTransaction t = transactions.get(next++);
+
+            SecurityHolding holding = securities.computeIfAbsent(t.getSecurity(), SecurityHolding::new);
+            if (t.getType().isPurchase())
+                holding.shares += t.getShares();
+            else
+                holding.shares -= t.getShares();
+        }
+    }
+
+    public LocalDate getDate()
+    {
+        return date;
+    }
+
+    /**
+     * Returns the total value of all accounts and portfolios in the term
+     * currency of the converter at the current date of the sweep.
+     */
+    public Money getMonetaryAssets()
+    {
+        if (date == null)
+            throw new IllegalStateException();
+
+        long sum = 0;
+
+        for (AccountHolding holding : accounts)
+            sum += holding.calculateValue(converter, date);
+
+        for (SecurityHolding holding : securities.values())
+        {
+            if (holding.shares != 0)
+                sum += holding.calculateValue(converter, date);
+        }
+
+        return Money.of(converter.getTermCurrency(), sum);
+    }
+
+    /**
+     * Passes the value of each investment vehicle in the term currency of the
+     * converter at the current date of the sweep. Like
+     * {@link ClientSnapshot#getPositionsByVehicle}, all accounts are passed
+     * (read-only accounts as their source account), but only securities with
+     * shares.
+     */
+    public void forEachValuation(ObjLongConsumer<InvestmentVehicle> action)
+    {
+        if (date == null)
+            throw new IllegalStateException();
+
+        for (AccountHolding holding : accounts)
+        {
+            Account account = holding.account;
+            action.accept(account instanceof ReadOnlyAccount ? ((ReadOnlyAccount) account).getSource() : account,
+                            holding.calculateValue(converter, date));
+        }
+
+        for (SecurityHolding holding : securities.values())
+        {
+            if (holding.shares != 0)
+                action.accept(holding.security, holding.calculateValue(converter, date));
+        }
+    }
+}
@@ -198,7 +198,7 @@ public class PerformanceIndex
         return outboundTransferals;
     }
 
-    public Drawdown getDrawdown()
+    public synchronized Drawdown getDrawdown()
     {
         if (drawdown == null)
             drawdown = new Drawdown(accumulated, dates);
@@ -206,7 +206,7 @@ public class PerformanceIndex
         return drawdown;
     }
 
-    public Volatility getVolatility()
+    public synchronized Volatility getVolatility()
     {
         if (volatility == null)
             volatility = new Volatility(delta, filterReturnsForVolatilityCalculation());
@@ -231,7 +231,7 @@ public class PerformanceIndex
         return index -> index > 0 && totals[index] != 0 && totals[index - 1] != 0 && !calendar.isHoliday(dates[index]);
     }
 
-    public ClientPerformanceSnapshot getClientPerformanceSnapshot()
+    public synchronized ClientPerformanceSnapshot getClientPerformanceSnapshot()
     {
         if (performanceSnapshot == null)
             performanceSnapshot = new ClientPerformanceSnapshot(client, converter, reportInterval);
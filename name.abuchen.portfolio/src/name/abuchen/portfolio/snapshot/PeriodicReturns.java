@@ -0,0 +1,111 @@
+package name.abuchen.portfolio.snapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import name.abuchen.portfolio.util.Interval;
+
+/**
+ * Derives the returns of sub-periods from one daily performance index. The
+ * return of a sub-period chains the daily deltas of all days within the
+ * period. Because the delta of a day depends only on the valuation of the day
+ * before and the transferals of the day, the result is the same as
+ * calculating a separate performance index for the sub-period.
+ */
+public class PeriodicReturns
+{
+    public static class Slice
+    {
+        private final Interval interval;
+        private final double delta;
+
+        /* package */ Slice(Interval interval, double delta)
+        {
+            this.interval = interval;
+            this.delta = delta;
+        }
+
+        /**
+         * Returns the interval of the slice, i.e. from the last day of the
+         * previous period (exclusive) until the last day of the period
+         * (inclusive).
+         */
+        public Interval getInterval()
+        {
+            return interval;
+        }
+
+        public double getDelta()
+        {
+            return delta;
+        }
+    }
+
+    private final LocalDate[] dates;
+    private final double[] delta;
+
+    public PeriodicReturns(PerformanceIndex index)
+    {
+        this.dates = index.getDates();
+        this.delta = index.getDeltaPercentage();
+    }
+
+    /**
+     * Returns the return of the given interval. As with reporting periods, the
+     * start date is the reference date, i.e. the delta of the start date is
+     * not included. The interval is clipped to the dates of the index.
+     */
+    public double getReturn(Interval interval)
+    {
+        int start = indexAfter(interval.getStart());
+        int end = indexAfter(interval.getEnd()) - 1;
+
+        return chain(start, end);
+    }
+
+    /**
+     * Splits the index into calendar periods, e.g. months or years. The first
+     * and the last slice cover only the part of the period which is included
+     * in the index.
+     */
+    public List<Slice> slice(Aggregation.Period period)
+    {
+        List<Slice> answer = new ArrayList<>();
+        if (dates.length == 0)
+            return answer;
+
+        int start = 0;
+        while (start < dates.length)
+        {
+            LocalDate periodStart = period.getStartDateFor(dates[start]);
+            LocalDate periodEnd = periodStart.plus(period.getPeriod()).minusDays(1);
+
+            int end = indexAfter(periodEnd) - 1;
+
+            answer.add(new Slice(Interval.of(periodStart.minusDays(1), periodEnd), chain(start, end)));
+
+            start = end + 1;
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns the index of the first date after the given date.
+     */
+    private int indexAfter(LocalDate date)
+    {
+        int index = Arrays.binarySearch(dates, date);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    private double chain(int start, int end)
+    {
+        double answer = 0d;
+        for (int ii = start; ii <= end; ii++)
+            answer = ((answer + 1) * (delta[ii] + 1)) - 1;
+        return answer;
+    }
+}
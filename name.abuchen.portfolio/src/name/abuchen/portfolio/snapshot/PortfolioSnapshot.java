@@ -14,7 +14,6 @@ import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.model.Taxonomy;
 import name.abuchen.portfolio.money.CurrencyConverter;
 import name.abuchen.portfolio.money.Money;
-import name.abuchen.portfolio.money.MoneyCollectors;
 import name.abuchen.portfolio.snapshot.filter.ReadOnlyPortfolio;
 
 public class PortfolioSnapshot
@@ -25,9 +24,9 @@ public class PortfolioSnapshot
 
     public static PortfolioSnapshot create(Portfolio portfolio, CurrencyConverter converter, LocalDate date)
     {
-        List<SecurityPosition> positions = portfolio.getTransactions() //
+        List<SecurityPosition> positions = portfolio.getDateIndex() //
+                        .getTransactionsUntil(date) //
                         .stream() //
-                        .filter(t -> !t.getDate().isAfter(date)) //
                         .collect(Collectors.groupingBy(t -> t.getSecurity())) //
                         .entrySet() //
                         .stream() //
@@ -118,10 +117,15 @@ public class PortfolioSnapshot
 
     public Money getValue()
     {
-        return positions.stream() //
-                        .map(SecurityPosition::calculateValue) //
-                        .map(money -> money.with(converter.at(date))) //
-                        .collect(MoneyCollectors.sum(converter.getTermCurrency()));
+        long sum = 0;
+
+        for (SecurityPosition position : positions)
+        {
+            Money value = position.calculateValue();
+            sum += converter.convert(date, value.getCurrencyCode(), value.getAmount());
+        }
+
+        return Money.of(converter.getTermCurrency(), sum);
     }
 
     public GroupByTaxonomy groupByTaxonomy(Taxonomy taxonomy)
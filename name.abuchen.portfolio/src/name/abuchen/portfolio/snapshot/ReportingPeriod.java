@@ -5,10 +5,12 @@ import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.List;
 import java.util.function.Predicate;
 
 import name.abuchen.portfolio.Messages;
 import name.abuchen.portfolio.model.Transaction;
+import name.abuchen.portfolio.model.TransactionDateIndex;
 import name.abuchen.portfolio.util.Interval;
 import name.abuchen.portfolio.util.TradeCalendar;
 
@@ -65,6 +67,15 @@ public abstract class ReportingPeriod
         return t -> t.getDate().isAfter(startDate) && !t.getDate().isAfter(endDate);
     }
 
+    /**
+     * Returns the transactions of the index which are contained in the
+     * reporting period (see {@link #containsTransaction()}).
+     */
+    public final <T extends Transaction> List<T> getTransactions(TransactionDateIndex<T> index)
+    {
+        return index.getTransactions(startDate.plusDays(1), endDate);
+    }
+
     public final Interval toInterval()
     {
         // reported via forum: if the user selects as 'since' date something in
@@ -104,13 +104,13 @@ import name.abuchen.portfolio.util.Interval;
 
     private long convert(CurrencyConverter converter, Security security, LocalDate date)
     {
-        SecurityPrice price = security.getSecurityPrice(date);
+        long price = security.getSecurityPriceValue(date);
         if (converter == null)
-            return price.getValue();
+            return price;
 
         // use the picked date for currency conversion, not the date of the
         // quote. This could differ for example on weekends.
-        return converter.convert(date, Money.of(security.getCurrencyCode(), price.getValue())).getAmount();
+        return converter.convert(date, Money.of(security.getCurrencyCode(), price)).getAmount();
     }
 
     private void initEmpty(PerformanceIndex clientIndex)
@@ -12,6 +12,7 @@ import name.abuchen.portfolio.model.Client;
 import name.abuchen.portfolio.model.Portfolio;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
+import name.abuchen.portfolio.model.SecurityTransactionIndex;
 import name.abuchen.portfolio.model.Transaction.Unit;
 import name.abuchen.portfolio.model.TransactionPair;
 
@@ -45,20 +46,22 @@ public class ClientSecurityFilter implements ClientFilter
             return pseudoPortfolio;
         });
 
+        SecurityTransactionIndex index = new SecurityTransactionIndex(client);
+
         for (Security security : securities)
         {
             pseudoClient.internalAddSecurity(security);
-            addSecurity(client, transformPortfolio, transformAccount, security);
+            addSecurity(index, transformPortfolio, transformAccount, security);
         }
 
         return pseudoClient;
     }
 
     @SuppressWarnings("unchecked")
-    private void addSecurity(Client client, Function<Portfolio, ReadOnlyPortfolio> getPortfolio,
+    private void addSecurity(SecurityTransactionIndex index, Function<Portfolio, ReadOnlyPortfolio> getPortfolio,
                     Function<Account, ReadOnlyAccount> getAccount, Security security)
     {
-        List<TransactionPair<?>> transactions = security.getTransactions(client);
+        List<TransactionPair<?>> transactions = index.getTransactions(security);
 
         for (TransactionPair<?> pair : transactions)
         {
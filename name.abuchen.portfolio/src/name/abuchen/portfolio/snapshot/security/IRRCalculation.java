@@ -1,8 +1,7 @@
 package name.abuchen.portfolio.snapshot.security;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import name.abuchen.portfolio.math.IRR;
 import name.abuchen.portfolio.model.AccountTransaction;
@@ -13,32 +12,42 @@ import name.abuchen.portfolio.money.Values;
 
 /* package */class IRRCalculation extends Calculation
 {
-    private List<LocalDate> dates = new ArrayList<>();
-    private List<Double> values = new ArrayList<>();
+    private int[] days = new int[16];
+    private double[] values = new double[16];
+    private int size;
+
+    private void add(LocalDate date, double value)
+    {
+        if (size == days.length)
+        {
+            days = Arrays.copyOf(days, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        days[size] = (int) date.toEpochDay();
+        values[size] = value;
+        size++;
+    }
 
     @Override
     public void visit(CurrencyConverter converter, DividendInitialTransaction t)
     {
-        dates.add(t.getDate());
-        values.add(-t.getMonetaryAmount().with(converter.at(t.getDate())).getAmount() / Values.Amount.divider());
+        add(t.getDate(), -t.getMonetaryAmount().with(converter.at(t.getDate())).getAmount() / Values.Amount.divider());
     }
 
     @Override
     public void visit(CurrencyConverter converter, DividendFinalTransaction t)
     {
-        dates.add(t.getDate());
-        values.add(t.getMonetaryAmount().with(converter.at(t.getDate())).getAmount() / Values.Amount.divider());
+        add(t.getDate(), t.getMonetaryAmount().with(converter.at(t.getDate())).getAmount() / Values.Amount.divider());
     }
 
     @Override
     public void visit(CurrencyConverter converter, DividendTransaction t)
     {
-        dates.add(t.getDate());
-
         long taxes = t.getUnitSum(Unit.Type.TAX, converter).getAmount();
         long amount = t.getMonetaryAmount().with(converter.at(t.getDate())).getAmount();
 
-        values.add((amount + taxes) / Values.Amount.divider());
+        add(t.getDate(), (amount + taxes) / Values.Amount.divider());
     }
 
     @Override
@@ -50,7 +59,6 @@ import name.abuchen.portfolio.money.Values;
     @Override
     public void visit(CurrencyConverter converter, PortfolioTransaction t)
     {
-        dates.add(t.getDate());
         long taxes = t.getUnitSum(Unit.Type.TAX, converter).getAmount();
         long amount = t.getMonetaryAmount(converter).getAmount();
         switch (t.getType())
@@ -58,12 +66,12 @@ import name.abuchen.portfolio.money.Values;
             case BUY:
             case DELIVERY_INBOUND:
             case TRANSFER_IN:
-                values.add((-amount + taxes) / Values.Amount.divider());
+                add(t.getDate(), (-amount + taxes) / Values.Amount.divider());
                 break;
             case SELL:
             case DELIVERY_OUTBOUND:
             case TRANSFER_OUT:
-                values.add((amount + taxes) / Values.Amount.divider());
+                add(t.getDate(), (amount + taxes) / Values.Amount.divider());
                 break;
             default:
                 throw new UnsupportedOperationException();
@@ -74,9 +82,9 @@ import name.abuchen.portfolio.money.Values;
     {
         // see #457: if the reporting period contains only tax refunds, dates
         // (and values) can be empty and no IRR can be calculated
-        if (dates.isEmpty())
+        if (size == 0)
             return Double.NaN;
 
-        return IRR.calculate(dates, values);
+        return IRR.calculate(days, values, size);
     }
 }
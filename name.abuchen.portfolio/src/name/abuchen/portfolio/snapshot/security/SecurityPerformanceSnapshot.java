@@ -1,8 +1,7 @@
 package name.abuchen.portfolio.snapshot.security;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +18,12 @@ import name.abuchen.portfolio.snapshot.filter.PortfolioClientFilter;
 
 public class SecurityPerformanceSnapshot
 {
+    /**
+     * System property to calculate the records sequentially, e.g. to make
+     * calculations reproducible when analyzing differences.
+     */
+    public static final String SEQUENTIAL_PROPERTY = "name.abuchen.portfolio.snapshot.sequential"; //$NON-NLS-1$
+
     public static SecurityPerformanceSnapshot create(Client client, CurrencyConverter converter, ReportingPeriod period)
     {
         Map<Security, SecurityPerformanceRecord> transactions = initRecords(client);
@@ -42,7 +47,9 @@ public class SecurityPerformanceSnapshot
 
     private static Map<Security, SecurityPerformanceRecord> initRecords(Client client)
     {
-        Map<Security, SecurityPerformanceRecord> records = new HashMap<>();
+        // keep the order of the securities to return the records in a
+        // deterministic order
+        Map<Security, SecurityPerformanceRecord> records = new LinkedHashMap<>();
 
         for (Security s : client.getSecurities())
             records.put(s, new SecurityPerformanceRecord(s));
@@ -52,38 +59,34 @@ public class SecurityPerformanceSnapshot
     private static SecurityPerformanceSnapshot doCreateSnapshot(Client client, CurrencyConverter converter,
                     Map<Security, SecurityPerformanceRecord> records, ReportingPeriod period)
     {
-        List<SecurityPerformanceRecord> list = new ArrayList<>(records.values());
+        List<SecurityPerformanceRecord> list = new ArrayList<>();
 
-        for (Iterator<SecurityPerformanceRecord> iter = list.iterator(); iter.hasNext();)
+        // remove records that have no transactions during the reporting period
+        for (SecurityPerformanceRecord record : records.values())
         {
-            SecurityPerformanceRecord record = iter.next();
-            if (record.getTransactions().isEmpty())
-            {
-                // remove records that have no transactions
-                // during the reporting period
-                iter.remove();
-            }
-            else
-            {
-                // calculate values for each security
-                record.calculate(client, converter, period);
-            }
+            if (!record.getTransactions().isEmpty())
+                list.add(record);
         }
 
+        // calculate values for each security. The records are independent of
+        // each other and are calculated in parallel on the common fork join
+        // pool. The currency converter and the client are only read.
+        if (Boolean.getBoolean(SEQUENTIAL_PROPERTY))
+            list.forEach(record -> record.calculate(client, converter, period));
+        else
+            list.parallelStream().forEach(record -> record.calculate(client, converter, period));
+
         return new SecurityPerformanceSnapshot(list);
     }
 
     private static void extractSecurityRelatedAccountTransactions(Account account, ReportingPeriod period,
                     Map<Security, SecurityPerformanceRecord> records)
     {
-        for (AccountTransaction t : account.getTransactions())
+        for (AccountTransaction t : period.getTransactions(account.getDateIndex()))
         {
             if (t.getSecurity() == null)
                 continue;
 
-            if (!period.containsTransaction().test(t))
-                continue;
-
             if (t.getType() == AccountTransaction.Type.DIVIDENDS //
                             || t.getType() == AccountTransaction.Type.INTEREST)
             {
@@ -108,8 +111,7 @@ public class SecurityPerformanceSnapshot
     private static void extractSecurityRelatedPortfolioTransactions(Portfolio portfolio, ReportingPeriod period,
                     Map<Security, SecurityPerformanceRecord> records)
     {
-        portfolio.getTransactions().stream() //
-                        .filter(period.containsTransaction()) //
+        period.getTransactions(portfolio.getDateIndex()) //
                         .forEach(t -> records.get(t.getSecurity()).addTransaction(t));
     }
 
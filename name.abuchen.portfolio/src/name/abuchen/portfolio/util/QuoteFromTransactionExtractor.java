@@ -7,6 +7,7 @@ import name.abuchen.portfolio.model.LatestSecurityPrice;
 import name.abuchen.portfolio.model.PortfolioTransaction;
 import name.abuchen.portfolio.model.Security;
 import name.abuchen.portfolio.model.SecurityPrice;
+import name.abuchen.portfolio.model.SecurityTransactionIndex;
 import name.abuchen.portfolio.model.Transaction;
 import name.abuchen.portfolio.model.TransactionPair;
 import name.abuchen.portfolio.money.Quote;
@@ -22,6 +23,7 @@ public class QuoteFromTransactionExtractor
 {
 
     private final Client client;
+    private SecurityTransactionIndex index;
 
     /**
      * Constructs an instance.
@@ -45,8 +47,13 @@ public class QuoteFromTransactionExtractor
     {
         boolean bChanges = false;
         SecurityPrice pLatest = null;
+        // index the transactions once if quotes of multiple securities are
+        // extracted
+        if (index == null)
+            index = new SecurityTransactionIndex(client);
+
         // walk through all all transactions for securiy
-        for (TransactionPair<?> p : security.getTransactions(client))
+        for (TransactionPair<?> p : index.getTransactions(security))
         {
             Transaction t = p.getTransaction();
             // check the type of the transaction